@@ -0,0 +1,69 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.exception.NotFoundException;
+import com.spadeboot.service.AvatarService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/avatars")
+public class AvatarController {
+
+    // Tomcat writes the file with sendfile() after the servlet returns when these are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private AvatarService avatarService;
+
+    /**
+     * Serve an avatar. The URL contains the content hash, so responses never change and
+     * are cached for a year.
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getAvatar(@PathVariable String hash,
+                                              @RequestParam(defaultValue = "" + AvatarService.DEFAULT_SIZE) int size,
+                                              WebRequest webRequest,
+                                              HttpServletRequest request) throws IOException {
+        Path file = avatarService.getFile(hash, size);
+        if (file == null) {
+            throw new NotFoundException("Avatar not found");
+        }
+
+        String etag = "\"" + hash + "-" + AvatarService.closestSize(size) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        long length = Files.size(file);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.IMAGE_PNG)
+                .contentLength(length);
+
+        // Zero-copy from the page cache to the socket, the servlet writes no body itself
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.build();
+        }
+
+        return response.body(new FileSystemResource(file));
+    }
+}
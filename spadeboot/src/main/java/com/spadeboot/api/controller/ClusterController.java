@@ -0,0 +1,53 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.cluster.ClusterNode;
+import com.spadeboot.cluster.TableReplicator;
+import com.spadeboot.session.SessionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cluster")
+@PreAuthorize("hasRole('ADMIN')")
+public class ClusterController {
+
+    @Autowired
+    private ClusterNode clusterNode;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private TableReplicator tableReplicator;
+
+    @GetMapping
+    public ResponseEntity<?> getStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", clusterNode.isEnabled());
+        response.put("nodeId", clusterNode.getNodeId());
+        response.put("ring", clusterNode.getRingNodeIds());
+        response.put("tables", sessionManager.getResidentTableIds().size());
+        response.put("replication", tableReplicator.isActive());
+        response.put("replicas", tableReplicator.getReplicaCount());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Move all tables of this node to the others between two hands, before taking it down.
+     * Blocks until drained or the handover timeout has passed.
+     */
+    @PostMapping("/drain")
+    public ResponseEntity<?> drain() throws InterruptedException {
+        int remaining = clusterNode.drain();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", remaining == 0);
+        response.put("remainingTables", remaining);
+        return ResponseEntity.ok(response);
+    }
+}
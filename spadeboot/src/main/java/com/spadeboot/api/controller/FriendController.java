@@ -2,6 +2,9 @@
 package com.spadeboot.api.controller;
 
 import com.spadeboot.api.dto.request.FriendRequestDto;
+import com.spadeboot.api.dto.response.FriendPresenceDto;
+import com.spadeboot.api.dto.response.FriendSuggestionDto;
+import com.spadeboot.service.suggestion.SuggestionService;
 import com.spadeboot.api.dto.response.FriendshipDto;
 import com.spadeboot.service.FriendService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +52,17 @@ public class FriendController {
         return ResponseEntity.ok(friendService.getFriends());
     }
 
+    @GetMapping("/online")
+    public ResponseEntity<List<FriendPresenceDto>> getOnlineFriends() {
+        return ResponseEntity.ok(friendService.getOnlineFriends());
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<FriendSuggestionDto>> getFriendSuggestions(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(friendService.getFriendSuggestions(Math.min(limit, SuggestionService.TOP_N)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FriendshipDto> getFriendship(@PathVariable Long id) {
         return ResponseEntity.ok(friendService.getFriendship(id));
@@ -1,10 +1,14 @@
 // src/main/java/com/pokerapp/api/controller/GameController.java
 package com.spadeboot.api.controller;
 
+import com.spadeboot.exception.CapacityExceededException;
 import com.spadeboot.service.GameService;
 import com.spadeboot.service.UserService;
+import com.spadeboot.session.bot.BotStrategyType;
 import com.spadeboot.api.dto.GameStateDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,11 +31,13 @@ public class GameController {
     @PostMapping("/tables/{tableId}/start")
     public ResponseEntity<?> startGame(
             @PathVariable Long tableId,
-            @RequestParam(defaultValue = "20") int bigBlind) {
+            @RequestParam(defaultValue = "20") int bigBlind,
+            @RequestParam(defaultValue = "0") int bots,
+            @RequestParam(defaultValue = "TIGHT_AGGRESSIVE") BotStrategyType botStrategy) {
 
         try {
             Long userId = userService.getCurrentUser().getId();
-            GameStateDto gameState = gameService.startGame(tableId, userId, bigBlind);
+            GameStateDto gameState = gameService.startGame(tableId, userId, bigBlind, bots, botStrategy);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -39,6 +45,8 @@ public class GameController {
             response.put("gameState", gameState);
 
             return ResponseEntity.ok(response);
+        } catch (CapacityExceededException e) {
+            return unavailable(e);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -66,6 +74,60 @@ public class GameController {
         }
     }
 
+    @PostMapping("/tables/{tableId}/fast-fold/start")
+    public ResponseEntity<?> startFastFold(
+            @PathVariable Long tableId,
+            @RequestParam(defaultValue = "20") int bigBlind) {
+
+        try {
+            Long userId = userService.getCurrentUser().getId();
+            int players = gameService.startFastFold(tableId, userId, bigBlind);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Fast-fold pool started");
+            response.put("players", players);
+
+            return ResponseEntity.ok(response);
+        } catch (CapacityExceededException e) {
+            return unavailable(e);
+        } catch (Exception e) {
+            return badRequest(e);
+        }
+    }
+
+    @PostMapping("/tables/{tableId}/fast-fold/end")
+    public ResponseEntity<?> endFastFold(@PathVariable Long tableId) {
+        try {
+            gameService.endFastFold(tableId, userService.getCurrentUser().getId());
+            return ok("Fast-fold pool ended");
+        } catch (Exception e) {
+            return badRequest(e);
+        }
+    }
+
+    @PostMapping("/tables/{tableId}/fast-fold/join")
+    public ResponseEntity<?> joinFastFold(@PathVariable Long tableId) {
+        try {
+            gameService.joinFastFold(tableId, userService.getCurrentUser().getId());
+            return ok("Joined the fast-fold pool");
+        } catch (CapacityExceededException e) {
+            return unavailable(e);
+        } catch (Exception e) {
+            return badRequest(e);
+        }
+    }
+
+    @PostMapping("/tables/{tableId}/fast-fold/leave")
+    public ResponseEntity<?> leaveFastFold(@PathVariable Long tableId) {
+        try {
+            gameService.leaveFastFold(tableId, userService.getCurrentUser().getId());
+            return ok("Left the fast-fold pool");
+        } catch (Exception e) {
+            return badRequest(e);
+        }
+    }
+
     @GetMapping("/tables/{tableId}/status")
     public ResponseEntity<?> getGameStatus(@PathVariable Long tableId) {
         try {
@@ -84,4 +146,27 @@ public class GameController {
             return ResponseEntity.ok(error); // Return 200 with error info
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<?> ok(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<?> badRequest(Exception e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    private static ResponseEntity<?> unavailable(CapacityExceededException e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+}
@@ -0,0 +1,49 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.api.dto.response.LeaderboardEntryDto;
+import com.spadeboot.service.UserService;
+import com.spadeboot.service.leaderboard.LeaderboardMetric;
+import com.spadeboot.service.leaderboard.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDto>> getTop(
+            @RequestParam(defaultValue = "BALANCE") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(metric, limit));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntryDto> getMyRank(@RequestParam(defaultValue = "BALANCE") LeaderboardMetric metric) {
+        Long userId = userService.getCurrentUserId();
+        return ResponseEntity.ok(leaderboardService.getRank(metric, userId));
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDto> getUserRank(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "BALANCE") LeaderboardMetric metric) {
+        return ResponseEntity.ok(leaderboardService.getRank(metric, userId));
+    }
+
+    @GetMapping("/friends")
+    public ResponseEntity<List<LeaderboardEntryDto>> getFriendsLeaderboard(
+            @RequestParam(defaultValue = "BALANCE") LeaderboardMetric metric) {
+        Long userId = userService.getCurrentUserId();
+        return ResponseEntity.ok(leaderboardService.getFriendsLeaderboard(metric, userId));
+    }
+}
@@ -0,0 +1,43 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.service.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ledger")
+@PreAuthorize("hasRole('ADMIN')")
+public class LedgerController {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    /**
+     * Balance of a user at a point in time, now if no time is given
+     */
+    @GetMapping("/users/{userId}/balance")
+    public ResponseEntity<Map<String, Object>> getBalanceAt(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        return ResponseEntity.ok(Map.of(
+                "userId", userId,
+                "at", pointInTime,
+                "balance", ledgerService.getBalanceAt(userId, pointInTime)));
+    }
+
+    /**
+     * Transfers whose entries do not sum to zero, empty when the ledger is consistent
+     */
+    @GetMapping("/audit")
+    public ResponseEntity<List<String>> audit() {
+        return ResponseEntity.ok(ledgerService.findUnbalancedTransfers());
+    }
+}
@@ -32,7 +32,7 @@ public class PlayerController {
     @GetMapping("/me")
     public ResponseEntity<PlayerDto> getCurrentPlayer() {
         Long userId = userService.getCurrentUser().getId();
-        Player player = playerRepository.findByUserId(userId).orElseThrow(() -> new NotFoundException("Error fetching Player with user ID: " + userId));
+        Player player = playerRepository.findWithUserByUserId(userId).orElseThrow(() -> new NotFoundException("Error fetching Player with user ID: " + userId));
         PlayerDto playerDto = convertToDto(player);
         return ResponseEntity.ok(playerDto);
     }
@@ -0,0 +1,36 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.service.simulation.SimulationReport;
+import com.spadeboot.service.simulation.SimulationService;
+import com.spadeboot.service.simulation.SimulationSettings;
+import com.spadeboot.session.bot.BotStrategyType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/simulations")
+@PreAuthorize("hasRole('ADMIN')")
+public class SimulationController {
+
+    @Autowired
+    private SimulationService simulationService;
+
+    /**
+     * Simulate hands between bots and report the outcome distributions. Blocks until done.
+     */
+    @PostMapping
+    public ResponseEntity<SimulationReport> simulate(
+            @RequestParam(defaultValue = "100000") long hands,
+            @RequestParam(defaultValue = "6") int seats,
+            @RequestParam(defaultValue = "1000") int stack,
+            @RequestParam(defaultValue = "20") int bigBlind,
+            @RequestParam(defaultValue = "RANDOM,TIGHT_AGGRESSIVE") List<BotStrategyType> strategies,
+            @RequestParam(defaultValue = "42") long seed) {
+        SimulationSettings settings = new SimulationSettings(hands, seats, stack, bigBlind, strategies, seed);
+        return ResponseEntity.ok(simulationService.run(settings));
+    }
+}
@@ -0,0 +1,30 @@
+package com.spadeboot.api.controller;
+
+import com.spadeboot.api.dto.response.StatisticsDto;
+import com.spadeboot.service.StatisticsService;
+import com.spadeboot.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/me")
+    public ResponseEntity<StatisticsDto> getMyStatistics() {
+        Long userId = userService.getCurrentUser().getId();
+        return ResponseEntity.ok(statisticsService.getUserStatistics(userId));
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<StatisticsDto> getUserStatistics(@PathVariable Long userId) {
+        return ResponseEntity.ok(statisticsService.getUserStatistics(userId));
+    }
+}
@@ -2,13 +2,16 @@
 package com.spadeboot.api.controller;
 
 import com.spadeboot.api.dto.request.TableSettingsDto;
+import com.spadeboot.api.dto.response.LobbyPageDto;
 import com.spadeboot.api.dto.response.TableDto;
 import com.spadeboot.domain.user.User;
+import com.spadeboot.service.LobbyService;
 import com.spadeboot.service.TableService;
 import com.spadeboot.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 
@@ -26,6 +29,9 @@ public class TableController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LobbyService lobbyService;
+
     @PostMapping
     public ResponseEntity<TableDto> createTable(@Valid @RequestBody TableSettingsDto settings) {
         User currentUser = userService.getCurrentUser();
@@ -50,6 +56,30 @@ public class TableController {
         return ResponseEntity.ok(tableService.getPublicTables());
     }
 
+    /**
+     * Filtered, keyset-paged lobby. Answers 304 while nothing in the lobby has changed.
+     */
+    @GetMapping("/lobby")
+    public ResponseEntity<LobbyPageDto> getLobby(
+            @RequestParam(required = false) Integer minStake,
+            @RequestParam(required = false) Integer maxStake,
+            @RequestParam(required = false) Integer minFreeSeats,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + LobbyService.DEFAULT_PAGE_SIZE) int limit,
+            WebRequest webRequest) {
+        // The ETag only depends on the lobby version, the query is part of the URL it is cached under
+        String etag = "\"" + lobbyService.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        LobbyPageDto page = lobbyService.getPage(minStake, maxStake, minFreeSeats, q, after, limit);
+        return ResponseEntity.ok()
+                .eTag("\"" + page.getVersion() + "\"")
+                .body(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TableDto> getTableById(@PathVariable Long id) {
         return ResponseEntity.ok(tableService.getTableById(id));
@@ -4,6 +4,7 @@ import com.spadeboot.api.dto.request.user.*;
 import com.spadeboot.api.dto.response.UserDto;
 import com.spadeboot.domain.user.User;
 import com.spadeboot.repository.PlayerRepository;
+import com.spadeboot.service.AvatarService;
 import com.spadeboot.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -111,13 +112,7 @@ public class UserController {
         dto.setEmail(user.getEmail());
         dto.setBalance(user.getBalance());
 
-        // Convert avatar bytes to base64 instead of sending raw bytes
-        if (user.getAvatar() != null) {
-            dto.setAvatarFromBytes(user.getAvatar());
-        } else {
-            dto.setAvatarBase64(null);
-        }
-
+        dto.setAvatarUrl(AvatarService.urlOf(user.getAvatarHash()));
         dto.setIsAdmin(user.isAdmin());
         return dto;
     }
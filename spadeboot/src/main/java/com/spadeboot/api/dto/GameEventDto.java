@@ -21,6 +21,7 @@ public class GameEventDto {
         COMMUNITY_CARDS_REVEALED,
         WINNER_DECLARED,
         POT_DISTRIBUTED,
+        FAST_FOLD_SEATED,
         ERROR
     }
 
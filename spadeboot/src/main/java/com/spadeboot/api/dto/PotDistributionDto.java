@@ -0,0 +1,16 @@
+package com.spadeboot.api.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One pot of a finished hand and who it went to. Index 0 is the main pot, higher indexes
+ * are side pots that only players with bigger stacks could win.
+ */
+@Data
+public class PotDistributionDto {
+    private int potIndex;
+    private int amount;
+    private List<WinnerDto> winners;
+}
@@ -0,0 +1,18 @@
+package com.spadeboot.api.dto;
+
+import lombok.Data;
+
+/**
+ * An action queued for the player's next turn, a null type clears it
+ */
+@Data
+public class PreActionDto {
+    public enum PreActionType {
+        CHECK_FOLD, // Check if nothing is bet, fold otherwise
+        CHECK,      // Check, dropped if someone bets first
+        CALL,       // Call the current bet, dropped if it changes
+        CALL_ANY    // Call whatever is bet, check if nothing is
+    }
+
+    private PreActionType type;
+}
@@ -0,0 +1,14 @@
+package com.spadeboot.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FriendPresenceDto {
+    private Long userId;
+    private String username;
+    private boolean online;
+    // Table the friend has open, null if they are only in the lobby
+    private Long tableId;
+}
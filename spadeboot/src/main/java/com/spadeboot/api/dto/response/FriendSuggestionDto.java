@@ -0,0 +1,14 @@
+package com.spadeboot.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FriendSuggestionDto {
+    private Long userId;
+    private String username;
+    private int mutualFriends;
+    // Hands played at the same table since the server started
+    private int handsTogether;
+}
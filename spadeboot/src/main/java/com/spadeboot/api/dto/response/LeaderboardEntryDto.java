@@ -0,0 +1,15 @@
+package com.spadeboot.api.dto.response;
+
+import com.spadeboot.service.leaderboard.LeaderboardMetric;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LeaderboardEntryDto {
+    private int rank; // 1-based
+    private Long userId;
+    private String username;
+    private LeaderboardMetric metric;
+    private long score;
+}
@@ -0,0 +1,14 @@
+package com.spadeboot.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class LobbyPageDto {
+    private List<TableDto> tables;
+    private Long nextCursor; // Pass as "after" to get the next page, null on the last page
+    private long version;
+}
@@ -0,0 +1,17 @@
+package com.spadeboot.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Coalesced lobby changes pushed on /topic/lobby
+ */
+@Getter
+@Setter
+public class LobbyUpdateDto {
+    private long version;
+    private List<TableDto> updated;
+    private List<Long> removed;
+}
@@ -0,0 +1,18 @@
+package com.spadeboot.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StatisticsDto {
+    private Long userId;
+    private long handsPlayed;
+    private long handsWon;
+    private double vpip;             // % of hands with money voluntarily put in pre-flop
+    private double pfr;              // % of hands raised pre-flop
+    private double aggressionFactor; // (bets + raises) / calls
+    private long showdownsSeen;
+    private double showdownWinRate;  // % of showdowns won
+    private long netChips;
+}
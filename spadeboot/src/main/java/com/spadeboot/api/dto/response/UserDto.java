@@ -3,8 +3,6 @@ package com.spadeboot.api.dto.response;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Base64;
-
 @Getter
 @Setter
 public class UserDto {
@@ -12,17 +10,6 @@ public class UserDto {
     private String username;
     private String email;
     private Integer balance;
-    private byte[] avatar;
     private Boolean isAdmin;
-    private String avatarBase64;
-
-    /**
-     * Utility method to convert avatar bytes to base64 string
-     * @param avatarBytes The raw avatar bytes from the database
-     */
-    public void setAvatarFromBytes(byte[] avatarBytes) {
-        if (avatarBytes != null) {
-            this.avatarBase64 = Base64.getEncoder().encodeToString(avatarBytes);
-        }
-    }
-}
\ No newline at end of file
+    private String avatarUrl; // Null if the user has no avatar, append ?size=64|128|256 for a thumbnail
+}
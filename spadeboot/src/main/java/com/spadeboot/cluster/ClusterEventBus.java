@@ -0,0 +1,19 @@
+package com.spadeboot.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries messages between the nodes of a cluster. Implementations must deliver the messages
+ * of one sender to a node in the order they were published, and never back to the sender.
+ */
+public interface ClusterEventBus {
+
+    void publish(ClusterMessage message);
+
+    /**
+     * Receive the messages broadcast or addressed to a node
+     */
+    void subscribe(String nodeId, Consumer<ClusterMessage> listener);
+
+    void unsubscribe(String nodeId);
+}
@@ -0,0 +1,33 @@
+package com.spadeboot.cluster;
+
+/**
+ * Message between the nodes of a cluster. Only the fields of its type are set.
+ * @param toNode Node the message is for, null to broadcast it to all other nodes
+ */
+public record ClusterMessage(Type type, String fromNode, String toNode, Long tableId, Long userId,
+                             String sessionId, String destination, byte[] payload) {
+
+    public enum Type {
+        TABLE_FRAME,        // Serialized event for a table topic, sent to local subscribers of every node
+        TABLE_COMMAND,      // STOMP action received for a table owned by another node, run by the owner
+        COMMAND_FAILED,     // Error of a forwarded command, sent to the user's session by the node it came from
+        NODE_DRAINING,      // The sender leaves the ring, its tables move to the remaining nodes
+        NODE_EVICTED,       // The sender took the receiver off its ring for missed heartbeats, the receiver fences itself
+        TABLE_MIGRATED,     // Snapshot of a running table, resumed by the new owner
+        TABLE_HIBERNATED,   // Snapshot of a table waiting for players, kept hibernated by the new owner
+        HEARTBEAT,          // The sender is alive, sent to all nodes at a fixed interval
+        REPLICA_CHECKPOINT, // Snapshot of a table between two hands, kept by its standby
+        REPLICA_HAND,       // Start of a hand with its deck, replayed by the standby of the table
+        REPLICA_ACTION,     // Action applied in a hand, replayed by the standby of the table
+        REPLICA_RELEASED    // The game of a table stopped, its standby drops the shadow
+    }
+
+    public static ClusterMessage broadcast(Type type, String fromNode, Long tableId, String destination,
+                                           byte[] payload) {
+        return new ClusterMessage(type, fromNode, null, tableId, null, null, destination, payload);
+    }
+
+    public static ClusterMessage to(String toNode, Type type, String fromNode, Long tableId, byte[] payload) {
+        return new ClusterMessage(type, fromNode, toNode, tableId, null, null, null, payload);
+    }
+}
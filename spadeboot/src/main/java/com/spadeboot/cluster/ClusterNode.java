@@ -0,0 +1,296 @@
+package com.spadeboot.cluster;
+
+import com.spadeboot.cluster.ClusterMessage.Type;
+import com.spadeboot.service.ChipStackService;
+import com.spadeboot.session.SessionManager;
+import com.spadeboot.session.TableHandover;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This node's view of the cluster. Tables are assigned to nodes by a consistent-hash ring
+ * over the configured nodes, only the owner of a table runs its game. Requests for other
+ * tables are redirected (REST) or forwarded (STOMP) to the owner, and the frames a table
+ * publishes are relayed to the subscribers connected to the other nodes.
+ *
+ * Disabled by default, a single node then owns every table and nothing goes over the bus.
+ */
+@Component
+public class ClusterNode {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ChipStackService chipStackService;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cluster.node-id:local}")
+    private String nodeId;
+
+    // Comma-separated id=base URL pairs, this node included: a=http://10.0.0.1:8080,b=http://10.0.0.2:8080
+    @Value("${app.cluster.nodes:}")
+    private String nodes;
+
+    @Value("${app.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${app.cluster.handover-timeout-ms:60000}")
+    private long handoverTimeoutMillis;
+
+    private final Map<String, String> nodeUrls = new LinkedHashMap<>();
+    private volatile HashRing ring;
+    private volatile Consumer<ClusterMessage> commandHandler;
+    private volatile Consumer<ClusterMessage> replicationHandler;
+    private volatile boolean fenced;
+
+    @PostConstruct
+    void join() {
+        if (!enabled) {
+            return;
+        }
+
+        for (String node : nodes.split(",")) {
+            String[] idAndUrl = node.trim().split("=", 2);
+            if (idAndUrl.length != 2) {
+                throw new IllegalStateException("Cluster nodes must be given as id=url, not " + node);
+            }
+            nodeUrls.put(idAndUrl[0].trim(), idAndUrl[1].trim());
+        }
+        if (!nodeUrls.containsKey(nodeId)) {
+            throw new IllegalStateException("Node " + nodeId + " is not one of the cluster nodes " + nodeUrls.keySet());
+        }
+
+        ring = new HashRing(nodeUrls.keySet(), virtualNodes);
+        eventBus.subscribe(nodeId, this::onMessage);
+        logger.info("Node {} joined the cluster of {}", nodeId, ring.getNodeIds());
+    }
+
+    @PreDestroy
+    void leave() {
+        if (enabled) {
+            eventBus.unsubscribe(nodeId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Nodes tables are currently assigned to, nodes being drained are not among them
+     */
+    public List<String> getRingNodeIds() {
+        return enabled ? ring.getNodeIds() : List.of(nodeId);
+    }
+
+    public boolean isLocal(Long tableId) {
+        return !enabled || nodeId.equals(ring.ownerOf(tableId));
+    }
+
+    /**
+     * Node standing by for a table this node owns, null when there is no other node
+     */
+    public String standbyOf(Long tableId) {
+        return enabled ? ring.standbyOf(tableId) : null;
+    }
+
+    /**
+     * Base URL of the node owning a table, for redirects
+     */
+    public String ownerUrl(Long tableId) {
+        return nodeUrls.get(ring.ownerOf(tableId));
+    }
+
+    /**
+     * Receive the commands forwarded to this node and the failures of the ones it forwarded
+     */
+    public void setCommandHandler(Consumer<ClusterMessage> commandHandler) {
+        this.commandHandler = commandHandler;
+    }
+
+    /**
+     * Receive the heartbeats of the other nodes and the replication of the tables this node stands by for
+     */
+    public void setReplicationHandler(Consumer<ClusterMessage> replicationHandler) {
+        this.replicationHandler = replicationHandler;
+    }
+
+    /**
+     * Take a node that stopped sending heartbeats off the ring, each of its tables goes to its
+     * standby. Should the node be alive after all, it is told to fence itself.
+     * @return Whether the node was still on the ring
+     */
+    public boolean evict(String failedNodeId) {
+        if (!enabled || fenced || failedNodeId.equals(nodeId) || !ring.contains(failedNodeId)) {
+            return false;
+        }
+        ring = ring.without(failedNodeId);
+        eventBus.publish(ClusterMessage.to(failedNodeId, Type.NODE_EVICTED, nodeId, null, null));
+        logger.warn("Node {} failed, tables now go to {}", failedNodeId, ring.getNodeIds());
+        return true;
+    }
+
+    /**
+     * Whether the cluster took this node off the ring. It runs no table from then on and has to
+     * be restarted to join again.
+     */
+    public boolean isFenced() {
+        return fenced;
+    }
+
+    /**
+     * Relay a frame published on a table topic to the subscribers of the other nodes
+     */
+    public void relayFrame(Long tableId, String destination, byte[] payload) {
+        if (enabled) {
+            eventBus.publish(ClusterMessage.broadcast(Type.TABLE_FRAME, nodeId, tableId, destination, payload));
+        }
+    }
+
+    /**
+     * Have the owner of a table run a command received here
+     * @param command Name of the command, the last segment of its STOMP destination
+     */
+    public void forwardCommand(Long tableId, Long userId, String sessionId, String command, byte[] payload) {
+        eventBus.publish(new ClusterMessage(Type.TABLE_COMMAND, nodeId, ring.ownerOf(tableId), tableId, userId,
+                sessionId, command, payload));
+    }
+
+    /**
+     * Tell the node a command came from that it failed, so the user gets the error
+     */
+    public void reportCommandFailed(ClusterMessage command, String error) {
+        eventBus.publish(new ClusterMessage(Type.COMMAND_FAILED, nodeId, command.fromNode(), command.tableId(),
+                command.userId(), command.sessionId(), command.destination(),
+                error != null ? error.getBytes(StandardCharsets.UTF_8) : new byte[0]));
+    }
+
+    /**
+     * Take this node off the ring and hand its tables over to their new owners, running games
+     * between two hands. Blocks until all tables are handed over or the timeout has passed.
+     * @return Tables still on this node, zero once drained
+     */
+    public synchronized int drain() throws InterruptedException {
+        if (!enabled) {
+            throw new IllegalStateException("Cluster mode is not enabled");
+        }
+        if (ring.contains(nodeId)) {
+            if (ring.getNodeIds().size() == 1) {
+                throw new IllegalStateException("No other node is left to take over the tables");
+            }
+            // Requests follow the new ring right away, the tables follow once their hand is over
+            ring = ring.without(nodeId);
+            eventBus.publish(ClusterMessage.broadcast(Type.NODE_DRAINING, nodeId, null, null, null));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(handoverTimeoutMillis);
+        sessionManager.stopAfterHand(sessionManager.getResidentTableIds());
+        List<Long> remaining = sessionManager.getResidentTableIds();
+        while (!remaining.isEmpty() && System.nanoTime() < deadline) {
+            List<TableHandover> handovers = new ArrayList<>();
+            for (Long tableId : remaining) {
+                TableHandover handover = sessionManager.handOver(tableId, 100);
+                if (handover != null) {
+                    handovers.add(handover);
+                }
+            }
+            // The new owners seat the players with the stacks in the database
+            if (!handovers.isEmpty()) {
+                chipStackService.flushPendingStacks();
+            }
+            for (TableHandover handover : handovers) {
+                Type type = handover.running() ? Type.TABLE_MIGRATED : Type.TABLE_HIBERNATED;
+                eventBus.publish(ClusterMessage.to(ring.ownerOf(handover.tableId()), type, nodeId,
+                        handover.tableId(), handover.snapshot()));
+            }
+            remaining = sessionManager.getResidentTableIds();
+        }
+
+        logger.info("Node {} drained, {} tables left", nodeId, remaining.size());
+        return remaining.size();
+    }
+
+    private void onMessage(ClusterMessage message) {
+        switch (message.type()) {
+            case TABLE_FRAME -> messagingTemplate.send(message.destination(), toFrame(message.payload()));
+            case TABLE_COMMAND, COMMAND_FAILED -> {
+                Consumer<ClusterMessage> handler = commandHandler;
+                if (handler != null) {
+                    handler.accept(message);
+                }
+            }
+            case NODE_DRAINING -> {
+                ring = ring.without(message.fromNode());
+                logger.info("Node {} is draining, tables now go to {}", message.fromNode(), ring.getNodeIds());
+            }
+            case TABLE_MIGRATED, TABLE_HIBERNATED -> sessionManager.adopt(
+                    new TableHandover(message.tableId(), message.payload(), message.type() == Type.TABLE_MIGRATED));
+            case NODE_EVICTED -> fence(message.fromNode());
+            case HEARTBEAT, REPLICA_CHECKPOINT, REPLICA_HAND, REPLICA_ACTION, REPLICA_RELEASED -> {
+                Consumer<ClusterMessage> handler = replicationHandler;
+                if (handler != null) {
+                    handler.accept(message);
+                }
+            }
+        }
+    }
+
+    /**
+     * Another node took this one off its ring after missing its heartbeats, a pause or a
+     * network blip, and the standbys took its tables over. Leave the ring as well and drop
+     * the tables right away, so no table is run and settled by two nodes.
+     */
+    private void fence(String evictedBy) {
+        if (fenced) {
+            return;
+        }
+        fenced = true;
+        if (ring.contains(nodeId) && ring.getNodeIds().size() > 1) {
+            ring = ring.without(nodeId);
+        }
+        int abandoned = sessionManager.abandonResidentTables();
+        logger.error("Node {} was taken off the ring by {} for missed heartbeats, dropped its {} tables",
+                nodeId, evictedBy, abandoned);
+    }
+
+    private static Message<byte[]> toFrame(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
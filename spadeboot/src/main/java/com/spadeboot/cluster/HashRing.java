@@ -0,0 +1,116 @@
+package com.spadeboot.cluster;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning tables to nodes. Every node is placed on the ring many times
+ * (virtual nodes), a table belongs to the first node point at or after its own hash. Adding
+ * or removing a node only moves the tables of the points it gains or loses, about 1/n of them.
+ *
+ * Immutable, membership changes return a new ring, so lookups never lock.
+ */
+public final class HashRing {
+
+    private final List<String> nodeIds;
+    private final int virtualNodes;
+    // Sorted point hashes, owners[i] is the node of points[i]
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalStateException("A hash ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalStateException("Every node needs at least one point on the ring");
+        }
+        this.nodeIds = List.copyOf(new TreeSet<>(nodeIds));
+        this.virtualNodes = virtualNodes;
+
+        int size = this.nodeIds.size() * virtualNodes;
+        long[] hashes = new long[size];
+        int[] nodes = new int[size];
+        Integer[] order = new Integer[size];
+        for (int node = 0; node < this.nodeIds.size(); node++) {
+            long seed = mix(this.nodeIds.get(node).hashCode());
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                int i = node * virtualNodes + replica;
+                hashes[i] = mix(seed + replica);
+                nodes[i] = node;
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = this.nodeIds.get(nodes[order[i]]);
+        }
+    }
+
+    /**
+     * Node owning a table
+     */
+    public String ownerOf(long tableId) {
+        return owners[indexOf(tableId)];
+    }
+
+    /**
+     * Node standing by to take a table over: the next other node on the ring after the owner,
+     * the very node the table moves to once the owner is removed. Null on a ring of one node.
+     */
+    public String standbyOf(long tableId) {
+        int index = indexOf(tableId);
+        String owner = owners[index];
+        for (int step = 1; step < owners.length; step++) {
+            String next = owners[(index + step) % owners.length];
+            if (!next.equals(owner)) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The same ring without a node, its tables spread over the others
+     */
+    public HashRing without(String nodeId) {
+        if (!nodeIds.contains(nodeId)) {
+            return this;
+        }
+        return new HashRing(nodeIds.stream().filter(id -> !id.equals(nodeId)).toList(), virtualNodes);
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    public boolean contains(String nodeId) {
+        return nodeIds.contains(nodeId);
+    }
+
+    private int indexOf(long tableId) {
+        long hash = mix(tableId);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // Past the last point the ring wraps around to the first
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads sequential table IDs and similar node names over the ring
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
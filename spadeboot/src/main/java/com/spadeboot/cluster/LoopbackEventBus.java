@@ -0,0 +1,80 @@
+package com.spadeboot.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * In-memory bus for nodes sharing one JVM, used for a single node and for multi-node tests.
+ * Every node gets its own delivery thread, so a slow node never holds up the publisher or the
+ * other nodes and sees the messages in publishing order.
+ */
+public class LoopbackEventBus implements ClusterEventBus {
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(ClusterMessage message) {
+        if (message.toNode() != null) {
+            Subscriber subscriber = subscribers.get(message.toNode());
+            if (subscriber != null) {
+                subscriber.deliver(message);
+            }
+            return;
+        }
+
+        for (Map.Entry<String, Subscriber> entry : subscribers.entrySet()) {
+            if (!entry.getKey().equals(message.fromNode())) {
+                entry.getValue().deliver(message);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<ClusterMessage> listener) {
+        Subscriber previous = subscribers.put(nodeId, new Subscriber(nodeId, listener));
+        if (previous != null) {
+            previous.executor.shutdown();
+        }
+    }
+
+    @Override
+    public void unsubscribe(String nodeId) {
+        Subscriber subscriber = subscribers.remove(nodeId);
+        if (subscriber != null) {
+            subscriber.executor.shutdown();
+        }
+    }
+
+    private static final class Subscriber {
+        private final Consumer<ClusterMessage> listener;
+        private final ExecutorService executor;
+
+        private Subscriber(String nodeId, Consumer<ClusterMessage> listener) {
+            this.listener = listener;
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cluster-bus-" + nodeId);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private void deliver(ClusterMessage message) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        listener.accept(message);
+                    } catch (Exception e) {
+                        // A failing message must not stop the delivery of the next ones
+                        e.printStackTrace();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The node unsubscribed meanwhile
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.spadeboot.cluster;
+
+import com.spadeboot.engine.HandReducer;
+import com.spadeboot.engine.HandState;
+import com.spadeboot.engine.Transition;
+import com.spadeboot.session.HandInFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shadow of a table another node is primary of: the checkpoint of the table between its last
+ * two hands, and the hand in flight with its deck, replayed on the engine from the events the
+ * primary streams. Failover plays that hand on from its last action.
+ *
+ * Events carry the primary's sequence number, an older checkpoint never replaces a newer one.
+ * A gap drops the shadow hand, the hand in flight is then dealt again from the checkpoint.
+ */
+final class TableReplica {
+
+    private final Long tableId;
+    private String primary;
+    private long sequence;
+    private byte[] checkpoint;
+    private HandInFlight hand;
+    private final List<HandInFlight.Action> actions = new ArrayList<>();
+    private HandState handState;
+
+    TableReplica(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    synchronized void checkpoint(String primary, long sequence, byte[] snapshot) {
+        if (primary.equals(this.primary) && sequence <= this.sequence) {
+            return;
+        }
+        this.primary = primary;
+        this.sequence = sequence;
+        this.checkpoint = snapshot;
+        dropHand();
+    }
+
+    /**
+     * A hand was dealt, a resumed one with the actions it had seen already
+     */
+    synchronized void handStarted(String primary, long sequence, HandInFlight hand) {
+        if (!follows(primary, sequence)) {
+            return;
+        }
+        dropHand();
+        HandState state = hand.start();
+        for (HandInFlight.Action action : hand.actions()) {
+            Transition transition = HandReducer.apply(state, action.seat(), action.type(), action.amount());
+            if (!transition.isAccepted()) {
+                return;
+            }
+            state = transition.state();
+        }
+        this.hand = hand;
+        this.actions.addAll(hand.actions());
+        this.handState = state;
+    }
+
+    /**
+     * @return Whether the action applied to the shadow hand as it did on the primary
+     */
+    synchronized boolean actionApplied(String primary, long sequence, int roundNumber, HandInFlight.Action action) {
+        if (!follows(primary, sequence) || hand == null || roundNumber != hand.roundNumber()) {
+            return false;
+        }
+        Transition transition = HandReducer.apply(handState, action.seat(), action.type(), action.amount());
+        if (!transition.isAccepted()) {
+            dropHand();
+            return false;
+        }
+        actions.add(action);
+        handState = transition.state();
+        return true;
+    }
+
+    private boolean follows(String primary, long sequence) {
+        if (checkpoint == null || !primary.equals(this.primary) || sequence <= this.sequence) {
+            return false;
+        }
+        boolean next = sequence == this.sequence + 1;
+        this.sequence = sequence;
+        if (!next) {
+            dropHand();
+        }
+        return next;
+    }
+
+    private void dropHand() {
+        hand = null;
+        actions.clear();
+        handState = null;
+    }
+
+    Long getTableId() {
+        return tableId;
+    }
+
+    synchronized String getPrimary() {
+        return primary;
+    }
+
+    synchronized byte[] getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * The hand in flight with the actions applied so far, null between hands
+     */
+    synchronized HandInFlight getHand() {
+        return hand != null ? hand.withActions(List.copyOf(actions)) : null;
+    }
+
+    /**
+     * The hand in flight as the primary plays it, null between hands
+     */
+    synchronized HandState getHandState() {
+        return handState;
+    }
+}
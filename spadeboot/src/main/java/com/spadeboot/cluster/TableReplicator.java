@@ -0,0 +1,278 @@
+package com.spadeboot.cluster;
+
+import com.spadeboot.cluster.ClusterMessage.Type;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.GameStatusChangedEvent;
+import com.spadeboot.session.HandActionEvent;
+import com.spadeboot.session.HandInFlight;
+import com.spadeboot.session.HandStartedEvent;
+import com.spadeboot.session.SessionManager;
+import com.spadeboot.session.TableCheckpointEvent;
+import com.spadeboot.session.TableHandover;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot standby of tables. The primary of a table, the node owning it, streams the engine events
+ * of the table to its standby, the next node on the ring: a checkpoint between two hands, the
+ * start of every hand with its deck and every action applied. The standby replays them on a
+ * {@link TableReplica}.
+ *
+ * Every node sends heartbeats. Once those of a node lapse, the other nodes take it off their
+ * ring and the standbys resume its tables from their last checkpoint and the hand in flight,
+ * which is played on with the same cards from its last action, within the heartbeat timeout
+ * plus one heartbeat interval. A node that was only paused learns it was evicted and fences
+ * itself, see {@link ClusterNode#isFenced()}.
+ *
+ * Only with cluster mode enabled, for tables whose big blind is at least the configured minimum.
+ */
+@Component
+public class TableReplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableReplicator.class);
+
+    // Sequence number and the primary's wall clock time, for the lag
+    private static final int HEADER_BYTES = 8 + 8;
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    @Autowired
+    private ClusterNode clusterNode;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private EngineMetrics metrics;
+
+    @Value("${app.replication.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.replication.min-big-blind:0}")
+    private int minBigBlind;
+
+    @Value("${app.replication.heartbeat-interval-ms:500}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${app.replication.heartbeat-timeout-ms:2000}")
+    private long heartbeatTimeoutMillis;
+
+    // Tables this node is primary of and streams, with the sequence number of their last event
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+    // Tables of other nodes this node stands by for
+    private final Map<Long, TableReplica> replicas = new ConcurrentHashMap<>();
+    // System.nanoTime() of the last message of every other node, a node is only timed out once heard from,
+    // so nodes starting later than the others are not evicted
+    private final Map<String, Long> lastHeartbeats = new ConcurrentHashMap<>();
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void start() {
+        if (!isActive()) {
+            return;
+        }
+
+        clusterNode.setReplicationHandler(this::onMessage);
+        metrics.registerReplicationGauges(replicas::size);
+
+        // A thread of its own, so work queued on the shared scheduler never delays a heartbeat into a failover
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeat, 0, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        heartbeats.scheduleWithFixedDelay(this::promoteOrphanedTables, heartbeatIntervalMillis,
+                heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    public boolean isActive() {
+        return enabled && clusterNode.isEnabled();
+    }
+
+    /**
+     * Tables of other nodes this node is ready to take over
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    TableReplica getReplica(Long tableId) {
+        return replicas.get(tableId);
+    }
+
+    @EventListener
+    public void onCheckpoint(TableCheckpointEvent event) {
+        if (!isActive() || event.getBigBlind() < minBigBlind) {
+            return;
+        }
+        AtomicLong sequence = sequences.computeIfAbsent(event.getTableId(), tableId -> new AtomicLong());
+        ByteBuffer payload = header(sequence, event.getSnapshot().length).put(event.getSnapshot());
+        sendToStandby(Type.REPLICA_CHECKPOINT, event.getTableId(), payload);
+    }
+
+    @EventListener
+    public void onHandStarted(HandStartedEvent event) {
+        AtomicLong sequence = sequences.get(event.getTableId());
+        if (sequence == null) {
+            return;
+        }
+        byte[] hand = event.getHand().toBytes();
+        sendToStandby(Type.REPLICA_HAND, event.getTableId(), header(sequence, hand.length).put(hand));
+    }
+
+    @EventListener
+    public void onHandAction(HandActionEvent event) {
+        AtomicLong sequence = sequences.get(event.getTableId());
+        if (sequence == null) {
+            return;
+        }
+        ByteBuffer payload = header(sequence, 4 + HandInFlight.Action.BYTES).putInt(event.getRoundNumber());
+        event.getAction().write(payload);
+        sendToStandby(Type.REPLICA_ACTION, event.getTableId(), payload);
+    }
+
+    @EventListener
+    public void onGameStatusChanged(GameStatusChangedEvent event) {
+        if (event.isActive()) {
+            return;
+        }
+        // Whether ended, waiting for players or handed over, the table is not resumed from here on
+        AtomicLong sequence = sequences.remove(event.getTableId());
+        if (sequence != null) {
+            sendToStandby(Type.REPLICA_RELEASED, event.getTableId(), header(sequence, 0));
+        }
+    }
+
+    /**
+     * Tell the other nodes this one is alive
+     */
+    void sendHeartbeat() {
+        if (clusterNode.isFenced()) {
+            return;
+        }
+        eventBus.publish(ClusterMessage.broadcast(Type.HEARTBEAT, clusterNode.getNodeId(), null, null, NO_PAYLOAD));
+    }
+
+    /**
+     * Take the nodes whose heartbeats lapsed off the ring, and resume the tables they were
+     * primary of that this node stands by for, with their hand in flight
+     * @return Tables taken over
+     */
+    int promoteOrphanedTables() {
+        if (clusterNode.isFenced()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(heartbeatTimeoutMillis);
+        lastHeartbeats.forEach((nodeId, lastHeartbeat) -> {
+            if (now - lastHeartbeat > timeout) {
+                clusterNode.evict(nodeId);
+            }
+        });
+
+        int promoted = 0;
+        for (TableReplica replica : replicas.values()) {
+            Long lastHeartbeat = lastHeartbeats.get(replica.getPrimary());
+            if (lastHeartbeat == null || now - lastHeartbeat <= timeout) {
+                continue;
+            }
+
+            Long tableId = replica.getTableId();
+            replicas.remove(tableId, replica);
+            // A standby the ring has moved on from, or a table that was handed over here already
+            if (!clusterNode.isLocal(tableId) || sessionManager.getResidentTableIds().contains(tableId)) {
+                continue;
+            }
+
+            try {
+                HandInFlight hand = replica.getHand();
+                sessionManager.adopt(new TableHandover(tableId, replica.getCheckpoint(), true, hand));
+                metrics.recordPromotion(System.nanoTime() - lastHeartbeat);
+                promoted++;
+                logger.warn("Took over table {} from failed node {}{}", tableId, replica.getPrimary(), hand != null
+                        ? ", playing on hand " + hand.roundNumber() + " after " + hand.actions().size() + " actions"
+                        : "");
+            } catch (Exception e) {
+                logger.error("Could not take over table {} from node {}", tableId, replica.getPrimary(), e);
+            }
+        }
+        return promoted;
+    }
+
+    private void onMessage(ClusterMessage message) {
+        lastHeartbeats.put(message.fromNode(), System.nanoTime());
+        if (message.type() == Type.HEARTBEAT) {
+            return;
+        }
+
+        Long tableId = message.tableId();
+        ByteBuffer payload = ByteBuffer.wrap(message.payload());
+        long sequence = payload.getLong();
+        long sentAt = payload.getLong();
+        switch (message.type()) {
+            case REPLICA_CHECKPOINT -> {
+                byte[] snapshot = new byte[payload.remaining()];
+                payload.get(snapshot);
+                replicas.computeIfAbsent(tableId, TableReplica::new).checkpoint(message.fromNode(), sequence, snapshot);
+            }
+            case REPLICA_HAND -> {
+                TableReplica replica = replicas.get(tableId);
+                if (replica != null) {
+                    replica.handStarted(message.fromNode(), sequence, HandInFlight.read(payload));
+                }
+            }
+            case REPLICA_ACTION -> {
+                TableReplica replica = replicas.get(tableId);
+                if (replica != null) {
+                    int roundNumber = payload.getInt();
+                    HandInFlight.Action action = HandInFlight.Action.read(payload);
+                    if (!replica.actionApplied(message.fromNode(), sequence, roundNumber, action)) {
+                        logger.debug("Shadow of table {} lost track of its hand, waiting for the next one", tableId);
+                    }
+                }
+            }
+            case REPLICA_RELEASED -> replicas.remove(tableId);
+            default -> {
+                return;
+            }
+        }
+        metrics.recordReplicationLag(System.currentTimeMillis() - sentAt);
+    }
+
+    private static ByteBuffer header(AtomicLong sequence, int bodyBytes) {
+        return ByteBuffer.allocate(HEADER_BYTES + bodyBytes)
+                .putLong(sequence.incrementAndGet())
+                .putLong(System.currentTimeMillis());
+    }
+
+    private void sendToStandby(Type type, Long tableId, ByteBuffer payload) {
+        String standby = clusterNode.isLocal(tableId) ? clusterNode.standbyOf(tableId) : null;
+        if (standby != null) {
+            eventBus.publish(ClusterMessage.to(standby, type, clusterNode.getNodeId(), tableId, payload.array()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.spadeboot.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Redirects game requests for a table owned by another node there. 307 keeps the method and
+ * body, so a redirected action is replayed as it was sent.
+ */
+@Component
+public class TableRoutingInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ClusterNode clusterNode;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!clusterNode.isEnabled()) {
+            return true;
+        }
+
+        Long tableId = tableIdOf(request);
+        if (tableId == null || clusterNode.isLocal(tableId)) {
+            return true;
+        }
+
+        String location = clusterNode.ownerUrl(tableId) + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long tableIdOf(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("tableId") == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get("tableId"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
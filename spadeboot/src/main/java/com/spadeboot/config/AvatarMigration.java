@@ -0,0 +1,63 @@
+package com.spadeboot.config;
+
+import com.spadeboot.service.AvatarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves avatars that are still stored in the old users.avatar blob column into the
+ * avatar store, one small batch at a time so the blobs are never all in memory. Runs on
+ * every start and does nothing once the column is empty or gone.
+ */
+@Component
+public class AvatarMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarMigration.class);
+
+    private static final int BATCH_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = 0;
+        try {
+            List<Map<String, Object>> batch;
+            do {
+                batch = jdbcTemplate.queryForList(
+                        "SELECT id, avatar FROM users WHERE avatar IS NOT NULL LIMIT " + BATCH_SIZE);
+                for (Map<String, Object> row : batch) {
+                    Long userId = ((Number) row.get("id")).longValue();
+                    String hash = null;
+                    try {
+                        hash = avatarService.store((byte[]) row.get("avatar"));
+                    } catch (IllegalStateException e) {
+                        logger.warn("Dropping unreadable avatar of user {}: {}", userId, e.getMessage());
+                    }
+                    jdbcTemplate.update("UPDATE users SET avatar_hash = ?, avatar = NULL WHERE id = ?", hash, userId);
+                    migrated++;
+                }
+            } while (!batch.isEmpty());
+        } catch (DataAccessException e) {
+            // Fresh schema without the old column
+            logger.debug("No avatar blobs to migrate: {}", e.getMessage());
+        }
+
+        if (migrated > 0) {
+            logger.info("Moved {} avatars into the avatar store", migrated);
+        }
+    }
+}
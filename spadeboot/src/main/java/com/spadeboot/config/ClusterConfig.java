@@ -0,0 +1,34 @@
+package com.spadeboot.config;
+
+import com.spadeboot.cluster.ClusterEventBus;
+import com.spadeboot.cluster.LoopbackEventBus;
+import com.spadeboot.cluster.TableRoutingInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ClusterConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private TableRoutingInterceptor tableRoutingInterceptor;
+
+    /**
+     * In-memory bus unless another implementation is configured, enough for a single node
+     * and for several nodes in one JVM. Static, the routing interceptor injected here depends on it.
+     */
+    @Bean
+    @ConditionalOnMissingBean(ClusterEventBus.class)
+    public static ClusterEventBus clusterEventBus() {
+        return new LoopbackEventBus();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Game endpoints only, tables themselves live in the shared database
+        registry.addInterceptor(tableRoutingInterceptor).addPathPatterns("/api/games/tables/**");
+    }
+}
@@ -52,13 +52,15 @@ public class DataInitializer implements CommandLineRunner {
         // Add regular players
         String[] playerNames = {"Sebastian", "Markus", "Matthi", "Luca", "Paul", "Viktor"};
         String defaultPassword = "password123";
+        // BCrypt is slow on purpose, all seeded players share one hash
+        String defaultPasswordHash = passwordEncoder.encode(defaultPassword);
 
         for (String name : playerNames) {
             if (userRepository.findByUsername(name).isEmpty()) {
                 User player = new User();
                 player.setUsername(name);
                 player.setEmail(name.toLowerCase() + "@spade.com");
-                player.setPassword(passwordEncoder.encode(defaultPassword));
+                player.setPassword(defaultPasswordHash);
                 player.setRole("ROLE_USER");
                 player.setBalance(2000); // Starting balance for regular players
 
@@ -1,6 +1,12 @@
 // src/main/java/com/pokerapp/config/GameSchedulerConfig.java
 package com.spadeboot.config;
 
+import com.spadeboot.metrics.EngineMetrics.SheddableWork;
+import com.spadeboot.service.ChipStackService;
+import com.spadeboot.service.LedgerService;
+import com.spadeboot.service.LobbyService;
+import com.spadeboot.service.StatisticsService;
+import com.spadeboot.service.suggestion.SuggestionService;
 import com.spadeboot.session.SessionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -14,11 +20,72 @@ public class GameSchedulerConfig {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private LobbyService lobbyService;
+
+    @Autowired
+    private ChipStackService chipStackService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
     /**
-     * Clean up inactive game sessions every 5 minutes
+     * Hibernate or clean up inactive game sessions, every 30 seconds by default
      */
-    @Scheduled(fixedDelay = 300000) // 5 minutes
+    @Scheduled(fixedDelayString = "${app.sessions.sweep-interval-ms:30000}")
     public void cleanupInactiveSessions() {
         sessionManager.cleanupInactiveSessions();
     }
-}
\ No newline at end of file
+
+    /**
+     * Write the statistics of completed hands in batches
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.flush-interval-ms:5000}")
+    public void flushPlayerStatistics() {
+        statisticsService.flushPendingStatistics();
+    }
+
+    /**
+     * Write the chip stacks of running games behind the action path
+     */
+    @Scheduled(fixedDelayString = "${app.chips.flush-interval-ms:2000}")
+    public void flushChipStacks() {
+        chipStackService.flushPendingStacks();
+    }
+
+    /**
+     * Append the bets and pot wins of completed hands to the ledger
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.flush-interval-ms:1000}")
+    public void flushLedgerEntries() {
+        ledgerService.flushPendingEntries();
+    }
+
+    /**
+     * Push coalesced lobby changes to /topic/lobby, held back while the node is overloaded
+     */
+    @Scheduled(fixedDelayString = "${app.lobby.publish-interval-ms:1000}")
+    public void publishLobbyUpdates() {
+        // The changed tables stay marked, so they go out with the first push after the overload
+        if (!sessionManager.shouldShed(SheddableWork.LOBBY_UPDATE)) {
+            lobbyService.publishPendingUpdates();
+        }
+    }
+
+    /**
+     * Recompute the friend suggestions of users whose friends or co-players changed, unless
+     * the node is overloaded
+     */
+    @Scheduled(fixedDelayString = "${app.suggestions.refresh-interval-ms:10000}")
+    public void refreshFriendSuggestions() {
+        if (!sessionManager.shouldShed(SheddableWork.SUGGESTION_REFRESH)) {
+            suggestionService.refreshDirtySuggestions();
+        }
+    }
+}
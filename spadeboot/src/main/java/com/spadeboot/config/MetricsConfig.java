@@ -0,0 +1,14 @@
+package com.spadeboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Exposes the metrics and Prometheus endpoints. The engine meters live in
+ * {@link com.spadeboot.metrics.EngineMetrics}, HTTP, repository and executor metrics
+ * (including the websocket channel executors) come from Spring Boot.
+ */
+@Configuration
+@PropertySource("classpath:management.properties")
+public class MetricsConfig {
+}
@@ -4,6 +4,7 @@ package com.spadeboot.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -61,6 +62,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/spotify/debug/**").permitAll()
                         .requestMatchers("/api/cheatsheet/**").permitAll()
 
+                        // Avatars are loaded by <img> tags without a token, the URLs are content hashes
+                        .requestMatchers(HttpMethod.GET, "/api/avatars/**").permitAll()
+
                         // WebSocket endpoints - IMPORTANT: Allow all WebSocket related paths
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/app/**").permitAll()
@@ -69,6 +73,10 @@ public class SecurityConfig {
                         // Error endpoint
                         .requestMatchers("/error").permitAll()
 
+                        // Health and metrics scraping, keep the actuator port internal
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Admin-only endpoints
                         .requestMatchers("/api/users/{id}/roles").hasRole("ADMIN")
                         .requestMatchers("/api/users/{id}/balance").hasRole("ADMIN")
@@ -80,6 +88,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/games/**").authenticated()
                         .requestMatchers("/api/players/**").authenticated()
                         .requestMatchers("/api/friends/**").authenticated()
+                        .requestMatchers("/api/statistics/**").authenticated()
+                        .requestMatchers("/api/leaderboard/**").authenticated()
 
                         // Default policy: require authentication
                         .anyRequest().authenticated()
@@ -0,0 +1,60 @@
+package com.spadeboot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spadeboot.service.simulation.SimulationReport;
+import com.spadeboot.service.simulation.SimulationService;
+import com.spadeboot.service.simulation.SimulationSettings;
+import com.spadeboot.session.bot.BotStrategyType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs one simulation from the command line, prints the report as JSON and exits, e.g.
+ * {@code --spring.profiles.active=simulation,embedded --app.simulation.hands=10000000}.
+ */
+@Component
+@Profile("simulation")
+public class SimulationRunner implements CommandLineRunner {
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${app.simulation.hands:1000000}")
+    private long hands;
+
+    @Value("${app.simulation.seats:6}")
+    private int seats;
+
+    @Value("${app.simulation.stack:1000}")
+    private int stack;
+
+    @Value("${app.simulation.big-blind:20}")
+    private int bigBlind;
+
+    @Value("${app.simulation.strategies:RANDOM,TIGHT_AGGRESSIVE}")
+    private List<BotStrategyType> strategies;
+
+    @Value("${app.simulation.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) throws Exception {
+        SimulationReport report = simulationService.run(
+                new SimulationSettings(hands, seats, stack, bigBlind, strategies, seed));
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
@@ -0,0 +1,399 @@
+package com.spadeboot.config;
+
+import com.spadeboot.domain.ledger.LedgerAccount;
+import com.spadeboot.domain.ledger.LedgerEntryType;
+import com.spadeboot.domain.user.FriendshipStatus;
+import com.spadeboot.domain.user.PlayerStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Fills the database with a large synthetic population for load and scale tests: users,
+ * players, tables with seated players, a clustered friendship graph and hand histories
+ * (as ledger transfers and statistics counters). Only active with the "synthetic" profile.
+ * <p>
+ * Rows are written with JDBC batches by parallel workers. IDs are assigned up front from
+ * the current maximum, so workers never need generated keys. All users share one password
+ * hash, BCrypt runs once. The data is reproducible for a given seed.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final String USERNAME_PREFIX = "synth_";
+
+    private static final int STARTING_BALANCE = 1000;
+    private static final int BUY_IN = 200;
+    private static final int BIG_BLIND = 10;
+    private static final long HOUSE_ACCOUNT_ID = 0L;
+
+    // Most friends come from a neighbourhood of nearby IDs, so friends of friends overlap
+    private static final int FRIEND_NEIGHBOURHOOD = 500;
+    private static final double LOCAL_FRIEND_SHARE = 0.8;
+
+    private static final String INSERT_USER = "INSERT INTO users " +
+            "(id, username, email, password, balance, abs_investment, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PLAYER = "INSERT INTO players " +
+            "(id, user_id, chips, status, current_table_id, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TABLE = "INSERT INTO poker_tables " +
+            "(id, name, description, max_players, min_buy_in, max_buy_in, is_private, owner_id, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_SEAT = "INSERT INTO poker_tables_players (poker_table_id, players_id) VALUES (?, ?)";
+
+    private static final String INSERT_FRIENDSHIP = "INSERT INTO friendships " +
+            "(requester_id, addressee_id, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ENTRY = "INSERT INTO ledger_entries " +
+            "(transfer_id, entry_type, account, account_id, table_id, amount, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_STATISTICS = "INSERT INTO player_statistics " +
+            "(user_id, hands_played, vpip_hands, pfr_hands, aggressive_actions, passive_actions, " +
+            "showdowns_seen, showdowns_won, hands_won, net_chips, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STACK = "UPDATE players SET chips = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.synthetic.users:100000}")
+    private int users;
+
+    @Value("${app.synthetic.friends-per-user:20}")
+    private int friendsPerUser;
+
+    @Value("${app.synthetic.seats-per-table:6}")
+    private int seatsPerTable;
+
+    // Share of users seated at a table, the others are only in the lobby
+    @Value("${app.synthetic.seated-share:0.1}")
+    private double seatedShare;
+
+    @Value("${app.synthetic.hands:200000}")
+    private int hands;
+
+    @Value("${app.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.synthetic.workers:0}")
+    private int workers;
+
+    @Value("${app.synthetic.password:password123}")
+    private String password;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    private long firstUserId;
+    private long firstPlayerId;
+    private long firstTableId;
+    private int tables;
+    private LocalDateTime startedAt;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE ?", Integer.class, USERNAME_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic data already present ({} users), skipping generation", existing);
+            return;
+        }
+
+        firstUserId = nextId("users");
+        firstPlayerId = nextId("players");
+        firstTableId = nextId("poker_tables");
+        tables = (int) (users * seatedShare) / seatsPerTable;
+        // History starts 90 days ago, so balances can be reconstructed at points in the past
+        startedAt = LocalDateTime.now().minusDays(90);
+
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.currentTimeMillis();
+            String passwordHash = passwordEncoder.encode(password);
+
+            step("users", users, executor, from -> insertUsers(from, passwordHash));
+            step("players", users, executor, this::insertPlayers);
+            step("tables", tables, executor, this::insertTables);
+            step("friendships", users, executor, this::insertFriendships);
+            step("hands", tables, executor, this::playHands);
+
+            restartIdentities();
+            logger.info("Generated {} users, {} tables and {} hands with {} workers in {} ms",
+                    users, tables, hands, threads, System.currentTimeMillis() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Users with their sign-up grant, seated users also with their buy-in
+     */
+    private void insertUsers(int from, String passwordHash) {
+        int to = Math.min(from + batchSize, users);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        List<Object[]> entries = new ArrayList<>(4 * (to - from));
+        SplittableRandom random = new SplittableRandom(seed ^ from);
+
+        for (int i = from; i < to; i++) {
+            long userId = firstUserId + i;
+            String username = USERNAME_PREFIX + i;
+            boolean seated = tableOf(i) >= 0;
+            int balance = seated ? STARTING_BALANCE - BUY_IN : STARTING_BALANCE;
+            rows.add(new Object[]{userId, username, username + "@synthetic.spade.com", passwordHash,
+                    balance, STARTING_BALANCE, "ROLE_USER"});
+
+            addTransfer(entries, random, LedgerEntryType.SIGN_UP_GRANT, LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID,
+                    LedgerAccount.USER_BALANCE, userId, null, STARTING_BALANCE, startedAt);
+            if (seated) {
+                addTransfer(entries, random, LedgerEntryType.BUY_IN, LedgerAccount.USER_BALANCE, userId,
+                        LedgerAccount.TABLE_STACK, userId, firstTableId + tableOf(i), BUY_IN, startedAt.plusMinutes(1));
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+    }
+
+    private void insertPlayers(int from) {
+        int to = Math.min(from + batchSize, users);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int table = tableOf(i);
+            rows.add(table >= 0
+                    ? new Object[]{firstPlayerId + i, firstUserId + i, BUY_IN, PlayerStatus.ACTIVE.name(), firstTableId + table}
+                    : new Object[]{firstPlayerId + i, firstUserId + i, 0, PlayerStatus.SITTING_OUT.name(), null});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PLAYER, rows);
+    }
+
+    /**
+     * Tables with their seats, the first seated player owns the table
+     */
+    private void insertTables(int from) {
+        int to = Math.min(from + batchSize, tables);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        List<Object[]> seats = new ArrayList<>((to - from) * seatsPerTable);
+        for (int t = from; t < to; t++) {
+            long tableId = firstTableId + t;
+            int firstSeat = t * seatsPerTable;
+            rows.add(new Object[]{tableId, "Synthetic table " + t, "Generated for load tests",
+                    seatsPerTable + 2, BUY_IN / 2, BUY_IN * 5, false, firstPlayerId + firstSeat});
+            for (int s = 0; s < seatsPerTable; s++) {
+                seats.add(new Object[]{tableId, firstPlayerId + firstSeat + s});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TABLE, rows);
+        jdbcTemplate.batchUpdate(INSERT_SEAT, seats);
+    }
+
+    /**
+     * Each user requests half of their friendships, to partners at an offset of less than half
+     * the population. Two offsets can then never add up to a full turn, so no pair is created
+     * twice.
+     */
+    private void insertFriendships(int from) {
+        int to = Math.min(from + batchSize, users);
+        int requested = Math.min(friendsPerUser / 2, users / 2 - 1);
+        int maxOffset = users / 2 - 1;
+        Timestamp createdAt = Timestamp.valueOf(startedAt.plusDays(1));
+        List<Object[]> rows = new ArrayList<>((to - from) * Math.max(requested, 0));
+
+        for (int i = from; i < to; i++) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + i);
+            Set<Integer> offsets = new HashSet<>();
+            while (offsets.size() < requested) {
+                offsets.add(random.nextDouble() < LOCAL_FRIEND_SHARE
+                        ? 1 + random.nextInt(Math.min(FRIEND_NEIGHBOURHOOD, maxOffset))
+                        : 1 + random.nextInt(maxOffset));
+            }
+            for (int offset : offsets) {
+                rows.add(new Object[]{firstUserId + i, firstUserId + (i + offset) % users,
+                        FriendshipStatus.ACCEPTED.name(), createdAt, createdAt});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_FRIENDSHIP, rows);
+    }
+
+    /**
+     * Play the hands of a range of tables. Every player sits at one table only, so workers
+     * never touch the same stack or counters. Hands are written as BET and POT_WIN transfers,
+     * exactly like LedgerService writes real ones.
+     */
+    private void playHands(int from) {
+        int to = Math.min(from + batchSize, tables);
+        long minutes = Duration.between(startedAt, LocalDateTime.now()).toMinutes();
+        SplittableRandom random = new SplittableRandom(seed * 17 + from);
+        List<Object[]> entries = new ArrayList<>();
+        List<Object[]> statistics = new ArrayList<>();
+        List<Object[]> stacks = new ArrayList<>();
+
+        for (int t = from; t < to; t++) {
+            long tableId = firstTableId + t;
+            int firstSeat = t * seatsPerTable;
+            int[] chips = new int[seatsPerTable];
+            long[][] counters = new long[seatsPerTable][9];
+            Arrays.fill(chips, BUY_IN);
+
+            // Spread the hands evenly, the remainder goes to the first tables
+            int tableHands = hands / tables + (t < hands % tables ? 1 : 0);
+            for (int h = 0; h < tableHands; h++) {
+                LocalDateTime playedAt = startedAt.plusMinutes(2 + random.nextLong(Math.max(minutes - 2, 1)));
+                playHand(random, tableId, firstSeat, chips, counters, playedAt, entries);
+                if (entries.size() >= batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+                    entries.clear();
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int s = 0; s < seatsPerTable; s++) {
+                long[] c = counters[s];
+                if (c[0] > 0) {
+                    statistics.add(new Object[]{firstUserId + firstSeat + s,
+                            c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7], c[8], now});
+                }
+                stacks.add(new Object[]{chips[s], firstPlayerId + firstSeat + s});
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+        }
+        jdbcTemplate.batchUpdate(INSERT_STATISTICS, statistics);
+        jdbcTemplate.batchUpdate(UPDATE_STACK, stacks);
+    }
+
+    /**
+     * One hand: everyone with chips puts in a random amount and one of them takes the pot.
+     * Counters are hands played, VPIP, PFR, aggressive and passive actions, showdowns seen
+     * and won, hands won and net chips.
+     */
+    private void playHand(SplittableRandom random, long tableId, int firstSeat, int[] chips, long[][] counters,
+                          LocalDateTime playedAt, List<Object[]> entries) {
+        List<Integer> dealtIn = new ArrayList<>(chips.length);
+        for (int s = 0; s < chips.length; s++) {
+            if (chips[s] > 0) {
+                dealtIn.add(s);
+            }
+        }
+        if (dealtIn.size() < 2) {
+            return;
+        }
+
+        boolean showdown = random.nextDouble() < 0.4;
+        int winner = dealtIn.get(random.nextInt(dealtIn.size()));
+        int pot = 0;
+        for (int s : dealtIn) {
+            int bet = Math.min(chips[s], BIG_BLIND * (1 + random.nextInt(10)));
+            chips[s] -= bet;
+            pot += bet;
+
+            long[] c = counters[s];
+            boolean vpip = random.nextDouble() < 0.3;
+            c[0]++;
+            c[1] += vpip ? 1 : 0;
+            c[2] += vpip && random.nextDouble() < 0.5 ? 1 : 0;
+            c[3] += random.nextInt(3);
+            c[4] += random.nextInt(3);
+            c[5] += showdown ? 1 : 0;
+            c[6] += showdown && s == winner ? 1 : 0;
+            c[7] += s == winner ? 1 : 0;
+            c[8] -= bet;
+
+            addTransfer(entries, random, LedgerEntryType.BET, LedgerAccount.TABLE_STACK, firstUserId + firstSeat + s,
+                    LedgerAccount.POT, tableId, tableId, bet, playedAt);
+        }
+
+        chips[winner] += pot;
+        counters[winner][8] += pot;
+        addTransfer(entries, random, LedgerEntryType.POT_WIN, LedgerAccount.POT, tableId,
+                LedgerAccount.TABLE_STACK, firstUserId + firstSeat + winner, tableId, pot, playedAt);
+    }
+
+    private static void addTransfer(List<Object[]> entries, SplittableRandom random, LedgerEntryType type,
+                                    LedgerAccount from, long fromId, LedgerAccount to, long toId, Long tableId,
+                                    long amount, LocalDateTime createdAt) {
+        // Not a secure random UUID, it only has to be unique within the generated data
+        String transferId = new UUID(random.nextLong(), random.nextLong()).toString();
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        entries.add(new Object[]{transferId, type.name(), from.name(), fromId, tableId, -amount, timestamp});
+        entries.add(new Object[]{transferId, type.name(), to.name(), toId, tableId, amount, timestamp});
+    }
+
+    /**
+     * Table of a user by position, seated users fill the tables in order, -1 if not seated
+     */
+    private int tableOf(int userIndex) {
+        int table = userIndex / seatsPerTable;
+        return table < tables ? table : -1;
+    }
+
+    private void step(String name, int count, ExecutorService executor, IntConsumer batch) throws Exception {
+        long start = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < count; from += batchSize) {
+            int batchStart = from;
+            futures.add(executor.submit(() -> batch.accept(batchStart)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        logger.info("Generated {} {} in {} ms", count, name, System.currentTimeMillis() - start);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    /**
+     * MySQL moves AUTO_INCREMENT past explicit IDs by itself, H2 has to be told
+     */
+    private void restartIdentities() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            return;
+        }
+        for (String table : List.of("users", "players", "poker_tables")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 // src/main/java/com/pokerapp/config/WebSocketSecurityConfig.java
 package com.spadeboot.config;
 
-import com.spadeboot.security.JwtUtils;
-import com.spadeboot.security.UserDetailsServiceImpl;
+import com.spadeboot.security.TokenAuthenticator;
+import com.spadeboot.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -16,7 +16,6 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
@@ -26,10 +25,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer {
 
     @Autowired
-    private JwtUtils jwtUtils;
-
-    @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenAuthenticator tokenAuthenticator;
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
@@ -44,10 +40,8 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                     if (authToken != null && authToken.startsWith("Bearer ")) {
                         String jwt = authToken.substring(7);
 
-                        if (jwtUtils.validateJwtToken(jwt)) {
-                            String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
+                        UserDetailsImpl userDetails = tokenAuthenticator.authenticate(jwt);
+                        if (userDetails != null) {
                             UsernamePasswordAuthenticationToken authentication =
                                     new UsernamePasswordAuthenticationToken(
                                             userDetails,
@@ -19,7 +19,7 @@ public class Deck {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Card> cards = new ArrayList<>();
 
     @PostLoad
@@ -47,4 +47,34 @@ public class Deck {
         }
         return cards.remove(0);
     }
+
+    /**
+     * The cards left in the order they are drawn, one byte per card
+     */
+    public byte[] order() {
+        int values = Value.values().length;
+        byte[] order = new byte[cards.size()];
+        for (int i = 0; i < order.length; i++) {
+            Card card = cards.get(i);
+            order[i] = (byte) (card.getSuit().ordinal() * values + card.getValue().ordinal());
+        }
+        return order;
+    }
+
+    /**
+     * A deck drawing the cards of {@link #order()} in the same order, to deal a hand again
+     */
+    public static Deck ofOrder(byte[] order) {
+        Suit[] suits = Suit.values();
+        Value[] values = Value.values();
+        Deck deck = new Deck();
+        for (byte code : order) {
+            Card card = new Card();
+            card.setSuit(suits[code / values.length]);
+            card.setValue(values[code % values.length]);
+            card.setShowing(false);
+            deck.cards.add(card);
+        }
+        return deck;
+    }
 }
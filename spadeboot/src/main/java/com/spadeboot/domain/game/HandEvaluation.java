@@ -17,22 +17,22 @@ public class HandEvaluation {
         cards.sort((a, b) -> b.getValue().getValue() - a.getValue().getValue());
 
         // Check for straight flush in each suit
-        List<Card> spadeCards = filterBySuit(cards, "S");
+        List<Card> spadeCards = filterBySuit(cards, Suit.SPADES);
         List<Integer> resultCards = getStraight(spadeCards);
         if (resultCards.size() == 5) {
             return getRankNumber(9, resultCards);
         }
-        List<Card> heartCards = filterBySuit(cards, "H");
+        List<Card> heartCards = filterBySuit(cards, Suit.HEARTS);
         resultCards = getStraight(heartCards);
         if (resultCards.size() == 5) {
             return getRankNumber(9, resultCards);
         }
-        List<Card> clubCards = filterBySuit(cards, "C");
+        List<Card> clubCards = filterBySuit(cards, Suit.CLUBS);
         resultCards = getStraight(clubCards);
         if (resultCards.size() == 5) {
             return getRankNumber(9, resultCards);
         }
-        List<Card> diamondCards = filterBySuit(cards, "D");
+        List<Card> diamondCards = filterBySuit(cards, Suit.DIAMONDS);
         resultCards = getStraight(diamondCards);
         if (resultCards.size() == 5) {
             return getRankNumber(9, resultCards);
@@ -133,10 +133,10 @@ public class HandEvaluation {
     /**
      * Returns a list containing only the cards that match the given suit.
      */
-    private static List<Card> filterBySuit(List<Card> cards, String suit) {
+    private static List<Card> filterBySuit(List<Card> cards, Suit suit) {
         List<Card> result = new ArrayList<>();
         for (Card card : cards) {
-            if (card.getSuit().equals(suit)) {
+            if (card.getSuit() == suit) {
                 result.add(card);
             }
         }
@@ -202,6 +202,13 @@ public class HandEvaluation {
         return keys;
     }
 
+    /**
+     * Hand type of a rank number of five or more cards, from 1 (high card) to 9 (straight flush).
+     */
+    public static int handType(long rankNumber) {
+        return (int) (rankNumber / 10_000_000_000L);
+    }
+
     /**
      * Returns a rank number based on the hand type and the list of five card values.
      * If the lowest card is an Ace (represented as 1), it is removed and a 14 is appended.
@@ -261,7 +268,13 @@ public class HandEvaluation {
     }
 
     public static String cardsToRankString(List<Card> cards) {
-        long rankNumber = cardsToRankNumber(cards);
+        return rankNumberToString(cardsToRankNumber(cards));
+    }
+
+    /**
+     * Describes a rank number from {@link #cardsToRankNumber}, for hands that were ranked already
+     */
+    public static String rankNumberToString(long rankNumber) {
         int typeNumber = (int) (rankNumber / Math.pow(100,5));
         return switch (typeNumber) {
             //StraightFlush
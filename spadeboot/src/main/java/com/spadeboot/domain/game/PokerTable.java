@@ -14,7 +14,22 @@ import java.util.Set;
 @Setter
 @Entity
 @Table(name = "poker_tables")
+@NamedEntityGraph(name = PokerTable.GRAPH_SEATS, attributeNodes = {
+        @NamedAttributeNode("owner"),
+        @NamedAttributeNode("players")
+})
+@NamedEntityGraph(name = PokerTable.GRAPH_SEATED_USERS, attributeNodes = {
+        @NamedAttributeNode("owner"),
+        @NamedAttributeNode(value = "players", subgraph = "players")
+}, subgraphs = @NamedSubgraph(name = "players", attributeNodes = @NamedAttributeNode("user")))
 public class PokerTable {
+
+    // Owner and seated players, enough to count seats and check membership
+    public static final String GRAPH_SEATS = "PokerTable.seats";
+
+    // Seats plus the users behind them, for code that reads balances or usernames
+    public static final String GRAPH_SEATED_USERS = "PokerTable.seatedUsers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,10 +46,10 @@ public class PokerTable {
 
     private Boolean isPrivate = false;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Player owner;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "poker_tables_players",
             joinColumns = @JoinColumn(name = "poker_table_id"),
@@ -42,9 +57,13 @@ public class PokerTable {
     )
     private Set<Player> players = new HashSet<>();
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Game game;
 
+    // Bumped by every seat change, so concurrent joins cannot overfill the table
+    @Version
+    private long version;
+
     public boolean addPlayer(Player player, Integer buyIn) {
 
         if(players.stream().anyMatch(p -> p.getUserId().equals(player.getUserId()))) {
@@ -59,12 +78,15 @@ public class PokerTable {
             return false;
         }
 
+        // Early rejection only, the ledger's conditional debit is what guards the balance
         if (buyIn > player.getUser().getBalance()) {
             return false;
         }
 
         player.setChips(buyIn);
+        // Persisted by the BUY_IN transfer the caller records in the ledger
         player.getUser().setBalance(player.getUser().getBalance() - buyIn);
+        player.registerBalanceChange(-buyIn);
         player.setCurrentTableId(this.id);
         player.setStatus(PlayerStatus.ACTIVE);
         players.add(player);
@@ -0,0 +1,16 @@
+package com.spadeboot.domain.ledger;
+
+/**
+ * Kinds of accounts chips can move between. Together with the account ID
+ * (user, user, table, none) they identify one ledger account.
+ */
+public enum LedgerAccount {
+    // Chips of a user away from the tables, materialized in users.balance
+    USER_BALANCE,
+    // Chips a user has in front of them at a table, materialized in players.chips
+    TABLE_STACK,
+    // Chips in the middle of a table during a hand
+    POT,
+    // Source and sink of chips that enter or leave the economy
+    HOUSE
+}
@@ -0,0 +1,50 @@
+package com.spadeboot.domain.ledger;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a chip transfer. Every transfer writes exactly two entries with the same
+ * transfer ID whose amounts sum to zero. Rows are only ever inserted.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_account", columnList = "account, account_id, created_at"),
+        @Index(name = "idx_ledger_transfer", columnList = "transfer_id")
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transfer_id", length = 36, nullable = false)
+    private String transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", length = 32, nullable = false)
+    private LedgerEntryType entryType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", length = 32, nullable = false)
+    private LedgerAccount account;
+
+    // User ID for balances and stacks, table ID for pots, 0 for the house
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "table_id")
+    private Long tableId;
+
+    // Positive when chips arrive in the account
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.spadeboot.domain.ledger;
+
+public enum LedgerEntryType {
+    // Balance a user had before the ledger existed
+    OPENING_BALANCE,
+    // Starting balance of a new user
+    SIGN_UP_GRANT,
+    BUY_IN,
+    CASH_OUT,
+    // Chips a player put into the pot during a hand
+    BET,
+    POT_WIN,
+    ADMIN_ADJUST
+}
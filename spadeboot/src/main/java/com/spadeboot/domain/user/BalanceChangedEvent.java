@@ -0,0 +1,28 @@
+package com.spadeboot.domain.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever the balance of a user changed (buy-in, cash-out, rebuy, admin update)
+ * or a user whose balance is ranked was created or renamed.
+ *
+ * Carries the changes, not the new values: balances are updated in place in the database, the
+ * loaded user may be stale by the time it is published. A new user starts from zero.
+ */
+@Getter
+@AllArgsConstructor
+public class BalanceChangedEvent {
+    private final Long userId;
+    private final String username;
+    private final int balanceDelta;
+    private final int absInvestmentDelta;
+
+    public static BalanceChangedEvent of(User user, int balanceDelta, int absInvestmentDelta) {
+        return new BalanceChangedEvent(user.getId(), user.getUsername(), balanceDelta, absInvestmentDelta);
+    }
+
+    public static BalanceChangedEvent renamed(User user) {
+        return of(user, 0, 0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.spadeboot.domain.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when two users became friends (a request was accepted) or stopped being friends
+ */
+@Getter
+@AllArgsConstructor
+public class FriendshipChangedEvent {
+    private final Long userId;
+    private final Long friendId;
+    private final boolean friends;
+}
@@ -1,8 +1,14 @@
 package com.spadeboot.domain.user;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a player in the poker game. A player is a user with poker-specific properties.
@@ -17,7 +23,7 @@ public class Player {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -30,6 +36,10 @@ public class Player {
     @Column(name = "current_table_id")
     private Long currentTableId;
 
+    // Two concurrent joins of the same user must not both seat the player
+    @Version
+    private long version;
+
 
     @Transient
     private Double winProbability = 0.0;
@@ -37,6 +47,12 @@ public class Player {
     @Transient
     private Integer totalBet = 0;
 
+    // Published by Spring Data on the next save of this player
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient List<Object> domainEvents = new ArrayList<>();
+
     public Long getUserId() {
         return user.getId();
     }
@@ -49,6 +65,10 @@ public class Player {
         return status == PlayerStatus.FOLDED;
     }
 
+    /**
+     * Move chips from the user's balance to the stack. Balances are persisted through the
+     * ledger, the caller records the BUY_IN transfer.
+     */
     public void rebuy(Integer amount) {
         if (amount == null || amount <= 0) {
             throw new IllegalArgumentException("Rebuy amount must be positive");
@@ -60,11 +80,16 @@ public class Player {
 
         user.setBalance(user.getBalance() - amount);
         this.chips += amount;
+        registerBalanceChange(-amount);
     }
 
+    /**
+     * Cash out and stand up. The caller records the CASH_OUT transfer in the ledger.
+     */
     public void leaveTable(Integer remainingChips) {
         if (remainingChips != null && remainingChips > 0) {
             user.setBalance(user.getBalance() + remainingChips);
+            registerBalanceChange(remainingChips);
         }
 
         this.chips = 0;
@@ -73,6 +98,24 @@ public class Player {
         this.totalBet = 0;
     }
 
+    /**
+     * Record that the balance of the owning user changed, published when the player is saved
+     * @param amount Chips added to the balance, negative if taken from it
+     */
+    public void registerBalanceChange(int amount) {
+        domainEvents.add(BalanceChangedEvent.of(user, amount, 0));
+    }
+
+    @DomainEvents
+    List<Object> domainEvents() {
+        return new ArrayList<>(domainEvents);
+    }
+
+    @AfterDomainEventPublication
+    void clearDomainEvents() {
+        domainEvents.clear();
+    }
+
 
     //^^keine Ahnung was das alles hier oben drüber soll
     //Ab hier code für Backend Logik
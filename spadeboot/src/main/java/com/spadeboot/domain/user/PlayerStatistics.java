@@ -0,0 +1,44 @@
+package com.spadeboot.domain.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized per-user poker counters. Rows are only ever incremented from completed
+ * hands, so reading a user's statistics is a single primary key lookup.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "player_statistics")
+public class PlayerStatistics {
+
+    // Same value as users.id, one row per user
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long handsPlayed = 0;
+
+    private long vpipHands = 0;
+
+    private long pfrHands = 0;
+
+    private long aggressiveActions = 0;
+
+    private long passiveActions = 0;
+
+    private long showdownsSeen = 0;
+
+    private long showdownsWon = 0;
+
+    private long handsWon = 0;
+
+    private long netChips = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,14 @@
+package com.spadeboot.domain.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when an admin grants or revokes the admin role of a user. Tokens issued
+ * before the change must no longer be trusted for their role claims.
+ */
+@Getter
+@AllArgsConstructor
+public class RoleChangedEvent {
+    private final Long userId;
+}
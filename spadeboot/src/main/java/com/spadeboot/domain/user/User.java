@@ -21,13 +21,17 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Materialized from the ledger by LedgerService, changes made here are never written back
+    @Column(updatable = false)
     private Integer balance = 1000; // Default starting balance
 
+    // Only changed by single-statement increments, see UserRepository.addAbsInvestment
+    @Column(updatable = false)
     private Integer absInvestment = balance;
 
-    @Lob
-    @Column(columnDefinition = "MEDIUMBLOB")
-    private byte[] avatar;
+    // SHA-256 of the uploaded image, the files live in the AvatarService store
+    @Column(name = "avatar_hash", length = 64)
+    private String avatarHash;
 
     @Column(name = "role")
     private String role = "ROLE_USER"; // Default role
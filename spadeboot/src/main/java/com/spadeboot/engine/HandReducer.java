@@ -0,0 +1,174 @@
+package com.spadeboot.engine;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.domain.game.StageType;
+
+/**
+ * The betting rules of a hand as pure functions from state and action to the next state.
+ * No threads, entities or I/O, so the live round, validation on the receiving thread,
+ * simulation and replay all apply exactly the same rules.
+ *
+ * A raise must add at least the big blind on top of the call, an all-in is always allowed and
+ * reopens the betting if it raises the current bet. A street ends once every seat that can
+ * still act has acted and matched the current bet, streets nobody can bet on are skipped.
+ */
+public final class HandReducer {
+
+    private HandReducer() {
+    }
+
+    /**
+     * Post the blinds and hand the turn to the first seat after the big blind
+     * @param stacks Chips of each seat dealt in, in seating order
+     */
+    public static HandState start(int[] stacks, int smallBlindSeat, int bigBlindSeat, int smallBlind, int bigBlind) {
+        int seats = stacks.length;
+        if (seats < 2 || seats > HandState.MAX_SEATS) {
+            throw new IllegalArgumentException("A hand needs between 2 and " + HandState.MAX_SEATS + " seats");
+        }
+
+        int[] remaining = stacks.clone();
+        int[] streetBets = new int[seats];
+        int[] totalBets = new int[seats];
+        pay(remaining, streetBets, totalBets, smallBlindSeat, Math.min(smallBlind, remaining[smallBlindSeat]));
+        pay(remaining, streetBets, totalBets, bigBlindSeat, Math.min(bigBlind, remaining[bigBlindSeat]));
+
+        return settle(StageType.PRE_FLOP, bigBlind, smallBlindSeat, streetBets[bigBlindSeat],
+                (bigBlindSeat + 1) % seats, remaining, streetBets, totalBets, 0, 0);
+    }
+
+    /**
+     * Apply the action of a seat
+     * @param amount Chips added on top of the call, only read for a raise
+     */
+    public static Transition apply(HandState state, int seat, ActionType action, Integer amount) {
+        if (state.isHandOver()) {
+            return Transition.rejected("The hand is over");
+        }
+        if (seat != state.toAct()) {
+            return Transition.rejected("It's not your turn");
+        }
+
+        int toCall = state.toCall(seat);
+        switch (action) {
+            case CHECK -> {
+                if (toCall > 0) {
+                    return Transition.rejected("Cannot check when there's a bet to call (" + toCall + " to call)");
+                }
+            }
+            case CALL -> {
+                if (toCall <= 0) {
+                    return Transition.rejected("Nothing to call");
+                }
+            }
+            case RAISE -> {
+                if (amount == null || amount <= 0) {
+                    return Transition.rejected("Raise amount must be positive");
+                }
+                if (amount < state.bigBlind()) {
+                    return Transition.rejected("Minimum raise is " + state.bigBlind());
+                }
+                if (toCall + amount > state.stack(seat)) {
+                    return Transition.rejected("Insufficient chips for raise");
+                }
+            }
+            default -> {
+                // Folding and going all-in are always possible
+            }
+        }
+
+        int[] stacks = state.copyStacks();
+        int[] streetBets = state.copyStreetBets();
+        int[] totalBets = state.copyTotalBets();
+        int seatBit = 1 << seat;
+        int foldedMask = state.foldedMask();
+        int actedMask = state.actedMask() | seatBit;
+        int currentBet = state.currentBet();
+
+        switch (action) {
+            case FOLD -> foldedMask |= seatBit;
+            case CHECK -> {
+                // Nothing to pay
+            }
+            case CALL -> pay(stacks, streetBets, totalBets, seat, Math.min(toCall, stacks[seat]));
+            case RAISE -> {
+                pay(stacks, streetBets, totalBets, seat, toCall + amount);
+                currentBet = streetBets[seat];
+                actedMask = seatBit;
+            }
+            case ALL_IN -> {
+                pay(stacks, streetBets, totalBets, seat, stacks[seat]);
+                if (streetBets[seat] > currentBet) {
+                    currentBet = streetBets[seat];
+                    actedMask = seatBit;
+                }
+            }
+        }
+
+        return Transition.accepted(settle(state.stage(), state.bigBlind(), state.smallBlindSeat(), currentBet,
+                (seat + 1) % stacks.length, stacks, streetBets, totalBets, foldedMask, actedMask));
+    }
+
+    /**
+     * Find the next seat to act from the given one on, moving to later streets while nobody
+     * has to act. Takes ownership of the arrays.
+     */
+    private static HandState settle(StageType stage, int bigBlind, int smallBlindSeat, int currentBet, int from,
+                                    int[] stacks, int[] streetBets, int[] totalBets, int foldedMask, int actedMask) {
+        int seats = stacks.length;
+        if (seats - Integer.bitCount(foldedMask) <= 1) {
+            return new HandState(stage, true, bigBlind, smallBlindSeat, currentBet, -1,
+                    stacks, streetBets, totalBets, foldedMask, actedMask);
+        }
+
+        int next = nextToAct(stacks, streetBets, currentBet, foldedMask, actedMask, from);
+        while (next < 0) {
+            if (stage == StageType.RIVER) {
+                return new HandState(stage, true, bigBlind, smallBlindSeat, currentBet, -1,
+                        stacks, streetBets, totalBets, foldedMask, actedMask);
+            }
+
+            stage = StageType.values()[stage.ordinal() + 1];
+            streetBets = new int[seats];
+            currentBet = 0;
+            actedMask = 0;
+            next = nextToAct(stacks, streetBets, currentBet, foldedMask, actedMask, smallBlindSeat);
+        }
+
+        return new HandState(stage, false, bigBlind, smallBlindSeat, currentBet, next,
+                stacks, streetBets, totalBets, foldedMask, actedMask);
+    }
+
+    /**
+     * @return The first seat from the given one on that still has to act this street, or -1
+     */
+    private static int nextToAct(int[] stacks, int[] streetBets, int currentBet, int foldedMask, int actedMask,
+                                 int from) {
+        int seats = stacks.length;
+        int canAct = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            if ((foldedMask & (1 << seat)) == 0 && stacks[seat] > 0) {
+                canAct++;
+            }
+        }
+
+        for (int i = 0; i < seats; i++) {
+            int seat = (from + i) % seats;
+            int seatBit = 1 << seat;
+            if ((foldedMask & seatBit) != 0 || stacks[seat] == 0) {
+                continue;
+            }
+            // A lone player with chips left only has to act when facing a bet
+            if (streetBets[seat] < currentBet || ((actedMask & seatBit) == 0 && canAct > 1)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private static void pay(int[] stacks, int[] streetBets, int[] totalBets, int seat, int amount) {
+        stacks[seat] -= amount;
+        streetBets[seat] += amount;
+        totalBets[seat] += amount;
+    }
+}
@@ -0,0 +1,161 @@
+package com.spadeboot.engine;
+
+import com.spadeboot.domain.game.StageType;
+
+/**
+ * Immutable betting state of one hand. Seats are indexes into the list of players dealt in,
+ * cards are not part of the state. Instances are only created by {@link HandReducer}, every
+ * transition returns a new one, so a state can be read from any thread.
+ */
+public final class HandState {
+
+    // Up to 32 seats fit the fold and acted masks
+    public static final int MAX_SEATS = Integer.SIZE;
+
+    private final StageType stage;
+    private final boolean handOver;
+    private final int bigBlind;
+    private final int smallBlindSeat;
+    private final int currentBet;
+    private final int toAct;
+    private final int pot;
+
+    private final int[] stacks;
+    private final int[] streetBets;
+    private final int[] totalBets;
+    private final int foldedMask;
+    private final int actedMask;
+
+    HandState(StageType stage, boolean handOver, int bigBlind, int smallBlindSeat, int currentBet, int toAct,
+              int[] stacks, int[] streetBets, int[] totalBets, int foldedMask, int actedMask) {
+        this.stage = stage;
+        this.handOver = handOver;
+        this.bigBlind = bigBlind;
+        this.smallBlindSeat = smallBlindSeat;
+        this.currentBet = currentBet;
+        this.toAct = toAct;
+        this.stacks = stacks;
+        this.streetBets = streetBets;
+        this.totalBets = totalBets;
+        this.foldedMask = foldedMask;
+        this.actedMask = actedMask;
+
+        int sum = 0;
+        for (int bet : totalBets) {
+            sum += bet;
+        }
+        this.pot = sum;
+    }
+
+    public StageType stage() {
+        return stage;
+    }
+
+    /**
+     * Whether no more betting is possible, either everyone but one folded or the river is done
+     */
+    public boolean isHandOver() {
+        return handOver;
+    }
+
+    /**
+     * Whether the hand is over with more than one player left, who show their cards
+     */
+    public boolean isShowdown() {
+        return handOver && inHandCount() > 1;
+    }
+
+    public int seats() {
+        return stacks.length;
+    }
+
+    public int bigBlind() {
+        return bigBlind;
+    }
+
+    public int smallBlindSeat() {
+        return smallBlindSeat;
+    }
+
+    /**
+     * Highest street bet a player has to match
+     */
+    public int currentBet() {
+        return currentBet;
+    }
+
+    /**
+     * @return The seat whose turn it is, -1 once the hand is over
+     */
+    public int toAct() {
+        return toAct;
+    }
+
+    public int pot() {
+        return pot;
+    }
+
+    /**
+     * Chips the seat has behind, not counting what it already bet
+     */
+    public int stack(int seat) {
+        return stacks[seat];
+    }
+
+    public int streetBet(int seat) {
+        return streetBets[seat];
+    }
+
+    /**
+     * Everything the seat put into the pot during the hand, blinds included
+     */
+    public int totalBet(int seat) {
+        return totalBets[seat];
+    }
+
+    public int toCall(int seat) {
+        return Math.max(0, currentBet - streetBets[seat]);
+    }
+
+    public boolean isFolded(int seat) {
+        return (foldedMask & (1 << seat)) != 0;
+    }
+
+    boolean hasActed(int seat) {
+        return (actedMask & (1 << seat)) != 0;
+    }
+
+    /**
+     * Whether the seat is still in the hand and has chips to act with
+     */
+    public boolean canAct(int seat) {
+        return !isFolded(seat) && stacks[seat] > 0;
+    }
+
+    /**
+     * Seats that have not folded, all-in seats included
+     */
+    public int inHandCount() {
+        return stacks.length - Integer.bitCount(foldedMask);
+    }
+
+    int foldedMask() {
+        return foldedMask;
+    }
+
+    int actedMask() {
+        return actedMask;
+    }
+
+    int[] copyStacks() {
+        return stacks.clone();
+    }
+
+    int[] copyStreetBets() {
+        return streetBets.clone();
+    }
+
+    int[] copyTotalBets() {
+        return totalBets.clone();
+    }
+}
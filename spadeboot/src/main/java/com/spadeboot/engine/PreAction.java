@@ -0,0 +1,38 @@
+package com.spadeboot.engine;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.api.dto.PreActionDto.PreActionType;
+import com.spadeboot.domain.game.StageType;
+
+/**
+ * An action a player decided on before its turn, taken the moment the turn comes without
+ * waiting for the client. It is tied to the street and bet it was queued against: the
+ * conditional types decide on the bet they find, the others are dropped once it changed.
+ */
+public record PreAction(PreActionType type, StageType stage, int currentBet) {
+
+    /**
+     * Queue an action against the current state
+     */
+    public static PreAction of(PreActionType type, HandState state) {
+        return new PreAction(type, state.stage(), state.currentBet());
+    }
+
+    /**
+     * @return The action to take for the seat now, or null if the pre-action no longer applies
+     */
+    public ActionType resolve(HandState state, int seat) {
+        if (state.stage() != stage || state.toAct() != seat) {
+            return null;
+        }
+
+        boolean betChanged = state.currentBet() != currentBet;
+        boolean canCheck = state.toCall(seat) == 0;
+        return switch (type) {
+            case CHECK_FOLD -> canCheck ? ActionType.CHECK : ActionType.FOLD;
+            case CHECK -> canCheck && !betChanged ? ActionType.CHECK : null;
+            case CALL -> betChanged ? null : canCheck ? ActionType.CHECK : ActionType.CALL;
+            case CALL_ANY -> canCheck ? ActionType.CHECK : ActionType.CALL;
+        };
+    }
+}
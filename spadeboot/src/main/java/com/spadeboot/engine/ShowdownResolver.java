@@ -0,0 +1,154 @@
+package com.spadeboot.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the chips of a finished hand into a main pot and side pots and awards each of them.
+ *
+ * Seats are sorted by contribution once. Every distinct contribution of a seat still in the
+ * hand closes a pot layer: all seats pay into it up to that level, and only seats that
+ * reached the level can win it. Chips folded seats put in above the last level go to the
+ * last pot. Odd chips of a split go one each to the winners closest to the left of the
+ * button, so the same hand is always paid out the same way.
+ */
+public final class ShowdownResolver {
+
+    // Seat index in the low bits of a sort key, HandState.MAX_SEATS fits
+    private static final int SEAT_BITS = 5;
+    private static final long SEAT_MASK = (1 << SEAT_BITS) - 1;
+
+    private ShowdownResolver() {
+    }
+
+    /**
+     * One pot and its payout
+     * @param winners Winning seats, the ones receiving odd chips first
+     * @param amounts Chips each winner receives, parallel to winners
+     * @param uncalled Whether the pot only holds the chips of one seat that nobody matched,
+     *                 which go back to it rather than being won
+     */
+    public record Pot(int amount, int[] winners, int[] amounts, boolean uncalled) {
+    }
+
+    /**
+     * Pay out a finished hand
+     * @param ranks Hand rank of each seat still in, higher is better, ignored for folded seats
+     * @param oddChipSeat First seat to the left of the button
+     */
+    public static List<Pot> resolve(HandState state, long[] ranks, int oddChipSeat) {
+        return resolve(state.copyTotalBets(), state.foldedMask(), ranks, oddChipSeat);
+    }
+
+    /**
+     * @param contributions Chips each seat put in during the hand
+     * @param foldedMask One bit per folded seat, at least one seat must still be in
+     * @return Main pot first, then the side pots by level
+     */
+    public static List<Pot> resolve(int[] contributions, int foldedMask, long[] ranks, int oddChipSeat) {
+        int seats = contributions.length;
+        long[] order = new long[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            order[seat] = ((long) contributions[seat] << SEAT_BITS) | seat;
+        }
+        Arrays.sort(order);
+
+        // Best rank among the seats still in at or above each sorted position
+        long[] bestFrom = new long[seats + 1];
+        bestFrom[seats] = Long.MIN_VALUE;
+        for (int i = seats - 1; i >= 0; i--) {
+            int seat = seatAt(order, i);
+            bestFrom[i] = isFolded(foldedMask, seat) ? bestFrom[i + 1] : Math.max(bestFrom[i + 1], ranks[seat]);
+        }
+
+        // One sweep upwards, a layer closes at every new level of a seat still in
+        int[] layerAmounts = new int[seats];
+        int[] layerStarts = new int[seats];
+        boolean[] layerUncalled = new boolean[seats];
+        int layers = 0;
+        int level = 0;
+        int foldedChips = 0;
+        for (int i = 0; i < seats; i++) {
+            int seat = seatAt(order, i);
+            int contribution = contributions[seat];
+            if (isFolded(foldedMask, seat)) {
+                foldedChips += contribution - level;
+                continue;
+            }
+            if (contribution == level) {
+                continue;
+            }
+
+            // Every seat from here on paid at least up to this level
+            layerAmounts[layers] = foldedChips + (contribution - level) * (seats - i);
+            layerStarts[layers] = i;
+            layerUncalled[layers] = seats - i == 1 && foldedChips == 0;
+            layers++;
+            level = contribution;
+            foldedChips = 0;
+        }
+        if (layers == 0) {
+            throw new IllegalArgumentException("No seat is left in the hand");
+        }
+        if (foldedChips > 0) {
+            layerAmounts[layers - 1] += foldedChips;
+            layerUncalled[layers - 1] = false;
+        }
+
+        List<Pot> pots = new ArrayList<>(layers);
+        for (int layer = 0; layer < layers; layer++) {
+            pots.add(award(layerAmounts[layer], layerStarts[layer], layerUncalled[layer],
+                    order, bestFrom, ranks, foldedMask, oddChipSeat));
+        }
+        return pots;
+    }
+
+    /**
+     * Total chips each seat receives from the pots
+     */
+    public static int[] payouts(List<Pot> pots, int seats) {
+        int[] payouts = new int[seats];
+        for (Pot pot : pots) {
+            for (int i = 0; i < pot.winners().length; i++) {
+                payouts[pot.winners()[i]] += pot.amounts()[i];
+            }
+        }
+        return payouts;
+    }
+
+    private static Pot award(int amount, int start, boolean uncalled, long[] order, long[] bestFrom, long[] ranks,
+                             int foldedMask, int oddChipSeat) {
+        int seats = order.length;
+        long best = bestFrom[start];
+
+        // Winners ordered by their distance from the first seat left of the button
+        long[] winnerKeys = new long[seats - start];
+        int winners = 0;
+        for (int i = start; i < seats; i++) {
+            int seat = seatAt(order, i);
+            if (!isFolded(foldedMask, seat) && ranks[seat] == best) {
+                winnerKeys[winners++] = ((long) Math.floorMod(seat - oddChipSeat, seats) << SEAT_BITS) | seat;
+            }
+        }
+        Arrays.sort(winnerKeys, 0, winners);
+
+        int share = amount / winners;
+        int oddChips = amount % winners;
+        int[] winnerSeats = new int[winners];
+        int[] amounts = new int[winners];
+        for (int i = 0; i < winners; i++) {
+            winnerSeats[i] = (int) (winnerKeys[i] & SEAT_MASK);
+            amounts[i] = share + (i < oddChips ? 1 : 0);
+        }
+        return new Pot(amount, winnerSeats, amounts, uncalled);
+    }
+
+    private static int seatAt(long[] order, int index) {
+        return (int) (order[index] & SEAT_MASK);
+    }
+
+    private static boolean isFolded(int foldedMask, int seat) {
+        return (foldedMask & (1 << seat)) != 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.spadeboot.engine;
+
+/**
+ * Result of applying an action to a {@link HandState}: the next state, or the reason the
+ * action was rejected. A rejection leaves the hand unchanged.
+ */
+public record Transition(HandState state, String rejection) {
+
+    static Transition accepted(HandState state) {
+        return new Transition(state, null);
+    }
+
+    static Transition rejected(String rejection) {
+        return new Transition(null, rejection);
+    }
+
+    public boolean isAccepted() {
+        return rejection == null;
+    }
+}
@@ -0,0 +1,277 @@
+package com.spadeboot.metrics;
+
+import com.spadeboot.api.dto.GameEventDto;
+import com.spadeboot.api.dto.PlayerActionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * All meters of the game engine and its websocket fan-out. Tags only ever carry enum values
+ * (action, event type, wait kind, pressure, outcome), never table, player or user IDs, so the number
+ * of time series stays fixed no matter how many tables are running. Meters are created up
+ * front and cached, recording is allocation free.
+ */
+@Component
+public class EngineMetrics {
+
+    public enum WaitKind {
+        ACTION,      // Round thread blocked on the action latch
+        ROUND,       // Game thread joining the running round
+        HAND_PAUSE   // Game thread sleeping between two hands
+    }
+
+    public enum Pressure {
+        TABLES,      // Live tables at the configured maximum
+        SEATS,       // Seated players at the configured maximum
+        OUTBOUND,    // Websocket frames of some table queued faster than they are written
+        CPU          // Process CPU load above the configured threshold
+    }
+
+    public enum SheddableWork {
+        LOBBY_UPDATE,
+        PRESENCE_UPDATE,
+        SUGGESTION_REFRESH
+    }
+
+    private final MeterRegistry registry;
+
+    private final Map<PlayerActionDto.ActionType, Timer> actionLatency = new EnumMap<>(PlayerActionDto.ActionType.class);
+    private final Map<WaitKind, Timer> waits = new EnumMap<>(WaitKind.class);
+    private final Map<GameEventDto.EventType, Timer> sendLatency = new EnumMap<>(GameEventDto.EventType.class);
+    private final Map<GameEventDto.EventType, DistributionSummary> messageSize = new EnumMap<>(GameEventDto.EventType.class);
+    private final Timer timeToAct;
+    private final Timer timeToActTimedOut;
+    private final Timer handDuration;
+    private final Timer handDurationShowdown;
+    private final DistributionSummary outboundTableDepth;
+    private final Timer fastFoldWait;
+    private final Timer rehydration;
+    private final Map<Pressure, Counter> admissionsRejected = new EnumMap<>(Pressure.class);
+    private final Map<SheddableWork, Counter> shedWork = new EnumMap<>(SheddableWork.class);
+    private final Timer replicationLag;
+    private final Timer failover;
+    private final Counter promotions;
+
+    public EngineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (PlayerActionDto.ActionType type : PlayerActionDto.ActionType.values()) {
+            actionLatency.put(type, Timer.builder("spade.engine.action.latency")
+                    .description("Time from an action being submitted until the round thread has applied it")
+                    .tag("action", type.name())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+
+        for (WaitKind kind : WaitKind.values()) {
+            waits.put(kind, Timer.builder("spade.engine.wait")
+                    .description("Time engine threads spend blocked")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+
+        for (GameEventDto.EventType type : GameEventDto.EventType.values()) {
+            sendLatency.put(type, Timer.builder("spade.ws.send.latency")
+                    .description("Time to serialize an event and hand it to the broker")
+                    .tag("type", type.name())
+                    .publishPercentileHistogram()
+                    .register(registry));
+            messageSize.put(type, DistributionSummary.builder("spade.ws.message.size")
+                    .description("Serialized size of published events")
+                    .baseUnit("bytes")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+
+        for (Pressure pressure : Pressure.values()) {
+            admissionsRejected.put(pressure, Counter.builder("spade.node.admission.rejected")
+                    .description("Games and seats turned away because the node was at capacity")
+                    .tag("pressure", pressure.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+
+        for (SheddableWork work : SheddableWork.values()) {
+            shedWork.put(work, Counter.builder("spade.node.shed")
+                    .description("Non-critical work skipped because the node was overloaded")
+                    .tag("work", work.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+
+        timeToAct = timeToActTimer("acted");
+        timeToActTimedOut = timeToActTimer("timeout");
+        handDuration = handDurationTimer(false);
+        handDurationShowdown = handDurationTimer(true);
+
+        rehydration = Timer.builder("spade.engine.session.rehydration")
+                .description("Time to rebuild a hibernated table on first use, players loaded included")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        fastFoldWait = Timer.builder("spade.fastfold.wait")
+                .description("Time a fast-fold player waited in the pool queue until dealt into a hand")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        replicationLag = Timer.builder("spade.cluster.replication.lag")
+                .description("Time from an engine event on the primary of a table to its standby applying it")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        failover = Timer.builder("spade.cluster.failover")
+                .description("Time from the last heartbeat of a failed primary to its standby running the table")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        promotions = Counter.builder("spade.cluster.promotions")
+                .description("Tables taken over by their standby after the primary stopped sending heartbeats")
+                .register(registry);
+
+        outboundTableDepth = DistributionSummary.builder("spade.ws.outbound.table.depth")
+                .description("Frames already queued for the same table when another one is enqueued")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer timeToActTimer(String outcome) {
+        return Timer.builder("spade.engine.turn.duration")
+                .description("Time a player took to act after their turn started")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer handDurationTimer(boolean showdown) {
+        return Timer.builder("spade.engine.hand.duration")
+                .description("Wall-clock time of a hand from dealing to pot distribution")
+                .tag("showdown", Boolean.toString(showdown))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordActionApplied(PlayerActionDto.ActionType type, long nanos) {
+        actionLatency.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTimeToAct(long nanos, boolean timedOut) {
+        (timedOut ? timeToActTimedOut : timeToAct).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHandDuration(long nanos, boolean showdown) {
+        (showdown ? handDurationShowdown : handDuration).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWait(WaitKind kind, long nanos) {
+        waits.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSend(GameEventDto.EventType type, long nanos, int bytes) {
+        sendLatency.get(type).record(nanos, TimeUnit.NANOSECONDS);
+        if (bytes >= 0) {
+            messageSize.get(type).record(bytes);
+        }
+    }
+
+    public void recordRehydration(long nanos) {
+        rehydration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFastFoldWait(long nanos) {
+        fastFoldWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutboundTableDepth(int depth) {
+        outboundTableDepth.record(depth);
+    }
+
+    public void recordReplicationLag(long millis) {
+        replicationLag.record(Math.max(millis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPromotion(long nanosSinceHeartbeat) {
+        promotions.increment();
+        failover.record(nanosSinceHeartbeat, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAdmissionRejected(Pressure pressure) {
+        admissionsRejected.get(pressure).increment();
+    }
+
+    public void recordShed(SheddableWork work) {
+        shedWork.get(work).increment();
+    }
+
+    /**
+     * Gauges over the session registry, sampled on scrape
+     */
+    public void registerSessionGauges(Supplier<Number> activeSessions, Supplier<Number> activeRounds,
+                                      Supplier<Number> hibernatedSessions) {
+        Gauge.builder("spade.engine.sessions.active", activeSessions)
+                .description("Game sessions currently registered and resident on the heap")
+                .register(registry);
+        Gauge.builder("spade.engine.sessions.hibernated", hibernatedSessions)
+                .description("Tables waiting for players, kept as a compact snapshot until used again")
+                .register(registry);
+        Gauge.builder("spade.engine.rounds.active", activeRounds)
+                .description("Hands currently being played")
+                .register(registry);
+    }
+
+    /**
+     * Gauges over the capacity of the node, sampled on scrape
+     */
+    public void registerCapacityGauges(Supplier<Number> liveTables, Supplier<Number> seatedPlayers,
+                                       Supplier<Number> overloaded) {
+        Gauge.builder("spade.node.tables", liveTables)
+                .description("Live tables counted against the table capacity, fast-fold pools included")
+                .register(registry);
+        Gauge.builder("spade.node.seats", seatedPlayers)
+                .description("Players seated at live tables or in fast-fold pools")
+                .register(registry);
+        Gauge.builder("spade.node.overloaded", overloaded)
+                .description("1 while the node sheds non-critical work, 0 otherwise")
+                .register(registry);
+    }
+
+    /**
+     * Gauges over all fast-fold pools together, sampled on scrape
+     */
+    public void registerFastFoldGauges(Supplier<Number> queuedPlayers, Supplier<Number> pooledPlayers) {
+        Gauge.builder("spade.fastfold.pool.depth", queuedPlayers)
+                .description("Players queued for their next fast-fold hand")
+                .register(registry);
+        Gauge.builder("spade.fastfold.pool.players", pooledPlayers)
+                .description("Players in fast-fold pools, queued or in a hand")
+                .register(registry);
+    }
+
+    /**
+     * Gauges over the per-table outbound queues, sampled on scrape
+     */
+    public void registerOutboundGauges(Supplier<Number> maxTableDepth, Supplier<Number> backloggedTables) {
+        Gauge.builder("spade.ws.outbound.table.depth.max", maxTableDepth)
+                .description("Deepest outbound queue of any single table")
+                .register(registry);
+        Gauge.builder("spade.ws.outbound.tables.backlogged", backloggedTables)
+                .description("Tables with at least one outbound frame still queued")
+                .register(registry);
+    }
+
+    /**
+     * Gauges over the tables this node stands by for, sampled on scrape
+     */
+    public void registerReplicationGauges(Supplier<Number> replicas) {
+        Gauge.builder("spade.cluster.replicas", replicas)
+                .description("Tables of other nodes shadowed here, ready to take over")
+                .register(registry);
+    }
+}
@@ -4,6 +4,7 @@ package com.spadeboot.repository;
 import com.spadeboot.domain.user.Friendship;
 import com.spadeboot.domain.user.FriendshipStatus;
 import com.spadeboot.domain.user.User;
+import com.spadeboot.repository.projection.FriendshipEdgeView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,4 +33,8 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     // Find all accepted friendships for a user
     @Query("SELECT f FROM Friendship f WHERE (f.requester = :user OR f.addressee = :user) AND f.status = :status")
     List<Friendship> findAcceptedFriendships(@Param("user") User user, @Param("status") FriendshipStatus status);
-}
\ No newline at end of file
+
+    // Both user IDs of every friendship with the given status, without loading the users
+    @Query("SELECT f.requester.id AS requesterId, f.addressee.id AS addresseeId FROM Friendship f WHERE f.status = :status")
+    List<FriendshipEdgeView> findAllEdges(@Param("status") FriendshipStatus status);
+}
@@ -0,0 +1,23 @@
+package com.spadeboot.repository;
+
+import com.spadeboot.domain.ledger.LedgerAccount;
+import com.spadeboot.domain.ledger.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Balance of an account as of a point in time
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e " +
+            "WHERE e.account = :account AND e.accountId = :accountId AND e.createdAt <= :at")
+    long sumUntil(@Param("account") LedgerAccount account, @Param("accountId") Long accountId,
+                  @Param("at") LocalDateTime at);
+
+    // Transfers whose legs do not cancel out, empty as long as the ledger is consistent
+    @Query("SELECT e.transferId FROM LedgerEntry e GROUP BY e.transferId HAVING SUM(e.amount) <> 0")
+    List<String> findUnbalancedTransfers();
+}
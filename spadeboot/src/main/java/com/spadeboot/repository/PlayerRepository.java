@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PlayerRepository extends JpaRepository<Player, Long> {
@@ -12,7 +14,16 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     @Query("SELECT p FROM Player p WHERE p.user.id = :userId")
     Optional<Player> findByUserId(@Param("userId") Long userId);
 
+    // Same as findByUserId, for callers that read or change the user's balance or profile
+    @Query("SELECT p FROM Player p JOIN FETCH p.user WHERE p.user.id = :userId")
+    Optional<Player> findWithUserByUserId(@Param("userId") Long userId);
+
+    // Players of a table being rehydrated, with the users the session shows
+    @Query("SELECT p FROM Player p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Player> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
     // Determine if a player exists for a given user ID
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Player p WHERE p.user.id = :userId")
     boolean existsByUserId(@Param("userId") Long userId);
+
 }
\ No newline at end of file
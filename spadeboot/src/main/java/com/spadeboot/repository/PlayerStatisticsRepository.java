@@ -0,0 +1,19 @@
+package com.spadeboot.repository;
+
+import com.spadeboot.domain.user.PlayerStatistics;
+import com.spadeboot.repository.projection.PlayerResultsView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
+
+public interface PlayerStatisticsRepository extends JpaRepository<PlayerStatistics, Long> {
+
+    // Stream hand counters of all users, see UserRepository.streamAllBalances for the fetch size
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT s.userId AS userId, s.handsPlayed AS handsPlayed, s.netChips AS netChips FROM PlayerStatistics s")
+    Stream<PlayerResultsView> streamAllResults();
+}
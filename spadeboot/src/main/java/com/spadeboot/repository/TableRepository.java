@@ -2,8 +2,28 @@
 package com.spadeboot.repository;
 
 import com.spadeboot.domain.game.PokerTable;
+import com.spadeboot.repository.projection.LobbyTableView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface TableRepository extends JpaRepository<PokerTable, Long> {
 
+    // Table detail, join and leave
+    @EntityGraph(PokerTable.GRAPH_SEATS)
+    Optional<PokerTable> findWithSeatsById(Long id);
+
+    // Game start and table deletion, which read the users of all seated players
+    @EntityGraph(PokerTable.GRAPH_SEATED_USERS)
+    Optional<PokerTable> findWithSeatedUsersById(Long id);
+
+    // Lobby rows of all tables in one query, without loading players or owners
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description, t.maxPlayers AS maxPlayers, " +
+            "SIZE(t.players) AS seatedPlayers, t.minBuyIn AS minBuyIn, t.maxBuyIn AS maxBuyIn, " +
+            "t.isPrivate AS isPrivate, o.user.id AS ownerId " +
+            "FROM PokerTable t LEFT JOIN t.owner o")
+    List<LobbyTableView> findAllLobbyRows();
 }
@@ -2,11 +2,21 @@
 package com.spadeboot.repository;
 
 import com.spadeboot.domain.user.User;
+import com.spadeboot.repository.projection.UserBalanceView;
+import com.spadeboot.repository.projection.UserNameView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -27,4 +37,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.email = ?1")
     boolean existsByEmail(String email);
 
+    // Stream the balances of all users, MySQL streams row by row with a fetch size of Integer.MIN_VALUE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT u.id AS id, u.username AS username, u.balance AS balance, u.absInvestment AS absInvestment FROM User u")
+    Stream<UserBalanceView> streamAllBalances();
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.id IN :ids")
+    List<UserNameView> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE User u SET u.absInvestment = u.absInvestment + :amount WHERE u.id = :userId")
+    int addAbsInvestment(@Param("userId") Long userId, @Param("amount") Integer amount);
 }
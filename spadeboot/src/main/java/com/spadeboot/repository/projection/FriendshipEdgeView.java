@@ -0,0 +1,10 @@
+package com.spadeboot.repository.projection;
+
+/**
+ * The two user IDs of a friendship, enough to build the friend graph
+ */
+public interface FriendshipEdgeView {
+    Long getRequesterId();
+
+    Long getAddresseeId();
+}
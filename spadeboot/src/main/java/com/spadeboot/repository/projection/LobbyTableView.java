@@ -0,0 +1,16 @@
+package com.spadeboot.repository.projection;
+
+/**
+ * Lobby columns of a table, with the seated players counted in the database
+ */
+public interface LobbyTableView {
+    Long getId();
+    String getName();
+    String getDescription();
+    Integer getMaxPlayers();
+    Integer getSeatedPlayers();
+    Integer getMinBuyIn();
+    Integer getMaxBuyIn();
+    Boolean getIsPrivate();
+    Long getOwnerId();
+}
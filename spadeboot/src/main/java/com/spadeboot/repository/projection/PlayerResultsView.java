@@ -0,0 +1,10 @@
+package com.spadeboot.repository.projection;
+
+/**
+ * Hand counters needed to rate a user
+ */
+public interface PlayerResultsView {
+    Long getUserId();
+    long getHandsPlayed();
+    long getNetChips();
+}
@@ -0,0 +1,11 @@
+package com.spadeboot.repository.projection;
+
+/**
+ * Balance columns of a user, without password hash or avatar
+ */
+public interface UserBalanceView {
+    Long getId();
+    String getUsername();
+    Integer getBalance();
+    Integer getAbsInvestment();
+}
@@ -0,0 +1,10 @@
+package com.spadeboot.repository.projection;
+
+/**
+ * ID and username of a user, enough to label a list of user IDs
+ */
+public interface UserNameView {
+    Long getId();
+
+    String getUsername();
+}
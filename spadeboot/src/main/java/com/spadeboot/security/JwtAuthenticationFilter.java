@@ -1,15 +1,15 @@
 package com.spadeboot.security;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,13 +20,10 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
-    private JwtUtils jwtUtils;
-
-    @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenAuthenticator tokenAuthenticator;
 
     // List of paths that should be public (without authentication)
-    private final List<String> publicPaths = Arrays.asList(
+    private static final List<String> PUBLIC_PATHS = List.of(
             "/api/users/register",
             "/api/users/register/",
             "/api/users/login",
@@ -37,9 +34,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/api/spotify/lyrics",
             "/api/spotify/debug/**",
             "/ws/**",
+            "/api/avatars/**",
+            "/actuator/health",
+            "/actuator/prometheus",
             "/error");
 
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // Public paths are either exact or end in /**, so a set lookup and a few prefix checks do
+    private final Set<String> publicExactPaths = new HashSet<>();
+    private final List<String> publicPrefixes = new ArrayList<>();
+
+    public JwtAuthenticationFilter() {
+        for (String publicPath : PUBLIC_PATHS) {
+            if (publicPath.endsWith("/**")) {
+                String base = publicPath.substring(0, publicPath.length() - 3);
+                publicExactPaths.add(base);
+                publicPrefixes.add(base + "/");
+            } else {
+                publicExactPaths.add(publicPath);
+            }
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -47,22 +61,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String path = request.getRequestURI();
 
-        // Check if the request is for a public path
-        boolean isPublicPath = publicPaths.stream()
-                .anyMatch(publicPath -> pathMatcher.match(publicPath, path));
-
         // Skip JWT validation for public paths
-        if (isPublicPath) {
+        if (isPublicPath(path)) {
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetailsImpl userDetails = jwt != null ? tokenAuthenticator.authenticate(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -76,6 +84,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    boolean isPublicPath(String path) {
+        if (publicExactPaths.contains(path)) {
+            return true;
+        }
+        for (String prefix : publicPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,149 @@
+package com.spadeboot.security;
+
+import com.spadeboot.domain.user.RoleChangedEvent;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a bearer token into a principal for HTTP requests and STOMP CONNECT frames.
+ * <ol>
+ *     <li>A token seen before is answered from a bounded cache without verifying it again.</li>
+ *     <li>Otherwise the token is verified once and, if it carries user ID and roles, the
+ *     principal is built from the claims without touching the database.</li>
+ *     <li>Tokens without those claims, or issued before the user's roles last changed,
+ *     fall back to loading the user.</li>
+ * </ol>
+ */
+@Component
+public class TokenAuthenticator {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Value("${app.jwt.cache-size:10000}")
+    private int maxCachedTokens;
+
+    private final Map<String, CachedPrincipal> verifiedTokens = new ConcurrentHashMap<>();
+
+    // Epoch millis of the last role change per user, claims issued before it are not trusted
+    private final Map<Long, Long> rolesChangedAt = new ConcurrentHashMap<>();
+
+    /**
+     * @return The principal of a valid token, or null if the token is invalid or the user is gone
+     */
+    public UserDetailsImpl authenticate(String token) {
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAt > now && cached.rolesVersion == rolesVersion(cached.principal.getId())) {
+                return cached.principal;
+            }
+            verifiedTokens.remove(token, cached);
+        }
+
+        Claims claims = jwtUtils.parseClaims(token);
+        if (claims == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        // Read once, before the roles are: a role change from here on leaves the entry cached under the
+        // version it replaced, never the old roles under the new version
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        Long version = userId != null ? rolesVersion(userId.longValue()) : null;
+
+        UserDetailsImpl principal = version != null ? fromClaims(claims, userId.longValue(), version) : null;
+        if (principal == null) {
+            principal = loadUser(claims.getSubject());
+            if (principal == null) {
+                return null;
+            }
+        }
+
+        // Tokens without a user ID claim are verified every time, no version could be read for them
+        if (version != null && principal.getId().equals(userId.longValue())) {
+            cache(token, principal, claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE,
+                    now, version);
+        }
+        return principal;
+    }
+
+    // After commit, so the slow path cannot reload and cache the old role
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        invalidateUser(event.getUserId());
+    }
+
+    /**
+     * Stop trusting cached principals and role claims of a user, called when their roles change
+     */
+    public void invalidateUser(Long userId) {
+        rolesChangedAt.put(userId, System.currentTimeMillis());
+        verifiedTokens.values().removeIf(entry -> userId.equals(entry.principal.getId()));
+    }
+
+    /**
+     * @param rolesVersion Roles version of the user read before, claims issued before it are not trusted
+     */
+    private UserDetailsImpl fromClaims(Claims claims, long userId, long rolesVersion) {
+        Object roles = claims.get(JwtUtils.CLAIM_ROLES);
+        if (!(roles instanceof Collection<?> roleNames) || claims.getIssuedAt() == null) {
+            return null;
+        }
+
+        // iat has second precision, rounding down can only send a token to the slow path
+        if (claims.getIssuedAt().getTime() < rolesVersion) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roleNames.size());
+        for (Object role : roleNames) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new UserDetailsImpl(userId, claims.getSubject(), null, null, authorities);
+    }
+
+    private UserDetailsImpl loadUser(String username) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            return userDetails instanceof UserDetailsImpl impl ? impl : null;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void cache(String token, UserDetailsImpl principal, long expiresAt, long now, long rolesVersion) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt <= now);
+            if (verifiedTokens.size() >= maxCachedTokens) {
+                // Still full of live tokens, verifying this one again next time is fine
+                return;
+            }
+        }
+        verifiedTokens.put(token, new CachedPrincipal(principal, expiresAt, rolesVersion));
+    }
+
+    private long rolesVersion(Long userId) {
+        Long changedAt = rolesChangedAt.get(userId);
+        return changedAt != null ? changedAt : 0L;
+    }
+
+    private record CachedPrincipal(UserDetailsImpl principal, long expiresAt, long rolesVersion) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.spadeboot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed avatar store on the local file system. An upload is keyed by the SHA-256
+ * of its bytes and rendered once into square PNGs of every supported size. The files never
+ * change after they are written, so they can be cached forever and shared between users
+ * who upload the same image.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarService.class);
+
+    public static final List<Integer> SIZES = List.of(256, 128, 64);
+    public static final int DEFAULT_SIZE = 128;
+
+    // Same limit as the old MEDIUMBLOB column
+    static final int MAX_UPLOAD_BYTES = 16 * 1024 * 1024;
+
+    // Refuse to decode images of more pixels than this, 16 MB decoded, whatever the file size.
+    // A small file can declare huge dimensions, the width alone would let one through at 256 MB.
+    static final long MAX_PIXELS = 2048L * 2048L;
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public AvatarService(@Value("${app.avatars.dir:data/avatars}") String directory) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Store an uploaded image and render its thumbnails
+     * @param imageBytes The uploaded file
+     * @return The content hash the avatar is stored under
+     */
+    public String store(byte[] imageBytes) {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalStateException("Avatar image is empty");
+        }
+        if (imageBytes.length > MAX_UPLOAD_BYTES) {
+            throw new IllegalStateException("Avatar image is larger than 16 MB");
+        }
+
+        String hash = sha256(imageBytes);
+        if (exists(hash)) {
+            return hash;
+        }
+
+        BufferedImage source = decode(imageBytes);
+        try {
+            for (int size : SIZES) {
+                write(render(source, size), resolve(hash, size));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store avatar " + hash, e);
+        }
+        return hash;
+    }
+
+    /**
+     * Get the file of an avatar in the closest supported size
+     * @return The file, or null if the hash is unknown or malformed
+     */
+    public Path getFile(String hash, int requestedSize) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        Path file = resolve(hash, closestSize(requestedSize));
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Public URL of an avatar, null if the user has none
+     */
+    public static String urlOf(String hash) {
+        return hash != null ? "/api/avatars/" + hash : null;
+    }
+
+    public static int closestSize(int requestedSize) {
+        int best = SIZES.get(0);
+        for (int size : SIZES) {
+            if (size >= requestedSize) {
+                best = size;
+            }
+        }
+        return best;
+    }
+
+    private boolean exists(String hash) {
+        for (int size : SIZES) {
+            if (!Files.isRegularFile(resolve(hash, size))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Two-level fan-out keeps directories small
+    private Path resolve(String hash, int size) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + size + ".png");
+    }
+
+    private BufferedImage decode(byte[] imageBytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalStateException("Unsupported avatar image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the header before allocating the pixels
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalStateException("Avatar image dimensions are too large");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Avatar image could not be read");
+        }
+    }
+
+    // Center-crop to a square and scale down in halving steps for a smooth result
+    private BufferedImage render(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage(
+                (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        int currentSize = side;
+        while (currentSize / 2 >= size) {
+            currentSize /= 2;
+            current = scale(current, currentSize);
+        }
+        if (currentSize != size) {
+            current = scale(current, size);
+        }
+
+        return current;
+    }
+
+    private BufferedImage scale(BufferedImage image, int size) {
+        BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Write to a temp file first, so a reader never sees a half-written avatar
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "avatar", ".tmp");
+        try {
+            ImageIO.write(image, "png", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        logger.debug("Stored avatar {}", target);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
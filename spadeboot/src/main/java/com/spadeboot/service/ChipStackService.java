@@ -0,0 +1,123 @@
+package com.spadeboot.service;
+
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.session.HandCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind for the chip stacks of running games. The game sessions play with their own
+ * player instances, so the action path never touches the database. After every hand the
+ * new stacks are remembered here and written in batches by the scheduler.
+ * <p>
+ * A stack stays pending until the transaction writing it has committed, so a cash-out always
+ * finds the latest stack either here or in the row. A write bumps the player's version, a
+ * cash-out that loaded the player before it fails its optimistic check and is retried.
+ */
+@Service
+public class ChipStackService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChipStackService.class);
+
+    // Skipped if the player has left the table meanwhile
+    private static final String UPDATE_CHIPS_AT_TABLE =
+            "UPDATE players SET chips = ?, version = version + 1 WHERE id = ? AND current_table_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Latest unwritten stack per player ID, a newer hand simply replaces it
+    private final Map<Long, PendingStack> pendingStacks = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onHandCompleted(HandCompletedEvent event) {
+        for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+            if (result.getPlayerId() != null && !result.isBot()) {
+                pendingStacks.put(result.getPlayerId(), new PendingStack(event.getTableId(), result.getChipsAfter()));
+            }
+        }
+    }
+
+    /**
+     * Write all pending stacks in one batch. They are dropped once it has committed, unless a
+     * newer hand has replaced them meanwhile; a failed batch leaves them for the next flush.
+     * @return Number of stacks written
+     */
+    @Transactional
+    public int flushPendingStacks() {
+        if (pendingStacks.isEmpty()) {
+            return 0;
+        }
+
+        // Copies of the entries, hands completing meanwhile replace the stacks in the map only
+        List<Map.Entry<Long, PendingStack>> batch = new ArrayList<>(pendingStacks.entrySet());
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_CHIPS_AT_TABLE, batch, batch.size(), (statement, entry) -> {
+                statement.setInt(1, entry.getValue().chips());
+                statement.setLong(2, entry.getKey());
+                statement.setLong(3, entry.getValue().tableId());
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} chip stacks", batch.size(), e);
+            throw e;
+        }
+
+        for (Map.Entry<Long, PendingStack> entry : batch) {
+            removeAfterCommit(entry.getKey(), entry.getValue());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Bring a loaded player up to date with a stack that has not been written yet, for a player
+     * who goes on playing at the table. The stack stays pending until it is written.
+     */
+    public void applyPendingStack(Player player) {
+        PendingStack stack = pendingStacks.get(player.getId());
+        if (stack != null && stack.tableId().equals(player.getCurrentTableId())) {
+            player.setChips(stack.chips());
+        }
+    }
+
+    /**
+     * Same as {@link #applyPendingStack}, for a player cashing out, so a cash-out right after a
+     * hand pays out the current stack. The stack is dropped once the caller's transaction has
+     * committed, it must never be written over a later buy-in at the same table; a rolled back
+     * cash-out leaves it for the flush.
+     */
+    public void takePendingStack(Player player) {
+        PendingStack stack = pendingStacks.get(player.getId());
+        if (stack != null && stack.tableId().equals(player.getCurrentTableId())) {
+            player.setChips(stack.chips());
+            removeAfterCommit(player.getId(), stack);
+        }
+    }
+
+    private void removeAfterCommit(Long playerId, PendingStack stack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingStacks.remove(playerId, stack);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendingStacks.remove(playerId, stack);
+            }
+        });
+    }
+
+    private record PendingStack(Long tableId, int chips) {
+    }
+}
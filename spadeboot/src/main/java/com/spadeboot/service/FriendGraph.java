@@ -0,0 +1,99 @@
+package com.spadeboot.service;
+
+import com.spadeboot.domain.user.FriendshipChangedEvent;
+import com.spadeboot.domain.user.FriendshipStatus;
+import com.spadeboot.repository.FriendshipRepository;
+import com.spadeboot.repository.projection.FriendshipEdgeView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accepted friendships as per-user adjacency sets of user IDs. Loaded once at startup and
+ * kept up to date from {@link FriendshipChangedEvent}, so "are these two friends" and
+ * "who are my friends" never touch the database.
+ */
+@Component
+public class FriendGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendGraph.class);
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    private final Map<Long, Set<Long>> adjacency = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        int edges = 0;
+        for (FriendshipEdgeView edge : friendshipRepository.findAllEdges(FriendshipStatus.ACCEPTED)) {
+            link(edge.getRequesterId(), edge.getAddresseeId());
+            edges++;
+        }
+        logger.info("Friend graph loaded {} friendships in {} ms", edges, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply a committed friendship change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        if (event.isFriends()) {
+            link(event.getUserId(), event.getFriendId());
+        } else {
+            unlink(event.getUserId(), event.getFriendId());
+        }
+    }
+
+    public boolean areFriends(Long userId, Long otherUserId) {
+        Set<Long> friends = adjacency.get(userId);
+        return friends != null && friends.contains(otherUserId);
+    }
+
+    /**
+     * @return Read-only live view of the friend IDs of a user
+     */
+    public Set<Long> friendsOf(Long userId) {
+        Set<Long> friends = adjacency.get(userId);
+        return friends != null ? Collections.unmodifiableSet(friends) : Set.of();
+    }
+
+    private void link(Long userId, Long friendId) {
+        addEdge(userId, friendId);
+        addEdge(friendId, userId);
+    }
+
+    // Inside compute, so a concurrent removal cannot drop the set between lookup and add
+    private void addEdge(Long userId, Long friendId) {
+        adjacency.compute(userId, (id, friends) -> {
+            Set<Long> updated = friends != null ? friends : ConcurrentHashMap.newKeySet();
+            updated.add(friendId);
+            return updated;
+        });
+    }
+
+    private void unlink(Long userId, Long friendId) {
+        removeEdge(userId, friendId);
+        removeEdge(friendId, userId);
+    }
+
+    // Drop empty sets so users without friends cost nothing
+    private void removeEdge(Long userId, Long friendId) {
+        adjacency.computeIfPresent(userId, (id, friends) -> {
+            friends.remove(friendId);
+            return friends.isEmpty() ? null : friends;
+        });
+    }
+}
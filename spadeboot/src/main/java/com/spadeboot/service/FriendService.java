@@ -1,18 +1,27 @@
 // src/main/java/com/pokerapp/service/FriendService.java
 package com.spadeboot.service;
 
+import com.spadeboot.api.dto.response.FriendPresenceDto;
+import com.spadeboot.api.dto.response.FriendSuggestionDto;
 import com.spadeboot.api.dto.response.FriendshipDto;
 import com.spadeboot.domain.user.Friendship;
+import com.spadeboot.domain.user.FriendshipChangedEvent;
 import com.spadeboot.domain.user.FriendshipStatus;
 import com.spadeboot.domain.user.User;
 import com.spadeboot.exception.NotFoundException;
 import com.spadeboot.repository.FriendshipRepository;
+import com.spadeboot.repository.UserRepository;
+import com.spadeboot.repository.projection.UserNameView;
+import com.spadeboot.service.suggestion.Suggestion;
+import com.spadeboot.service.suggestion.SuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -25,6 +34,21 @@ public class FriendService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Send a friend request from the current user to another user by username
      * @param username The username of the user to send a request to
@@ -32,15 +56,22 @@ public class FriendService {
      */
     @Transactional
     public FriendshipDto sendFriendRequest(String username) {
-        User currentUser = userService.getCurrentUser();
-        User friend = userService.getUserByUsername(username);
+        Long currentUserId = userService.getCurrentUserId();
+        Long friendId = getUserIdByUsername(username);
 
         // Check if they're the same user
-        if (currentUser.getUsername().equals(username)) {
+        if (currentUserId.equals(friendId)) {
             throw new IllegalArgumentException("You cannot send a friend request to yourself");
         }
 
-        // Check if there's already a friendship
+        if (friendGraph.areFriends(currentUserId, friendId)) {
+            throw new IllegalStateException("You are already friends with this user");
+        }
+
+        User currentUser = userRepository.getReferenceById(currentUserId);
+        User friend = userRepository.getReferenceById(friendId);
+
+        // Check if there's already a pending or declined request
         Optional<Friendship> existingFriendship = friendshipRepository.findFriendship(currentUser, friend);
         if (existingFriendship.isPresent()) {
             Friendship friendship = existingFriendship.get();
@@ -48,13 +79,14 @@ public class FriendService {
             if (friendship.getStatus() == FriendshipStatus.ACCEPTED) {
                 throw new IllegalStateException("You are already friends with this user");
             } else if (friendship.getStatus() == FriendshipStatus.PENDING) {
-                if (friendship.getRequester().getId().equals(currentUser.getId())) {
+                if (friendship.getRequester().getId().equals(currentUserId)) {
                     throw new IllegalStateException("You have already sent a friend request to this user");
                 } else {
                     // The other user has sent a request to the current user, accept it
                     friendship.setStatus(FriendshipStatus.ACCEPTED);
                     friendship.setUpdatedAt(LocalDateTime.now());
                     Friendship savedFriendship = friendshipRepository.save(friendship);
+                    applicationEventPublisher.publishEvent(new FriendshipChangedEvent(currentUserId, friendId, true));
                     return convertToFriendshipDto(savedFriendship);
                 }
             } else if (friendship.getStatus() == FriendshipStatus.DECLINED) {
@@ -84,13 +116,13 @@ public class FriendService {
      */
     @Transactional
     public FriendshipDto acceptFriendRequest(Long requestId) {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
 
         Friendship friendship = friendshipRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Friend request not found"));
 
         // Verify that the current user is the addressee
-        if (!friendship.getAddressee().getId().equals(currentUser.getId())) {
+        if (!friendship.getAddressee().getId().equals(currentUserId)) {
             throw new IllegalStateException("You cannot accept this request as it was not sent to you");
         }
 
@@ -103,6 +135,8 @@ public class FriendService {
         friendship.setStatus(FriendshipStatus.ACCEPTED);
         friendship.setUpdatedAt(LocalDateTime.now());
         Friendship savedFriendship = friendshipRepository.save(friendship);
+        applicationEventPublisher.publishEvent(
+                new FriendshipChangedEvent(currentUserId, friendship.getRequester().getId(), true));
 
         return convertToFriendshipDto(savedFriendship);
     }
@@ -114,13 +148,13 @@ public class FriendService {
      */
     @Transactional
     public FriendshipDto declineFriendRequest(Long requestId) {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
 
         Friendship friendship = friendshipRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Friend request not found"));
 
         // Verify that the current user is the addressee
-        if (!friendship.getAddressee().getId().equals(currentUser.getId())) {
+        if (!friendship.getAddressee().getId().equals(currentUserId)) {
             throw new IllegalStateException("You cannot decline this request as it was not sent to you");
         }
 
@@ -144,15 +178,21 @@ public class FriendService {
      */
     @Transactional
     public boolean removeFriend(String username) {
-        User currentUser = userService.getCurrentUser();
-        User friend = userService.getUserByUsername(username);
+        Long currentUserId = userService.getCurrentUserId();
+        Long friendId = getUserIdByUsername(username);
 
-        Optional<Friendship> existingFriendship = friendshipRepository.findFriendship(currentUser, friend);
+        if (!friendGraph.areFriends(currentUserId, friendId)) {
+            throw new IllegalStateException("You are not friends with this user");
+        }
+
+        Optional<Friendship> existingFriendship = friendshipRepository.findFriendship(
+                userRepository.getReferenceById(currentUserId), userRepository.getReferenceById(friendId));
         if (existingFriendship.isEmpty() || existingFriendship.get().getStatus() != FriendshipStatus.ACCEPTED) {
             throw new IllegalStateException("You are not friends with this user");
         }
 
         friendshipRepository.delete(existingFriendship.get());
+        applicationEventPublisher.publishEvent(new FriendshipChangedEvent(currentUserId, friendId, false));
         return true;
     }
 
@@ -161,7 +201,7 @@ public class FriendService {
      * @return List of pending friend requests
      */
     public List<FriendshipDto> getPendingFriendRequests() {
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userRepository.getReferenceById(userService.getCurrentUserId());
         List<Friendship> pendingRequests = friendshipRepository.findPendingRequestsReceived(
                 currentUser, FriendshipStatus.PENDING);
 
@@ -175,7 +215,7 @@ public class FriendService {
      * @return List of sent friend requests
      */
     public List<FriendshipDto> getSentFriendRequests() {
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userRepository.getReferenceById(userService.getCurrentUserId());
         List<Friendship> sentRequests = friendshipRepository.findPendingRequestsSent(
                 currentUser, FriendshipStatus.PENDING);
 
@@ -189,7 +229,12 @@ public class FriendService {
      * @return List of accepted friendships
      */
     public List<FriendshipDto> getFriends() {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
+        if (friendGraph.friendsOf(currentUserId).isEmpty()) {
+            return List.of();
+        }
+
+        User currentUser = userRepository.getReferenceById(currentUserId);
         List<Friendship> friendships = friendshipRepository.findAcceptedFriendships(
                 currentUser, FriendshipStatus.ACCEPTED);
 
@@ -204,11 +249,44 @@ public class FriendService {
      * @return True if they are friends
      */
     public boolean areFriendsByUsername(String username) {
-        User currentUser = userService.getCurrentUser();
-        User friend = userService.getUserByUsername(username);
+        return friendGraph.areFriends(userService.getCurrentUserId(), getUserIdByUsername(username));
+    }
 
-        Optional<Friendship> friendship = friendshipRepository.findFriendship(currentUser, friend);
-        return friendship.isPresent() && friendship.get().getStatus() == FriendshipStatus.ACCEPTED;
+    /**
+     * Get the friends of the current user that are online, with the table they have open
+     * @return Online friends, answered from memory
+     */
+    public List<FriendPresenceDto> getOnlineFriends() {
+        return presenceService.getOnlineFriends(userService.getCurrentUserId());
+    }
+
+    /**
+     * Suggest people the current user may know, from mutual friends and hands played together
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, best first
+     */
+    public List<FriendSuggestionDto> getFriendSuggestions(int limit) {
+        List<Suggestion> suggestions = suggestionService.getSuggestions(userService.getCurrentUserId(), limit);
+        if (suggestions.isEmpty()) {
+            return List.of();
+        }
+
+        // Label the whole list with one query
+        Map<Long, String> usernames = userRepository.findNamesByIdIn(
+                        suggestions.stream().map(Suggestion::userId).toList()).stream()
+                .collect(Collectors.toMap(UserNameView::getId, UserNameView::getUsername));
+
+        return suggestions.stream()
+                .filter(suggestion -> usernames.containsKey(suggestion.userId()))
+                .map(suggestion -> {
+                    FriendSuggestionDto dto = new FriendSuggestionDto();
+                    dto.setUserId(suggestion.userId());
+                    dto.setUsername(usernames.get(suggestion.userId()));
+                    dto.setMutualFriends(suggestion.mutualFriends());
+                    dto.setHandsTogether(suggestion.handsTogether());
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -222,6 +300,11 @@ public class FriendService {
         return convertToFriendshipDto(friendship);
     }
 
+    private Long getUserIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new NotFoundException("User not found with username: " + username));
+    }
+
     /**
      * Convert a friendship entity to DTO
      * @param friendship The friendship entity
@@ -7,37 +7,60 @@ import com.spadeboot.exception.InvalidMoveException;
 import com.spadeboot.exception.NotFoundException;
 import com.spadeboot.repository.PlayerRepository;
 import com.spadeboot.repository.TableRepository;
+import com.spadeboot.session.FastFoldPool;
 import com.spadeboot.session.GameSession;
 import com.spadeboot.session.SessionManager;
+import com.spadeboot.session.bot.BotFactory;
+import com.spadeboot.session.bot.BotStrategyType;
 import com.spadeboot.websocket.GameEventPublisher;
 import com.spadeboot.api.dto.GameStateDto;
 import com.spadeboot.api.dto.PlayerActionDto;
 import com.spadeboot.api.dto.PlayerActionResponse;
+import com.spadeboot.api.dto.PreActionDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class GameService {
 
     @Autowired
     private TableRepository tableRepository;
 
-    @Autowired
-    private PlayerRepository playerRepository;
-
     @Autowired
     private SessionManager sessionManager;
 
     @Autowired
     private GameEventPublisher eventPublisher;
 
+    @Autowired
+    private BotFactory botFactory;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private ChipStackService chipStackService;
+
     /**
      * Start a new game at the specified table
      */
     @Transactional
     public GameStateDto startGame(Long tableId, Long userId, int bigBlind) {
-        PokerTable table = tableRepository.findById(tableId)
+        return startGame(tableId, userId, bigBlind, 0, BotStrategyType.TIGHT_AGGRESSIVE);
+    }
+
+    /**
+     * Start a new game and fill the free seats with server-side bots
+     * @param bots Number of bot seats to add, they buy in with the table's maximum
+     */
+    @Transactional
+    public GameStateDto startGame(Long tableId, Long userId, int bigBlind, int bots, BotStrategyType botStrategy) {
+        // The session threads read the seated users after this transaction has ended
+        PokerTable table = tableRepository.findWithSeatedUsersById(tableId)
                 .orElseThrow(() -> new NotFoundException("Table not found"));
 
         // Verify the user is the table owner
@@ -46,17 +69,25 @@ public class GameService {
         }
 
         // Check if there's already an active game
-        if (sessionManager.hasActiveGame(tableId)) {
+        if (sessionManager.hasActiveGame(tableId) || sessionManager.getFastFoldPool(tableId) != null) {
             throw new InvalidMoveException("Game is already in progress");
         }
 
+        List<Player> players = new ArrayList<>(table.getPlayers());
+        if (bots != 0) {
+            if (bots < 0 || players.size() + bots > table.getMaxPlayers()) {
+                throw new InvalidMoveException("Not enough free seats for " + bots + " bots");
+            }
+            players.addAll(botFactory.createBots(bots, table.getMaxBuyIn(), botStrategy));
+        }
+
         // Verify minimum players
-        if (table.getPlayers().size() < 2) {
+        if (players.size() < 2) {
             throw new InvalidMoveException("Need at least 2 players to start the game");
         }
 
         // Create and start the game session
-        GameSession gameSession = sessionManager.createGameSession(tableId, table.getPlayers().stream().toList(), bigBlind);
+        GameSession gameSession = sessionManager.createGameSession(tableId, players, bigBlind);
         gameSession.start();
 
         // Get initial game state
@@ -68,6 +99,91 @@ public class GameService {
         return gameState;
     }
 
+    /**
+     * Run the table as a fast-fold pool instead of a game and put everyone seated into it.
+     * Players who join the table later enter the pool with {@link #joinFastFold}.
+     * @return Number of players in the pool
+     */
+    @Transactional
+    public int startFastFold(Long tableId, Long userId, int bigBlind) {
+        // The pool reads the seated users after this transaction has ended
+        PokerTable table = tableRepository.findWithSeatedUsersById(tableId)
+                .orElseThrow(() -> new NotFoundException("Table not found"));
+
+        if (!table.getOwner().getUserId().equals(userId)) {
+            throw new InvalidMoveException("Only the table owner can start the game");
+        }
+        if (sessionManager.hasActiveGame(tableId) || sessionManager.getFastFoldPool(tableId) != null) {
+            throw new InvalidMoveException("Game is already in progress");
+        }
+
+        sessionManager.admitSeats(table.getPlayers().size());
+        FastFoldPool pool = sessionManager.createFastFoldPool(tableId, bigBlind);
+        for (Player player : table.getPlayers()) {
+            chipStackService.applyPendingStack(player);
+            if (player.getChips() > 0) {
+                pool.join(player);
+            }
+        }
+        return pool.getPlayerCount();
+    }
+
+    /**
+     * Put a player seated at the table into its fast-fold pool
+     */
+    @Transactional
+    public void joinFastFold(Long tableId, Long userId) {
+        FastFoldPool pool = getFastFoldPool(tableId);
+        Player player = playerRepository.findWithUserByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Player not found"));
+        if (!tableId.equals(player.getCurrentTableId())) {
+            throw new InvalidMoveException("Join the table before joining its pool");
+        }
+
+        chipStackService.applyPendingStack(player);
+        sessionManager.admitSeats(1);
+        if (!pool.join(player)) {
+            throw new InvalidMoveException("Already in the pool");
+        }
+    }
+
+    /**
+     * Take a player out of the pool, a hand the player is in is played to the end
+     */
+    public void leaveFastFold(Long tableId, Long userId) {
+        FastFoldPool pool = getFastFoldPool(tableId);
+        Player player = playerRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Player not found"));
+        if (!pool.leave(player.getId())) {
+            throw new InvalidMoveException("Not in the pool");
+        }
+    }
+
+    /**
+     * Close the fast-fold pool of a table, the hands running are played to the end
+     */
+    @Transactional
+    public void endFastFold(Long tableId, Long userId) {
+        PokerTable table = tableRepository.findById(tableId)
+                .orElseThrow(() -> new NotFoundException("Table not found"));
+
+        if (!table.getOwner().getUserId().equals(userId)) {
+            throw new InvalidMoveException("Only the table owner can end the game");
+        }
+
+        getFastFoldPool(tableId);
+        sessionManager.removeFastFoldPool(tableId);
+        eventPublisher.publishGameEnded(tableId);
+    }
+
+    private FastFoldPool getFastFoldPool(Long tableId) {
+        FastFoldPool pool = sessionManager.getFastFoldPool(tableId);
+        if (pool == null) {
+            throw new NotFoundException("No fast-fold pool found for this table");
+        }
+        return pool;
+    }
+
     /**
      * End the current game at the specified table
      */
@@ -107,18 +223,16 @@ public class GameService {
     }
 
     /**
-     * Process a player action
+     * Process a player action. Runs entirely in memory, chip stacks are written behind
+     * once the hand is complete.
      */
-    @Transactional
     public PlayerActionResponse processPlayerAction(Long tableId, Long userId, PlayerActionDto actionDto) {
         GameSession session = sessionManager.getGameSession(tableId);
         if (session == null) {
             throw new NotFoundException("No active game found for this table");
         }
 
-        // Get the player
-        Player player = playerRepository.findByUserId(userId)
-                .orElseThrow(() -> new NotFoundException("Player not found"));
+        Player player = getSeatedPlayer(session, userId);
 
         // Validate it's the player's turn
         if (!session.isPlayerTurn(player.getId())) {
@@ -140,13 +254,31 @@ public class GameService {
         return response;
     }
 
+    /**
+     * Queue or clear a pre-action for the player's next turn. Taken at once if the turn is
+     * already the player's, then broadcast like any other action.
+     */
+    public PlayerActionResponse queuePreAction(Long tableId, Long userId, PreActionDto preAction) {
+        GameSession session = sessionManager.getGameSession(tableId);
+        if (session == null) {
+            throw new NotFoundException("No active game found for this table");
+        }
+
+        Player player = getSeatedPlayer(session, userId);
+        PlayerActionResponse response = session.queuePreAction(player, preAction.getType());
+        if (response != null) {
+            eventPublisher.publishPlayerAction(tableId, player.getId(), response.getAction(), response);
+        }
+        return response;
+    }
+
     /**
      * Handle player disconnection
      */
     public void handlePlayerDisconnect(Long tableId, Long userId) {
         GameSession session = sessionManager.getGameSession(tableId);
         if (session != null) {
-            Player player = playerRepository.findByUserId(userId).orElse(null);
+            Player player = session.findSeatedPlayer(userId);
             if (player != null) {
                 session.markPlayerDisconnected(player.getId());
                 eventPublisher.publishPlayerDisconnected(tableId, player.getId());
@@ -163,12 +295,19 @@ public class GameService {
             throw new NotFoundException("No active game found for this table");
         }
 
-        Player player = playerRepository.findByUserId(userId)
-                .orElseThrow(() -> new NotFoundException("Player not found"));
+        Player player = getSeatedPlayer(session, userId);
 
         session.markPlayerReconnected(player.getId());
         eventPublisher.publishPlayerReconnected(tableId, player.getId());
 
         return session.getCurrentGameState();
     }
-}
\ No newline at end of file
+
+    private Player getSeatedPlayer(GameSession session, Long userId) {
+        Player player = session.findSeatedPlayer(userId);
+        if (player == null) {
+            throw new NotFoundException("Player not found");
+        }
+        return player;
+    }
+}
@@ -0,0 +1,256 @@
+package com.spadeboot.service;
+
+import com.spadeboot.domain.ledger.LedgerAccount;
+import com.spadeboot.domain.ledger.LedgerEntryType;
+import com.spadeboot.repository.LedgerEntryRepository;
+import com.spadeboot.session.HandCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Double-entry chip ledger. Every movement of chips is a transfer of two entries that sum
+ * to zero, and entries are only ever appended. users.balance is materialized from the
+ * ledger: the same batch that appends a transfer adds its balance legs to the column, so
+ * the entity never writes the balance itself. Debits are single conditional statements,
+ * so concurrent buy-ins and adjustments can never overdraw a balance and no row is locked
+ * longer than one statement.
+ * <p>
+ * Buy-ins, cash-outs and adjustments are written in the caller's transaction. Bets and pot
+ * wins come from completed hands on the game threads and are queued and written in batches
+ * by the scheduler, their stacks are materialized by {@link ChipStackService}.
+ */
+@Service
+public class LedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
+
+    private static final long HOUSE_ACCOUNT_ID = 0L;
+
+    private static final String INSERT_ENTRY = "INSERT INTO ledger_entries " +
+            "(transfer_id, entry_type, account, account_id, table_id, amount, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CREDIT_BALANCE = "UPDATE users SET balance = balance + ? WHERE id = ?";
+
+    private static final String DEBIT_BALANCE = "UPDATE users SET balance = balance - ? WHERE id = ? AND balance >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    // Legs of completed hands that have not been written yet
+    private final Queue<Leg> pendingLegs = new ConcurrentLinkedQueue<>();
+
+    @Transactional
+    public void recordBuyIn(Long userId, Long tableId, int amount) {
+        write(transfer(LedgerEntryType.BUY_IN, LedgerAccount.USER_BALANCE, userId,
+                LedgerAccount.TABLE_STACK, userId, tableId, amount));
+    }
+
+    @Transactional
+    public void recordCashOut(Long userId, Long tableId, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        write(transfer(LedgerEntryType.CASH_OUT, LedgerAccount.TABLE_STACK, userId,
+                LedgerAccount.USER_BALANCE, userId, tableId, amount));
+    }
+
+    /**
+     * Move chips between the house and a user's balance, negative amounts take chips away
+     */
+    @Transactional
+    public void recordAdjustment(LedgerEntryType type, Long userId, int amount) {
+        if (amount == 0) {
+            return;
+        }
+        write(amount > 0
+                ? transfer(type, LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID, LedgerAccount.USER_BALANCE, userId, null, amount)
+                : transfer(type, LedgerAccount.USER_BALANCE, userId, LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID, null, -amount));
+    }
+
+    /**
+     * Queue the bets and winnings of a hand, called on the game thread
+     */
+    @EventListener
+    public void onHandCompleted(HandCompletedEvent event) {
+        Long tableId = event.getTableId();
+        for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+            if (result.isBot()) {
+                queueBotLegs(tableId, result);
+                continue;
+            }
+            if (result.getUserId() == null) {
+                continue;
+            }
+            if (result.getAmountContributed() > 0) {
+                pendingLegs.addAll(transfer(LedgerEntryType.BET, LedgerAccount.TABLE_STACK, result.getUserId(),
+                        LedgerAccount.POT, tableId, tableId, result.getAmountContributed()));
+            }
+            if (result.getAmountWon() > 0) {
+                pendingLegs.addAll(transfer(LedgerEntryType.POT_WIN, LedgerAccount.POT, tableId,
+                        LedgerAccount.TABLE_STACK, result.getUserId(), tableId, result.getAmountWon()));
+            }
+        }
+    }
+
+    /**
+     * Bots have no stack account, the house stakes their bets and takes their winnings so
+     * that the pot of a table with bots still balances
+     */
+    private void queueBotLegs(Long tableId, HandCompletedEvent.PlayerResult result) {
+        if (result.getAmountContributed() > 0) {
+            pendingLegs.addAll(transfer(LedgerEntryType.BET, LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID,
+                    LedgerAccount.POT, tableId, tableId, result.getAmountContributed()));
+        }
+        if (result.getAmountWon() > 0) {
+            pendingLegs.addAll(transfer(LedgerEntryType.POT_WIN, LedgerAccount.POT, tableId,
+                    LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID, tableId, result.getAmountWon()));
+        }
+    }
+
+    /**
+     * Append all queued hand entries in one batch
+     * @return Number of entries written
+     */
+    @Transactional
+    public int flushPendingEntries() {
+        List<Leg> batch = new ArrayList<>();
+        Leg leg;
+        while ((leg = pendingLegs.poll()) != null) {
+            batch.add(leg);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            // Order does not matter, the entries carry their own timestamps
+            pendingLegs.addAll(batch);
+            logger.error("Failed to append {} ledger entries", batch.size(), e);
+            throw e;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Reconstruct the balance a user had at a point in time
+     */
+    @Transactional(readOnly = true)
+    public long getBalanceAt(Long userId, LocalDateTime at) {
+        return ledgerEntryRepository.sumUntil(LedgerAccount.USER_BALANCE, userId, at);
+    }
+
+    /**
+     * IDs of transfers whose legs do not sum to zero, for audits
+     */
+    @Transactional(readOnly = true)
+    public List<String> findUnbalancedTransfers() {
+        return ledgerEntryRepository.findUnbalancedTransfers();
+    }
+
+    /**
+     * Give every user that has a balance but no ledger history an opening entry, so balances
+     * from before the ledger (and seeded users) can be reconstructed too. Nothing is
+     * materialized, the balance is already in the column.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recordOpeningBalances() {
+        List<Map<String, Object>> users = jdbcTemplate.queryForList(
+                "SELECT u.id, u.balance FROM users u WHERE u.balance <> 0 AND NOT EXISTS " +
+                        "(SELECT 1 FROM ledger_entries e WHERE e.account = ? AND e.account_id = u.id)",
+                LedgerAccount.USER_BALANCE.name());
+
+        List<Leg> legs = new ArrayList<>();
+        for (Map<String, Object> user : users) {
+            Long userId = ((Number) user.get("id")).longValue();
+            long balance = ((Number) user.get("balance")).longValue();
+            legs.addAll(balance > 0
+                    ? transfer(LedgerEntryType.OPENING_BALANCE, LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID,
+                    LedgerAccount.USER_BALANCE, userId, null, balance)
+                    : transfer(LedgerEntryType.OPENING_BALANCE, LedgerAccount.USER_BALANCE, userId,
+                    LedgerAccount.HOUSE, HOUSE_ACCOUNT_ID, null, -balance));
+        }
+
+        if (!legs.isEmpty()) {
+            insert(legs);
+            logger.info("Recorded opening balances of {} users in the ledger", users.size());
+        }
+    }
+
+    private List<Leg> transfer(LedgerEntryType type, LedgerAccount from, Long fromId,
+                               LedgerAccount to, Long toId, Long tableId, long amount) {
+        String transferId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        return List.of(
+                new Leg(transferId, type, from, fromId, tableId, -amount, now),
+                new Leg(transferId, type, to, toId, tableId, amount, now));
+    }
+
+    /**
+     * Apply the balance legs and append the entries. Debits go first, a debit that would
+     * overdraw a balance matches no row and rejects the whole transfer before anything is
+     * written.
+     */
+    private void write(List<Leg> legs) {
+        List<Object[]> credits = new ArrayList<>();
+        for (Leg leg : legs) {
+            if (leg.account() != LedgerAccount.USER_BALANCE) {
+                continue;
+            }
+            if (leg.amount() < 0) {
+                long amount = -leg.amount();
+                if (jdbcTemplate.update(DEBIT_BALANCE, amount, leg.accountId(), amount) == 0) {
+                    throw new IllegalStateException("Insufficient balance");
+                }
+            } else {
+                credits.add(new Object[]{leg.amount(), leg.accountId()});
+            }
+        }
+        if (!credits.isEmpty()) {
+            jdbcTemplate.batchUpdate(CREDIT_BALANCE, credits);
+        }
+
+        insert(legs);
+    }
+
+    private void insert(List<Leg> legs) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, legs, legs.size(), (statement, leg) -> {
+            statement.setString(1, leg.transferId());
+            statement.setString(2, leg.type().name());
+            statement.setString(3, leg.account().name());
+            statement.setLong(4, leg.accountId());
+            if (leg.tableId() != null) {
+                statement.setLong(5, leg.tableId());
+            } else {
+                statement.setNull(5, Types.BIGINT);
+            }
+            statement.setLong(6, leg.amount());
+            statement.setTimestamp(7, Timestamp.valueOf(leg.createdAt()));
+        });
+    }
+
+    private record Leg(String transferId, LedgerEntryType type, LedgerAccount account, Long accountId,
+                       Long tableId, long amount, LocalDateTime createdAt) {
+    }
+}
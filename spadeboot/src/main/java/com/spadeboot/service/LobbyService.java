@@ -0,0 +1,273 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.LobbyPageDto;
+import com.spadeboot.api.dto.response.LobbyUpdateDto;
+import com.spadeboot.api.dto.response.TableDto;
+import com.spadeboot.repository.TableRepository;
+import com.spadeboot.repository.projection.LobbyTableView;
+import com.spadeboot.session.GameStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Denormalized lobby view of all tables. The rows are loaded once at startup and then kept
+ * up to date from table and game events, so listing, filtering and paging the lobby never
+ * touch the database. Every change bumps a global version that is used as the ETag.
+ */
+@Service
+public class LobbyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LobbyService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.lobby.stream-enabled:true}")
+    private boolean streamEnabled;
+
+    // Sorted by table ID, which is also the paging key
+    private final ConcurrentNavigableMap<Long, LobbyTable> tables = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    // Tables changed since the last push on /topic/lobby
+    private final Set<Long> dirtyTableIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Load all tables from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+
+        for (LobbyTableView view : tableRepository.findAllLobbyRows()) {
+            // Events that arrived while loading are newer than the query result
+            tables.putIfAbsent(view.getId(), new LobbyTable(view.getId(), view.getName(), view.getDescription(),
+                    view.getMaxPlayers(), view.getSeatedPlayers(), view.getMinBuyIn(), view.getMaxBuyIn(),
+                    Boolean.TRUE.equals(view.getIsPrivate()), view.getOwnerId(), false));
+        }
+        version.incrementAndGet();
+
+        logger.info("Lobby loaded {} tables in {} ms", tables.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply a committed table change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        TableDto table = event.getTable();
+        if (table == null) {
+            tables.remove(event.getTableId());
+        } else {
+            tables.compute(event.getTableId(), (id, previous) -> new LobbyTable(id, table.getName(),
+                    table.getDescription(), table.getMaxPlayers(), table.getCurrentPlayers(),
+                    table.getMinBuyIn(), table.getMaxBuyIn(), Boolean.TRUE.equals(table.getIsPrivate()),
+                    table.getOwnerId(), previous != null && previous.activeGame));
+        }
+        markChanged(event.getTableId());
+    }
+
+    /**
+     * Track games starting and ending
+     */
+    @EventListener
+    public void onGameStatusChanged(GameStatusChangedEvent event) {
+        LobbyTable updated = tables.computeIfPresent(event.getTableId(),
+                (id, previous) -> previous.withActiveGame(event.isActive()));
+        if (updated != null) {
+            markChanged(event.getTableId());
+        }
+    }
+
+    /**
+     * Current version of the lobby, changes whenever any table changes
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Get one page of public tables
+     * @param minStake Only tables whose buy-in range reaches at least this amount
+     * @param maxStake Only tables that can be joined with at most this amount
+     * @param minFreeSeats Only tables with at least this many free seats
+     * @param query Case-insensitive text that must appear in the name or description
+     * @param after Return tables with a larger ID than this cursor, null for the first page
+     * @param limit Page size, capped at {@link #MAX_PAGE_SIZE}
+     */
+    public LobbyPageDto getPage(Integer minStake, Integer maxStake, Integer minFreeSeats,
+                                String query, Long after, int limit) {
+        // Read the version first, so a concurrent change can only make the ETag older than the page
+        long currentVersion = version.get();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String needle = query != null && !query.isBlank() ? query.trim().toLowerCase(Locale.ROOT) : null;
+
+        ConcurrentNavigableMap<Long, LobbyTable> candidates = after != null ? tables.tailMap(after, false) : tables;
+        List<TableDto> page = new ArrayList<>(pageSize);
+        Long nextCursor = null;
+
+        for (LobbyTable table : candidates.values()) {
+            if (table.isPrivate
+                    || (minStake != null && table.maxBuyIn < minStake)
+                    || (maxStake != null && table.minBuyIn > maxStake)
+                    || (minFreeSeats != null && table.freeSeats() < minFreeSeats)
+                    || (needle != null && !table.matches(needle))) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                nextCursor = page.get(pageSize - 1).getId();
+                break;
+            }
+            page.add(table.toDto());
+        }
+
+        LobbyPageDto dto = new LobbyPageDto();
+        dto.setTables(page);
+        dto.setNextCursor(nextCursor);
+        dto.setVersion(currentVersion);
+        return dto;
+    }
+
+    /**
+     * Get all tables, optionally without the private ones
+     */
+    public List<TableDto> getTables(boolean publicOnly) {
+        List<TableDto> result = new ArrayList<>(tables.size());
+        for (LobbyTable table : tables.values()) {
+            if (!publicOnly || !table.isPrivate) {
+                result.add(table.toDto());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Push the tables changed since the last call on /topic/lobby. Several changes of the same
+     * table in between are sent as one entry with the latest state.
+     */
+    public void publishPendingUpdates() {
+        if (dirtyTableIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> changedIds = new ArrayList<>(dirtyTableIds);
+        dirtyTableIds.removeAll(changedIds);
+        if (!streamEnabled) {
+            return;
+        }
+
+        List<TableDto> updated = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long tableId : changedIds) {
+            LobbyTable table = tables.get(tableId);
+            if (table == null || table.isPrivate) {
+                removed.add(tableId);
+            } else {
+                updated.add(table.toDto());
+            }
+        }
+
+        LobbyUpdateDto update = new LobbyUpdateDto();
+        update.setVersion(version.get());
+        update.setUpdated(updated);
+        update.setRemoved(removed);
+
+        try {
+            messagingTemplate.convertAndSend("/topic/lobby", update);
+        } catch (Exception e) {
+            logger.warn("Failed to publish lobby update", e);
+        }
+    }
+
+    private void markChanged(Long tableId) {
+        version.incrementAndGet();
+        dirtyTableIds.add(tableId);
+    }
+
+    /**
+     * Immutable lobby row of a table, replaced as a whole on every change
+     */
+    private static final class LobbyTable {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final int maxPlayers;
+        private final int seatedPlayers;
+        private final int minBuyIn;
+        private final int maxBuyIn;
+        private final boolean isPrivate;
+        private final Long ownerId;
+        private final boolean activeGame;
+
+        LobbyTable(Long id, String name, String description, Integer maxPlayers, Integer seatedPlayers,
+                   Integer minBuyIn, Integer maxBuyIn, boolean isPrivate, Long ownerId, boolean activeGame) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.maxPlayers = valueOf(maxPlayers);
+            this.seatedPlayers = valueOf(seatedPlayers);
+            this.minBuyIn = valueOf(minBuyIn);
+            this.maxBuyIn = valueOf(maxBuyIn);
+            this.isPrivate = isPrivate;
+            this.ownerId = ownerId;
+            this.activeGame = activeGame;
+        }
+
+        int freeSeats() {
+            return Math.max(0, maxPlayers - seatedPlayers);
+        }
+
+        boolean matches(String needle) {
+            return (name != null && name.toLowerCase(Locale.ROOT).contains(needle))
+                    || (description != null && description.toLowerCase(Locale.ROOT).contains(needle));
+        }
+
+        LobbyTable withActiveGame(boolean active) {
+            return new LobbyTable(id, name, description, maxPlayers, seatedPlayers, minBuyIn, maxBuyIn,
+                    isPrivate, ownerId, active);
+        }
+
+        TableDto toDto() {
+            TableDto dto = new TableDto();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setDescription(description);
+            dto.setMaxPlayers(maxPlayers);
+            dto.setCurrentPlayers(seatedPlayers);
+            dto.setMinBuyIn(minBuyIn);
+            dto.setMaxBuyIn(maxBuyIn);
+            dto.setIsPrivate(isPrivate);
+            dto.setOwnerId(ownerId);
+            dto.setHasActiveGame(activeGame);
+            return dto;
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.FriendPresenceDto;
+import com.spadeboot.domain.user.FriendshipChangedEvent;
+import com.spadeboot.metrics.EngineMetrics.SheddableWork;
+import com.spadeboot.session.SessionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is online and at which table, fed by websocket connects and disconnects. Together
+ * with the {@link FriendGraph} this answers "which friends are online" from memory, and
+ * every change is pushed to the user's online friends on /user/queue/friends/presence.
+ */
+@Service
+public class PresenceService {
+
+    public static final String PRESENCE_QUEUE = "/queue/friends/presence";
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    // Only users with at least one open websocket session have an entry
+    private final Map<Long, UserPresence> online = new ConcurrentHashMap<>();
+
+    public void connected(Long userId, String username, String sessionId) {
+        boolean[] cameOnline = new boolean[1];
+        online.compute(userId, (id, presence) -> {
+            UserPresence updated = presence != null ? presence : new UserPresence(username);
+            cameOnline[0] = presence == null;
+            updated.sessionIds.add(sessionId);
+            return updated;
+        });
+        if (cameOnline[0]) {
+            notifyFriends(userId);
+        }
+    }
+
+    public void disconnected(Long userId, String sessionId) {
+        boolean[] wentOffline = new boolean[1];
+        UserPresence[] last = new UserPresence[1];
+        online.computeIfPresent(userId, (id, presence) -> {
+            presence.sessionIds.remove(sessionId);
+            if (presence.sessionIds.isEmpty()) {
+                wentOffline[0] = true;
+                last[0] = presence;
+                return null;
+            }
+            return presence;
+        });
+        if (wentOffline[0]) {
+            notifyFriends(userId, toDto(userId, last[0], false));
+        }
+    }
+
+    public void enteredTable(Long userId, Long tableId) {
+        UserPresence presence = online.get(userId);
+        if (presence != null && !tableId.equals(presence.tableId)) {
+            presence.tableId = tableId;
+            notifyFriends(userId);
+        }
+    }
+
+    public void leftTable(Long userId, Long tableId) {
+        UserPresence presence = online.get(userId);
+        if (presence != null && Objects.equals(tableId, presence.tableId)) {
+            presence.tableId = null;
+            notifyFriends(userId);
+        }
+    }
+
+    public boolean isOnline(Long userId) {
+        return online.containsKey(userId);
+    }
+
+    /**
+     * Friends of a user that are online right now, with the table they have open
+     */
+    public List<FriendPresenceDto> getOnlineFriends(Long userId) {
+        Set<Long> friendIds = friendGraph.friendsOf(userId);
+        List<FriendPresenceDto> result = new ArrayList<>();
+        for (Long friendId : friendIds) {
+            UserPresence presence = online.get(friendId);
+            if (presence != null) {
+                result.add(toDto(friendId, presence, true));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * New friends see each other's presence right away, removed friends disappear
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        sendPresence(event.getUserId(), event.getFriendId(), event.isFriends());
+        sendPresence(event.getFriendId(), event.getUserId(), event.isFriends());
+    }
+
+    private void sendPresence(Long aboutUserId, Long toUserId, boolean friends) {
+        UserPresence recipient = online.get(toUserId);
+        UserPresence subject = online.get(aboutUserId);
+        if (recipient == null || subject == null) {
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(recipient.username, PRESENCE_QUEUE, toDto(aboutUserId, subject, friends));
+    }
+
+    private void notifyFriends(Long userId) {
+        UserPresence presence = online.get(userId);
+        if (presence != null) {
+            notifyFriends(userId, toDto(userId, presence, true));
+        }
+    }
+
+    private void notifyFriends(Long userId, FriendPresenceDto update) {
+        // Presence is still tracked, friends see it on their next fetch
+        if (sessionManager.shouldShed(SheddableWork.PRESENCE_UPDATE)) {
+            return;
+        }
+        for (Long friendId : friendGraph.friendsOf(userId)) {
+            UserPresence friend = online.get(friendId);
+            if (friend != null) {
+                messagingTemplate.convertAndSendToUser(friend.username, PRESENCE_QUEUE, update);
+            }
+        }
+    }
+
+    private FriendPresenceDto toDto(Long userId, UserPresence presence, boolean online) {
+        FriendPresenceDto dto = new FriendPresenceDto();
+        dto.setUserId(userId);
+        dto.setUsername(presence.username);
+        dto.setOnline(online);
+        dto.setTableId(online ? presence.tableId : null);
+        return dto;
+    }
+
+    private static final class UserPresence {
+        private final String username;
+        private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+        private volatile Long tableId;
+
+        private UserPresence(String username) {
+            this.username = username;
+        }
+    }
+}
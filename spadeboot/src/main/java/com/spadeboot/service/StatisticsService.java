@@ -0,0 +1,243 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.StatisticsDto;
+import com.spadeboot.domain.user.PlayerStatistics;
+import com.spadeboot.exception.NotFoundException;
+import com.spadeboot.repository.PlayerStatisticsRepository;
+import com.spadeboot.repository.UserRepository;
+import com.spadeboot.session.HandCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-user statistics up to date from completed hands. Hand results are folded into
+ * in-memory deltas and written to the counter rows in batches, so the game threads never
+ * wait on the database and reads never aggregate hand history.
+ */
+@Service
+public class StatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsService.class);
+
+    private static final String INCREMENT_COUNTERS = "UPDATE player_statistics SET " +
+            "hands_played = hands_played + ?, vpip_hands = vpip_hands + ?, pfr_hands = pfr_hands + ?, " +
+            "aggressive_actions = aggressive_actions + ?, passive_actions = passive_actions + ?, " +
+            "showdowns_seen = showdowns_seen + ?, showdowns_won = showdowns_won + ?, " +
+            "hands_won = hands_won + ?, net_chips = net_chips + ?, updated_at = ? WHERE user_id = ?";
+
+    private static final String INSERT_COUNTERS = "INSERT INTO player_statistics " +
+            "(hands_played, vpip_hands, pfr_hands, aggressive_actions, passive_actions, " +
+            "showdowns_seen, showdowns_won, hands_won, net_chips, updated_at, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Unflushed counter deltas per user ID
+    private final Map<Long, StatisticsDelta> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Fold a completed hand into the pending deltas
+     */
+    @EventListener
+    public void onHandCompleted(HandCompletedEvent event) {
+        for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+            if (result.getUserId() == null) {
+                continue;
+            }
+            pendingDeltas.compute(result.getUserId(), (userId, delta) -> {
+                StatisticsDelta updated = delta != null ? delta : new StatisticsDelta();
+                updated.add(result);
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Write all pending deltas to the counter rows in one transaction: one batch of increments,
+     * and one batch of inserts for the users whose first hands these are
+     * @return Number of users whose statistics were written
+     */
+    @Transactional
+    public int flushPendingStatistics() {
+        if (pendingDeltas.isEmpty()) {
+            return 0;
+        }
+
+        // Detach the deltas first, hands completing meanwhile start a new delta
+        List<Map.Entry<Long, StatisticsDelta>> batch = new ArrayList<>();
+        for (Long userId : new ArrayList<>(pendingDeltas.keySet())) {
+            StatisticsDelta delta = pendingDeltas.remove(userId);
+            if (delta != null) {
+                batch.add(Map.entry(userId, delta));
+            }
+        }
+
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_COUNTERS, batch, batch.size(),
+                    (statement, entry) -> setCounters(statement, entry, now));
+
+            // Update counts are per statement, MySQL only rewrites batches of inserts into one statement
+            List<Map.Entry<Long, StatisticsDelta>> missing = new ArrayList<>();
+            int index = 0;
+            for (int[] counts : updated) {
+                for (int count : counts) {
+                    if (count == 0) {
+                        missing.add(batch.get(index));
+                    }
+                    index++;
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_COUNTERS, missing, missing.size(),
+                        (statement, entry) -> setCounters(statement, entry, now));
+            }
+        } catch (RuntimeException e) {
+            // Put the batch back so the next flush retries it
+            for (Map.Entry<Long, StatisticsDelta> entry : batch) {
+                pendingDeltas.merge(entry.getKey(), entry.getValue(), StatisticsDelta::merge);
+            }
+            logger.error("Failed to flush statistics for {} users", batch.size(), e);
+            throw e;
+        }
+
+        return batch.size();
+    }
+
+    // Same parameter order for the increment and the insert, the user ID last
+    private static void setCounters(PreparedStatement statement, Map.Entry<Long, StatisticsDelta> entry,
+                                    Timestamp now) throws SQLException {
+        StatisticsDelta delta = entry.getValue();
+        statement.setLong(1, delta.handsPlayed);
+        statement.setLong(2, delta.vpipHands);
+        statement.setLong(3, delta.pfrHands);
+        statement.setLong(4, delta.aggressiveActions);
+        statement.setLong(5, delta.passiveActions);
+        statement.setLong(6, delta.showdownsSeen);
+        statement.setLong(7, delta.showdownsWon);
+        statement.setLong(8, delta.handsWon);
+        statement.setLong(9, delta.netChips);
+        statement.setTimestamp(10, now);
+        statement.setLong(11, entry.getKey());
+    }
+
+    /**
+     * Get the statistics of a user
+     * @param userId The user ID
+     * @return The statistics, including hands that have not been flushed yet
+     */
+    @Transactional(readOnly = true)
+    public StatisticsDto getUserStatistics(Long userId) {
+        PlayerStatistics statistics = statisticsRepository.findById(userId).orElse(null);
+        StatisticsDelta pending = pendingDeltas.get(userId);
+
+        if (statistics == null) {
+            if (pending == null && !userRepository.existsById(userId)) {
+                throw new NotFoundException("User not found");
+            }
+            statistics = new PlayerStatistics();
+            statistics.setUserId(userId);
+        }
+
+        if (pending != null) {
+            synchronized (pending) {
+                pending.applyTo(statistics);
+            }
+        }
+
+        return convertToDto(statistics);
+    }
+
+    private StatisticsDto convertToDto(PlayerStatistics statistics) {
+        StatisticsDto dto = new StatisticsDto();
+        dto.setUserId(statistics.getUserId());
+        dto.setHandsPlayed(statistics.getHandsPlayed());
+        dto.setHandsWon(statistics.getHandsWon());
+        dto.setVpip(percentage(statistics.getVpipHands(), statistics.getHandsPlayed()));
+        dto.setPfr(percentage(statistics.getPfrHands(), statistics.getHandsPlayed()));
+        dto.setAggressionFactor(statistics.getPassiveActions() > 0
+                ? (double) statistics.getAggressiveActions() / statistics.getPassiveActions()
+                : statistics.getAggressiveActions());
+        dto.setShowdownsSeen(statistics.getShowdownsSeen());
+        dto.setShowdownWinRate(percentage(statistics.getShowdownsWon(), statistics.getShowdownsSeen()));
+        dto.setNetChips(statistics.getNetChips());
+        return dto;
+    }
+
+    private double percentage(long part, long total) {
+        return total > 0 ? 100.0 * part / total : 0.0;
+    }
+
+    /**
+     * Counter increments accumulated between two flushes
+     */
+    private static class StatisticsDelta {
+        long handsPlayed;
+        long vpipHands;
+        long pfrHands;
+        long aggressiveActions;
+        long passiveActions;
+        long showdownsSeen;
+        long showdownsWon;
+        long handsWon;
+        long netChips;
+
+        synchronized void add(HandCompletedEvent.PlayerResult result) {
+            handsPlayed++;
+            if (result.isVpip()) vpipHands++;
+            if (result.isPfr()) pfrHands++;
+            aggressiveActions += result.getAggressiveActions();
+            passiveActions += result.getPassiveActions();
+            if (result.isSawShowdown()) showdownsSeen++;
+            if (result.isWonAtShowdown()) showdownsWon++;
+            if (result.isWonHand()) handsWon++;
+            netChips += result.getNetChips();
+        }
+
+        synchronized StatisticsDelta merge(StatisticsDelta other) {
+            handsPlayed += other.handsPlayed;
+            vpipHands += other.vpipHands;
+            pfrHands += other.pfrHands;
+            aggressiveActions += other.aggressiveActions;
+            passiveActions += other.passiveActions;
+            showdownsSeen += other.showdownsSeen;
+            showdownsWon += other.showdownsWon;
+            handsWon += other.handsWon;
+            netChips += other.netChips;
+            return this;
+        }
+
+        void applyTo(PlayerStatistics statistics) {
+            statistics.setHandsPlayed(statistics.getHandsPlayed() + handsPlayed);
+            statistics.setVpipHands(statistics.getVpipHands() + vpipHands);
+            statistics.setPfrHands(statistics.getPfrHands() + pfrHands);
+            statistics.setAggressiveActions(statistics.getAggressiveActions() + aggressiveActions);
+            statistics.setPassiveActions(statistics.getPassiveActions() + passiveActions);
+            statistics.setShowdownsSeen(statistics.getShowdownsSeen() + showdownsSeen);
+            statistics.setShowdownsWon(statistics.getShowdownsWon() + showdownsWon);
+            statistics.setHandsWon(statistics.getHandsWon() + handsWon);
+            statistics.setNetChips(statistics.getNetChips() + netChips);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.TableDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link TableService} when a table was created, joined, left or deleted.
+ * {@code table} is the state after the change, or null if the table was deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class TableChangedEvent {
+    private final Long tableId;
+    private final TableDto table;
+}
@@ -10,24 +10,36 @@ import com.spadeboot.repository.PlayerRepository;
 import com.spadeboot.repository.TableRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class TableService {
 
     private final TableRepository tableRepository;
     private final PlayerRepository playerRepository;
+    private final LobbyService lobbyService;
+    private final ChipStackService chipStackService;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public TableService(
             TableRepository tableRepository,
-            PlayerRepository playerRepository) {
+            PlayerRepository playerRepository,
+            LobbyService lobbyService,
+            ChipStackService chipStackService,
+            LedgerService ledgerService,
+            ApplicationEventPublisher eventPublisher) {
         this.tableRepository = tableRepository;
         this.playerRepository = playerRepository;
+        this.lobbyService = lobbyService;
+        this.chipStackService = chipStackService;
+        this.ledgerService = ledgerService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -46,7 +58,7 @@ public class TableService {
         pokerTable.setOwner(ownerAsPlayer);
 
         PokerTable savedTable = tableRepository.save(pokerTable);
-        return convertToDto(savedTable);
+        return publishChanged(convertToDto(savedTable));
     }
 
     @Transactional
@@ -54,7 +66,7 @@ public class TableService {
         PokerTable pokerTable = getTableEntityById(tableId);
 
         // Find player by user ID
-        Player player = playerRepository.findByUserId(userId)
+        Player player = playerRepository.findWithUserByUserId(userId)
                 .orElseThrow(() -> new NotFoundException("Player not found for user ID: " + userId));
 
         if (player.getCurrentTableId() != null) {
@@ -65,11 +77,12 @@ public class TableService {
         if (!joined) {
             throw new IllegalStateException("Could not join table - Check buy-in amount and table capacity");
         }
+        ledgerService.recordBuyIn(userId, tableId, buyIn);
 
         playerRepository.save(player);
         PokerTable updatedTable = tableRepository.save(pokerTable);
 
-        return convertToDto(updatedTable);
+        return publishChanged(convertToDto(updatedTable));
     }
 
 
@@ -79,23 +92,27 @@ public class TableService {
         PokerTable pokerTable = getTableEntityById(tableId);
 
         // Find player by user ID
-        Player player = playerRepository.findByUserId(userId)
+        Player player = playerRepository.findWithUserByUserId(userId)
                 .orElseThrow(() -> new NotFoundException("Player not found for user ID: " + userId));
 
+        chipStackService.takePendingStack(player);
+        int stack = player.getChips();
         boolean removed = pokerTable.removePlayer(player);
         if (!removed) {
             throw new IllegalStateException("Player not at this table");
         }
+        ledgerService.recordCashOut(userId, tableId, stack);
 
         playerRepository.save(player);
         PokerTable updatedTable = tableRepository.save(pokerTable);
 
-        return convertToDto(updatedTable);
+        return publishChanged(convertToDto(updatedTable));
     }
 
     @Transactional
     public TableDto deleteTable(Long tableId, Long userId) {
-        PokerTable pokerTable = getTableEntityById(tableId);
+        PokerTable pokerTable = tableRepository.findWithSeatedUsersById(tableId)
+                .orElseThrow(() -> new NotFoundException("Table not found with ID: " + tableId));
 
         // Check if the user is the owner of the table
         if (!pokerTable.getOwner().getUserId().equals(userId)) {
@@ -109,7 +126,10 @@ public class TableService {
 
         // Remove all players from the table before deletion
         for (Player player : new HashSet<>(pokerTable.getPlayers())) {
+            chipStackService.takePendingStack(player);
+            int stack = player.getChips();
             pokerTable.removePlayer(player);
+            ledgerService.recordCashOut(player.getUserId(), tableId, stack);
             playerRepository.save(player);
         }
 
@@ -118,36 +138,38 @@ public class TableService {
 
         // Delete the table
         tableRepository.delete(pokerTable);
+        eventPublisher.publishEvent(new TableChangedEvent(tableId, null));
 
         return tableDto;
     }
 
 
     public TableDto getTableById(Long id) {
-        PokerTable pokerTable = tableRepository.findById(id)
+        PokerTable pokerTable = tableRepository.findWithSeatsById(id)
                 .orElseThrow(() -> new NotFoundException("Table not found with ID: " + id));
         return convertToDto(pokerTable);
     }
 
 
     public PokerTable getTableEntityById(Long id) {
-        return tableRepository.findById(id)
+        return tableRepository.findWithSeatsById(id)
                 .orElseThrow(() -> new NotFoundException("Table not found with ID: " + id));
     }
 
 
     public List<TableDto> getAllTables() {
-        return tableRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return lobbyService.getTables(false);
     }
 
 
     public List<TableDto> getPublicTables() {
-        return tableRepository.findAll().stream()
-                .filter(table -> !table.getIsPrivate())
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return lobbyService.getTables(true);
+    }
+
+    // Let the lobby pick up the change once the transaction has committed
+    private TableDto publishChanged(TableDto tableDto) {
+        eventPublisher.publishEvent(new TableChangedEvent(tableDto.getId(), tableDto));
+        return tableDto;
     }
 
     private TableDto convertToDto(PokerTable pokerTable) {
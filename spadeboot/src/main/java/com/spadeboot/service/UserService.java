@@ -4,6 +4,9 @@ import com.spadeboot.api.dto.request.user.LoginDto;
 import com.spadeboot.api.dto.request.user.RegisterDto;
 import com.spadeboot.api.dto.request.user.UpdatePasswordDto;
 import com.spadeboot.api.dto.request.user.UpdateUserDto;
+import com.spadeboot.domain.ledger.LedgerEntryType;
+import com.spadeboot.domain.user.BalanceChangedEvent;
+import com.spadeboot.domain.user.RoleChangedEvent;
 import com.spadeboot.domain.user.Player;
 import com.spadeboot.domain.user.User;
 import com.spadeboot.exception.NotFoundException;
@@ -13,6 +16,7 @@ import com.spadeboot.security.JwtUtils;
 import com.spadeboot.security.UserDetailsImpl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,6 +30,8 @@ import jakarta.transaction.Transactional;
 @Service
 public class UserService {
 
+    private static final int STARTING_BALANCE = 1000;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -41,6 +47,15 @@ public class UserService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
     @Transactional
     public User register(RegisterDto registerDto) {
         if (userRepository.existsByUsername(registerDto.getUsername())) {
@@ -56,12 +71,15 @@ public class UserService {
         user.setUsername(registerDto.getUsername());
         user.setEmail(registerDto.getEmail());
         user.setPassword(passwordEncoder.encode(registerDto.getPassword()));
-        user.setBalance(1000);  // Default starting balance
+        user.setBalance(0);  // The starting balance is granted through the ledger
         user.setRole("ROLE_USER"); // Default role
 
         user = userRepository.save(user);
+        ledgerService.recordAdjustment(LedgerEntryType.SIGN_UP_GRANT, user.getId(), STARTING_BALANCE);
+        user.setBalance(STARTING_BALANCE);
 
         createPlayer(user.getId());
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.of(user, STARTING_BALANCE, 0));
 
         return user;
     }
@@ -102,10 +120,17 @@ public class UserService {
     }
 
     public User getCurrentUser() {
+        return userRepository.findById(getCurrentUserId())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
+    /**
+     * ID of the authenticated user, taken from the principal without loading the user
+     */
+    public Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        return userDetails.getId();
     }
 
     public User getUserById(Long id) {
@@ -139,7 +164,9 @@ public class UserService {
         user.setUsername(updateUserDto.getUsername());
         user.setEmail(updateUserDto.getEmail());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.renamed(savedUser));
+        return savedUser;
     }
 
     @Transactional
@@ -160,7 +187,8 @@ public class UserService {
     @Transactional
     public User updateAvatar(Long userId, byte[] avatar) {
         User user = getUserById(userId);
-        user.setAvatar(avatar);
+        // Old files stay, they are content-addressed and may be shared with other users
+        user.setAvatarHash(avatarService.store(avatar));
         return userRepository.save(user);
     }
 
@@ -175,15 +203,22 @@ public class UserService {
             user.setRole("ROLE_USER");
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        applicationEventPublisher.publishEvent(new RoleChangedEvent(savedUser.getId()));
+        return savedUser;
     }
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public User updateUserBalance(Long userId, Integer amount) {
         User user = getUserById(userId);
+        ledgerService.recordAdjustment(LedgerEntryType.ADMIN_ADJUST, userId, amount);
+        userRepository.addAbsInvestment(userId, amount);
+
+        // Both columns were changed in place, keep the loaded entity in step for the response
         user.setBalance(user.getBalance() + amount);
         user.setAbsInvestment(user.getAbsInvestment() + amount);
-        return userRepository.save(user);
+        applicationEventPublisher.publishEvent(BalanceChangedEvent.of(user, amount, amount));
+        return user;
     }
 }
\ No newline at end of file
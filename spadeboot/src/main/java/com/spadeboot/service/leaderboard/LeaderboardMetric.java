@@ -0,0 +1,7 @@
+package com.spadeboot.service.leaderboard;
+
+public enum LeaderboardMetric {
+    BALANCE,       // Current account balance
+    NET_WINNINGS,  // Balance minus everything that was ever credited to the account
+    RATING         // Net chips won per 100 hands, once enough hands have been played
+}
@@ -0,0 +1,277 @@
+package com.spadeboot.service.leaderboard;
+
+import com.spadeboot.api.dto.response.LeaderboardEntryDto;
+import com.spadeboot.domain.user.BalanceChangedEvent;
+import com.spadeboot.exception.NotFoundException;
+import com.spadeboot.repository.PlayerStatisticsRepository;
+import com.spadeboot.repository.UserRepository;
+import com.spadeboot.repository.projection.PlayerResultsView;
+import com.spadeboot.repository.projection.UserBalanceView;
+import com.spadeboot.service.FriendGraph;
+import com.spadeboot.session.HandCompletedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Global and friends-only rankings by balance, net winnings and rating. All rankings are kept
+ * in memory in order-statistic trees, so top-K and "my rank" queries are O(log n) and never
+ * touch the database. The trees are loaded once at startup and then maintained from
+ * balance-change and hand-completed events.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    // Hands a user must have played before being rated
+    static final int MIN_RATED_HANDS = 50;
+
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlayerStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RankedUser> users = new HashMap<>();
+    private final Map<LeaderboardMetric, OrderStatisticTree<RankedUser>> boards = new EnumMap<>(LeaderboardMetric.class);
+
+    public LeaderboardService() {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            boards.put(metric, new OrderStatisticTree<>(rankingOrder(metric)));
+        }
+    }
+
+    /**
+     * Load all users and their hand results from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            boards.values().forEach(OrderStatisticTree::clear);
+
+            try (Stream<UserBalanceView> balances = userRepository.streamAllBalances()) {
+                balances.forEach(view -> users.put(view.getId(), new RankedUser(view.getId(), view.getUsername(),
+                        valueOf(view.getBalance()), valueOf(view.getAbsInvestment()), 0, 0)));
+            }
+
+            try (Stream<PlayerResultsView> results = statisticsRepository.streamAllResults()) {
+                results.forEach(view -> users.computeIfPresent(view.getUserId(),
+                        (id, user) -> user.withResults(view.getHandsPlayed(), view.getNetChips())));
+            }
+
+            for (RankedUser user : users.values()) {
+                addToBoards(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Leaderboard loaded {} users in {} ms", users.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply a committed balance change, on top of the balance ranked so far
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            RankedUser previous = users.get(event.getUserId());
+            RankedUser updated = previous != null
+                    ? previous.withBalance(event.getUsername(), previous.balance + event.getBalanceDelta(),
+                            previous.absInvestment + event.getAbsInvestmentDelta())
+                    : new RankedUser(event.getUserId(), event.getUsername(),
+                            event.getBalanceDelta(), event.getAbsInvestmentDelta(), 0, 0);
+            replace(previous, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply the results of a completed hand to the ratings
+     */
+    @EventListener
+    public void onHandCompleted(HandCompletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+                RankedUser previous = users.get(result.getUserId());
+                if (previous == null) {
+                    continue;
+                }
+                replace(previous, previous.withResults(
+                        previous.handsPlayed + 1, previous.netChips + result.getNetChips()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the best ranked users
+     * @param metric The ranking to read
+     * @param limit Maximum number of entries, capped at {@link #MAX_LIMIT}
+     */
+    public List<LeaderboardEntryDto> getTop(LeaderboardMetric metric, int limit) {
+        int cappedLimit = Math.max(0, Math.min(limit, MAX_LIMIT));
+
+        lock.readLock().lock();
+        try {
+            List<RankedUser> top = boards.get(metric).range(0, cappedLimit);
+            List<LeaderboardEntryDto> entries = new ArrayList<>(top.size());
+            for (int i = 0; i < top.size(); i++) {
+                entries.add(convertToDto(top.get(i), metric, i + 1));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the global rank of a user
+     */
+    public LeaderboardEntryDto getRank(LeaderboardMetric metric, Long userId) {
+        lock.readLock().lock();
+        try {
+            RankedUser user = users.get(userId);
+            OrderStatisticTree<RankedUser> board = boards.get(metric);
+            if (user == null || !board.contains(user)) {
+                throw new NotFoundException("User is not ranked on the " + metric + " leaderboard");
+            }
+            return convertToDto(user, metric, board.rank(user) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank a user among their accepted friends
+     */
+    public List<LeaderboardEntryDto> getFriendsLeaderboard(LeaderboardMetric metric, Long userId) {
+        Set<Long> memberIds = new HashSet<>(friendGraph.friendsOf(userId));
+        memberIds.add(userId);
+
+        List<RankedUser> members = new ArrayList<>(memberIds.size());
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<RankedUser> board = boards.get(metric);
+            for (Long memberId : memberIds) {
+                RankedUser member = users.get(memberId);
+                if (member != null && board.contains(member)) {
+                    members.add(member);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        members.sort(rankingOrder(metric));
+        List<LeaderboardEntryDto> entries = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            entries.add(convertToDto(members.get(i), metric, i + 1));
+        }
+        return entries;
+    }
+
+    // Must be called with the write lock held
+    private void replace(RankedUser previous, RankedUser updated) {
+        if (previous != null) {
+            for (OrderStatisticTree<RankedUser> board : boards.values()) {
+                board.remove(previous);
+            }
+        }
+        users.put(updated.userId, updated);
+        addToBoards(updated);
+    }
+
+    // Must be called with the write lock held
+    private void addToBoards(RankedUser user) {
+        boards.get(LeaderboardMetric.BALANCE).add(user);
+        boards.get(LeaderboardMetric.NET_WINNINGS).add(user);
+        if (user.handsPlayed >= MIN_RATED_HANDS) {
+            boards.get(LeaderboardMetric.RATING).add(user);
+        }
+    }
+
+    // Highest score first, ties broken by user ID so every user has a distinct position
+    private static Comparator<RankedUser> rankingOrder(LeaderboardMetric metric) {
+        return Comparator.comparingLong((RankedUser user) -> user.score(metric))
+                .reversed()
+                .thenComparingLong(user -> user.userId);
+    }
+
+    private static long valueOf(Integer value) {
+        return value != null ? value : 0L;
+    }
+
+    private LeaderboardEntryDto convertToDto(RankedUser user, LeaderboardMetric metric, int rank) {
+        LeaderboardEntryDto dto = new LeaderboardEntryDto();
+        dto.setRank(rank);
+        dto.setUserId(user.userId);
+        dto.setUsername(user.username);
+        dto.setMetric(metric);
+        dto.setScore(user.score(metric));
+        return dto;
+    }
+
+    /**
+     * Immutable snapshot of everything a user is ranked by. A changed user is removed from
+     * the trees with its old snapshot and re-inserted with a new one.
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class RankedUser {
+        private final Long userId;
+        private final String username;
+        private final long balance;
+        private final long absInvestment;
+        private final long handsPlayed;
+        private final long netChips;
+
+        long score(LeaderboardMetric metric) {
+            return switch (metric) {
+                case BALANCE -> balance;
+                case NET_WINNINGS -> balance - absInvestment;
+                case RATING -> handsPlayed > 0 ? netChips * 100 / handsPlayed : 0;
+            };
+        }
+
+        RankedUser withBalance(String newUsername, long newBalance, long newAbsInvestment) {
+            return new RankedUser(userId, newUsername != null ? newUsername : username,
+                    newBalance, newAbsInvestment, handsPlayed, netChips);
+        }
+
+        RankedUser withResults(long newHandsPlayed, long newNetChips) {
+            return new RankedUser(userId, username, balance, absInvestment, newHandsPlayed, newNetChips);
+        }
+    }
+}
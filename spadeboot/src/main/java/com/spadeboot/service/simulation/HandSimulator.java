@@ -0,0 +1,182 @@
+package com.spadeboot.service.simulation;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.domain.card.Card;
+import com.spadeboot.domain.card.Suit;
+import com.spadeboot.domain.card.Value;
+import com.spadeboot.domain.game.HandEvaluation;
+import com.spadeboot.engine.HandReducer;
+import com.spadeboot.engine.HandState;
+import com.spadeboot.engine.ShowdownResolver;
+import com.spadeboot.engine.Transition;
+import com.spadeboot.session.bot.BotStrategy;
+import com.spadeboot.session.bot.BotView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays complete hands in a tight loop with the same rules and hand evaluation as a live
+ * table, minus threads, latches and pauses. Not thread safe, every worker has its own.
+ */
+public class HandSimulator {
+
+    private static final int BOARD_CARDS = 5;
+
+    private final SimulationSettings settings;
+    private final SplittableRandom random;
+    private final BotStrategy[] strategies;
+    private final Card[] deck;
+
+    public HandSimulator(SimulationSettings settings, long seed) {
+        this.settings = settings;
+        this.random = new SplittableRandom(seed);
+
+        this.strategies = new BotStrategy[settings.seats()];
+        for (int seat = 0; seat < strategies.length; seat++) {
+            strategies[seat] = settings.strategyOf(seat).create(random.nextLong());
+        }
+
+        List<Card> cards = new ArrayList<>();
+        for (Suit suit : Suit.values()) {
+            for (Value value : Value.values()) {
+                Card card = new Card();
+                card.setSuit(suit);
+                card.setValue(value);
+                cards.add(card);
+            }
+        }
+        this.deck = cards.toArray(new Card[0]);
+    }
+
+    /**
+     * Play hands and add their outcomes to the statistics
+     * @param firstHand Number of the first hand, decides where the dealer button starts
+     */
+    public void play(long firstHand, long count, SimulationStatistics statistics) {
+        for (long hand = firstHand; hand < firstHand + count; hand++) {
+            playHand((int) (hand % settings.seats()), statistics);
+        }
+    }
+
+    private void playHand(int dealer, SimulationStatistics statistics) {
+        int seats = settings.seats();
+        shuffle();
+
+        // Blind positions as a GameSession sets them
+        int smallBlindSeat = seats == 2 ? dealer : (dealer + 1) % seats;
+        int bigBlindSeat = (smallBlindSeat + 1) % seats;
+
+        int[] stacks = new int[seats];
+        Arrays.fill(stacks, settings.stack());
+        HandState state = HandReducer.start(stacks, smallBlindSeat, bigBlindSeat,
+                settings.bigBlind() / 2, settings.bigBlind());
+
+        while (!state.isHandOver()) {
+            int seat = state.toAct();
+            BotView view = new BotView(state.stage(), holeCards(seat), board(boardSize(state)),
+                    state.stack(seat), state.toCall(seat), state.pot(), settings.bigBlind(),
+                    state.inHandCount() - 1);
+
+            PlayerActionDto action = strategies[seat].decide(view);
+            Transition transition = HandReducer.apply(state, seat, action.getAction(), action.getAmount());
+            if (!transition.isAccepted()) {
+                transition = HandReducer.apply(state, seat, view.canCheck() ? ActionType.CHECK : ActionType.FOLD, null);
+            }
+            state = transition.state();
+            statistics.actions++;
+        }
+
+        int[] won = payOut(state, dealer, statistics);
+        if (!state.isShowdown()) {
+            statistics.endedByFolds[state.stage().ordinal()]++;
+        }
+
+        for (int seat = 0; seat < seats; seat++) {
+            int position = (seat - dealer + seats) % seats;
+            statistics.netChipsByPosition[position] += won[seat] - state.totalBet(seat);
+        }
+        statistics.hands++;
+        statistics.totalPot += state.pot();
+        statistics.maxPot = Math.max(statistics.maxPot, state.pot());
+    }
+
+    /**
+     * Rank the hands still in and pay out every pot, the way a live table does
+     * @return Chips each seat receives
+     */
+    private int[] payOut(HandState state, int dealer, SimulationStatistics statistics) {
+        int seats = settings.seats();
+        long[] ranks = new long[seats];
+        if (state.isShowdown()) {
+            for (int seat = 0; seat < seats; seat++) {
+                if (!state.isFolded(seat)) {
+                    List<Card> cards = new ArrayList<>(holeCards(seat));
+                    cards.addAll(board(BOARD_CARDS));
+                    ranks[seat] = HandEvaluation.cardsToRankNumber(cards);
+                }
+            }
+        }
+
+        // Odd chips start left of the button, the big blind heads-up and the small blind otherwise
+        List<ShowdownResolver.Pot> pots = ShowdownResolver.resolve(state, ranks, (dealer + 1) % seats);
+        int[] won = ShowdownResolver.payouts(pots, seats);
+
+        int paid = 0;
+        for (int amount : won) {
+            paid += amount;
+        }
+        statistics.chipsUnpaid += state.pot() - paid;
+
+        if (state.isShowdown()) {
+            statistics.showdowns++;
+            int contested = 0;
+            for (ShowdownResolver.Pot pot : pots) {
+                if (pot.uncalled()) {
+                    continue;
+                }
+                contested++;
+                statistics.winningHandTypes[HandEvaluation.handType(ranks[pot.winners()[0]])]++;
+                if (pot.winners().length > 1) {
+                    statistics.splitPots++;
+                }
+            }
+            statistics.sidePots += Math.max(0, contested - 1);
+        }
+        return won;
+    }
+
+    private List<Card> holeCards(int seat) {
+        return List.of(deck[2 * seat], deck[2 * seat + 1]);
+    }
+
+    /**
+     * Community cards follow the hole cards in the shuffled deck
+     */
+    private List<Card> board(int size) {
+        int first = 2 * settings.seats();
+        return Arrays.asList(deck).subList(first, first + size);
+    }
+
+    private static int boardSize(HandState state) {
+        return switch (state.stage()) {
+            case PRE_FLOP -> 0;
+            case FLOP -> 3;
+            case TURN -> 4;
+            case RIVER -> 5;
+        };
+    }
+
+    // Fisher-Yates with the worker's own random, so hands are reproducible from the seed
+    private void shuffle() {
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Card card = deck[i];
+            deck[i] = deck[j];
+            deck[j] = card;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.spadeboot.service.simulation;
+
+import com.spadeboot.domain.game.StageType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated outcome of a simulation run, shaped for JSON
+ */
+public record SimulationReport(
+        SimulationSettings settings,
+        int workers,
+        long elapsedMillis,
+        long handsPerSecond,
+        long hands,
+        double actionsPerHand,
+        double showdownRate,
+        double splitPotRate,
+        double sidePotsPerHand,
+        double averagePot,
+        long maxPot,
+        long chipsUnpaid,
+        Map<StageType, Long> endedByFolds,
+        Map<String, Long> winningHandTypes,
+        List<Long> netChipsByPosition) {
+
+    private static final String[] HAND_TYPE_NAMES = {
+            null, "HIGH_CARD", "PAIR", "TWO_PAIR", "THREE_OF_A_KIND", "STRAIGHT",
+            "FLUSH", "FULL_HOUSE", "FOUR_OF_A_KIND", "STRAIGHT_FLUSH"
+    };
+
+    static SimulationReport of(SimulationSettings settings, int workers, long elapsedNanos,
+                               SimulationStatistics statistics) {
+        long hands = statistics.hands;
+        long elapsedMillis = elapsedNanos / 1_000_000;
+
+        Map<StageType, Long> endedByFolds = new LinkedHashMap<>();
+        for (StageType stage : StageType.values()) {
+            endedByFolds.put(stage, statistics.endedByFolds[stage.ordinal()]);
+        }
+
+        Map<String, Long> winningHandTypes = new LinkedHashMap<>();
+        for (int type = 1; type < SimulationStatistics.HAND_TYPES; type++) {
+            winningHandTypes.put(HAND_TYPE_NAMES[type], statistics.winningHandTypes[type]);
+        }
+
+        List<Long> netChipsByPosition = new ArrayList<>();
+        for (long net : statistics.netChipsByPosition) {
+            netChipsByPosition.add(net);
+        }
+
+        return new SimulationReport(
+                settings,
+                workers,
+                elapsedMillis,
+                elapsedNanos > 0 ? hands * 1_000_000_000L / elapsedNanos : 0,
+                hands,
+                ratio(statistics.actions, hands),
+                ratio(statistics.showdowns, hands),
+                ratio(statistics.splitPots, hands),
+                ratio(statistics.sidePots, hands),
+                ratio(statistics.totalPot, hands),
+                statistics.maxPot,
+                statistics.chipsUnpaid,
+                endedByFolds,
+                winningHandTypes,
+                netChipsByPosition);
+    }
+
+    private static double ratio(long value, long hands) {
+        return hands > 0 ? (double) value / hands : 0;
+    }
+}
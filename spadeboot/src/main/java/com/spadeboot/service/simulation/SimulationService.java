@@ -0,0 +1,51 @@
+package com.spadeboot.service.simulation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs headless hand simulations on a fork/join pool of its own, so a long run leaves the
+ * common pool alone.
+ */
+@Service
+public class SimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulationService.class);
+
+    // 0 means one worker per core
+    @Value("${app.simulation.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Play all hands of the settings and wait for the result
+     */
+    public SimulationReport run(SimulationSettings settings) {
+        long start = System.nanoTime();
+        SimulationStatistics statistics = pool.invoke(
+                new SimulationTask(settings, 0, SimulationTask.chunks(settings)));
+        SimulationReport report = SimulationReport.of(settings, pool.getParallelism(),
+                System.nanoTime() - start, statistics);
+
+        logger.info("Simulated {} hands with {} workers in {} ms ({} hands/s)",
+                report.hands(), report.workers(), report.elapsedMillis(), report.handsPerSecond());
+        return report;
+    }
+}
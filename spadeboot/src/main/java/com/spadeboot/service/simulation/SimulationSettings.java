@@ -0,0 +1,37 @@
+package com.spadeboot.service.simulation;
+
+import com.spadeboot.engine.HandState;
+import com.spadeboot.session.bot.BotStrategyType;
+
+import java.util.List;
+
+/**
+ * What to simulate. Every hand starts from fresh stacks, the dealer button moves each hand.
+ * @param strategies Strategies of the seats, repeated if there are more seats than strategies
+ * @param seed Same seed and settings, same results, however many workers play
+ */
+public record SimulationSettings(long hands, int seats, int stack, int bigBlind,
+                                 List<BotStrategyType> strategies, long seed) {
+
+    public static final long MAX_HANDS = 100_000_000L;
+
+    public SimulationSettings {
+        if (hands <= 0 || hands > MAX_HANDS) {
+            throw new IllegalStateException("Hands must be between 1 and " + MAX_HANDS);
+        }
+        if (seats < 2 || seats > Math.min(HandState.MAX_SEATS, 10)) {
+            throw new IllegalStateException("Seats must be between 2 and 10");
+        }
+        if (bigBlind < 2 || stack < bigBlind) {
+            throw new IllegalStateException("The big blind must be at least 2 and fit in the stack");
+        }
+        if (strategies == null || strategies.isEmpty()) {
+            throw new IllegalStateException("At least one strategy is needed");
+        }
+        strategies = List.copyOf(strategies);
+    }
+
+    public BotStrategyType strategyOf(int seat) {
+        return strategies.get(seat % strategies.size());
+    }
+}
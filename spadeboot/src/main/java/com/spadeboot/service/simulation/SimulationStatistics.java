@@ -0,0 +1,54 @@
+package com.spadeboot.service.simulation;
+
+import com.spadeboot.domain.game.StageType;
+
+/**
+ * Outcome counters of simulated hands. Each worker fills its own instance, the results are
+ * merged at the end, so nothing here is shared between threads.
+ */
+public class SimulationStatistics {
+
+    // Index 1 (high card) to 9 (straight flush), as returned by HandEvaluation.handType
+    static final int HAND_TYPES = 10;
+
+    long hands;
+    long actions;
+    long showdowns;
+    long splitPots;
+    long sidePots;
+    long totalPot;
+    long maxPot;
+    // Chips of a pot not paid out to anyone, must stay 0
+    long chipsUnpaid;
+
+    // Hands decided without showdown, by the street the last fold happened on
+    final long[] endedByFolds = new long[StageType.values().length];
+    // Winning hand types at showdown, once per contested pot
+    final long[] winningHandTypes = new long[HAND_TYPES];
+    // Net chips by position, 0 is the dealer
+    final long[] netChipsByPosition;
+
+    SimulationStatistics(int seats) {
+        this.netChipsByPosition = new long[seats];
+    }
+
+    void merge(SimulationStatistics other) {
+        hands += other.hands;
+        actions += other.actions;
+        showdowns += other.showdowns;
+        splitPots += other.splitPots;
+        sidePots += other.sidePots;
+        totalPot += other.totalPot;
+        maxPot = Math.max(maxPot, other.maxPot);
+        chipsUnpaid += other.chipsUnpaid;
+        add(endedByFolds, other.endedByFolds);
+        add(winningHandTypes, other.winningHandTypes);
+        add(netChipsByPosition, other.netChipsByPosition);
+    }
+
+    private static void add(long[] target, long[] values) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += values[i];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.spadeboot.service.simulation;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a simulation into fixed chunks of hands. Each chunk gets a seed derived from the run
+ * seed and its index, never from the thread that plays it, so the merged result does not
+ * depend on the pool size or on scheduling.
+ */
+class SimulationTask extends RecursiveTask<SimulationStatistics> {
+
+    static final int HANDS_PER_CHUNK = 10_000;
+
+    private final SimulationSettings settings;
+    private final long fromChunk;
+    private final long toChunk;
+
+    SimulationTask(SimulationSettings settings, long fromChunk, long toChunk) {
+        this.settings = settings;
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+    }
+
+    static long chunks(SimulationSettings settings) {
+        return (settings.hands() + HANDS_PER_CHUNK - 1) / HANDS_PER_CHUNK;
+    }
+
+    @Override
+    protected SimulationStatistics compute() {
+        if (toChunk - fromChunk == 1) {
+            return playChunk(fromChunk);
+        }
+
+        long middle = (fromChunk + toChunk) >>> 1;
+        SimulationTask left = new SimulationTask(settings, fromChunk, middle);
+        left.fork();
+        SimulationStatistics statistics = new SimulationTask(settings, middle, toChunk).compute();
+        statistics.merge(left.join());
+        return statistics;
+    }
+
+    private SimulationStatistics playChunk(long chunk) {
+        long firstHand = chunk * HANDS_PER_CHUNK;
+        long count = Math.min(HANDS_PER_CHUNK, settings.hands() - firstHand);
+
+        SimulationStatistics statistics = new SimulationStatistics(settings.seats());
+        new HandSimulator(settings, settings.seed() + chunk * 0x9E3779B97F4A7C15L).play(firstHand, count, statistics);
+        return statistics;
+    }
+}
@@ -0,0 +1,7 @@
+package com.spadeboot.service.suggestion;
+
+/**
+ * A user someone may know, with the evidence behind the score
+ */
+public record Suggestion(Long userId, int mutualFriends, int handsTogether, int score) {
+}
@@ -0,0 +1,209 @@
+package com.spadeboot.service.suggestion;
+
+import com.spadeboot.domain.user.FriendshipChangedEvent;
+import com.spadeboot.service.FriendGraph;
+import com.spadeboot.session.HandCompletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "People you may know" from mutual friends and hands played together. Friend lists are
+ * kept as sorted arrays of user IDs, so the mutual friends of two users are a linear merge
+ * instead of a SQL join. The top suggestions of each user are computed on first request and
+ * then refreshed incrementally for users whose neighbourhood changed.
+ * <p>
+ * Hands played together are counted from completed hands since startup, hand history is not
+ * stored yet.
+ */
+@Service
+public class SuggestionService {
+
+    public static final int TOP_N = 20;
+
+    // One mutual friend weighs as much as ten hands played together
+    static final int MUTUAL_FRIEND_WEIGHT = 10;
+    static final int MAX_COUNTED_HANDS = 100;
+
+    // Co-players kept per user, the most frequent ones. A regular sees thousands of players, the
+    // ones met in a hand or two never outrank a mutual friend anyway.
+    static final int MAX_CO_PLAYERS = 10 * TOP_N;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    // Sorted friend IDs per user, a snapshot of the friend graph
+    private final Map<Long, long[]> friendArrays = new ConcurrentHashMap<>();
+
+    // Hands played together, per user and co-player, pruned to the MAX_CO_PLAYERS most frequent
+    private final Map<Long, Map<Long, Integer>> handsTogether = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<Suggestion>> topSuggestions = new ConcurrentHashMap<>();
+
+    // Users whose friend list changed, and users whose suggestions may have changed
+    private final Set<Long> changedFriendLists = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Both users and everyone within two hops of them see different candidates now
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        for (Long userId : List.of(event.getUserId(), event.getFriendId())) {
+            changedFriendLists.add(userId);
+            dirtyUsers.add(userId);
+            dirtyUsers.addAll(friendGraph.friendsOf(userId));
+        }
+    }
+
+    @EventListener
+    public void onHandCompleted(HandCompletedEvent event) {
+        List<Long> userIds = new ArrayList<>();
+        for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+            if (result.getUserId() != null) {
+                userIds.add(result.getUserId());
+            }
+        }
+
+        for (Long userId : userIds) {
+            Map<Long, Integer> coPlayers = handsTogether.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+            for (Long otherId : userIds) {
+                if (!otherId.equals(userId)) {
+                    coPlayers.merge(otherId, 1, Integer::sum);
+                }
+            }
+            // Twice the limit before pruning, so sorting is amortized over as many hands as it keeps
+            if (coPlayers.size() > 2 * MAX_CO_PLAYERS) {
+                prune(coPlayers);
+            }
+        }
+        dirtyUsers.addAll(userIds);
+    }
+
+    /**
+     * Best suggestions for a user, highest score first
+     */
+    public List<Suggestion> getSuggestions(Long userId, int limit) {
+        List<Suggestion> suggestions = topSuggestions.computeIfAbsent(userId, this::compute);
+        return suggestions.subList(0, Math.min(Math.max(limit, 0), suggestions.size()));
+    }
+
+    /**
+     * Recompute the lists of users whose neighbourhood changed. Users that never asked for
+     * suggestions are skipped, they are computed on their first request.
+     * @return Number of lists recomputed
+     */
+    public int refreshDirtySuggestions() {
+        // Runs after the friend graph has applied the change, so the snapshots are rebuilt from the new state
+        for (Long userId : drain(changedFriendLists)) {
+            friendArrays.remove(userId);
+        }
+
+        int refreshed = 0;
+        for (Long userId : drain(dirtyUsers)) {
+            if (topSuggestions.containsKey(userId)) {
+                topSuggestions.put(userId, compute(userId));
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    List<Suggestion> compute(Long userId) {
+        long[] friends = friendArray(userId);
+        Map<Long, Integer> coPlayers = handsTogether.getOrDefault(userId, Map.of());
+
+        // Candidates are friends of friends and co-players that are not friends yet
+        Set<Long> candidates = new HashSet<>(coPlayers.keySet());
+        for (long friendId : friends) {
+            for (long candidateId : friendArray(friendId)) {
+                candidates.add(candidateId);
+            }
+        }
+        candidates.remove(userId);
+
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(TOP_N + 1, RANKING.reversed());
+        for (Long candidateId : candidates) {
+            if (Arrays.binarySearch(friends, candidateId) >= 0) {
+                continue;
+            }
+
+            int mutual = intersectionSize(friends, friendArray(candidateId));
+            int hands = coPlayers.getOrDefault(candidateId, 0);
+            int score = mutual * MUTUAL_FRIEND_WEIGHT + Math.min(hands, MAX_COUNTED_HANDS);
+            if (score == 0) {
+                continue;
+            }
+
+            best.add(new Suggestion(candidateId, mutual, hands, score));
+            if (best.size() > TOP_N) {
+                best.poll();
+            }
+        }
+
+        List<Suggestion> result = new ArrayList<>(best);
+        result.sort(RANKING);
+        return List.copyOf(result);
+    }
+
+    // Highest score first, ties by more mutual friends, then by user ID for a stable order
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingInt(Suggestion::score).reversed()
+            .thenComparing(Comparator.comparingInt(Suggestion::mutualFriends).reversed())
+            .thenComparing(Suggestion::userId);
+
+    /**
+     * Number of common elements of two sorted arrays
+     */
+    static int intersectionSize(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private long[] friendArray(Long userId) {
+        return friendArrays.computeIfAbsent(userId, id -> {
+            long[] friends = friendGraph.friendsOf(id).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(friends);
+            return friends;
+        });
+    }
+
+    /**
+     * Keep the co-players a user played the most hands with. A hand counted concurrently for a
+     * co-player being dropped may be lost, the counts are a heuristic.
+     */
+    static void prune(Map<Long, Integer> coPlayers) {
+        coPlayers.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .skip(MAX_CO_PLAYERS)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(coPlayers::remove);
+    }
+
+    private static List<Long> drain(Set<Long> set) {
+        List<Long> drained = new ArrayList<>();
+        for (Iterator<Long> iterator = set.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,280 @@
+package com.spadeboot.session;
+
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.metrics.EngineMetrics;
+import lombok.Getter;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fast-fold pool of one table: instead of sitting at a fixed table, a player who folds is
+ * queued right away and dealt into the next hand formed from the queue, each hand playing on
+ * its own single-hand {@link GameSession}.
+ *
+ * Players are queued on a lock-free queue by whichever thread releases them, a single
+ * dispatcher thread per pool takes them off and deals a hand as soon as enough are ready.
+ * Which hand a player is in is one atomic reference per player, so a player is only ever
+ * released by the hand it is playing and never dealt into two hands at once.
+ */
+public class FastFoldPool {
+
+    /**
+     * Where the pool registers its hands, the session manager in production
+     */
+    interface HandRegistry {
+        Long nextHandId();
+
+        void handStarted(GameSession hand);
+
+        void handEnded(GameSession hand);
+    }
+
+    @Getter
+    private final Long tableId;
+    @Getter
+    private final int bigBlind;
+    @Getter
+    private final int handSize;
+    private final long maxWaitNanos;
+    private final HandRegistry registry;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EngineMetrics metrics;
+
+    // Players in the pool by player ID, whether queued or playing
+    private final Map<Long, Member> members = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Member> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readyCount = new AtomicInteger();
+    private final AtomicInteger handsRunning = new AtomicInteger();
+    private final Thread dispatcher;
+    // Players the dispatcher holds for the hand it is filling, written by the dispatcher only
+    private volatile int formingCount;
+    private volatile boolean closed;
+
+    /**
+     * @param handSize Players dealt into a full hand
+     * @param maxWaitMillis How long the first player in the queue waits for a full hand before
+     *                      a short-handed one is dealt
+     */
+    FastFoldPool(Long tableId, int bigBlind, int handSize, long maxWaitMillis, HandRegistry registry,
+                 ApplicationEventPublisher applicationEventPublisher, EngineMetrics metrics) {
+        if (handSize < 2 || handSize > 10) {
+            throw new IllegalStateException("Fast-fold hands need 2 to 10 players");
+        }
+        if (maxWaitMillis <= 0) {
+            throw new IllegalStateException("The maximum wait for a full hand must be positive");
+        }
+        this.tableId = tableId;
+        this.bigBlind = bigBlind;
+        this.handSize = handSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.registry = registry;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.metrics = metrics;
+        this.dispatcher = new Thread(this::dispatch, "fast-fold-" + tableId);
+        this.dispatcher.setDaemon(true);
+    }
+
+    void start() {
+        dispatcher.start();
+        publishEvent(new GameStatusChangedEvent(tableId, true));
+    }
+
+    /**
+     * Stop dealing new hands, the hands running are played to the end
+     */
+    void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        members.clear();
+        publishEvent(new GameStatusChangedEvent(tableId, false));
+    }
+
+    /**
+     * Add a player to the pool and queue it for the next hand
+     * @return False if the player is in the pool already
+     */
+    public boolean join(Player player) {
+        if (closed) {
+            throw new IllegalStateException("The fast-fold pool of table " + tableId + " is closed");
+        }
+        if (player.getChips() <= 0) {
+            throw new IllegalStateException("No chips left to play with");
+        }
+
+        Member member = new Member(player);
+        if (members.putIfAbsent(player.getId(), member) != null) {
+            return false;
+        }
+        enqueue(member);
+        return true;
+    }
+
+    /**
+     * Take a player out of the pool. A player in a hand finishes it, a queued one is skipped
+     * when its turn in the queue comes.
+     */
+    public boolean leave(Long playerId) {
+        return members.remove(playerId) != null;
+    }
+
+    public boolean contains(Long playerId) {
+        return members.containsKey(playerId);
+    }
+
+    public int getPlayerCount() {
+        return members.size();
+    }
+
+    public int getReadyCount() {
+        return readyCount.get();
+    }
+
+    public int getHandsRunning() {
+        return handsRunning.get();
+    }
+
+    /**
+     * Called by a hand of this pool once a player is done with it, after folding or when the
+     * hand ended. Ignored unless the player is still in that very hand.
+     * @param stillInPool False to drop the player, for instance after timing out
+     */
+    void release(GameSession hand, Player player, boolean stillInPool) {
+        Member member = members.get(player.getId());
+        if (member == null || member.player != player || !member.hand.compareAndSet(hand, null)) {
+            return;
+        }
+        if (!stillInPool || player.getChips() <= 0 || closed) {
+            members.remove(player.getId(), member);
+            return;
+        }
+        enqueue(member);
+    }
+
+    /**
+     * Called by a hand of this pool when it has ended
+     */
+    void handEnded(GameSession hand, List<Player> players) {
+        for (Player player : players) {
+            release(hand, player, true);
+        }
+        handsRunning.decrementAndGet();
+        registry.handEnded(hand);
+    }
+
+    private void enqueue(Member member) {
+        member.queuedAt = System.nanoTime();
+        ready.offer(member);
+        int forming = formingCount;
+        if (readyCount.incrementAndGet() + forming >= handSize || forming < 2) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * Dispatcher loop: fill a hand from the queue, deal it once full or once the first player
+     * waited long enough, park until more players are ready otherwise
+     */
+    private void dispatch() {
+        List<Member> forming = new ArrayList<>(handSize);
+        while (!closed) {
+            Member member;
+            while (forming.size() < handSize && (member = ready.poll()) != null) {
+                readyCount.decrementAndGet();
+                if (members.get(member.player.getId()) == member) {
+                    forming.add(member);
+                }
+            }
+            formingCount = forming.size();
+
+            long waited = forming.isEmpty() ? 0 : System.nanoTime() - forming.get(0).queuedAt;
+            if (forming.size() == handSize || (forming.size() >= 2 && waited >= maxWaitNanos)) {
+                try {
+                    deal(forming);
+                } catch (RuntimeException e) {
+                    // Nobody was dealt in, so nobody is lost: the players simply wait for the next hand
+                    e.printStackTrace();
+                    for (Member waiting : forming) {
+                        waiting.hand.set(null);
+                        enqueue(waiting);
+                    }
+                }
+                forming = new ArrayList<>(handSize);
+                formingCount = 0;
+                continue;
+            }
+
+            // Alone a player can only wait for others, with company only until its wait is over
+            LockSupport.parkNanos(this, forming.size() < 2 ? maxWaitNanos : maxWaitNanos - waited);
+        }
+    }
+
+    private void deal(List<Member> forming) {
+        List<Player> players = new ArrayList<>(forming.size());
+        for (Member member : forming) {
+            players.add(member.player);
+        }
+
+        GameSession hand = new GameSession(registry.nextHandId(), players, bigBlind, 0,
+                applicationEventPublisher, metrics);
+        hand.dealSingleHandFor(this);
+
+        // Claimed before the hand starts, so a fold right away already finds the hand
+        long now = System.nanoTime();
+        for (Member member : forming) {
+            member.hand.set(hand);
+            metrics.recordFastFoldWait(now - member.queuedAt);
+        }
+
+        registry.handStarted(hand);
+        handsRunning.incrementAndGet();
+        hand.start();
+
+        try {
+            publishEvent(new FastFoldSeatedEvent(tableId, hand.getCurrentGameState(), usernames(players)));
+        } catch (RuntimeException e) {
+            // The hand is running already, the players find it through the game state
+            e.printStackTrace();
+        }
+    }
+
+    private static List<String> usernames(List<Player> players) {
+        List<String> usernames = new ArrayList<>(players.size());
+        for (Player player : players) {
+            usernames.add(player.getUser().getUsername());
+        }
+        return usernames;
+    }
+
+    private void publishEvent(Object event) {
+        if (applicationEventPublisher == null) {
+            return;
+        }
+
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            // Listeners must never stop the dispatcher
+            e.printStackTrace();
+        }
+    }
+
+    private static final class Member {
+        private final Player player;
+        // Hand the player is dealt into, null while queued
+        private final AtomicReference<GameSession> hand = new AtomicReference<>();
+        private volatile long queuedAt;
+
+        private Member(Player player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.spadeboot.session;
+
+import com.spadeboot.api.dto.GameStateDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by a {@link FastFoldPool} when it dealt players into a new hand, which they
+ * follow and act on under the hand's own table ID
+ */
+@Getter
+@AllArgsConstructor
+public class FastFoldSeatedEvent {
+    private final Long poolTableId;
+    private final GameStateDto hand;
+    private final List<String> usernames;
+}
@@ -5,8 +5,11 @@ import com.spadeboot.domain.game.Game;
 import com.spadeboot.domain.user.Player;
 import com.spadeboot.domain.user.PlayerStatus;
 import com.spadeboot.exception.InvalidMoveException;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.bot.BotPlayer;
 import com.spadeboot.api.dto.*;
 import lombok.Getter;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,6 +23,9 @@ public class GameSession extends Thread {
     private final Long tableId;
     private final int bigBlind;
     private final int smallBlind;
+    private final long handPauseMillis;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EngineMetrics metrics;
 
     @Getter
     private Game game;
@@ -27,7 +33,12 @@ public class GameSession extends Thread {
     private Map<Integer, Player> seatPositions;
     private Map<Long, PlayerInfo> playerInfoMap;
 
-    private RoundSession currentRound;
+    // Seated human players by user ID, fixed for the whole game so lookups need no lock
+    private final Map<Long, Player> playersByUserId;
+
+    private volatile RoundSession currentRound;
+    // Set for a single hand dealt by a fast-fold pool
+    private volatile FastFoldPool fastFoldPool;
     private final AtomicBoolean gameActive = new AtomicBoolean(false);
     private final AtomicBoolean shouldStop = new AtomicBoolean(false);
     private final ReentrantLock actionLock = new ReentrantLock();
@@ -35,6 +46,16 @@ public class GameSession extends Thread {
     private int dealerPosition = 0;
     private int roundNumber = 0;
 
+    // Set while the table is handed over to another node, the loop stops between two hands
+    private volatile boolean stopAfterHand;
+    // Whether the hand being played is published for a standby, set before the round starts
+    private boolean replicated;
+    // Hand another node was playing when it failed, played on as the first hand
+    private HandInFlight resumedHand;
+
+    // System.nanoTime() since when no game loop runs, from creation until started and again once it ended
+    private volatile long idleSince = System.nanoTime();
+
     // Player connection tracking
     private final Map<Long, Boolean> playerConnections = new ConcurrentHashMap<>();
 
@@ -42,11 +63,32 @@ public class GameSession extends Thread {
     private PlayerActionDto pendingAction;
     private Long pendingActionPlayerId;
 
-    public GameSession(Long tableId, List<Player> players, int bigBlind) {
+    public GameSession(Long tableId, List<Player> players, int bigBlind,
+                       ApplicationEventPublisher applicationEventPublisher, EngineMetrics metrics) {
+        this(tableId, players, bigBlind, 2000, applicationEventPublisher, metrics);
+    }
+
+    /**
+     * @param handPauseMillis Pause between two hands, so players can look at the result
+     */
+    public GameSession(Long tableId, List<Player> players, int bigBlind, long handPauseMillis,
+                       ApplicationEventPublisher applicationEventPublisher, EngineMetrics metrics) {
         this.tableId = tableId;
         this.players = new ArrayList<>(players);
         this.bigBlind = bigBlind;
         this.smallBlind = bigBlind / 2;
+        this.handPauseMillis = handPauseMillis;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.metrics = metrics;
+
+        Map<Long, Player> seats = new HashMap<>();
+        for (Player player : this.players) {
+            if (player instanceof BotPlayer) {
+                continue;
+            }
+            seats.put(player.getUserId(), player);
+        }
+        this.playersByUserId = Collections.unmodifiableMap(seats);
 
         initializeGame();
     }
@@ -81,11 +123,23 @@ public class GameSession extends Thread {
         System.out.println("Game initialized with " + players.size() + " players, dealer at position " + dealerPosition);
     }
 
+    /**
+     * Play a single hand for the pool instead of a game, must be called before the session is
+     * started. Players who fold go back to the pool right away, the others once the hand ended.
+     */
+    void dealSingleHandFor(FastFoldPool pool) {
+        this.fastFoldPool = pool;
+    }
+
     @Override
     public void run() {
         gameActive.set(true);
+        if (fastFoldPool == null) {
+            publishEvent(new GameStatusChangedEvent(tableId, true));
+            publishCheckpoint();
+        }
 
-        while (!shouldStop.get() && hasEnoughActivePlayers()) {
+        while (!shouldStop.get() && !stopAfterHand && (resumedHand != null || hasEnoughActivePlayers())) {
             try {
                 // FIXED: Reset player statuses before each round
                 resetPlayerStatusesForNewRound();
@@ -95,14 +149,25 @@ public class GameSession extends Thread {
 
                 // Wait for round to complete
                 if (currentRound != null) {
+                    long joinStart = System.nanoTime();
                     currentRound.join();
+                    metrics.recordWait(EngineMetrics.WaitKind.ROUND, System.nanoTime() - joinStart);
+                }
+                if (fastFoldPool != null) {
+                    break;
                 }
 
                 // Move dealer button
                 moveDealerButton();
+                publishCheckpoint();
+                if (stopAfterHand) {
+                    break;
+                }
 
                 // Small delay between rounds
-                Thread.sleep(2000);
+                long pauseStart = System.nanoTime();
+                Thread.sleep(handPauseMillis);
+                metrics.recordWait(EngineMetrics.WaitKind.HAND_PAUSE, System.nanoTime() - pauseStart);
 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -114,6 +179,12 @@ public class GameSession extends Thread {
         }
 
         gameActive.set(false);
+        idleSince = System.nanoTime();
+        if (fastFoldPool != null) {
+            fastFoldPool.handEnded(this, players);
+            return;
+        }
+        publishEvent(new GameStatusChangedEvent(tableId, false));
         System.out.println("Game session ended for table " + tableId);
     }
 
@@ -150,8 +221,10 @@ public class GameSession extends Thread {
     private void startNewRound() {
         roundNumber++;
 
-        // Get active players for this round
-        List<Player> activePlayers = getActivePlayers();
+        // Get active players for this round, those of a resumed hand were dealt in already
+        HandInFlight resumed = resumedHand;
+        resumedHand = null;
+        List<Player> activePlayers = resumed != null ? playersOf(resumed) : getActivePlayers();
 
         if (activePlayers.size() < 2) {
             System.out.println("Not enough active players (" + activePlayers.size() + ") to start round " + roundNumber);
@@ -175,6 +248,10 @@ public class GameSession extends Thread {
             smallBlindPos = activeDealerIndex;
             bigBlindPos = (activeDealerIndex + 1) % activePlayersCount;
         }
+        if (resumed != null) {
+            smallBlindPos = resumed.smallBlindSeat();
+            bigBlindPos = resumed.bigBlindSeat();
+        }
 
         System.out.println("Dealer: " + activePlayers.get(activeDealerIndex).getUser().getUsername() +
                 ", Small Blind: " + activePlayers.get(smallBlindPos).getUser().getUsername() +
@@ -189,12 +266,38 @@ public class GameSession extends Thread {
                 smallBlindPos,
                 bigBlindPos,
                 smallBlind,
-                bigBlind
+                bigBlind,
+                resumed
         );
 
+        replicated = canBeResumed();
+        if (replicated) {
+            HandInFlight hand = resumed;
+            if (hand == null) {
+                long[] playerIds = activePlayers.stream().mapToLong(Player::getId).toArray();
+                int[] stacks = activePlayers.stream().mapToInt(Player::getChips).toArray();
+                hand = new HandInFlight(roundNumber, playerIds, stacks, smallBlindPos, bigBlindPos, smallBlind,
+                        bigBlind, currentRound.getDeckOrder(), List.of());
+            }
+            publishEvent(new HandStartedEvent(tableId, hand));
+        }
         currentRound.start();
     }
 
+    /**
+     * Seated players in the seats of the hand
+     */
+    private List<Player> playersOf(HandInFlight hand) {
+        List<Player> dealtIn = new ArrayList<>();
+        for (long playerId : hand.playerIds()) {
+            players.stream()
+                    .filter(player -> player.getId() == playerId)
+                    .findFirst()
+                    .ifPresent(dealtIn::add);
+        }
+        return dealtIn;
+    }
+
     /**
      * Find the dealer index among active players
      */
@@ -241,6 +344,113 @@ public class GameSession extends Thread {
         }
     }
 
+    /**
+     * Queue or clear a pre-action for the player's next turn
+     * @return The response of the action if it was the player's turn already and it was taken, null otherwise
+     */
+    public PlayerActionResponse queuePreAction(Player player, PreActionDto.PreActionType type) {
+        actionLock.lock();
+        try {
+            RoundSession round = currentRound;
+            if (round == null || !round.isAlive()) {
+                throw new InvalidMoveException("No active round");
+            }
+            return round.queuePreAction(player, type);
+
+        } finally {
+            actionLock.unlock();
+        }
+    }
+
+    /**
+     * Resolve the seated player of a user without going to the database
+     * @return The player instance the session plays with, or null if the user is not seated here
+     */
+    public Player findSeatedPlayer(Long userId) {
+        return playersByUserId.get(userId);
+    }
+
+    EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Whether a hand is being played right now
+     */
+    public boolean hasActiveRound() {
+        RoundSession round = currentRound;
+        return round != null && round.isAlive();
+    }
+
+    /**
+     * Called by the round once the pot has been distributed
+     */
+    void publishHandCompleted(List<HandCompletedEvent.PlayerResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        // Stacks of fast-fold hands belong to the pool's table
+        Long stackTableId = fastFoldPool != null ? fastFoldPool.getTableId() : tableId;
+        publishEvent(new HandCompletedEvent(stackTableId, roundNumber, results));
+    }
+
+    /**
+     * Called by the round when a player folded, a fast-fold pool deals the player into its
+     * next hand right away
+     * @param timedOut Whether the fold was forced by the action timeout, which takes the player out of the pool
+     */
+    void playerFolded(Player player, boolean timedOut) {
+        FastFoldPool pool = fastFoldPool;
+        if (pool != null) {
+            pool.release(this, player, !timedOut);
+        }
+    }
+
+    /**
+     * Called by the round after it acted for a bot or a pre-action, other actions are broadcast by the caller
+     */
+    void publishRoundAction(Long playerId, PlayerActionDto action, PlayerActionResponse response) {
+        publishEvent(new RoundActionEvent(tableId, playerId, action, response));
+    }
+
+    /**
+     * Called by the round for every action it applied, published for a standby of the table
+     */
+    void publishHandAction(HandInFlight.Action action) {
+        if (replicated) {
+            publishEvent(new HandActionEvent(tableId, roundNumber, action));
+        }
+    }
+
+    /**
+     * Publish the table between two hands, for a standby of the table to resume from
+     */
+    private void publishCheckpoint() {
+        if (canBeResumed()) {
+            publishEvent(new TableCheckpointEvent(tableId, bigBlind, toSnapshot().toBytes()));
+        }
+    }
+
+    /**
+     * Called by the round for every pot it pays out
+     */
+    void publishPotDistributed(PotDistributionDto pot) {
+        publishEvent(new PotDistributedEvent(tableId, pot));
+    }
+
+    private void publishEvent(Object event) {
+        if (applicationEventPublisher == null) {
+            return;
+        }
+
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            // Listeners must never break the running game
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Check if it's a specific player's turn
      */
@@ -384,6 +594,107 @@ public class GameSession extends Thread {
         System.out.println("Game ended for table " + tableId);
     }
 
+    /**
+     * End the game without settling the hand in progress, for a table another node runs now
+     * from the checkpoint before that hand
+     */
+    void abandon() {
+        RoundSession round = currentRound;
+        if (round != null) {
+            round.abandon();
+        }
+        endGame();
+    }
+
+    /**
+     * Let the hand in progress finish, then stop the game loop without ending the game, so
+     * the table can be resumed from its snapshot
+     */
+    void stopAfterHand() {
+        stopAfterHand = true;
+    }
+
+    /**
+     * Players seated in this session, whether or not they are dealt in
+     */
+    int getPlayerCount() {
+        return players.size();
+    }
+
+    boolean isFastFoldHand() {
+        return fastFoldPool != null;
+    }
+
+    /**
+     * @return System.nanoTime() since when no game loop runs, only meaningful while it does not
+     */
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    /**
+     * Whether the game stopped for want of players or to be handed over rather than being
+     * ended, so it can be hibernated and picked up again. Bots play on forever and fast-fold hands are one-offs,
+     * neither is ever kept.
+     */
+    boolean isResumable() {
+        return !isAlive() && !shouldStop.get() && canBeResumed();
+    }
+
+    private boolean canBeResumed() {
+        return fastFoldPool == null && players.stream().noneMatch(player -> player instanceof BotPlayer);
+    }
+
+    TableSnapshot toSnapshot() {
+        int seats = players.size();
+        long[] playerIds = new long[seats];
+        int[] chips = new int[seats];
+        boolean[] connected = new boolean[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            Player player = seatPositions.get(seat);
+            playerIds[seat] = player.getId();
+            chips[seat] = player.getChips();
+            connected[seat] = playerConnections.getOrDefault(player.getId(), false);
+        }
+        return new TableSnapshot(tableId, bigBlind, handPauseMillis, dealerPosition, roundNumber,
+                playerIds, chips, connected);
+    }
+
+    /**
+     * Pick up where a hibernated session left off, before the session is used. The players
+     * are seated in snapshot order already.
+     */
+    void restoreFrom(TableSnapshot snapshot) {
+        dealerPosition = Math.floorMod(snapshot.dealerPosition(), players.size());
+        roundNumber = snapshot.roundNumber();
+        for (int seat = 0; seat < snapshot.playerIds().length; seat++) {
+            Long playerId = snapshot.playerIds()[seat];
+            if (playerConnections.containsKey(playerId) && !snapshot.connected()[seat]) {
+                markPlayerDisconnected(playerId);
+            }
+        }
+    }
+
+    /**
+     * Play on the hand another node was in the middle of as the first hand, before the session
+     * is started and after it was restored from the checkpoint before that hand. The players get
+     * the stacks the hand started with. A hand some player is no longer seated for, or that does
+     * not follow the checkpoint, is dealt again instead.
+     */
+    void resumeHand(HandInFlight hand) {
+        List<Player> dealtIn = playersOf(hand);
+        if (hand.roundNumber() != roundNumber + 1 || dealtIn.size() != hand.playerIds().length) {
+            System.out.println("Hand " + hand.roundNumber() + " of table " + tableId +
+                    " cannot be resumed, dealing it again");
+            return;
+        }
+
+        for (int seat = 0; seat < dealtIn.size(); seat++) {
+            dealtIn.get(seat).setChips(hand.stacks()[seat]);
+        }
+        resumedHand = hand;
+    }
+
     /**
      * Check if game is active
      */
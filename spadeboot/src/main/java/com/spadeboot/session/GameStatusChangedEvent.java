@@ -0,0 +1,14 @@
+package com.spadeboot.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a {@link GameSession} when its game loop starts and when it ends
+ */
+@Getter
+@AllArgsConstructor
+public class GameStatusChangedEvent {
+    private final Long tableId;
+    private final boolean active;
+}
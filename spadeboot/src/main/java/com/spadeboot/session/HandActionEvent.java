@@ -0,0 +1,15 @@
+package com.spadeboot.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a round for every action it applied, in order, on tables that can be resumed
+ */
+@Getter
+@AllArgsConstructor
+public class HandActionEvent {
+    private final Long tableId;
+    private final int roundNumber;
+    private final HandInFlight.Action action;
+}
@@ -0,0 +1,62 @@
+package com.spadeboot.session;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by a {@link GameSession} every time a hand (round) has been played to the end
+ * and the pot has been distributed. Carries everything listeners need to update their own
+ * read models without looking at the live session again.
+ */
+@Getter
+public class HandCompletedEvent {
+
+    // Table the stacks belong to, for a fast-fold hand the pool's table rather than the hand
+    private final Long tableId;
+    private final int roundNumber;
+    private final List<PlayerResult> results;
+
+    public HandCompletedEvent(Long tableId, int roundNumber, List<PlayerResult> results) {
+        this.tableId = tableId;
+        this.roundNumber = roundNumber;
+        this.results = new ArrayList<>(results);
+    }
+
+    /**
+     * Outcome of the hand for a single player that was dealt in
+     */
+    @Getter
+    @Setter
+    public static class PlayerResult {
+        private Long playerId;
+        private Long userId;
+        private String username;
+        // Bot seats have no user, their chips come from and go back to the house
+        private boolean bot;
+
+        // Voluntarily put money in pre-flop (call, raise or all-in, blinds excluded)
+        private boolean vpip;
+        // Raised pre-flop
+        private boolean pfr;
+        private int aggressiveActions;
+        private int passiveActions;
+
+        private boolean sawShowdown;
+        private boolean wonAtShowdown;
+        private boolean wonHand;
+
+        private int amountContributed;
+        private int amountWon;
+
+        // Stack after the pot was distributed. A fast-fold player who folded may be in the
+        // next hand already, then it is the live stack, which that hand reports again later.
+        private int chipsAfter;
+
+        public int getNetChips() {
+            return amountWon - amountContributed;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.spadeboot.session;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.engine.HandReducer;
+import com.spadeboot.engine.HandState;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hand as it was dealt and the actions applied to it so far: enough for another node to deal
+ * the same cards and play the hand on from where it stopped. Seats are indexes among the players
+ * dealt in, as in the engine's hand state.
+ * @param deck Cards of the deck before the hand was dealt, see {@link com.spadeboot.domain.card.Deck#order()}
+ */
+public record HandInFlight(int roundNumber, long[] playerIds, int[] stacks, int smallBlindSeat, int bigBlindSeat,
+                           int smallBlind, int bigBlind, byte[] deck, List<Action> actions) {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * An action applied to the hand, the amount is only set for a raise
+     */
+    public record Action(int seat, ActionType type, Integer amount) {
+
+        public static final int BYTES = 4 + 1 + 4;
+
+        public void write(ByteBuffer buffer) {
+            buffer.putInt(seat)
+                    .put((byte) type.ordinal())
+                    .putInt(amount != null ? amount : Integer.MIN_VALUE);
+        }
+
+        public static Action read(ByteBuffer buffer) {
+            int seat = buffer.getInt();
+            ActionType type = ActionType.values()[buffer.get()];
+            int amount = buffer.getInt();
+            return new Action(seat, type, amount != Integer.MIN_VALUE ? amount : null);
+        }
+    }
+
+    /**
+     * The hand with the blinds posted, before anyone acted
+     */
+    public HandState start() {
+        return HandReducer.start(stacks, smallBlindSeat, bigBlindSeat, smallBlind, bigBlind);
+    }
+
+    public HandInFlight withActions(List<Action> actions) {
+        return new HandInFlight(roundNumber, playerIds, stacks, smallBlindSeat, bigBlindSeat, smallBlind, bigBlind,
+                deck, actions);
+    }
+
+    public byte[] toBytes() {
+        int seats = playerIds.length;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 * 6 + seats * (8 + 4) + 4 + deck.length + 4
+                + actions.size() * Action.BYTES);
+        buffer.put(VERSION)
+                .putInt(roundNumber)
+                .putInt(smallBlindSeat)
+                .putInt(bigBlindSeat)
+                .putInt(smallBlind)
+                .putInt(bigBlind)
+                .putInt(seats);
+        for (int seat = 0; seat < seats; seat++) {
+            buffer.putLong(playerIds[seat])
+                    .putInt(stacks[seat]);
+        }
+        buffer.putInt(deck.length).put(deck);
+        buffer.putInt(actions.size());
+        for (Action action : actions) {
+            action.write(buffer);
+        }
+        return buffer.array();
+    }
+
+    public static HandInFlight read(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unknown hand version " + version);
+        }
+
+        int roundNumber = buffer.getInt();
+        int smallBlindSeat = buffer.getInt();
+        int bigBlindSeat = buffer.getInt();
+        int smallBlind = buffer.getInt();
+        int bigBlind = buffer.getInt();
+        int seats = buffer.getInt();
+
+        long[] playerIds = new long[seats];
+        int[] stacks = new int[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            playerIds[seat] = buffer.getLong();
+            stacks[seat] = buffer.getInt();
+        }
+        byte[] deck = new byte[buffer.getInt()];
+        buffer.get(deck);
+
+        int count = buffer.getInt();
+        List<Action> actions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            actions.add(Action.read(buffer));
+        }
+        return new HandInFlight(roundNumber, playerIds, stacks, smallBlindSeat, bigBlindSeat, smallBlind, bigBlind,
+                deck, actions);
+    }
+}
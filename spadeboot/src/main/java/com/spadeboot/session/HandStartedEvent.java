@@ -0,0 +1,15 @@
+package com.spadeboot.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a {@link GameSession} before it deals a hand, on tables that can be resumed.
+ * A hand resumed from another node comes with the actions it had seen already.
+ */
+@Getter
+@AllArgsConstructor
+public class HandStartedEvent {
+    private final Long tableId;
+    private final HandInFlight hand;
+}
@@ -0,0 +1,15 @@
+package com.spadeboot.session;
+
+import com.spadeboot.api.dto.PotDistributionDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a round for every pot it pays out, main pot first
+ */
+@Getter
+@AllArgsConstructor
+public class PotDistributedEvent {
+    private final Long tableId;
+    private final PotDistributionDto pot;
+}
@@ -0,0 +1,20 @@
+package com.spadeboot.session;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PlayerActionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a round after it acted for a seat on its own thread: a bot's decision or a
+ * pre-action the player queued. Actions sent for the current turn are broadcast by the
+ * service that received them, these never pass through it.
+ */
+@Getter
+@AllArgsConstructor
+public class RoundActionEvent {
+    private final Long tableId;
+    private final Long playerId;
+    private final PlayerActionDto action;
+    private final PlayerActionResponse response;
+}
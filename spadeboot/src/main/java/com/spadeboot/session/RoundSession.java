@@ -6,19 +6,34 @@ import com.spadeboot.domain.card.Deck;
 import com.spadeboot.domain.game.*;
 import com.spadeboot.domain.user.Player;
 import com.spadeboot.domain.user.PlayerStatus;
+import com.spadeboot.engine.HandReducer;
+import com.spadeboot.engine.HandState;
+import com.spadeboot.engine.PreAction;
+import com.spadeboot.engine.ShowdownResolver;
+import com.spadeboot.engine.Transition;
 import com.spadeboot.exception.InvalidMoveException;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.bot.BotPlayer;
+import com.spadeboot.session.bot.BotView;
 import com.spadeboot.api.dto.PlayerActionDto;
 import com.spadeboot.api.dto.PlayerActionResponse;
+import com.spadeboot.api.dto.PotDistributionDto;
+import com.spadeboot.api.dto.PreActionDto;
+import com.spadeboot.api.dto.WinnerDto;
 import lombok.Getter;
 import org.springframework.data.util.Pair;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+/**
+ * Plays one hand on its own thread. The betting rules live in {@link HandReducer}, this
+ * class deals the cards, waits for the players and keeps the entities in step with the
+ * current {@link HandState}.
+ */
 public class RoundSession extends Thread {
 
     private final GameSession gameSession;
@@ -29,33 +44,45 @@ public class RoundSession extends Thread {
     private final int bigBlindPos;
     private final int smallBlind;
     private final int bigBlind;
+    // Hand another node was playing, dealt from its deck and played on from its actions
+    private final HandInFlight resumed;
 
     @Getter
     private Round round;
     private Deck deck;
+    @Getter
+    private byte[] deckOrder;
     private Map<Long, Pair<Card, Card>> playerHands;
     private List<Card> communityCards;
 
-    // Current state
-    @Getter
-    private StageType currentStage;
-    @Getter
-    private int pot;
-    @Getter
-    private int currentBet;
-    @Getter
-    private Long currentPlayerTurn;
-    private int currentPlayerIndex;
+    // Seat index in the hand state by player ID
+    private final Map<Long, Integer> seatsByPlayerId = new HashMap<>();
 
-    // Betting tracking - Fixed to properly handle betting rounds
-    private Map<Long, Integer> playerBetsThisRound; // Current betting round bets
-    private Map<Long, Integer> totalPlayerBets; // Total bets in pot across all rounds
-    private Map<Long, PlayerStatus> playerStatuses;
+    // Replaced, never changed, by the round thread, so readers on other threads see a consistent hand
+    private volatile HandState state;
+    private StageType dealtStage;
 
     // Action handling
-    private CountDownLatch actionLatch;
-    private PlayerActionDto pendingAction;
+    private volatile CountDownLatch actionLatch;
+    private volatile PlayerActionDto pendingAction;
+    private volatile int pendingSeat = -1; // Seat that sent the pending action
+    private volatile long actionSubmittedAt; // System.nanoTime() of the pending action, 0 if none
     private final AtomicBoolean shouldStop = new AtomicBoolean(false);
+    // Set when the hand is dropped unsettled, its table lives on elsewhere
+    private volatile boolean abandoned;
+
+    // Actions queued for a seat's next turn, guarded by this
+    private final Map<Integer, PreAction> preActions = new HashMap<>();
+
+    // Per-hand statistics, published with the HandCompletedEvent
+    private final Set<Long> vpipPlayers = new HashSet<>();
+    private final Set<Long> pfrPlayers = new HashSet<>();
+    private final Map<Long, Integer> aggressiveActions = new HashMap<>();
+    private final Map<Long, Integer> passiveActions = new HashMap<>();
+    private final Map<Long, Integer> amountsWon = new HashMap<>();
+    // Bets nobody matched, handed back rather than won
+    private final Map<Long, Integer> uncalledChips = new HashMap<>();
+    private boolean wentToShowdown = false;
 
     // Timeout settings
     private static final long ACTION_TIMEOUT_SECONDS = 600;
@@ -63,6 +90,14 @@ public class RoundSession extends Thread {
     public RoundSession(GameSession gameSession, Game game, List<Player> players,
                         Map<Integer, Player> seatPositions, int smallBlindPos,
                         int bigBlindPos, int smallBlind, int bigBlind) {
+        this(gameSession, game, players, seatPositions, smallBlindPos, bigBlindPos, smallBlind, bigBlind, null);
+    }
+
+    /**
+     * @param resumed Hand to play on from where another node stopped, null to deal a new one
+     */
+    RoundSession(GameSession gameSession, Game game, List<Player> players, Map<Integer, Player> seatPositions,
+                 int smallBlindPos, int bigBlindPos, int smallBlind, int bigBlind, HandInFlight resumed) {
         this.gameSession = gameSession;
         this.game = game;
         this.players = new ArrayList<>(players);
@@ -71,6 +106,7 @@ public class RoundSession extends Thread {
         this.bigBlindPos = bigBlindPos;
         this.smallBlind = smallBlind;
         this.bigBlind = bigBlind;
+        this.resumed = resumed;
 
         initializeRound();
     }
@@ -81,31 +117,34 @@ public class RoundSession extends Thread {
         this.round.setPlayers(new ArrayList<>(players));
         this.round.setPlayerCount(players.size());
 
-        this.deck = new Deck();
-        this.deck.initialize();
+        if (resumed != null) {
+            this.deck = Deck.ofOrder(resumed.deck());
+        } else {
+            this.deck = new Deck();
+            this.deck.initialize();
+        }
+        this.deckOrder = deck.order();
 
         this.playerHands = new HashMap<>();
         this.communityCards = new ArrayList<>();
-        this.playerBetsThisRound = new ConcurrentHashMap<>();
-        this.totalPlayerBets = new ConcurrentHashMap<>();
-        this.playerStatuses = new ConcurrentHashMap<>();
-
-        this.pot = 0;
-        this.currentBet = 0;
 
-        // Initialize player statuses and betting maps
-        for (Player player : players) {
+        int[] stacks = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
             // Reset all players to ACTIVE status for this round (fixes fold status reset issue)
-            playerStatuses.put(player.getId(), PlayerStatus.ACTIVE);
             player.setStatus(PlayerStatus.ACTIVE);
-
-            playerBetsThisRound.put(player.getId(), 0);
-            totalPlayerBets.put(player.getId(), 0);
+            seatsByPlayerId.put(player.getId(), seat);
+            stacks[seat] = player.getChips();
         }
+
+        // The blinds are part of the initial state, so the first turn can be taken right away
+        prepareForNextAction();
+        this.state = HandReducer.start(stacks, smallBlindPos, bigBlindPos, smallBlind, bigBlind);
     }
 
     @Override
     public void run() {
+        long handStart = System.nanoTime();
         try {
             // Deal cards to players
             dealPlayerCards();
@@ -113,23 +152,31 @@ public class RoundSession extends Thread {
             // Post blinds
             postBlinds();
 
-            // Play each stage
-            playStage(StageType.PRE_FLOP);
-            if (shouldContinue()) {
-                dealCommunityCards(3); // Flop
-                playStage(StageType.FLOP);
+            // Play turns until the reducer ends the betting
+            dealtStage = StageType.PRE_FLOP;
+            recordStage(StageType.PRE_FLOP);
+            if (resumed != null) {
+                replay(resumed.actions());
             }
-            if (shouldContinue()) {
-                dealCommunityCards(1); // Turn
-                playStage(StageType.TURN);
+            while (!state.isHandOver() && !shouldStop.get()) {
+                dealUpTo(state.stage());
+                playTurn(state.toAct());
             }
-            if (shouldContinue()) {
-                dealCommunityCards(1); // River
-                playStage(StageType.RIVER);
+            if (abandoned) {
+                System.out.println("Hand abandoned, nothing is paid out");
+                return;
+            }
+
+            // Streets nobody could bet on still get their cards
+            if (state.inHandCount() > 1) {
+                dealUpTo(StageType.RIVER);
             }
 
             // Determine winner and distribute pot
             determineWinnerAndDistributePot();
+            gameSession.getMetrics().recordHandDuration(System.nanoTime() - handStart, wentToShowdown);
+
+            gameSession.publishHandCompleted(buildHandResults());
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -148,55 +195,30 @@ public class RoundSession extends Thread {
     }
 
     private void postBlinds() {
-        Player smallBlindPlayer = players.get(smallBlindPos);
-        Player bigBlindPlayer = players.get(bigBlindPos);
-
-        // Post small blind
-        int smallBlindAmount = Math.min(smallBlind, smallBlindPlayer.getChips());
-        placeBet(smallBlindPlayer.getId(), smallBlindAmount);
-
-        // Post big blind
-        int bigBlindAmount = Math.min(bigBlind, bigBlindPlayer.getChips());
-        placeBet(bigBlindPlayer.getId(), bigBlindAmount);
+        for (int seat = 0; seat < players.size(); seat++) {
+            players.get(seat).setChips(state.stack(seat));
+        }
 
-        // Set current bet to big blind amount
-        currentBet = bigBlindAmount;
+        System.out.println("Blinds posted - Small: " + state.totalBet(smallBlindPos) +
+                ", Big: " + state.totalBet(bigBlindPos) + ", Current bet: " + state.currentBet());
+    }
 
-        System.out.println("Blinds posted - Small: " + smallBlindAmount + ", Big: " + bigBlindAmount + ", Current bet: " + currentBet);
+    /**
+     * Deal the community cards of every street up to the given one that were not dealt yet
+     */
+    private void dealUpTo(StageType stage) {
+        while (dealtStage.compareTo(stage) < 0) {
+            dealtStage = StageType.values()[dealtStage.ordinal() + 1];
+            dealCommunityCards(dealtStage == StageType.FLOP ? 3 : 1);
+            recordStage(dealtStage);
+        }
     }
 
-    private void playStage(StageType stage) {
-        currentStage = stage;
+    private void recordStage(StageType stage) {
         Stage stageEntity = new Stage();
         stageEntity.setType(stage);
         stageEntity.setRound(round);
 
-        // FIXED: Only reset bets for non-preflop stages
-        // For preflop, blinds are already posted and should count toward bets
-        if (stage != StageType.PRE_FLOP) {
-            // Reset player bets for new betting round (post-flop stages)
-            playerBetsThisRound.clear();
-            for (Long playerId : playerStatuses.keySet()) {
-                if (playerStatuses.get(playerId) != PlayerStatus.FOLDED) {
-                    playerBetsThisRound.put(playerId, 0);
-                }
-            }
-            currentBet = 0; // Reset current bet for post-flop betting
-        }
-
-        // Set starting player
-        if (stage == StageType.PRE_FLOP) {
-            // Pre-flop starts after big blind
-            currentPlayerIndex = getNextActivePlayerIndex(bigBlindPos);
-        } else {
-            // Other stages start from small blind or first active player
-            currentPlayerIndex = findFirstActivePlayerFromPosition(smallBlindPos);
-        }
-
-        // Betting round logic
-        conductBettingRound();
-
-        // Save stage to round
         switch (stage) {
             case PRE_FLOP -> round.setPreFlop(stageEntity);
             case FLOP -> round.setFlop(stageEntity);
@@ -205,267 +227,291 @@ public class RoundSession extends Thread {
         }
     }
 
-    private void conductBettingRound() {
-        boolean bettingComplete = false;
-        int lastRaiserIndex = -1;
-        int playersActed = 0;
-        int totalActivePlayers = getActivePlayerCount();
-
-        // Track which players have had a chance to act this betting round
-        Set<Long> playersWhoActed = new HashSet<>();
-
-        while (!bettingComplete && !shouldStop.get() && totalActivePlayers > 1) {
-            Player currentPlayer = players.get(currentPlayerIndex);
-
-            if (isPlayerActive(currentPlayer.getId())) {
-                currentPlayerTurn = currentPlayer.getId();
-
-                // Check if player needs to act
-                int playerCurrentBet = playerBetsThisRound.getOrDefault(currentPlayer.getId(), 0);
-                boolean needsToAct = playerCurrentBet < currentBet || !playersWhoActed.contains(currentPlayer.getId());
-
-                if (needsToAct && currentPlayer.getChips() > 0) {
-                    // Wait for player action
-                    PlayerActionDto action = waitForPlayerAction(currentPlayer);
-
-                    if (action != null) {
-                        // Process the action
-                        processActionInternal(currentPlayer, action);
-                        playersWhoActed.add(currentPlayer.getId());
-
-                        // Check if this was a raise
-                        if (action.getAction() == PlayerActionDto.ActionType.RAISE) {
-                            lastRaiserIndex = currentPlayerIndex;
-                            playersWhoActed.clear(); // Reset - everyone needs to act again
-                            playersWhoActed.add(currentPlayer.getId());
-                        }
-                    }
-                } else {
-                    // Player doesn't need to act (already matched current bet)
-                    playersWhoActed.add(currentPlayer.getId());
-                }
-            }
-
-            // Move to next player
-            int nextIndex = getNextActivePlayerIndex(currentPlayerIndex);
-
-            // Check if betting round is complete
-            if (nextIndex == currentPlayerIndex || // Wrapped around to same player
-                    getActivePlayerCount() <= 1 || // Only one player left
-                    (playersWhoActed.size() >= getActivePlayerCount() && allPlayersMatchedBet())) {
-                bettingComplete = true;
-            } else {
-                currentPlayerIndex = nextIndex;
-            }
-        }
-    }
-
-    private boolean allPlayersMatchedBet() {
-        for (Player player : players) {
-            if (isPlayerActive(player.getId()) && player.getChips() > 0) {
-                int playerBet = playerBetsThisRound.getOrDefault(player.getId(), 0);
-                if (playerBet < currentBet) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
     private void dealCommunityCards(int count) {
-        List<Card> newCards = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             Card card = deck.drawCard();
             card.setShowing(true);
             communityCards.add(card);
-            newCards.add(card);
         }
 
-        System.out.println("Dealt " + count + " community cards for " + currentStage);
+        System.out.println("Dealt " + count + " community cards for " + dealtStage);
     }
 
     /**
-     * Process a player action (called from GameSession)
+     * Wait for the seat to act and apply its action
      */
-    public synchronized PlayerActionResponse processPlayerAction(Player player, PlayerActionDto action) {
-        if (!isPlayerTurn(player.getId())) {
-            throw new InvalidMoveException("It's not your turn");
+    private void playTurn(int seat) {
+        Player player = players.get(seat);
+        PlayerActionDto preAction = player instanceof BotPlayer ? null : takePreAction(seat);
+        PlayerActionDto action = preAction != null ? preAction : waitForPlayerAction(player, seat);
+        if (action == null) {
+            return;
         }
 
-        // Validate action
-        validateAction(player, action);
+        HandState before = state;
+        Transition transition = HandReducer.apply(before, seat, action.getAction(), action.getAmount());
+        if (!transition.isAccepted()) {
+            // Actions are checked when submitted, only a timed out turn racing a late action gets here
+            System.out.println("Player " + player.getUser().getUsername() + " action rejected: " +
+                    transition.rejection() + ", folding");
+            action = foldAction();
+            transition = HandReducer.apply(before, seat, action.getAction(), null);
+        }
 
-        // Set the pending action
-        this.pendingAction = action;
+        long submittedAt = actionSubmittedAt;
+        advance(transition.state());
+        gameSession.publishHandAction(new HandInFlight.Action(seat, action.getAction(), action.getAmount()));
 
-        // Release the latch to continue the round
-        if (actionLatch != null) {
-            actionLatch.countDown();
-        }
+        player.setChips(state.stack(seat));
+        System.out.println("Player " + player.getUser().getUsername() + " action: " + action.getAction() +
+                ", Current bet: " + state.currentBet() + ", Pot: " + state.pot());
 
-        // Create response
-        PlayerActionResponse response = new PlayerActionResponse();
-        response.setSuccess(true);
-        response.setAction(action);
-        response.setNewPot(pot);
-        response.setPlayerChipsRemaining(player.getChips());
+        if (submittedAt != 0) {
+            gameSession.getMetrics().recordActionApplied(action.getAction(), System.nanoTime() - submittedAt);
+        }
+        recordActionStatistics(player.getId(), action.getAction(), before.stage(), raisedBet(before, state, seat));
 
-        // Find next active player
-        int nextPlayerIndex = getNextActivePlayerIndex(currentPlayerIndex);
-        if (nextPlayerIndex != currentPlayerIndex) {
-            response.setNextPlayerId(players.get(nextPlayerIndex).getId());
+        if (player instanceof BotPlayer || preAction != null) {
+            gameSession.publishRoundAction(player.getId(), action, buildActionResponse(state, seat, action));
         }
 
-        return response;
+        // Last, a fast-fold pool may deal the player into another hand from here on
+        if (action.getAction() == PlayerActionDto.ActionType.FOLD) {
+            player.setStatus(PlayerStatus.FOLDED);
+            boolean timedOut = submittedAt == 0 && preAction == null && !(player instanceof BotPlayer);
+            gameSession.playerFolded(player, timedOut);
+        }
     }
 
-    private void processActionInternal(Player player, PlayerActionDto action) {
-        Long playerId = player.getId();
+    /**
+     * Apply the actions a resumed hand had seen on the node that played it before, as they
+     * were applied there. Nobody is waited for, and the standby got them with the hand's start.
+     */
+    private void replay(List<HandInFlight.Action> actions) {
+        for (HandInFlight.Action action : actions) {
+            dealUpTo(state.stage());
+            int seat = action.seat();
+            HandState before = state;
+            Transition transition = HandReducer.apply(before, seat, action.type(), action.amount());
+            if (!transition.isAccepted()) {
+                throw new IllegalStateException("Resumed action of seat " + seat + " rejected: " +
+                        transition.rejection());
+            }
+            advance(transition.state());
 
-        switch (action.getAction()) {
-            case FOLD -> handleFold(player);
-            case CHECK -> handleCheck(player);
-            case CALL -> handleCall(player);
-            case RAISE -> handleRaise(player, action.getAmount());
-            case ALL_IN -> handleAllIn(player);
+            Player player = players.get(seat);
+            player.setChips(state.stack(seat));
+            recordActionStatistics(player.getId(), action.type(), before.stage(), raisedBet(before, state, seat));
+            if (action.type() == PlayerActionDto.ActionType.FOLD) {
+                player.setStatus(PlayerStatus.FOLDED);
+            }
         }
-
-        System.out.println("Player " + player.getUser().getUsername() + " action: " + action.getAction() +
-                ", Current bet: " + currentBet + ", Player bet this round: " + playerBetsThisRound.get(playerId));
+        System.out.println("Resumed hand at " + state.stage() + " after " + actions.size() + " actions, pot " +
+                state.pot());
     }
 
-    private void handleFold(Player player) {
-        playerStatuses.put(player.getId(), PlayerStatus.FOLDED);
-        player.setStatus(PlayerStatus.FOLDED);
-        System.out.println("Player " + player.getUser().getUsername() + " folded");
+    /**
+     * Whether the seat's action put its street bet above the bet it had to match
+     */
+    private static boolean raisedBet(HandState before, HandState after, int seat) {
+        int paid = before.stack(seat) - after.stack(seat);
+        return before.streetBet(seat) + paid > before.currentBet();
     }
 
-    private void handleCheck(Player player) {
-        int playerCurrentBet = playerBetsThisRound.getOrDefault(player.getId(), 0);
-        if (currentBet > playerCurrentBet) {
-            throw new InvalidMoveException("Cannot check, must call " + (currentBet - playerCurrentBet) + " or fold");
+    /**
+     * Track VPIP, PFR and aggression for the hand summary. Anything that raised the
+     * current bet counts as aggressive, anything that only matched it as passive.
+     */
+    private void recordActionStatistics(Long playerId, PlayerActionDto.ActionType actionType, StageType stage,
+                                        boolean raised) {
+        if (actionType != PlayerActionDto.ActionType.CALL &&
+                actionType != PlayerActionDto.ActionType.RAISE &&
+                actionType != PlayerActionDto.ActionType.ALL_IN) {
+            return;
         }
-        System.out.println("Player " + player.getUser().getUsername() + " checked");
-    }
 
-    private void handleCall(Player player) {
-        Long playerId = player.getId();
-        int playerCurrentBet = playerBetsThisRound.getOrDefault(playerId, 0);
-        int toCall = currentBet - playerCurrentBet;
-
-        if (toCall <= 0) {
-            throw new InvalidMoveException("Nothing to call");
+        if (stage == StageType.PRE_FLOP) {
+            vpipPlayers.add(playerId);
+            if (raised) {
+                pfrPlayers.add(playerId);
+            }
         }
 
-        int actualBet = Math.min(toCall, player.getChips());
-        placeBet(playerId, actualBet);
-
-        System.out.println("Player " + player.getUser().getUsername() + " called " + actualBet +
-                " (needed to call " + toCall + ")");
+        if (raised) {
+            aggressiveActions.merge(playerId, 1, Integer::sum);
+        } else {
+            passiveActions.merge(playerId, 1, Integer::sum);
+        }
     }
 
-    private void handleRaise(Player player, int raiseAmount) {
-        Long playerId = player.getId();
-        int playerCurrentBet = playerBetsThisRound.getOrDefault(playerId, 0);
-        int toCall = currentBet - playerCurrentBet;
-        int totalBetIncrease = toCall + raiseAmount;
+    /**
+     * Process a player action (called from GameSession). The action is applied speculatively
+     * to the current state, so an invalid action is rejected on the caller's thread.
+     */
+    public synchronized PlayerActionResponse processPlayerAction(Player player, PlayerActionDto action) {
+        HandState current = state;
+        Integer seat = seatsByPlayerId.get(player.getId());
+        if (seat == null || seat != current.toAct()) {
+            throw new InvalidMoveException("It's not your turn");
+        }
 
-        if (totalBetIncrease > player.getChips()) {
-            throw new InvalidMoveException("Insufficient chips for raise");
+        Transition transition = HandReducer.apply(current, seat, action.getAction(), action.getAmount());
+        if (!transition.isAccepted()) {
+            throw new InvalidMoveException(transition.rejection());
         }
 
-        if (raiseAmount < bigBlind) {
-            throw new InvalidMoveException("Minimum raise is " + bigBlind);
+        // A second submit for the same turn must not be taken as the next seat's action
+        if (actionLatch.getCount() == 0) {
+            throw new InvalidMoveException("Your action was already received");
         }
 
-        placeBet(playerId, totalBetIncrease);
-        currentBet = playerBetsThisRound.get(playerId);
+        // Set the pending action
+        this.pendingAction = action;
+        this.pendingSeat = seat;
+        this.actionSubmittedAt = System.nanoTime();
 
-        System.out.println("Player " + player.getUser().getUsername() + " raised by " + raiseAmount +
-                ", new current bet: " + currentBet);
-    }
+        // Release the latch to continue the round
+        actionLatch.countDown();
 
-    private void handleAllIn(Player player) {
-        Long playerId = player.getId();
-        int allInAmount = player.getChips();
-        int playerCurrentBet = playerBetsThisRound.getOrDefault(playerId, 0);
+        return buildActionResponse(transition.state(), seat, action);
+    }
 
-        placeBet(playerId, allInAmount);
+    /**
+     * Queue or clear an action for the seat's next turn. If the turn is already the seat's,
+     * the action is taken right away like one sent for the turn.
+     * @return The response of the action taken right away, null if it was queued
+     */
+    public synchronized PlayerActionResponse queuePreAction(Player player, PreActionDto.PreActionType type) {
+        HandState current = state;
+        Integer seat = seatsByPlayerId.get(player.getId());
+        if (seat == null || current.isHandOver() || !current.canAct(seat)) {
+            throw new InvalidMoveException("You have no action left in this hand");
+        }
 
-        // Update current bet if this all-in is higher
-        if (playerBetsThisRound.get(playerId) > currentBet) {
-            currentBet = playerBetsThisRound.get(playerId);
+        preActions.remove(seat);
+        if (type == null) {
+            return null;
         }
 
-        System.out.println("Player " + player.getUser().getUsername() + " went all-in with " + allInAmount);
+        PreAction preAction = PreAction.of(type, current);
+        if (seat == current.toAct()) {
+            return processPlayerAction(player, actionOf(preAction.resolve(current, seat)));
+        }
+        preActions.put(seat, preAction);
+        return null;
     }
 
-    private void placeBet(Long playerId, int amount) {
-        Player player = findPlayerById(playerId);
+    /**
+     * Take the seat's queued action if it still applies. Synchronized with queuing, so an
+     * action queued just as the turn arrives is either found here or taken as a live action.
+     */
+    private synchronized PlayerActionDto takePreAction(int seat) {
+        PreAction preAction = preActions.remove(seat);
+        if (preAction == null) {
+            return null;
+        }
 
-        // Deduct from player chips
-        player.setChips(player.getChips() - amount);
+        PlayerActionDto.ActionType actionType = preAction.resolve(state, seat);
+        if (actionType == null) {
+            System.out.println("Pre-action " + preAction.type() + " of seat " + seat + " dropped, the bet changed");
+            return null;
+        }
+        return actionOf(actionType);
+    }
 
-        // Add to current round bets
-        playerBetsThisRound.put(playerId, playerBetsThisRound.getOrDefault(playerId, 0) + amount);
+    private static PlayerActionDto actionOf(PlayerActionDto.ActionType actionType) {
+        PlayerActionDto action = new PlayerActionDto();
+        action.setAction(actionType);
+        return action;
+    }
 
-        // Add to total bets
-        totalPlayerBets.put(playerId, totalPlayerBets.getOrDefault(playerId, 0) + amount);
+    private PlayerActionResponse buildActionResponse(HandState after, int seat, PlayerActionDto action) {
+        PlayerActionResponse response = new PlayerActionResponse();
+        response.setSuccess(true);
+        response.setAction(action);
+        response.setNewPot(after.pot());
+        response.setPlayerChipsRemaining(after.stack(seat));
+
+        if (after.toAct() >= 0) {
+            response.setNextPlayerId(players.get(after.toAct()).getId());
+        }
 
-        // Add to pot
-        pot += amount;
+        return response;
     }
 
-    private void validateAction(Player player, PlayerActionDto action) {
-        Long playerId = player.getId();
-        int playerCurrentBet = playerBetsThisRound.getOrDefault(playerId, 0);
+    /**
+     * Hand the turn on. The new state and a fresh latch are published together under the
+     * monitor actions are checked under, so an action checked against the old state can
+     * never release the next seat's turn.
+     */
+    private synchronized void advance(HandState next) {
+        state = next;
+        prepareForNextAction();
+    }
 
-        switch (action.getAction()) {
-            case CHECK -> {
-                if (currentBet > playerCurrentBet) {
-                    throw new InvalidMoveException("Cannot check when there's a bet to call (" +
-                            (currentBet - playerCurrentBet) + " to call)");
-                }
-            }
-            case CALL -> {
-                if (currentBet <= playerCurrentBet) {
-                    throw new InvalidMoveException("Nothing to call");
-                }
-            }
-            case RAISE -> {
-                if (action.getAmount() == null || action.getAmount() <= 0) {
-                    throw new InvalidMoveException("Raise amount must be positive");
-                }
-                if (action.getAmount() < bigBlind) {
-                    throw new InvalidMoveException("Minimum raise is " + bigBlind);
-                }
+    /**
+     * Arm the latch for the next turn, under the monitor or before the round starts
+     */
+    private void prepareForNextAction() {
+        pendingAction = null;
+        pendingSeat = -1;
+        actionSubmittedAt = 0;
+        actionLatch = new CountDownLatch(1);
+    }
 
-                int toCall = currentBet - playerCurrentBet;
-                int totalNeeded = toCall + action.getAmount();
-                if (totalNeeded > player.getChips()) {
-                    throw new InvalidMoveException("Insufficient chips for raise");
-                }
-            }
+    /**
+     * The action received for the seat, null if the latch was released without one for it.
+     * Anything else is dropped and the latch armed again.
+     */
+    private synchronized PlayerActionDto takePendingAction(int seat) {
+        if (pendingSeat == seat) {
+            return pendingAction;
+        }
+        if (pendingAction != null) {
+            System.out.println("Action of seat " + pendingSeat + " dropped, it is the turn of seat " + seat);
         }
+        prepareForNextAction();
+        return null;
     }
 
-    private PlayerActionDto waitForPlayerAction(Player player) {
-        actionLatch = new CountDownLatch(1);
-        pendingAction = null;
+    private PlayerActionDto waitForPlayerAction(Player player, int seat) {
+        long turnStart = System.nanoTime();
+
+        if (player instanceof BotPlayer bot) {
+            return decideForBot(bot);
+        }
 
         try {
             // Wait for action with timeout
-            boolean received = actionLatch.await(ACTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long timeout = TimeUnit.SECONDS.toNanos(ACTION_TIMEOUT_SECONDS);
+            PlayerActionDto action = null;
+            long submittedAt = 0;
+            boolean received;
+            do {
+                received = actionLatch.await(timeout - (System.nanoTime() - turnStart), TimeUnit.NANOSECONDS);
+                if (received) {
+                    action = takePendingAction(seat);
+                    // Reset along with a dropped action, so only read next to the action taken
+                    submittedAt = action != null ? actionSubmittedAt : 0;
+                }
+            } while (received && action == null && !shouldStop.get());
+
+            EngineMetrics metrics = gameSession.getMetrics();
+            long waited = System.nanoTime() - turnStart;
+            metrics.recordWait(EngineMetrics.WaitKind.ACTION, waited);
 
             if (!received) {
                 // Auto-fold on timeout
-                PlayerActionDto timeoutAction = new PlayerActionDto();
-                timeoutAction.setAction(PlayerActionDto.ActionType.FOLD);
+                metrics.recordTimeToAct(waited, true);
                 System.out.println("Player " + player.getUser().getUsername() + " timed out, auto-folding");
-                return timeoutAction;
+                return foldAction();
             }
 
-            return pendingAction;
+            // Null when the round was stopped, nobody acted then
+            if (action != null) {
+                metrics.recordTimeToAct(submittedAt - turnStart, false);
+            }
+            return action;
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -473,58 +519,176 @@ public class RoundSession extends Thread {
         }
     }
 
-    private void determineWinnerAndDistributePot() {
-        List<Player> activePlayers = players.stream()
-                .filter(p -> playerStatuses.get(p.getId()) == PlayerStatus.ACTIVE)
-                .toList();
-
-        if (activePlayers.size() == 1) {
-            // Only one player left, they win
-            Player winner = activePlayers.get(0);
-            winner.setChips(winner.getChips() + pot);
-            round.setWinner(List.of(winner));
-            System.out.println("Player " + winner.getUser().getUsername() + " wins " + pot + " chips (only player left)");
-        } else {
-            // Evaluate hands
-            Map<Player, Long> handRanks = new HashMap<>();
+    /**
+     * Ask a bot seat for its action right here on the round thread
+     */
+    private PlayerActionDto decideForBot(BotPlayer bot) {
+        int seat = seatsByPlayerId.get(bot.getId());
+        HandState current = state;
+        Pair<Card, Card> hand = playerHands.get(bot.getId());
+        BotView view = new BotView(
+                current.stage(),
+                List.of(hand.getFirst(), hand.getSecond()),
+                List.copyOf(communityCards),
+                current.stack(seat),
+                current.toCall(seat),
+                current.pot(),
+                bigBlind,
+                current.inHandCount() - 1
+        );
+
+        PlayerActionDto action = bot.decide(view);
+        if (HandReducer.apply(current, seat, action.getAction(), action.getAmount()).isAccepted()) {
+            return action;
+        }
 
-            for (Player player : activePlayers) {
+        PlayerActionDto fallback = new PlayerActionDto();
+        fallback.setAction(view.canCheck() ? PlayerActionDto.ActionType.CHECK : PlayerActionDto.ActionType.FOLD);
+        return fallback;
+    }
+
+    private static PlayerActionDto foldAction() {
+        return actionOf(PlayerActionDto.ActionType.FOLD);
+    }
+
+    /**
+     * Rank every hand still in once and pay out the main pot and the side pots
+     */
+    private void determineWinnerAndDistributePot() {
+        HandState finalState = state;
+        wentToShowdown = finalState.inHandCount() > 1;
+
+        long[] ranks = new long[players.size()];
+        if (wentToShowdown) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                if (finalState.isFolded(seat)) {
+                    continue;
+                }
+                Pair<Card, Card> hand = playerHands.get(players.get(seat).getId());
                 List<Card> playerCards = new ArrayList<>();
-                Pair<Card, Card> hand = playerHands.get(player.getId());
                 playerCards.add(hand.getFirst());
                 playerCards.add(hand.getSecond());
                 playerCards.addAll(communityCards);
+                ranks[seat] = HandEvaluation.cardsToRankNumber(playerCards);
+            }
+        }
 
-                long rank = HandEvaluation.cardsToRankNumber(playerCards);
-                handRanks.put(player, rank);
+        // Heads-up the button posts the small blind, otherwise the small blind sits left of it
+        int oddChipSeat = players.size() == 2 ? bigBlindPos : smallBlindPos;
+        List<ShowdownResolver.Pot> pots = ShowdownResolver.resolve(finalState, ranks, oddChipSeat);
+
+        Set<Player> winners = new LinkedHashSet<>();
+        int potIndex = 0;
+        for (ShowdownResolver.Pot pot : pots) {
+            List<WinnerDto> potWinners = new ArrayList<>();
+            for (int i = 0; i < pot.winners().length; i++) {
+                int seat = pot.winners()[i];
+                int amount = pot.amounts()[i];
+                Player player = players.get(seat);
+                player.setChips(player.getChips() + amount);
+
+                if (pot.uncalled()) {
+                    uncalledChips.merge(player.getId(), amount, Integer::sum);
+                    System.out.println("Player " + player.getUser().getUsername() + " gets " + amount + " uncalled chips back");
+                    continue;
+                }
+
+                amountsWon.merge(player.getId(), amount, Integer::sum);
+                winners.add(player);
+                potWinners.add(toWinnerDto(player, amount, wentToShowdown ? ranks[seat] : null));
+                System.out.println("Player " + player.getUser().getUsername() + " wins " + amount + " chips" +
+                        (potIndex == 0 ? "" : " from side pot " + potIndex));
             }
 
-            // Find winner(s)
-            long bestRank = handRanks.values().stream().max(Long::compare).orElse(0L);
-            List<Player> winners = handRanks.entrySet().stream()
-                    .filter(e -> e.getValue() == bestRank)
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
-
-            // Split pot among winners
-            int winnerShare = pot / winners.size();
-            for (Player winner : winners) {
-                winner.setChips(winner.getChips() + winnerShare);
-                System.out.println("Player " + winner.getUser().getUsername() + " wins " + winnerShare + " chips");
+            if (!pot.uncalled()) {
+                PotDistributionDto distribution = new PotDistributionDto();
+                distribution.setPotIndex(potIndex++);
+                distribution.setAmount(pot.amount());
+                distribution.setWinners(potWinners);
+                gameSession.publishPotDistributed(distribution);
+            }
+        }
+
+        round.setWinner(new ArrayList<>(winners));
+    }
+
+    private WinnerDto toWinnerDto(Player player, int amount, Long rank) {
+        WinnerDto winner = new WinnerDto();
+        winner.setPlayerId(player.getId());
+        winner.setUsername(player.getUser().getUsername());
+        winner.setAmountWon(amount);
+        if (rank != null) {
+            winner.setHandRank(HandEvaluation.rankNumberToString(rank));
+            winner.setWinningCards(getPlayerHoleCardsAsStrings(player.getId()));
+        }
+        return winner;
+    }
+
+    /**
+     * Summarize the finished hand for every player that was dealt in
+     */
+    private List<HandCompletedEvent.PlayerResult> buildHandResults() {
+        HandState finalState = state;
+        List<HandCompletedEvent.PlayerResult> results = new ArrayList<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            Long playerId = player.getId();
+            if (!playerHands.containsKey(playerId)) {
+                continue;
             }
 
-            round.setWinner(winners);
+            boolean stillIn = !finalState.isFolded(seat);
+            int won = amountsWon.getOrDefault(playerId, 0);
+
+            HandCompletedEvent.PlayerResult result = new HandCompletedEvent.PlayerResult();
+            result.setPlayerId(playerId);
+            result.setUserId(player.getUserId());
+            result.setUsername(player.getUser().getUsername());
+            result.setBot(player instanceof BotPlayer);
+            result.setVpip(vpipPlayers.contains(playerId));
+            result.setPfr(pfrPlayers.contains(playerId));
+            result.setAggressiveActions(aggressiveActions.getOrDefault(playerId, 0));
+            result.setPassiveActions(passiveActions.getOrDefault(playerId, 0));
+            result.setSawShowdown(wentToShowdown && stillIn);
+            result.setWonAtShowdown(wentToShowdown && stillIn && won > 0);
+            result.setWonHand(won > 0);
+            result.setAmountContributed(finalState.totalBet(seat) - uncalledChips.getOrDefault(playerId, 0));
+            result.setAmountWon(won);
+            result.setChipsAfter(player.getChips());
+            results.add(result);
         }
+        return results;
     }
 
     // Helper methods
 
+    public StageType getCurrentStage() {
+        return state.stage();
+    }
+
+    public int getPot() {
+        return state.pot();
+    }
+
+    public int getCurrentBet() {
+        return state.currentBet();
+    }
+
+    /**
+     * @return ID of the player whose turn it is, null once the betting is over
+     */
+    public Long getCurrentPlayerTurn() {
+        int seat = state.toAct();
+        return seat >= 0 ? players.get(seat).getId() : null;
+    }
+
     public boolean isPlayerTurn(Long playerId) {
-        return playerId.equals(currentPlayerTurn);
+        return playerId.equals(getCurrentPlayerTurn());
     }
 
     public int getPlayerCurrentBet(Long playerId) {
-        return playerBetsThisRound.getOrDefault(playerId, 0);
+        Integer seat = seatsByPlayerId.get(playerId);
+        return seat != null ? state.streetBet(seat) : 0;
     }
 
     public boolean playerHasCards(Long playerId) {
@@ -549,59 +713,16 @@ public class RoundSession extends Thread {
         return cards;
     }
 
-    private boolean shouldContinue() {
-        return getActivePlayerCount() > 1 && !shouldStop.get();
-    }
-
-    private int getActivePlayerCount() {
-        return (int) playerStatuses.values().stream()
-                .filter(status -> status == PlayerStatus.ACTIVE)
-                .count();
-    }
-
-    private boolean isPlayerActive(Long playerId) {
-        return playerStatuses.get(playerId) == PlayerStatus.ACTIVE;
-    }
-
-    private int getNextActivePlayerIndex(int currentIndex) {
-        int nextIndex = (currentIndex + 1) % players.size();
-        int attempts = 0;
-
-        while (!isPlayerActive(players.get(nextIndex).getId()) && attempts < players.size()) {
-            nextIndex = (nextIndex + 1) % players.size();
-            attempts++;
-        }
-
-        return nextIndex;
-    }
-
-    private Player getNextActivePlayer(int currentIndex) {
-        return players.get(getNextActivePlayerIndex(currentIndex));
-    }
-
-    private int findFirstActivePlayerFromPosition(int startPos) {
-        int index = startPos;
-        int attempts = 0;
-
-        while (!isPlayerActive(players.get(index).getId()) && attempts < players.size()) {
-            index = (index + 1) % players.size();
-            attempts++;
-        }
-
-        return index;
-    }
-
-    private Player findPlayerById(Long playerId) {
-        return players.stream()
-                .filter(p -> p.getId().equals(playerId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Player not found: " + playerId));
-    }
-
     public void endRound() {
         shouldStop.set(true);
-        if (actionLatch != null) {
-            actionLatch.countDown();
-        }
+        actionLatch.countDown();
+    }
+
+    /**
+     * End the round without paying out the pot or publishing the hand
+     */
+    void abandon() {
+        abandoned = true;
+        endRound();
     }
-}
\ No newline at end of file
+}
@@ -2,41 +2,217 @@
 package com.spadeboot.session;
 
 import com.spadeboot.domain.user.Player;
+import com.spadeboot.exception.CapacityExceededException;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.metrics.EngineMetrics.Pressure;
+import com.spadeboot.metrics.EngineMetrics.SheddableWork;
+import com.spadeboot.repository.PlayerRepository;
+import com.spadeboot.service.ChipStackService;
+import com.spadeboot.websocket.OutboundQueueInterceptor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class SessionManager {
 
+    private static final long LOAD_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Map<Long, GameSession> activeSessions = new ConcurrentHashMap<>();
+    private final Map<Long, FastFoldPool> fastFoldPools = new ConcurrentHashMap<>();
+
+    // Tables waiting for players, off the heap until their next use
+    private final Map<Long, ByteBuffer> hibernatedSessions = new ConcurrentHashMap<>();
+    // Tables being rehydrated, concurrent callers wait for the same session outside of any lock
+    private final Map<Long, CompletableFuture<GameSession>> rehydrations = new ConcurrentHashMap<>();
+
+    // Fast-fold hands are registered next to the tables under negative IDs, which no table has
+    private final AtomicLong lastFastFoldHandId = new AtomicLong();
+    private final FastFoldPool.HandRegistry fastFoldHands = new FastFoldPool.HandRegistry() {
+        @Override
+        public Long nextHandId() {
+            return lastFastFoldHandId.decrementAndGet();
+        }
+
+        @Override
+        public void handStarted(GameSession hand) {
+            activeSessions.put(hand.getTableId(), hand);
+        }
+
+        @Override
+        public void handEnded(GameSession hand) {
+            activeSessions.remove(hand.getTableId(), hand);
+        }
+    };
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private EngineMetrics engineMetrics;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private OutboundQueueInterceptor outboundQueue;
+
+    @Autowired
+    private ChipStackService chipStackService;
+
+    private final com.sun.management.OperatingSystemMXBean operatingSystem =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    // Outbound and CPU pressure are sampled at most once per interval, shedding checks are frequent
+    private final Object admissionLock = new Object();
+    private volatile Pressure loadPressure;
+    private volatile long loadSampledAt = System.nanoTime() - LOAD_SAMPLE_NANOS;
+
+    @Value("${app.game.hand-pause-ms:2000}")
+    private long handPauseMillis;
+
+    @Value("${app.sessions.hibernate-after-ms:60000}")
+    private long hibernateAfterMillis;
+
+    @Value("${app.capacity.max-tables:1000}")
+    private int maxTables;
+
+    @Value("${app.capacity.max-seats:6000}")
+    private int maxSeats;
+
+    @Value("${app.capacity.max-outbound-depth:256}")
+    private int maxOutboundDepth;
+
+    @Value("${app.capacity.max-cpu-load:0.9}")
+    private double maxCpuLoad;
+
+    @Value("${app.capacity.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    @Value("${app.fast-fold.hand-size:6}")
+    private int fastFoldHandSize;
+
+    @Value("${app.fast-fold.max-wait-ms:1000}")
+    private long fastFoldMaxWaitMillis;
+
+    @PostConstruct
+    void registerMetrics() {
+        engineMetrics.registerSessionGauges(activeSessions::size, this::countActiveRounds, hibernatedSessions::size);
+        engineMetrics.registerFastFoldGauges(
+                () -> fastFoldPools.values().stream().mapToInt(FastFoldPool::getReadyCount).sum(),
+                () -> fastFoldPools.values().stream().mapToInt(FastFoldPool::getPlayerCount).sum());
+        engineMetrics.registerCapacityGauges(this::countLiveTables, this::countSeatedPlayers,
+                () -> loadPressure() != null ? 1 : 0);
+    }
 
     /**
      * Create a new game session for a table
+     * @throws CapacityExceededException If the node cannot take on another table
      */
     public GameSession createGameSession(Long tableId, List<Player> players, int bigBlind) {
+        GameSession session = new GameSession(tableId, players, bigBlind, handPauseMillis,
+                applicationEventPublisher, engineMetrics);
+
+        synchronized (admissionLock) {
+            admit(1, players.size());
+
+            // A game loop that has ended, for want of players or not, is replaced by the new one
+            GameSession previous = activeSessions.putIfAbsent(tableId, session);
+            if (previous != null && (previous.isAlive() || !activeSessions.replace(tableId, previous, session))) {
+                throw new IllegalStateException("Game session already exists for table " + tableId);
+            }
+        }
+        hibernatedSessions.remove(tableId);
+        return session;
+    }
+
+    /**
+     * Open a fast-fold pool on a table, players are added with {@link FastFoldPool#join}
+     */
+    public FastFoldPool createFastFoldPool(Long tableId, int bigBlind) {
         if (activeSessions.containsKey(tableId)) {
             throw new IllegalStateException("Game session already exists for table " + tableId);
         }
 
-        GameSession session = new GameSession(tableId, players, bigBlind);
-        activeSessions.put(tableId, session);
-        return session;
+        FastFoldPool pool = new FastFoldPool(tableId, bigBlind, fastFoldHandSize, fastFoldMaxWaitMillis,
+                fastFoldHands, applicationEventPublisher, engineMetrics);
+        synchronized (admissionLock) {
+            admit(1, 0);
+            if (fastFoldPools.putIfAbsent(tableId, pool) != null) {
+                throw new IllegalStateException("Fast-fold pool already exists for table " + tableId);
+            }
+        }
+        pool.start();
+        return pool;
+    }
+
+    public FastFoldPool getFastFoldPool(Long tableId) {
+        return fastFoldPools.get(tableId);
     }
 
     /**
-     * Get an active game session
+     * Close a fast-fold pool, its running hands are played to the end
+     */
+    public void removeFastFoldPool(Long tableId) {
+        FastFoldPool pool = fastFoldPools.remove(tableId);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Get an active game session, a hibernated one is rehydrated first
      */
     public GameSession getGameSession(Long tableId) {
-        return activeSessions.get(tableId);
+        GameSession session = activeSessions.get(tableId);
+        if (session != null || !hibernatedSessions.containsKey(tableId)) {
+            return session;
+        }
+
+        CompletableFuture<GameSession> rehydration = new CompletableFuture<>();
+        CompletableFuture<GameSession> pending = rehydrations.putIfAbsent(tableId, rehydration);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            session = rehydrate(tableId);
+            rehydration.complete(session);
+            return session;
+        } catch (RuntimeException e) {
+            rehydration.completeExceptionally(e);
+            throw e;
+        } finally {
+            rehydrations.remove(tableId, rehydration);
+        }
     }
 
     /**
      * Remove a game session
      */
     public void removeGameSession(Long tableId) {
+        hibernatedSessions.remove(tableId);
         GameSession session = activeSessions.remove(tableId);
         if (session != null && session.isAlive()) {
             session.endGame();
@@ -44,7 +220,7 @@ public class SessionManager {
     }
 
     /**
-     * Check if a table has an active game
+     * Check if a table has an active game, a hibernated one never is
      */
     public boolean hasActiveGame(Long tableId) {
         GameSession session = activeSessions.get(tableId);
@@ -59,12 +235,303 @@ public class SessionManager {
     }
 
     /**
-     * Cleanup inactive sessions
+     * Tables of this node, running, waiting for players or hibernated. Fast-fold pools are
+     * not included, they are not handed over.
+     */
+    public List<Long> getResidentTableIds() {
+        List<Long> tableIds = new ArrayList<>(hibernatedSessions.keySet());
+        for (GameSession session : activeSessions.values()) {
+            if (!session.isFastFoldHand()) {
+                tableIds.add(session.getTableId());
+            }
+        }
+        return tableIds;
+    }
+
+    /**
+     * Let the running games of some tables finish their hand and stop, ahead of handing them over
+     */
+    public void stopAfterHand(Collection<Long> tableIds) {
+        for (Long tableId : tableIds) {
+            GameSession session = activeSessions.get(tableId);
+            if (session != null && !session.isFastFoldHand()) {
+                session.stopAfterHand();
+            }
+        }
+    }
+
+    /**
+     * Drop every table of this node at once, hands in flight unsettled. For a node the cluster
+     * took off the ring, whose tables are run by their standbys now; tables without a standby
+     * lose their hand in flight, the stacks of completed hands are written already.
+     * @return Tables dropped
+     */
+    public int abandonResidentTables() {
+        List<Long> tableIds = getResidentTableIds();
+        for (Long tableId : tableIds) {
+            hibernatedSessions.remove(tableId);
+            GameSession session = activeSessions.remove(tableId);
+            if (session != null) {
+                session.abandon();
+            }
+        }
+        return tableIds.size();
+    }
+
+    /**
+     * Take a table off this node so another one can take it over. A running game finishes its
+     * hand first, tables with bots are ended instead, bots only live on the node that made them.
+     * @return Null if there is nothing to hand over or the hand did not finish in time
      */
-    public void cleanupInactiveSessions() {
-        activeSessions.entrySet().removeIf(entry -> {
-            GameSession session = entry.getValue();
-            return !session.isAlive() || !session.isGameActive();
-        });
+    public TableHandover handOver(Long tableId, long timeoutMillis) throws InterruptedException {
+        ByteBuffer hibernated = hibernatedSessions.remove(tableId);
+        if (hibernated != null) {
+            return new TableHandover(tableId, toBytes(hibernated), false);
+        }
+
+        GameSession session = activeSessions.get(tableId);
+        if (session == null || session.isFastFoldHand()) {
+            return null;
+        }
+        boolean running = session.isAlive();
+        session.stopAfterHand();
+        session.join(timeoutMillis);
+        if (session.isAlive()) {
+            // Still waiting on a player, the caller tries again later
+            return null;
+        }
+
+        if (!activeSessions.remove(tableId, session) || !session.isResumable()) {
+            session.endGame();
+            return null;
+        }
+        return new TableHandover(tableId, toBytes(session.toSnapshot().toBuffer()), running);
+    }
+
+    /**
+     * Take over a table handed over by another node, a running game is resumed right away, from
+     * the hand in flight if there is one
+     */
+    public void adopt(TableHandover handover) {
+        ByteBuffer snapshot = ByteBuffer.allocateDirect(handover.snapshot().length);
+        snapshot.put(handover.snapshot()).flip();
+        Long tableId = TableSnapshot.read(snapshot).tableId();
+        hibernatedSessions.put(tableId, snapshot);
+        if (!handover.running()) {
+            return;
+        }
+
+        // Tables have to live somewhere, a handover is never turned away for capacity. The players
+        // load before the lock is taken, it is held only to start the game once.
+        GameSession session = getGameSession(tableId);
+        if (session == null) {
+            return;
+        }
+        synchronized (admissionLock) {
+            if (session.getState() == Thread.State.NEW) {
+                if (handover.hand() != null) {
+                    session.resumeHand(handover.hand());
+                }
+                session.start();
+            }
+        }
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Check that the node can seat more players at the tables it runs already
+     * @throws CapacityExceededException If it cannot
+     */
+    public void admitSeats(int seats) {
+        synchronized (admissionLock) {
+            admit(0, seats);
+        }
+    }
+
+    /**
+     * Whether non-critical work should be skipped for now, so the node keeps up with the hands
+     * it is running. Hands are never degraded, only the work around them is shed.
+     */
+    public boolean shouldShed(SheddableWork work) {
+        if (loadPressure() == null) {
+            return false;
+        }
+        engineMetrics.recordShed(work);
+        return true;
+    }
+
+    /**
+     * Tables with a running game loop plus fast-fold pools, whose hands are not counted one by one
+     */
+    public int countLiveTables() {
+        int count = fastFoldPools.size();
+        for (GameSession session : activeSessions.values()) {
+            if (session.isAlive() && !session.isFastFoldHand()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Players at tables with a running game loop or in fast-fold pools
+     */
+    public int countSeatedPlayers() {
+        int count = 0;
+        for (FastFoldPool pool : fastFoldPools.values()) {
+            count += pool.getPlayerCount();
+        }
+        for (GameSession session : activeSessions.values()) {
+            if (session.isAlive() && !session.isFastFoldHand()) {
+                count += session.getPlayerCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Limits are soft: a table created but not yet started is not counted by a concurrent check
+     */
+    private void admit(int tables, int seats) {
+        Pressure pressure = loadPressure();
+        if (tables > 0 && countLiveTables() + tables > maxTables) {
+            pressure = Pressure.TABLES;
+        } else if (seats > 0 && countSeatedPlayers() + seats > maxSeats) {
+            pressure = Pressure.SEATS;
+        }
+        if (pressure == null) {
+            return;
+        }
+
+        engineMetrics.recordAdmissionRejected(pressure);
+        throw new CapacityExceededException("The server is at capacity ("
+                + pressure.name().toLowerCase(Locale.ROOT) + "), please try again later", retryAfterSeconds);
+    }
+
+    /**
+     * @return What the node is overloaded by, null if it keeps up
+     */
+    private Pressure loadPressure() {
+        long now = System.nanoTime();
+        if (now - loadSampledAt < LOAD_SAMPLE_NANOS) {
+            return loadPressure;
+        }
+
+        Pressure pressure = null;
+        if (outboundQueue.maxTableDepth() > maxOutboundDepth) {
+            pressure = Pressure.OUTBOUND;
+        } else if (operatingSystem.getCpuLoad() > maxCpuLoad) {
+            // Negative while the load is not known yet, which never counts as overloaded
+            pressure = Pressure.CPU;
+        }
+        loadPressure = pressure;
+        loadSampledAt = now;
+        return pressure;
+    }
+
+    /**
+     * Number of sessions currently playing a hand
+     */
+    public int countActiveRounds() {
+        int count = 0;
+        for (GameSession session : activeSessions.values()) {
+            if (session.hasActiveRound()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cleanup inactive sessions idle for longer than the hibernation threshold. Games that
+     * stopped for want of players are hibernated, ended ones are dropped.
+     * @return Number of sessions hibernated
+     */
+    public int cleanupInactiveSessions() {
+        long now = System.nanoTime();
+        long hibernateAfterNanos = TimeUnit.MILLISECONDS.toNanos(hibernateAfterMillis);
+        int hibernated = 0;
+        for (GameSession session : activeSessions.values()) {
+            if (session.isAlive() || now - session.getIdleSince() < hibernateAfterNanos) {
+                // Still playing or ending, or just stopped and likely to be looked at again soon
+                continue;
+            }
+
+            if (session.isResumable()) {
+                hibernate(session);
+                hibernated++;
+            } else {
+                activeSessions.remove(session.getTableId(), session);
+            }
+        }
+        return hibernated;
+    }
+
+    private void hibernate(GameSession session) {
+        Long tableId = session.getTableId();
+        ByteBuffer snapshot = session.toSnapshot().toBuffer();
+        hibernatedSessions.put(tableId, snapshot);
+        if (!activeSessions.remove(tableId, session)) {
+            // Replaced by a new game meanwhile
+            hibernatedSessions.remove(tableId, snapshot);
+        }
+    }
+
+    /**
+     * Rebuild a hibernated session as it was when it stopped, not started, and make it the active
+     * one. The snapshot stays hibernated until then, a failed load leaves the table as it was.
+     * @return The active session, null if the table is not hibernated or nobody is seated there anymore
+     */
+    private GameSession rehydrate(Long tableId) {
+        GameSession active = activeSessions.get(tableId);
+        ByteBuffer buffer = hibernatedSessions.get(tableId);
+        if (active != null || buffer == null) {
+            return active;
+        }
+
+        long start = System.nanoTime();
+        TableSnapshot snapshot = TableSnapshot.read(buffer);
+        Map<Long, Player> loaded = new HashMap<>();
+        for (Player player : playerRepository.findAllWithUserByIdIn(
+                Arrays.stream(snapshot.playerIds()).boxed().toList())) {
+            loaded.put(player.getId(), player);
+        }
+
+        // Players who left are not seated again. The stacks in the snapshot are not played: a
+        // player may have rebought, or left and joined again, while the table was hibernated.
+        // The last hand's stack is still pending here if it was not written yet, otherwise the
+        // row has it or whatever changed it since. Stacks of a drained node are written before
+        // its tables are handed over.
+        List<Player> players = new ArrayList<>();
+        for (int seat = 0; seat < snapshot.playerIds().length; seat++) {
+            Player player = loaded.get(snapshot.playerIds()[seat]);
+            if (player != null && tableId.equals(player.getCurrentTableId())) {
+                chipStackService.applyPendingStack(player);
+                players.add(player);
+            }
+        }
+        if (players.isEmpty()) {
+            hibernatedSessions.remove(tableId, buffer);
+            return null;
+        }
+
+        GameSession session = new GameSession(tableId, players, snapshot.bigBlind(), snapshot.handPauseMillis(),
+                applicationEventPublisher, engineMetrics);
+        session.restoreFrom(snapshot);
+
+        // Active before the snapshot goes, so the table is never found in neither map. A game created
+        // for the table meanwhile is kept instead.
+        GameSession previous = activeSessions.putIfAbsent(tableId, session);
+        hibernatedSessions.remove(tableId, buffer);
+        if (previous != null) {
+            return previous;
+        }
+        engineMetrics.recordRehydration(System.nanoTime() - start);
+        return session;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.spadeboot.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by a {@link GameSession} when its game loop starts and after every hand: the
+ * table between two hands, as a serialized {@link TableSnapshot} a standby can resume from
+ */
+@Getter
+@AllArgsConstructor
+public class TableCheckpointEvent {
+    private final Long tableId;
+    private final int bigBlind;
+    private final byte[] snapshot;
+}
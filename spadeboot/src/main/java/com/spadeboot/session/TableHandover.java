@@ -0,0 +1,13 @@
+package com.spadeboot.session;
+
+/**
+ * A table leaving this node, as the snapshot its next owner rebuilds it from
+ * @param running Whether its game was running, in which case the next owner resumes it
+ * @param hand The hand in flight for the next owner to play on, null to deal the next hand
+ */
+public record TableHandover(Long tableId, byte[] snapshot, boolean running, HandInFlight hand) {
+
+    public TableHandover(Long tableId, byte[] snapshot, boolean running) {
+        this(tableId, snapshot, running, null);
+    }
+}
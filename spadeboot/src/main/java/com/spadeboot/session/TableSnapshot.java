@@ -0,0 +1,74 @@
+package com.spadeboot.session;
+
+import java.nio.ByteBuffer;
+
+/**
+ * What is left of a hibernated {@link GameSession}: its settings and, per seat, the player,
+ * stack and connection. Everything else is rebuilt when the table is rehydrated, the players
+ * are loaded again by ID.
+ *
+ * Kept as a direct buffer outside the heap, a table of nine takes about 150 bytes.
+ */
+record TableSnapshot(Long tableId, int bigBlind, long handPauseMillis, int dealerPosition, int roundNumber,
+                     long[] playerIds, int[] chips, boolean[] connected) {
+
+    private static final byte VERSION = 1;
+
+    ByteBuffer toBuffer() {
+        return write(ByteBuffer.allocateDirect(size())).flip();
+    }
+
+    /**
+     * The same bytes on the heap, to be sent to another node
+     */
+    byte[] toBytes() {
+        return write(ByteBuffer.allocate(size())).array();
+    }
+
+    private int size() {
+        return 1 + 8 + 4 + 8 + 4 + 4 + 4 + playerIds.length * (8 + 4 + 1);
+    }
+
+    private ByteBuffer write(ByteBuffer buffer) {
+        int seats = playerIds.length;
+        buffer.put(VERSION)
+                .putLong(tableId)
+                .putInt(bigBlind)
+                .putLong(handPauseMillis)
+                .putInt(dealerPosition)
+                .putInt(roundNumber)
+                .putInt(seats);
+        for (int seat = 0; seat < seats; seat++) {
+            buffer.putLong(playerIds[seat])
+                    .putInt(chips[seat])
+                    .put((byte) (connected[seat] ? 1 : 0));
+        }
+        return buffer;
+    }
+
+    static TableSnapshot read(ByteBuffer source) {
+        ByteBuffer buffer = source.duplicate();
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unknown table snapshot version " + version);
+        }
+
+        Long tableId = buffer.getLong();
+        int bigBlind = buffer.getInt();
+        long handPauseMillis = buffer.getLong();
+        int dealerPosition = buffer.getInt();
+        int roundNumber = buffer.getInt();
+        int seats = buffer.getInt();
+
+        long[] playerIds = new long[seats];
+        int[] chips = new int[seats];
+        boolean[] connected = new boolean[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            playerIds[seat] = buffer.getLong();
+            chips[seat] = buffer.getInt();
+            connected[seat] = buffer.get() != 0;
+        }
+        return new TableSnapshot(tableId, bigBlind, handPauseMillis, dealerPosition, roundNumber,
+                playerIds, chips, connected);
+    }
+}
@@ -0,0 +1,25 @@
+package com.spadeboot.session.bot;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates bot seats. Bots get negative player IDs, which never collide with real players.
+ */
+@Component
+public class BotFactory {
+
+    private final AtomicLong lastBotId = new AtomicLong();
+
+    public List<BotPlayer> createBots(int count, int chips, BotStrategyType strategyType) {
+        List<BotPlayer> bots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = lastBotId.decrementAndGet();
+            bots.add(new BotPlayer(id, "Bot " + -id, chips, strategyType.create(System.nanoTime() ^ id)));
+        }
+        return bots;
+    }
+}
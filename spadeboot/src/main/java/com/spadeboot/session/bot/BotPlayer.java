@@ -0,0 +1,31 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.PlayerStatus;
+import com.spadeboot.domain.user.User;
+
+/**
+ * A seat played by the server. Lives only in its game session and is never persisted, its
+ * user has no ID. The round thread asks the strategy directly instead of waiting for an
+ * action, so a bot costs no thread and no connection.
+ */
+public class BotPlayer extends Player {
+
+    private final BotStrategy strategy;
+
+    public BotPlayer(Long id, String name, int chips, BotStrategy strategy) {
+        this.strategy = strategy;
+
+        User user = new User();
+        user.setUsername(name);
+        setUser(user);
+        setId(id);
+        setChips(chips);
+        setStatus(PlayerStatus.ACTIVE);
+    }
+
+    public PlayerActionDto decide(BotView view) {
+        return strategy.decide(view);
+    }
+}
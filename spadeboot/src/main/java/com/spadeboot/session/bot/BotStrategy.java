@@ -0,0 +1,23 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+
+/**
+ * Decides the actions of a bot seat. Called on the round thread of the bot's table, so a
+ * strategy must answer quickly and never block. One instance per bot, implementations need
+ * not be thread safe.
+ */
+public interface BotStrategy {
+
+    /**
+     * @return The action to take. An action the engine rejects is replaced by a check or fold.
+     */
+    PlayerActionDto decide(BotView view);
+
+    static PlayerActionDto action(PlayerActionDto.ActionType type, Integer amount) {
+        PlayerActionDto action = new PlayerActionDto();
+        action.setAction(type);
+        action.setAmount(amount);
+        return action;
+    }
+}
@@ -0,0 +1,21 @@
+package com.spadeboot.session.bot;
+
+/**
+ * The strategies a bot seat can be created with
+ */
+public enum BotStrategyType {
+    RANDOM {
+        @Override
+        public BotStrategy create(long seed) {
+            return new RandomBotStrategy(seed);
+        }
+    },
+    TIGHT_AGGRESSIVE {
+        @Override
+        public BotStrategy create(long seed) {
+            return new TightAggressiveBotStrategy(seed);
+        }
+    };
+
+    public abstract BotStrategy create(long seed);
+}
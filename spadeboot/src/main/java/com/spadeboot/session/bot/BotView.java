@@ -0,0 +1,26 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.domain.card.Card;
+import com.spadeboot.domain.game.StageType;
+
+import java.util.List;
+
+/**
+ * What a bot sees when it is its turn, the same information a human has at the table
+ * @param toCall Chips needed to match the current bet, 0 if the bot can check
+ * @param opponents Players still in the hand besides the bot
+ */
+public record BotView(StageType stage, List<Card> holeCards, List<Card> communityCards,
+                      int chips, int toCall, int pot, int bigBlind, int opponents) {
+
+    public boolean canCheck() {
+        return toCall <= 0;
+    }
+
+    /**
+     * Whether a minimum raise on top of the call fits in the stack
+     */
+    public boolean canRaise() {
+        return chips > toCall + bigBlind;
+    }
+}
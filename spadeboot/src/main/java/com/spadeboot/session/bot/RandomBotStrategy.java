@@ -0,0 +1,34 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks a random legal action, to exercise every path of the engine in soak tests
+ */
+public class RandomBotStrategy implements BotStrategy {
+
+    private final SplittableRandom random;
+
+    public RandomBotStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public PlayerActionDto decide(BotView view) {
+        int roll = random.nextInt(100);
+        if (roll < 3) {
+            return BotStrategy.action(ActionType.ALL_IN, null);
+        }
+        if (roll < 20 && view.canRaise()) {
+            int maxRaise = Math.min(view.chips() - view.toCall(), view.bigBlind() * 4);
+            return BotStrategy.action(ActionType.RAISE, view.bigBlind() + random.nextInt(maxRaise - view.bigBlind() + 1));
+        }
+        if (view.canCheck()) {
+            return BotStrategy.action(ActionType.CHECK, null);
+        }
+        return BotStrategy.action(roll < 40 ? ActionType.FOLD : ActionType.CALL, null);
+    }
+}
@@ -0,0 +1,133 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.domain.card.Card;
+import com.spadeboot.domain.game.HandEvaluation;
+import com.spadeboot.domain.game.StageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays few hands and plays them hard. Pre-flop hands are scored with a simplified Chen
+ * formula, after the flop by the made hand, counting only hands the hole cards take part in.
+ */
+public class TightAggressiveBotStrategy implements BotStrategy {
+
+    private static final int PAIR = 2;
+    private static final int TWO_PAIR = 3;
+    private static final int STRAIGHT = 5;
+
+    private final SplittableRandom random;
+
+    public TightAggressiveBotStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public PlayerActionDto decide(BotView view) {
+        return view.stage() == StageType.PRE_FLOP ? decidePreFlop(view) : decidePostFlop(view);
+    }
+
+    private PlayerActionDto decidePreFlop(BotView view) {
+        double score = chenScore(view.holeCards().get(0), view.holeCards().get(1));
+        if (score >= 10) {
+            return raiseOrCall(view, view.bigBlind() * 3);
+        }
+        if (score >= 7 && view.toCall() <= view.bigBlind() * 3) {
+            return view.canCheck() && random.nextInt(3) == 0 ? raiseOrCall(view, view.bigBlind() * 2) : checkOrCall(view);
+        }
+        return checkOrFold(view);
+    }
+
+    private PlayerActionDto decidePostFlop(BotView view) {
+        int handType = madeHandType(view.holeCards(), view.communityCards());
+        if (handType >= TWO_PAIR) {
+            return raiseOrCall(view, Math.max(view.pot() / 2, view.bigBlind()));
+        }
+        if (handType == PAIR) {
+            if (view.canCheck()) {
+                return random.nextInt(2) == 0 ? raiseOrCall(view, Math.max(view.pot() / 3, view.bigBlind())) : checkOrCall(view);
+            }
+            return view.toCall() <= view.pot() / 2 ? checkOrCall(view) : checkOrFold(view);
+        }
+        // Nothing, continue only if it is free or very cheap
+        return view.toCall() <= view.bigBlind() / 2 ? checkOrCall(view) : checkOrFold(view);
+    }
+
+    private PlayerActionDto raiseOrCall(BotView view, int raise) {
+        int amount = Math.max(raise, view.bigBlind());
+        if (view.chips() > view.toCall() + amount) {
+            return BotStrategy.action(ActionType.RAISE, amount);
+        }
+        // Cannot raise that much, commit the stack
+        return BotStrategy.action(ActionType.ALL_IN, null);
+    }
+
+    private static PlayerActionDto checkOrCall(BotView view) {
+        return BotStrategy.action(view.canCheck() ? ActionType.CHECK : ActionType.CALL, null);
+    }
+
+    private static PlayerActionDto checkOrFold(BotView view) {
+        return BotStrategy.action(view.canCheck() ? ActionType.CHECK : ActionType.FOLD, null);
+    }
+
+    /**
+     * Simplified Chen formula, from about 0 (seven-deuce offsuit) to 20 (pocket aces)
+     */
+    static double chenScore(Card first, Card second) {
+        int high = Math.max(first.getValue().getValue(), second.getValue().getValue());
+        int low = Math.min(first.getValue().getValue(), second.getValue().getValue());
+
+        double score = switch (high) {
+            case 14 -> 10;
+            case 13 -> 8;
+            case 12 -> 7;
+            case 11 -> 6;
+            default -> high / 2.0;
+        };
+
+        if (high == low) {
+            return Math.max(score * 2, 5);
+        }
+        if (first.getSuit() == second.getSuit()) {
+            score += 2;
+        }
+
+        int gap = high - low - 1;
+        score -= switch (gap) {
+            case 0 -> 0;
+            case 1 -> 1;
+            case 2 -> 2;
+            case 3 -> 4;
+            default -> 5;
+        };
+        if (gap <= 1 && high < 12) {
+            score += 1;
+        }
+        return score;
+    }
+
+    /**
+     * Type of the best hand, where pairs and two pairs only count if a hole card is part of them
+     */
+    static int madeHandType(List<Card> holeCards, List<Card> communityCards) {
+        List<Card> cards = new ArrayList<>(holeCards);
+        cards.addAll(communityCards);
+        int handType = HandEvaluation.handType(HandEvaluation.cardsToRankNumber(cards));
+        if (handType >= STRAIGHT || handType < PAIR) {
+            return handType;
+        }
+
+        int firstValue = holeCards.get(0).getValue().getValue();
+        int secondValue = holeCards.get(1).getValue().getValue();
+        boolean holeCardPaired = firstValue == secondValue;
+        for (Card card : communityCards) {
+            int value = card.getValue().getValue();
+            holeCardPaired |= value == firstValue || value == secondValue;
+        }
+        return holeCardPaired ? handType : 1;
+    }
+}
@@ -3,10 +3,20 @@
 package com.spadeboot.websocket;
 
 import com.spadeboot.api.dto.GameEventDto;
+import com.spadeboot.cluster.ClusterNode;
 import com.spadeboot.api.dto.PlayerActionDto;
 import com.spadeboot.domain.game.StageType;
 import com.spadeboot.api.dto.*;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.FastFoldSeatedEvent;
+import com.spadeboot.session.PotDistributedEvent;
+import com.spadeboot.session.RoundActionEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
@@ -18,8 +28,15 @@ public class GameEventPublisher {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private EngineMetrics engineMetrics;
+
+    @Autowired
+    private ClusterNode clusterNode;
+
     private static final String TOPIC_PREFIX = "/topic/tables/";
     private static final String USER_QUEUE_PREFIX = "/queue/";
+    private static final String FAST_FOLD_QUEUE = USER_QUEUE_PREFIX + "fast-fold";
 
     /**
      * Publish game started event
@@ -30,7 +47,7 @@ public class GameEventPublisher {
         event.setPayload(gameState);
         event.setMessage("Game has started!");
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -41,7 +58,7 @@ public class GameEventPublisher {
         event.setType(GameEventDto.EventType.GAME_ENDED);
         event.setMessage("Game has ended");
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -53,7 +70,15 @@ public class GameEventPublisher {
         event.setPayload(response);
         event.setMessage(String.format("Player %d: %s", playerId, action.getAction()));
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
+    }
+
+    /**
+     * Broadcast an action the round took for a bot or a queued pre-action like any other
+     */
+    @EventListener
+    public void onRoundAction(RoundActionEvent event) {
+        publishPlayerAction(event.getTableId(), event.getPlayerId(), event.getAction(), event.getResponse());
     }
 
     /**
@@ -64,7 +89,7 @@ public class GameEventPublisher {
         event.setType(GameEventDto.EventType.STAGE_CHANGED);
         event.setPayload(gameState);
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -76,7 +101,7 @@ public class GameEventPublisher {
         event.setPayload(playerId);
         event.setMessage("Your turn!");
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -88,7 +113,7 @@ public class GameEventPublisher {
         event.setPayload(cards);
         event.setMessage(stage.name() + " cards revealed");
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -100,7 +125,37 @@ public class GameEventPublisher {
         event.setPayload(winner);
         event.setMessage(winner.getUsername() + " wins with " + winner.getHandRank());
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
+    }
+
+    /**
+     * Broadcast a paid out pot, one event per pot
+     */
+    @EventListener
+    public void onPotDistributed(PotDistributedEvent event) {
+        PotDistributionDto pot = event.getPot();
+        GameEventDto message = new GameEventDto();
+        message.setType(GameEventDto.EventType.POT_DISTRIBUTED);
+        message.setPayload(pot);
+        message.setMessage((pot.getPotIndex() == 0 ? "Main pot" : "Side pot " + pot.getPotIndex()) +
+                " of " + pot.getAmount() + " chips distributed");
+
+        send(event.getTableId(), message);
+    }
+
+    /**
+     * Tell the players of a new fast-fold hand where it is played, each on their own queue
+     */
+    @EventListener
+    public void onFastFoldSeated(FastFoldSeatedEvent event) {
+        GameEventDto message = new GameEventDto();
+        message.setType(GameEventDto.EventType.FAST_FOLD_SEATED);
+        message.setPayload(event.getHand());
+        message.setMessage("Dealt into hand " + event.getHand().getTableId() + " of table " + event.getPoolTableId());
+
+        for (String username : event.getUsernames()) {
+            messagingTemplate.convertAndSendToUser(username, FAST_FOLD_QUEUE, message);
+        }
     }
 
     /**
@@ -111,7 +166,7 @@ public class GameEventPublisher {
         event.setType(GameEventDto.EventType.PLAYER_DISCONNECTED);
         event.setPayload(playerId);
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
     }
 
     /**
@@ -122,7 +177,31 @@ public class GameEventPublisher {
         event.setType(GameEventDto.EventType.PLAYER_CONNECTED);
         event.setPayload(playerId);
 
-        messagingTemplate.convertAndSend(TOPIC_PREFIX + tableId, event);
+        send(tableId, event);
+    }
+
+    /**
+     * Serialize the event once, so its size can be recorded without converting it twice,
+     * and hand it to the broker
+     */
+    private void send(Long tableId, GameEventDto event) {
+        long start = System.nanoTime();
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setLeaveMutable(true);
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(event, accessor.getMessageHeaders());
+        if (message == null) {
+            throw new MessageConversionException("Unable to convert " + event.getType() + " event");
+        }
+        messagingTemplate.send(TOPIC_PREFIX + tableId, message);
+
+        int size = -1;
+        if (message.getPayload() instanceof byte[] bytes) {
+            // Subscribers of the table may be connected to other nodes
+            clusterNode.relayFrame(tableId, TOPIC_PREFIX + tableId, bytes);
+            size = bytes.length;
+        }
+        engineMetrics.recordSend(event.getType(), System.nanoTime() - start, size);
     }
 
     /**
@@ -1,9 +1,15 @@
 // src/main/java/com/pokerapp/websocket/GameWebSocketHandler.java
 package com.spadeboot.websocket;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spadeboot.cluster.ClusterMessage;
+import com.spadeboot.cluster.ClusterNode;
 import com.spadeboot.service.GameService;
+import com.spadeboot.service.PresenceService;
 import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PreActionDto;
 import com.spadeboot.api.dto.GameEventDto;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -13,15 +19,37 @@ import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import java.nio.charset.StandardCharsets;
+
 @Controller
 public class GameWebSocketHandler {
 
+    // Commands forwarded to the node owning the table, named after their destination
+    static final String ACTION = "action";
+    static final String PRE_ACTION = "pre-action";
+    static final String CONNECT = "connect";
+    static final String DISCONNECT = "disconnect";
+
     @Autowired
     private GameService gameService;
 
     @Autowired
     private GameEventPublisher eventPublisher;
 
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private ClusterNode clusterNode;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    void registerClusterCommands() {
+        clusterNode.setCommandHandler(this::runClusterCommand);
+    }
+
     /**
      * Handle player actions for a specific table
      */
@@ -39,14 +67,44 @@ public class GameWebSocketHandler {
             }
 
             Long userId = getUserIdFromAuth(auth);
+            if (!clusterNode.isLocal(tableId)) {
+                clusterNode.forwardCommand(tableId, userId, headerAccessor.getSessionId(), ACTION,
+                        objectMapper.writeValueAsBytes(action));
+                return;
+            }
             gameService.processPlayerAction(tableId, userId, action);
 
         } catch (Exception e) {
             // Send error back to the user
-            GameEventDto errorEvent = new GameEventDto();
-            errorEvent.setType(GameEventDto.EventType.ERROR);
-            errorEvent.setMessage(e.getMessage());
-            eventPublisher.sendToUser(headerAccessor.getSessionId(), "/queue/errors", errorEvent);
+            sendError(headerAccessor.getSessionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queue an action for the player's next turn, taken without a round trip once it comes
+     */
+    @MessageMapping("/game/{tableId}/pre-action")
+    public void handlePreAction(
+            @DestinationVariable Long tableId,
+            @Payload PreActionDto preAction,
+            SimpMessageHeaderAccessor headerAccessor) {
+
+        try {
+            Authentication auth = (Authentication) headerAccessor.getUser();
+            if (auth == null) {
+                throw new IllegalStateException("User not authenticated");
+            }
+
+            Long userId = getUserIdFromAuth(auth);
+            if (!clusterNode.isLocal(tableId)) {
+                clusterNode.forwardCommand(tableId, userId, headerAccessor.getSessionId(), PRE_ACTION,
+                        objectMapper.writeValueAsBytes(preAction));
+                return;
+            }
+            gameService.queuePreAction(tableId, userId, preAction);
+
+        } catch (Exception e) {
+            sendError(headerAccessor.getSessionId(), e.getMessage());
         }
     }
 
@@ -65,8 +123,13 @@ public class GameWebSocketHandler {
             // Subscribe the user to the table's topic
             headerAccessor.getSessionAttributes().put("tableId", tableId);
             headerAccessor.getSessionAttributes().put("userId", userId);
+            presenceService.enteredTable(userId, tableId);
 
             // Handle reconnection logic
+            if (!clusterNode.isLocal(tableId)) {
+                clusterNode.forwardCommand(tableId, userId, headerAccessor.getSessionId(), CONNECT, null);
+                return;
+            }
             try {
                 gameService.handlePlayerReconnect(tableId, userId);
             } catch (Exception e) {
@@ -86,8 +149,48 @@ public class GameWebSocketHandler {
         Authentication auth = (Authentication) headerAccessor.getUser();
         if (auth != null) {
             Long userId = getUserIdFromAuth(auth);
-            gameService.handlePlayerDisconnect(tableId, userId);
+            if (clusterNode.isLocal(tableId)) {
+                gameService.handlePlayerDisconnect(tableId, userId);
+            } else {
+                clusterNode.forwardCommand(tableId, userId, headerAccessor.getSessionId(), DISCONNECT, null);
+            }
+            presenceService.leftTable(userId, tableId);
+        }
+    }
+
+    /**
+     * Run a command another node received for a table of this node, or pass on the failure of
+     * one this node forwarded to the user who sent it
+     */
+    private void runClusterCommand(ClusterMessage command) {
+        if (command.type() == ClusterMessage.Type.COMMAND_FAILED) {
+            sendError(command.sessionId(), new String(command.payload(), StandardCharsets.UTF_8));
+            return;
         }
+
+        try {
+            switch (command.destination()) {
+                case ACTION -> gameService.processPlayerAction(command.tableId(), command.userId(),
+                        objectMapper.readValue(command.payload(), PlayerActionDto.class));
+                case PRE_ACTION -> gameService.queuePreAction(command.tableId(), command.userId(),
+                        objectMapper.readValue(command.payload(), PreActionDto.class));
+                case CONNECT -> gameService.handlePlayerReconnect(command.tableId(), command.userId());
+                case DISCONNECT -> gameService.handlePlayerDisconnect(command.tableId(), command.userId());
+                default -> throw new IllegalStateException("Unknown command " + command.destination());
+            }
+        } catch (Exception e) {
+            // Connecting may be a first join rather than a reconnection, which is no error
+            if (ACTION.equals(command.destination()) || PRE_ACTION.equals(command.destination())) {
+                clusterNode.reportCommandFailed(command, e.getMessage());
+            }
+        }
+    }
+
+    private void sendError(String sessionId, String message) {
+        GameEventDto errorEvent = new GameEventDto();
+        errorEvent.setType(GameEventDto.EventType.ERROR);
+        errorEvent.setMessage(message);
+        eventPublisher.sendToUser(sessionId, "/queue/errors", errorEvent);
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.spadeboot.websocket;
+
+import com.spadeboot.metrics.EngineMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks how many frames per table are queued on the client outbound channel but not yet
+ * written to a websocket. The depths are exported as aggregates only (max depth, backlogged
+ * tables, depth distribution), the table ID never becomes a metric tag.
+ */
+@Component
+public class OutboundQueueInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String TABLE_TOPIC_PREFIX = "/topic/tables/";
+
+    @Autowired
+    private EngineMetrics engineMetrics;
+
+    private final Map<Long, Integer> depths = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        engineMetrics.registerOutboundGauges(this::maxTableDepth, depths::size);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        Long tableId = tableIdOf(message);
+        if (tableId != null) {
+            int depth = depths.merge(tableId, 1, Integer::sum);
+            engineMetrics.recordOutboundTableDepth(depth - 1);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Rejected by the executor, the frame will never be handled
+        if (ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message);
+    }
+
+    /**
+     * Deepest queue of any single table
+     */
+    public int maxTableDepth() {
+        int max = 0;
+        for (int depth : depths.values()) {
+            max = Math.max(max, depth);
+        }
+        return max;
+    }
+
+    private void release(Message<?> message) {
+        Long tableId = tableIdOf(message);
+        if (tableId != null) {
+            // Drop the entry once the table is drained, so idle tables cost nothing
+            depths.computeIfPresent(tableId, (id, depth) -> depth > 1 ? depth - 1 : null);
+        }
+    }
+
+    private Long tableIdOf(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(TABLE_TOPIC_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destination.substring(TABLE_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,25 +1,42 @@
 // src/main/java/com/pokerapp/websocket/WebSocketEventListener.java
 package com.spadeboot.websocket;
 
+import com.spadeboot.cluster.ClusterNode;
+import com.spadeboot.security.UserDetailsImpl;
 import com.spadeboot.service.GameService;
+import com.spadeboot.service.PresenceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.security.Principal;
+
 @Component
 public class WebSocketEventListener {
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private ClusterNode clusterNode;
+
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         String sessionId = headerAccessor.getSessionId();
 
+        UserDetailsImpl user = userOf(event.getUser());
+        if (user != null) {
+            presenceService.connected(user.getId(), user.getUsername(), sessionId);
+        }
+
         // Log connection
         System.out.println("WebSocket connection established: " + sessionId);
     }
@@ -34,11 +51,28 @@ public class WebSocketEventListener {
         Long tableId = (Long) headerAccessor.getSessionAttributes().get("tableId");
 
         if (userId != null && tableId != null) {
-            // Handle player disconnection
-            gameService.handlePlayerDisconnect(tableId, userId);
+            // Handle player disconnection, on the node running the table
+            if (clusterNode.isLocal(tableId)) {
+                gameService.handlePlayerDisconnect(tableId, userId);
+            } else {
+                clusterNode.forwardCommand(tableId, userId, sessionId, GameWebSocketHandler.DISCONNECT, null);
+            }
+        }
+
+        UserDetailsImpl user = userOf(event.getUser());
+        if (user != null) {
+            presenceService.disconnected(user.getId(), sessionId);
         }
 
         // Log disconnection
         System.out.println("WebSocket disconnection: " + sessionId);
     }
+
+    private UserDetailsImpl userOf(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user;
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -5,7 +5,6 @@ import com.spadeboot.api.dto.PlayerActionResponse;
 import com.spadeboot.domain.game.PokerTable;
 import com.spadeboot.domain.user.Player;
 import com.spadeboot.exception.InvalidMoveException;
-import com.spadeboot.repository.PlayerRepository;
 import com.spadeboot.repository.TableRepository;
 import com.spadeboot.service.GameService;
 import com.spadeboot.session.GameSession;
@@ -34,9 +33,6 @@ class GameServiceTest {
     @Mock
     private TableRepository tableRepository;
 
-    @Mock
-    private PlayerRepository playerRepository;
-
     @Mock
     private SessionManager sessionManager;
 
@@ -79,7 +75,7 @@ class GameServiceTest {
         Long userId = 1L;
         int bigBlind = 20;
 
-        when(tableRepository.findById(tableId)).thenReturn(Optional.of(testTable));
+        when(tableRepository.findWithSeatedUsersById(tableId)).thenReturn(Optional.of(testTable));
         when(sessionManager.hasActiveGame(tableId)).thenReturn(false);
 
         GameSession mockSession = mock(GameSession.class);
@@ -103,7 +99,7 @@ class GameServiceTest {
         Long userId = 2L; // Not the owner
         int bigBlind = 20;
 
-        when(tableRepository.findById(tableId)).thenReturn(Optional.of(testTable));
+        when(tableRepository.findWithSeatedUsersById(tableId)).thenReturn(Optional.of(testTable));
 
         // When/Then
         assertThrows(InvalidMoveException.class, () -> {
@@ -118,7 +114,7 @@ class GameServiceTest {
         Long userId = 1L;
         int bigBlind = 20;
 
-        when(tableRepository.findById(tableId)).thenReturn(Optional.of(testTable));
+        when(tableRepository.findWithSeatedUsersById(tableId)).thenReturn(Optional.of(testTable));
         when(sessionManager.hasActiveGame(tableId)).thenReturn(true);
 
         // When/Then
@@ -135,7 +131,7 @@ class GameServiceTest {
         int bigBlind = 20;
 
         testTable.setPlayers(new HashSet<>(Arrays.asList(testOwner))); // Only 1 player
-        when(tableRepository.findById(tableId)).thenReturn(Optional.of(testTable));
+        when(tableRepository.findWithSeatedUsersById(tableId)).thenReturn(Optional.of(testTable));
 
         // When/Then
         assertThrows(InvalidMoveException.class, () -> {
@@ -153,7 +149,7 @@ class GameServiceTest {
 
         GameSession mockSession = mock(GameSession.class);
         when(sessionManager.getGameSession(tableId)).thenReturn(mockSession);
-        when(playerRepository.findByUserId(userId)).thenReturn(Optional.of(testPlayer1));
+        when(mockSession.findSeatedPlayer(userId)).thenReturn(testPlayer1);
         when(mockSession.isPlayerTurn(testPlayer1.getId())).thenReturn(true);
 
         PlayerActionResponse mockResponse = new PlayerActionResponse();
@@ -178,7 +174,7 @@ class GameServiceTest {
 
         GameSession mockSession = mock(GameSession.class);
         when(sessionManager.getGameSession(tableId)).thenReturn(mockSession);
-        when(playerRepository.findByUserId(userId)).thenReturn(Optional.of(testPlayer1));
+        when(mockSession.findSeatedPlayer(userId)).thenReturn(testPlayer1);
         when(mockSession.isPlayerTurn(testPlayer1.getId())).thenReturn(false);
 
         // When/Then
@@ -214,7 +210,7 @@ class GameServiceTest {
 
         GameSession mockSession = mock(GameSession.class);
         when(sessionManager.getGameSession(tableId)).thenReturn(mockSession);
-        when(playerRepository.findByUserId(userId)).thenReturn(Optional.of(testPlayer1));
+        when(mockSession.findSeatedPlayer(userId)).thenReturn(testPlayer1);
 
         // When
         gameService.handlePlayerDisconnect(tableId, userId);
@@ -233,7 +229,7 @@ class GameServiceTest {
         GameSession mockSession = mock(GameSession.class);
         GameStateDto mockGameState = new GameStateDto();
         when(sessionManager.getGameSession(tableId)).thenReturn(mockSession);
-        when(playerRepository.findByUserId(userId)).thenReturn(Optional.of(testPlayer1));
+        when(mockSession.findSeatedPlayer(userId)).thenReturn(testPlayer1);
         when(mockSession.getCurrentGameState()).thenReturn(mockGameState);
 
         // When
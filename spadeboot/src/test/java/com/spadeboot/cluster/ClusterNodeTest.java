@@ -0,0 +1,149 @@
+package com.spadeboot.cluster;
+
+import com.spadeboot.service.ChipStackService;
+import com.spadeboot.session.SessionManager;
+import com.spadeboot.session.TableHandover;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Three nodes in one JVM on a loopback bus, each with its own session manager and broker
+ */
+class ClusterNodeTest {
+
+    private static final String NODES = "a=http://node-a:8080,b=http://node-b:8080,c=http://node-c:8080";
+
+    private final LoopbackEventBus bus = new LoopbackEventBus();
+    private final Map<String, ClusterNode> nodes = new LinkedHashMap<>();
+    private final Map<String, SessionManager> sessionManagers = new LinkedHashMap<>();
+    private final Map<String, SimpMessagingTemplate> brokers = new LinkedHashMap<>();
+    private final ChipStackService chipStackService = mock(ChipStackService.class);
+
+    @BeforeEach
+    void startNodes() {
+        for (String nodeId : List.of("a", "b", "c")) {
+            SessionManager sessionManager = mock(SessionManager.class);
+            SimpMessagingTemplate broker = mock(SimpMessagingTemplate.class);
+
+            ClusterNode node = new ClusterNode();
+            ReflectionTestUtils.setField(node, "eventBus", bus);
+            ReflectionTestUtils.setField(node, "sessionManager", sessionManager);
+            ReflectionTestUtils.setField(node, "messagingTemplate", broker);
+            ReflectionTestUtils.setField(node, "chipStackService", chipStackService);
+            ReflectionTestUtils.setField(node, "enabled", true);
+            ReflectionTestUtils.setField(node, "nodeId", nodeId);
+            ReflectionTestUtils.setField(node, "nodes", NODES);
+            ReflectionTestUtils.setField(node, "virtualNodes", 64);
+            ReflectionTestUtils.setField(node, "handoverTimeoutMillis", 5000L);
+            node.join();
+
+            nodes.put(nodeId, node);
+            sessionManagers.put(nodeId, sessionManager);
+            brokers.put(nodeId, broker);
+        }
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.values().forEach(ClusterNode::leave);
+    }
+
+    @Test
+    void testEveryTableHasExactlyOneOwner() {
+        for (long tableId = 1; tableId <= 1000; tableId++) {
+            long id = tableId;
+            long owners = nodes.values().stream().filter(node -> node.isLocal(id)).count();
+            assertEquals(1, owners);
+            assertEquals(nodes.get("a").ownerUrl(tableId), nodes.get("c").ownerUrl(tableId));
+        }
+    }
+
+    @Test
+    void testFramesReachSubscribersOfOtherNodes() {
+        nodes.get("a").relayFrame(7L, "/topic/tables/7", new byte[]{'{', '}'});
+
+        verify(brokers.get("b"), timeout(2000)).send(eq("/topic/tables/7"), any(Message.class));
+        verify(brokers.get("c"), timeout(2000)).send(eq("/topic/tables/7"), any(Message.class));
+        verify(brokers.get("a"), never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    void testCommandsRunOnTheOwnerAndFailuresComeBack() throws InterruptedException {
+        long tableId = tableOwnedBy("b");
+        List<ClusterMessage> received = new CopyOnWriteArrayList<>();
+        List<ClusterMessage> failures = new CopyOnWriteArrayList<>();
+        nodes.get("b").setCommandHandler(command -> {
+            received.add(command);
+            nodes.get("b").reportCommandFailed(command, "Not your turn");
+        });
+        nodes.get("a").setCommandHandler(failures::add);
+
+        nodes.get("a").forwardCommand(tableId, 42L, "session-1", "action", new byte[]{1});
+
+        awaitTrue(() -> !failures.isEmpty());
+        assertEquals(1, received.size());
+        assertEquals(ClusterMessage.Type.COMMAND_FAILED, failures.get(0).type());
+        assertEquals(42L, received.get(0).userId());
+        assertEquals("session-1", failures.get(0).sessionId());
+        assertEquals("Not your turn", new String(failures.get(0).payload()));
+    }
+
+    @Test
+    void testDrainingHandsTablesToTheRemainingNodes() throws InterruptedException {
+        List<Long> tableIds = new ArrayList<>();
+        for (long tableId = 1; tableId <= 50; tableId++) {
+            if (nodes.get("b").isLocal(tableId)) {
+                tableIds.add(tableId);
+            }
+        }
+        SessionManager drained = sessionManagers.get("b");
+        when(drained.getResidentTableIds()).thenReturn(tableIds, tableIds, List.of());
+        when(drained.handOver(any(), anyLong())).thenAnswer(invocation ->
+                new TableHandover(invocation.getArgument(0), new byte[]{1}, true));
+
+        assertEquals(0, nodes.get("b").drain());
+        awaitTrue(() -> !nodes.get("a").getRingNodeIds().contains("b") && !nodes.get("c").getRingNodeIds().contains("b"));
+
+        verify(drained).stopAfterHand(tableIds);
+        verify(chipStackService, atLeastOnce()).flushPendingStacks();
+        int adopted = 0;
+        for (String nodeId : List.of("a", "c")) {
+            long owned = tableIds.stream().filter(nodes.get(nodeId)::isLocal).count();
+            verify(sessionManagers.get(nodeId), timeout(2000).times((int) owned)).adopt(any());
+            adopted += (int) owned;
+        }
+        assertEquals(tableIds.size(), adopted);
+        assertFalse(nodes.get("b").isLocal(tableIds.get(0)));
+    }
+
+    private long tableOwnedBy(String nodeId) {
+        long tableId = 1;
+        while (!nodes.get(nodeId).isLocal(tableId)) {
+            tableId++;
+        }
+        return tableId;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
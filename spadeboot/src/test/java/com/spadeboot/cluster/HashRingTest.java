@@ -0,0 +1,68 @@
+package com.spadeboot.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final int TABLES = 30_000;
+
+    @Test
+    void testTablesAreSpreadEvenly() {
+        HashRing ring = new HashRing(List.of("a", "b", "c"), 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long tableId = 1; tableId <= TABLES; tableId++) {
+            owned.merge(ring.ownerOf(tableId), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        for (int count : owned.values()) {
+            assertTrue(count > TABLES / 4 && count < TABLES / 2, "Unbalanced ring " + owned);
+        }
+    }
+
+    @Test
+    void testRemovingNodeOnlyMovesItsTables() {
+        HashRing ring = new HashRing(List.of("a", "b", "c", "d"), 128);
+        HashRing drained = ring.without("b");
+
+        for (long tableId = 1; tableId <= TABLES; tableId++) {
+            String owner = ring.ownerOf(tableId);
+            if (owner.equals("b")) {
+                assertNotEquals("b", drained.ownerOf(tableId));
+            } else {
+                assertEquals(owner, drained.ownerOf(tableId));
+            }
+        }
+        assertFalse(drained.contains("b"));
+    }
+
+    @Test
+    void testNodesAgreeWhateverOrderTheyAreConfiguredIn() {
+        HashRing ring = new HashRing(List.of("a", "b", "c"), 64);
+        HashRing reordered = new HashRing(List.of("c", "a", "b"), 64);
+
+        for (long tableId = 1; tableId <= TABLES; tableId++) {
+            assertEquals(ring.ownerOf(tableId), reordered.ownerOf(tableId));
+        }
+    }
+
+    @Test
+    void testStandbyTakesOverWhenOwnerIsRemoved() {
+        HashRing ring = new HashRing(List.of("a", "b", "c"), 128);
+
+        for (long tableId = 1; tableId <= TABLES; tableId++) {
+            String owner = ring.ownerOf(tableId);
+            String standby = ring.standbyOf(tableId);
+            assertNotEquals(owner, standby);
+            assertEquals(standby, ring.without(owner).ownerOf(tableId));
+        }
+        assertNull(new HashRing(List.of("a"), 128).standbyOf(1));
+    }
+}
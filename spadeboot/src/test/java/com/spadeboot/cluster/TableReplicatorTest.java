@@ -0,0 +1,200 @@
+package com.spadeboot.cluster;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.engine.HandState;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.GameStatusChangedEvent;
+import com.spadeboot.session.HandActionEvent;
+import com.spadeboot.session.HandInFlight;
+import com.spadeboot.session.HandStartedEvent;
+import com.spadeboot.session.SessionManager;
+import com.spadeboot.session.TableCheckpointEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes in one JVM on a loopback bus, a primary streaming a table to its standby. A third
+ * configured node never starts, as a node that boots later than the others.
+ */
+class TableReplicatorTest {
+
+    private static final String NODES = "a=http://node-a:8080,b=http://node-b:8080,c=http://node-c:8080";
+    private static final byte[] CHECKPOINT = {1, 2, 3};
+    private static final byte[] DECK = {51, 50, 49, 48, 47, 46, 45, 44, 43, 42};
+
+    private final LoopbackEventBus bus = new LoopbackEventBus();
+    private final Map<String, ClusterNode> nodes = new LinkedHashMap<>();
+    private final Map<String, TableReplicator> replicators = new LinkedHashMap<>();
+    private final Map<String, SessionManager> sessionManagers = new LinkedHashMap<>();
+    private final Map<String, SimpleMeterRegistry> meterRegistries = new LinkedHashMap<>();
+
+    @BeforeEach
+    void startNodes() {
+        for (String nodeId : List.of("a", "b")) {
+            SessionManager sessionManager = mock(SessionManager.class);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+            ClusterNode node = new ClusterNode();
+            ReflectionTestUtils.setField(node, "eventBus", bus);
+            ReflectionTestUtils.setField(node, "sessionManager", sessionManager);
+            ReflectionTestUtils.setField(node, "messagingTemplate", mock(SimpMessagingTemplate.class));
+            ReflectionTestUtils.setField(node, "enabled", true);
+            ReflectionTestUtils.setField(node, "nodeId", nodeId);
+            ReflectionTestUtils.setField(node, "nodes", NODES);
+            ReflectionTestUtils.setField(node, "virtualNodes", 64);
+            node.join();
+
+            TableReplicator replicator = new TableReplicator();
+            ReflectionTestUtils.setField(replicator, "clusterNode", node);
+            ReflectionTestUtils.setField(replicator, "eventBus", bus);
+            ReflectionTestUtils.setField(replicator, "sessionManager", sessionManager);
+            ReflectionTestUtils.setField(replicator, "metrics", new EngineMetrics(meterRegistry));
+            ReflectionTestUtils.setField(replicator, "enabled", true);
+            ReflectionTestUtils.setField(replicator, "heartbeatIntervalMillis", 50L);
+            ReflectionTestUtils.setField(replicator, "heartbeatTimeoutMillis", 300L);
+            replicator.start();
+
+            nodes.put(nodeId, node);
+            replicators.put(nodeId, replicator);
+            sessionManagers.put(nodeId, sessionManager);
+            meterRegistries.put(nodeId, meterRegistry);
+        }
+    }
+
+    @AfterEach
+    void stopNodes() {
+        replicators.values().forEach(TableReplicator::stop);
+        nodes.values().forEach(ClusterNode::leave);
+    }
+
+    @Test
+    void testStandbyKeepsTheLatestCheckpoint() throws InterruptedException {
+        long tableId = tableReplicatedFromTo("a", "b");
+        TableReplicator primary = replicators.get("a");
+        TableReplicator standby = replicators.get("b");
+        byte[] afterHand = {4, 5, 6};
+
+        primary.onCheckpoint(new TableCheckpointEvent(tableId, 20, CHECKPOINT));
+        primary.onCheckpoint(new TableCheckpointEvent(tableId, 20, afterHand));
+        // Below the minimum big blind, never streamed
+        ReflectionTestUtils.setField(primary, "minBigBlind", 50);
+        primary.onCheckpoint(new TableCheckpointEvent(tableId + 1, 20, CHECKPOINT));
+
+        // Lag is recorded once a checkpoint is kept, for every checkpoint
+        awaitTrue(() -> meterRegistries.get("b").get("spade.cluster.replication.lag").timer().count() == 2);
+        assertArrayEquals(afterHand, standby.getReplica(tableId).getCheckpoint());
+        assertEquals(1, standby.getReplicaCount());
+        assertNull(primary.getReplica(tableId));
+
+        primary.onGameStatusChanged(new GameStatusChangedEvent(tableId, false));
+        awaitTrue(() -> standby.getReplicaCount() == 0);
+        assertEquals(0, standby.getReplicaCount());
+    }
+
+    @Test
+    void testStandbyReplaysTheHandInFlight() throws InterruptedException {
+        long tableId = tableReplicatedFromTo("a", "b");
+        TableReplicator primary = replicators.get("a");
+        TableReplicator standby = replicators.get("b");
+
+        primary.onCheckpoint(new TableCheckpointEvent(tableId, 20, CHECKPOINT));
+        primary.onHandStarted(new HandStartedEvent(tableId, newHand(1)));
+        primary.onHandAction(new HandActionEvent(tableId, 1, new HandInFlight.Action(0, ActionType.CALL, null)));
+        primary.onHandAction(new HandActionEvent(tableId, 1, new HandInFlight.Action(1, ActionType.RAISE, 40)));
+
+        // Lag is recorded once an event is applied, for every event
+        awaitTrue(() -> meterRegistries.get("b").get("spade.cluster.replication.lag").timer().count() == 4);
+        TableReplica replica = standby.getReplica(tableId);
+        HandState hand = replica.getHandState();
+        // Blinds of 10 and 20, a call of 20, then the small blind calls 10 and raises 40
+        assertEquals(10 + 20 + 20 + 50, hand.pot());
+        assertEquals(2, hand.toAct());
+        assertArrayEquals(DECK, replica.getHand().deck());
+        assertEquals(2, replica.getHand().actions().size());
+        assertArrayEquals(CHECKPOINT, replica.getCheckpoint());
+
+        // A rejected action means the shadow lost track, the hand is dealt again on failover
+        primary.onHandAction(new HandActionEvent(tableId, 1, new HandInFlight.Action(0, ActionType.CHECK, null)));
+        awaitTrue(() -> replica.getHand() == null);
+        assertNull(replica.getHandState());
+
+        // The next checkpoint ends the hand
+        primary.onHandStarted(new HandStartedEvent(tableId, newHand(2)));
+        awaitTrue(() -> replica.getHand() != null);
+        primary.onCheckpoint(new TableCheckpointEvent(tableId, 20, CHECKPOINT));
+        awaitTrue(() -> replica.getHand() == null);
+        assertNull(replica.getHand());
+    }
+
+    @Test
+    void testStandbyTakesOverAndPausedPrimaryFencesItself() throws InterruptedException {
+        long tableId = tableReplicatedFromTo("a", "b");
+        replicators.get("a").onCheckpoint(new TableCheckpointEvent(tableId, 20, CHECKPOINT));
+        replicators.get("a").onHandStarted(new HandStartedEvent(tableId, newHand(1)));
+        replicators.get("a").onHandAction(new HandActionEvent(tableId, 1,
+                new HandInFlight.Action(0, ActionType.CALL, null)));
+        awaitTrue(() -> meterRegistries.get("b").get("spade.cluster.replication.lag").timer().count() == 3);
+        assertEquals(1, replicators.get("b").getReplica(tableId).getHandState().toAct());
+
+        // Heartbeats keep the table where it is, and a node never heard from is not timed out
+        Thread.sleep(600);
+        verify(sessionManagers.get("b"), never()).adopt(any());
+        assertEquals(List.of("a", "b", "c"), nodes.get("b").getRingNodeIds());
+
+        // A pause: no heartbeats, but still listening
+        replicators.get("a").stop();
+
+        // The hand in flight is played on from the call
+        verify(sessionManagers.get("b"), timeout(2000)).adopt(argThat(handover ->
+                handover.tableId().equals(tableId) && handover.running() &&
+                        Arrays.equals(handover.snapshot(), CHECKPOINT) &&
+                        handover.hand().roundNumber() == 1 && Arrays.equals(handover.hand().deck(), DECK) &&
+                        handover.hand().actions().equals(List.of(new HandInFlight.Action(0, ActionType.CALL, null)))));
+        awaitTrue(() -> meterRegistries.get("b").get("spade.cluster.promotions").counter().count() == 1);
+        assertEquals(1.0, meterRegistries.get("b").get("spade.cluster.promotions").counter().count());
+        assertEquals(List.of("b", "c"), nodes.get("b").getRingNodeIds());
+        assertTrue(nodes.get("b").isLocal(tableId));
+
+        verify(sessionManagers.get("a"), timeout(2000)).abandonResidentTables();
+        assertTrue(nodes.get("a").isFenced());
+        assertFalse(nodes.get("a").isLocal(tableId));
+    }
+
+    /**
+     * Three seats of 1000 chips, blinds of 10 and 20 posted by the second and third seat
+     */
+    private static HandInFlight newHand(int roundNumber) {
+        return new HandInFlight(roundNumber, new long[]{1, 2, 3}, new int[]{1000, 1000, 1000}, 1, 2, 10, 20, DECK,
+                List.of());
+    }
+
+    private long tableReplicatedFromTo(String primary, String standby) {
+        long tableId = 1;
+        while (!nodes.get(primary).isLocal(tableId) || !standby.equals(nodes.get(primary).standbyOf(tableId))) {
+            tableId++;
+        }
+        return tableId;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
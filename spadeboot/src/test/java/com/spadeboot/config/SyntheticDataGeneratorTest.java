@@ -0,0 +1,87 @@
+package com.spadeboot.config;
+
+import com.spadeboot.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generates a small synthetic dataset and checks that it is consistent the same way real
+ * data has to be: the ledger balances, balances and stacks match their ledger accounts and
+ * no friendship exists twice.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.synthetic.users=2000",
+        "app.synthetic.hands=3000",
+        "app.synthetic.batch-size=300",
+        "app.synthetic.workers=4"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("synthetic")
+@Import({SyntheticDataGenerator.class, SyntheticDataGeneratorTest.PasswordConfig.class})
+class SyntheticDataGeneratorTest {
+
+    private static final int USERS = 2000;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @TestConfiguration
+    static class PasswordConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Test
+    void testGeneratesConsistentDatasetOnce() throws Exception {
+        // When
+        generator.run();
+        generator.run();
+
+        // Then
+        assertEquals(USERS, count("SELECT COUNT(*) FROM users WHERE username LIKE 'synth%'"));
+        assertEquals(USERS, count("SELECT COUNT(*) FROM players"));
+        assertEquals(USERS * 10, count("SELECT COUNT(*) FROM friendships"));
+        assertEquals(USERS * 10, count("SELECT COUNT(DISTINCT LEAST(requester_id, addressee_id) * 100000 + " +
+                "GREATEST(requester_id, addressee_id)) FROM friendships"));
+        assertTrue(count("SELECT COUNT(*) FROM player_statistics") > 0);
+
+        assertTrue(ledgerEntryRepository.findUnbalancedTransfers().isEmpty());
+        assertEquals(0, count("SELECT COUNT(*) FROM users u WHERE u.balance <> " +
+                "(SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account = 'USER_BALANCE' AND e.account_id = u.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM players p WHERE p.current_table_id IS NOT NULL AND p.chips <> " +
+                "(SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account = 'TABLE_STACK' AND e.account_id = p.user_id)"));
+
+        // The next user created normally must not collide with a generated ID
+        jdbcTemplate.update("INSERT INTO users (username, email, balance, abs_investment, role) " +
+                "VALUES ('late', 'late@example.com', 0, 0, 'ROLE_USER')");
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.spadeboot.engine;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.domain.game.StageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandReducerTest {
+
+    private static final int SMALL_BLIND = 5;
+    private static final int BIG_BLIND = 10;
+
+    @Test
+    void testStartPostsBlindsAndTurnFollowsBigBlind() {
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, SMALL_BLIND, BIG_BLIND);
+
+        assertEquals(StageType.PRE_FLOP, state.stage());
+        assertEquals(15, state.pot());
+        assertEquals(BIG_BLIND, state.currentBet());
+        assertEquals(995, state.stack(1));
+        assertEquals(990, state.stack(2));
+        assertEquals(0, state.toAct());
+    }
+
+    @Test
+    void testBigBlindGetsOptionThenFlopStartsAtSmallBlind() {
+        // Heads-up, the dealer posts the small blind
+        HandState state = HandReducer.start(new int[]{1000, 1000}, 0, 1, SMALL_BLIND, BIG_BLIND);
+
+        state = apply(state, 0, ActionType.CALL, null);
+        assertEquals(StageType.PRE_FLOP, state.stage());
+        assertEquals(1, state.toAct());
+
+        state = apply(state, 1, ActionType.CHECK, null);
+        assertEquals(StageType.FLOP, state.stage());
+        assertEquals(0, state.toAct());
+        assertEquals(0, state.currentBet());
+        assertEquals(20, state.pot());
+    }
+
+    @Test
+    void testRejectionsLeaveStateUntouched() {
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, SMALL_BLIND, BIG_BLIND);
+
+        assertEquals("It's not your turn", HandReducer.apply(state, 1, ActionType.FOLD, null).rejection());
+        assertFalse(HandReducer.apply(state, 0, ActionType.CHECK, null).isAccepted());
+        assertEquals("Minimum raise is 10", HandReducer.apply(state, 0, ActionType.RAISE, 5).rejection());
+        assertEquals("Insufficient chips for raise", HandReducer.apply(state, 0, ActionType.RAISE, 995).rejection());
+        assertEquals(0, state.toAct());
+        assertEquals(15, state.pot());
+    }
+
+    @Test
+    void testRaiseReopensBetting() {
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, SMALL_BLIND, BIG_BLIND);
+
+        state = apply(state, 0, ActionType.CALL, null);
+        state = apply(state, 1, ActionType.CALL, null);
+        state = apply(state, 2, ActionType.RAISE, 30);
+        assertEquals(40, state.currentBet());
+        assertEquals(0, state.toAct());
+
+        state = apply(state, 0, ActionType.CALL, null);
+        state = apply(state, 1, ActionType.CALL, null);
+        assertEquals(StageType.FLOP, state.stage());
+        assertEquals(120, state.pot());
+        assertEquals(1, state.toAct());
+    }
+
+    @Test
+    void testFoldingToOnePlayerEndsHandWithoutShowdown() {
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, SMALL_BLIND, BIG_BLIND);
+
+        state = apply(state, 0, ActionType.FOLD, null);
+        state = apply(state, 1, ActionType.FOLD, null);
+
+        assertTrue(state.isHandOver());
+        assertFalse(state.isShowdown());
+        assertEquals(-1, state.toAct());
+        assertFalse(HandReducer.apply(state, 2, ActionType.CHECK, null).isAccepted());
+    }
+
+    @Test
+    void testAllInAndCallRunsOutToShowdown() {
+        HandState state = HandReducer.start(new int[]{300, 1000}, 0, 1, SMALL_BLIND, BIG_BLIND);
+
+        state = apply(state, 0, ActionType.ALL_IN, null);
+        assertEquals(1, state.toAct());
+        state = apply(state, 1, ActionType.CALL, null);
+
+        assertTrue(state.isShowdown());
+        assertEquals(StageType.RIVER, state.stage());
+        assertEquals(600, state.pot());
+        assertEquals(700, state.stack(1));
+    }
+
+    @Test
+    void testRandomPlayConservesChipsAndTerminates() {
+        SplittableRandom random = new SplittableRandom(42);
+        ActionType[] actions = ActionType.values();
+
+        for (int hand = 0; hand < 20_000; hand++) {
+            int seats = 2 + random.nextInt(8);
+            int[] stacks = new int[seats];
+            int total = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                stacks[seat] = 1 + random.nextInt(2000);
+                total += stacks[seat];
+            }
+
+            HandState state = HandReducer.start(stacks, 0, 1 % seats, SMALL_BLIND, BIG_BLIND);
+            int steps = 0;
+            while (!state.isHandOver()) {
+                assertTrue(++steps < 1000, "Hand did not terminate");
+                Transition transition = HandReducer.apply(state, state.toAct(),
+                        actions[random.nextInt(actions.length)], BIG_BLIND + random.nextInt(100));
+                if (transition.isAccepted()) {
+                    state = transition.state();
+                }
+            }
+
+            int chips = state.pot();
+            for (int seat = 0; seat < seats; seat++) {
+                chips += state.stack(seat);
+                assertTrue(state.stack(seat) >= 0);
+            }
+            assertEquals(total, chips);
+        }
+    }
+
+    private static HandState apply(HandState state, int seat, ActionType action, Integer amount) {
+        Transition transition = HandReducer.apply(state, seat, action, amount);
+        assertTrue(transition.isAccepted(), transition.rejection());
+        return transition.state();
+    }
+}
@@ -0,0 +1,54 @@
+package com.spadeboot.engine;
+
+import com.spadeboot.api.dto.PlayerActionDto.ActionType;
+import com.spadeboot.api.dto.PreActionDto.PreActionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreActionTest {
+
+    @Test
+    void testConditionalPreActionsFollowTheBet() {
+        // Seat 0 is first to act, seat 2 queues before its turn
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, 5, 10);
+        PreAction checkFold = PreAction.of(PreActionType.CHECK_FOLD, state);
+        PreAction callAny = PreAction.of(PreActionType.CALL_ANY, state);
+
+        state = HandReducer.apply(state, 0, ActionType.RAISE, 40).state();
+        state = HandReducer.apply(state, 1, ActionType.CALL, null).state();
+
+        assertEquals(2, state.toAct());
+        assertEquals(ActionType.FOLD, checkFold.resolve(state, 2));
+        assertEquals(ActionType.CALL, callAny.resolve(state, 2));
+    }
+
+    @Test
+    void testFixedPreActionsAreDroppedWhenTheBetChanges() {
+        HandState state = HandReducer.start(new int[]{1000, 1000, 1000}, 1, 2, 5, 10);
+        PreAction check = PreAction.of(PreActionType.CHECK, state);
+        PreAction call = PreAction.of(PreActionType.CALL, state);
+
+        HandState limped = HandReducer.apply(state, 0, ActionType.CALL, null).state();
+        limped = HandReducer.apply(limped, 1, ActionType.CALL, null).state();
+        assertEquals(ActionType.CHECK, check.resolve(limped, 2));
+        assertEquals(ActionType.CHECK, call.resolve(limped, 2));
+
+        HandState raised = HandReducer.apply(state, 0, ActionType.RAISE, 20).state();
+        raised = HandReducer.apply(raised, 1, ActionType.CALL, null).state();
+        assertNull(check.resolve(raised, 2));
+        assertNull(call.resolve(raised, 2));
+    }
+
+    @Test
+    void testPreActionOnlyAppliesOnItsStreetAndTurn() {
+        HandState state = HandReducer.start(new int[]{1000, 1000}, 0, 1, 5, 10);
+        PreAction callAny = PreAction.of(PreActionType.CALL_ANY, state);
+
+        assertNull(callAny.resolve(state, 1));
+
+        state = HandReducer.apply(state, 0, ActionType.CALL, null).state();
+        state = HandReducer.apply(state, 1, ActionType.CHECK, null).state();
+        assertNull(callAny.resolve(state, state.toAct()));
+    }
+}
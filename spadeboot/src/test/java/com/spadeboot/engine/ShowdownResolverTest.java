@@ -0,0 +1,129 @@
+package com.spadeboot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowdownResolverTest {
+
+    @Test
+    void testShortAllInOnlyWinsMainPot() {
+        // Seat 0 all-in for 100 with the best hand, seats 1 and 2 play on to 300, seat 3 folds after 50
+        int[] contributions = {100, 300, 300, 50};
+        long[] ranks = {9, 5, 7, 0};
+
+        List<ShowdownResolver.Pot> pots = ShowdownResolver.resolve(contributions, 0b1000, ranks, 1);
+
+        assertEquals(2, pots.size());
+        assertEquals(350, pots.get(0).amount());
+        assertArrayEquals(new int[]{0}, pots.get(0).winners());
+        assertEquals(400, pots.get(1).amount());
+        assertArrayEquals(new int[]{2}, pots.get(1).winners());
+        assertArrayEquals(new int[]{350, 0, 400, 0}, ShowdownResolver.payouts(pots, 4));
+    }
+
+    @Test
+    void testUncalledChipsGoBack() {
+        int[] contributions = {500, 200, 10};
+
+        List<ShowdownResolver.Pot> pots = ShowdownResolver.resolve(contributions, 0b100, new long[]{1, 2, 0}, 0);
+
+        assertEquals(2, pots.size());
+        assertFalse(pots.get(0).uncalled());
+        assertArrayEquals(new int[]{1}, pots.get(0).winners());
+        assertEquals(410, pots.get(0).amount());
+        assertTrue(pots.get(1).uncalled());
+        assertArrayEquals(new int[]{300}, pots.get(1).amounts());
+    }
+
+    @Test
+    void testOddChipsGoLeftOfButtonFirst() {
+        // Seats 0 and 2 split 75 chips, seat 2 is first left of the button
+        int[] contributions = {25, 25, 25};
+
+        ShowdownResolver.Pot pot = ShowdownResolver.resolve(contributions, 0, new long[]{4, 1, 4}, 2).get(0);
+
+        assertArrayEquals(new int[]{2, 0}, pot.winners());
+        assertArrayEquals(new int[]{38, 37}, pot.amounts());
+    }
+
+    @Test
+    void testRandomAllInsConserveChips() {
+        SplittableRandom random = new SplittableRandom(43);
+        for (int scenario = 0; scenario < 1_000_000; scenario++) {
+            int seats = 2 + random.nextInt(9);
+            int[] contributions = new int[seats];
+            long[] ranks = new long[seats];
+            int foldedMask = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                // Few distinct amounts and ranks, so levels and ties are shared often
+                contributions[seat] = random.nextInt(6) * random.nextInt(1, 50);
+                ranks[seat] = random.nextInt(4);
+                if (random.nextInt(3) == 0) {
+                    foldedMask |= 1 << seat;
+                }
+            }
+            int live = random.nextInt(seats);
+            foldedMask &= ~(1 << live);
+            contributions[live] = Math.max(1, contributions[live]);
+            int oddChipSeat = random.nextInt(seats);
+
+            assertConsistent(contributions, foldedMask, ranks, oddChipSeat,
+                    ShowdownResolver.resolve(contributions, foldedMask, ranks, oddChipSeat));
+        }
+    }
+
+    private static void assertConsistent(int[] contributions, int foldedMask, long[] ranks, int oddChipSeat,
+                                         List<ShowdownResolver.Pot> pots) {
+        int seats = contributions.length;
+        int total = 0;
+        for (int contribution : contributions) {
+            total += contribution;
+        }
+
+        int potTotal = 0;
+        for (ShowdownResolver.Pot pot : pots) {
+            int[] winners = pot.winners();
+            int[] amounts = pot.amounts();
+            assertTrue(winners.length > 0);
+
+            int paid = 0;
+            int previousDistance = -1;
+            for (int i = 0; i < winners.length; i++) {
+                int seat = winners[i];
+                assertEquals(0, foldedMask & (1 << seat), "folded seat won");
+                assertEquals(ranks[winners[0]], ranks[seat]);
+
+                // Larger shares first, in odd chip order, never more than one chip apart
+                int distance = Math.floorMod(seat - oddChipSeat, seats);
+                assertTrue(distance > previousDistance);
+                assertTrue(amounts[i] <= amounts[0] && amounts[0] - amounts[i] <= 1);
+                previousDistance = distance;
+                paid += amounts[i];
+            }
+            assertEquals(pot.amount(), paid);
+            potTotal += pot.amount();
+        }
+        assertEquals(total, potTotal);
+
+        // A seat wins at most what it covered from everyone, folded chips above its level go to the last pot
+        int[] payouts = ShowdownResolver.payouts(pots, seats);
+        int topLive = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            if ((foldedMask & (1 << seat)) == 0) {
+                topLive = Math.max(topLive, contributions[seat]);
+            }
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            int covered = 0;
+            for (int other = 0; other < seats; other++) {
+                int cap = contributions[seat] == topLive ? contributions[other] : contributions[seat];
+                covered += Math.min(contributions[other], cap);
+            }
+            assertTrue(payouts[seat] <= covered, "seat " + seat + " won more than it covered");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.spadeboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One scripted player: a logged in user with its own STOMP connection, subscribed to its
+ * table like the web client. Measures the time from sending an action to receiving the
+ * broadcast of that action on the table topic.
+ */
+class BotClient {
+
+    // The endpoint only accepts the web client's origins
+    private static final String ORIGIN = "http://localhost:3000";
+
+    final String username;
+    final String token;
+    final long tableId;
+
+    private final LoadTestMetrics metrics;
+    private TableDriver driver;
+    private StompSession session;
+
+    // Engine player ID, learned from the first game state
+    private volatile Long playerId;
+    // System.nanoTime() of the action waiting for its broadcast, 0 if none
+    private volatile long actionSentAt;
+
+    BotClient(String username, String token, long tableId, LoadTestMetrics metrics) {
+        this.username = username;
+        this.token = token;
+        this.tableId = tableId;
+        this.metrics = metrics;
+    }
+
+    void connect(WebSocketStompClient stompClient, String url, TableDriver driver) throws Exception {
+        this.driver = driver;
+
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.setOrigin(ORIGIN);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+
+        session = stompClient.connectAsync(url, handshakeHeaders, connectHeaders, new SessionHandler())
+                .get(30, TimeUnit.SECONDS);
+        session.subscribe("/topic/tables/" + tableId, new FrameHandler(this::onTableEvent));
+        session.subscribe("/user/queue/errors", new FrameHandler(this::onError));
+        session.send("/app/game/" + tableId + "/connect", Map.of());
+    }
+
+    void sendAction(String action, Integer amount) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("action", action);
+        payload.put("amount", amount);
+
+        actionSentAt = System.nanoTime();
+        metrics.actionsSent.increment();
+        try {
+            session.send("/app/game/" + tableId + "/action", payload);
+        } catch (RuntimeException e) {
+            actionSentAt = 0;
+            metrics.transportErrors.increment();
+        }
+    }
+
+    /**
+     * Give up on an action that was never broadcast
+     * @return Whether an action was pending for longer than the timeout
+     */
+    boolean expireAction(long timeoutNanos) {
+        long sentAt = actionSentAt;
+        if (sentAt != 0 && System.nanoTime() - sentAt > timeoutNanos) {
+            actionSentAt = 0;
+            metrics.actionsTimedOut.increment();
+            return true;
+        }
+        return false;
+    }
+
+    boolean hasPendingAction() {
+        return actionSentAt != 0;
+    }
+
+    Long getPlayerId() {
+        return playerId;
+    }
+
+    void setPlayerId(Long playerId) {
+        this.playerId = playerId;
+    }
+
+    void disconnect() {
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    private void onTableEvent(JsonNode event) {
+        String type = event.path("type").asText();
+        long sentAt = actionSentAt;
+        if (sentAt != 0 && "PLAYER_ACTION".equals(type) && playerId != null
+                && event.path("message").asText().startsWith("Player " + playerId + ":")) {
+            actionSentAt = 0;
+            metrics.recordLatency(System.nanoTime() - sentAt);
+        }
+        driver.onTableEvent(this, type);
+    }
+
+    private void onError(JsonNode event) {
+        if (actionSentAt != 0) {
+            actionSentAt = 0;
+            metrics.actionsRejected.increment();
+        }
+    }
+
+    private class SessionHandler extends StompSessionHandlerAdapter {
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            metrics.transportErrors.increment();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            metrics.transportErrors.increment();
+        }
+    }
+
+    private record FrameHandler(Consumer<JsonNode> consumer) implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            consumer.accept((JsonNode) payload);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.spadeboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The REST calls a bot makes, the same ones the web client uses
+ */
+class LoadTestApi {
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LoadTestMetrics metrics;
+
+    LoadTestApi(String baseUrl, ObjectMapper objectMapper, LoadTestMetrics metrics) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void register(String username, String password) throws IOException, InterruptedException {
+        post("/api/users/register", null, Map.of(
+                "username", username, "password", password, "email", username + "@loadtest.spade.com"));
+    }
+
+    /**
+     * @return The JWT of the user
+     */
+    String login(String username, String password) throws IOException, InterruptedException {
+        return post("/api/users/login", null, Map.of("username", username, "password", password))
+                .get("token").asText();
+    }
+
+    long createTable(String token, String name, int maxPlayers, int minBuyIn, int maxBuyIn)
+            throws IOException, InterruptedException {
+        return post("/api/tables", token, Map.of(
+                "name", name, "description", "Load test", "maxPlayers", maxPlayers,
+                "minBuyIn", minBuyIn, "maxBuyIn", maxBuyIn, "isPrivate", true))
+                .get("id").asLong();
+    }
+
+    void joinTable(String token, long tableId, int buyIn) throws IOException, InterruptedException {
+        post("/api/tables/" + tableId + "/join?buyIn=" + buyIn, token, null);
+    }
+
+    void startGame(String token, long tableId, int bigBlind) throws IOException, InterruptedException {
+        post("/api/games/tables/" + tableId + "/start?bigBlind=" + bigBlind, token, null);
+    }
+
+    void endGame(String token, long tableId) throws IOException, InterruptedException {
+        post("/api/games/tables/" + tableId + "/end", token, null);
+    }
+
+    /**
+     * Game state of a table, completes with null if the table has no running game
+     */
+    CompletableFuture<JsonNode> gameState(String token, long tableId) {
+        metrics.statusPolls.increment();
+        HttpRequest request = request("/api/games/tables/" + tableId + "/status", token).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        metrics.httpErrors.increment();
+                        return null;
+                    }
+                    JsonNode body = readTree(response.body());
+                    return body.path("success").asBoolean() ? body.get("gameState") : null;
+                })
+                .exceptionally(e -> {
+                    metrics.httpErrors.increment();
+                    return null;
+                });
+    }
+
+    private JsonNode post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(publisher)
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            metrics.httpErrors.increment();
+            throw new IllegalStateException("POST " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.createObjectNode() : readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response: " + body, e);
+        }
+    }
+}
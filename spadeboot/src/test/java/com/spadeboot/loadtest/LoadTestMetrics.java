@@ -0,0 +1,87 @@
+package com.spadeboot.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and the action to broadcast latency histogram of a run. Bots record from many
+ * threads, the recorder hands out interval histograms without stopping them.
+ */
+class LoadTestMetrics {
+
+    // Up to one minute at three significant digits
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private Histogram interval;
+
+    final LongAdder actionsSent = new LongAdder();
+    final LongAdder actionsBroadcast = new LongAdder();
+    final LongAdder actionsRejected = new LongAdder();
+    final LongAdder actionsTimedOut = new LongAdder();
+    final LongAdder statusPolls = new LongAdder();
+    final LongAdder httpErrors = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+
+    void recordLatency(long nanos) {
+        recorder.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        actionsBroadcast.increment();
+    }
+
+    /**
+     * Print the percentiles of the last interval and fold it into the total
+     */
+    synchronized void reportInterval(PrintStream out, long elapsedSeconds) {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        out.printf("[%4ds] %6d actions  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  rejected %d  timed out %d%n",
+                elapsedSeconds, interval.getTotalCount(),
+                millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                millis(interval.getMaxValue()), actionsRejected.sum(), actionsTimedOut.sum());
+    }
+
+    synchronized void reportTotal(PrintStream out, double seconds) {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+
+        long sent = actionsSent.sum();
+        long failed = actionsRejected.sum() + actionsTimedOut.sum();
+        out.println("=== Load test summary ===");
+        out.printf("Actions sent %d, broadcast %d, rejected %d, timed out %d%n",
+                sent, actionsBroadcast.sum(), actionsRejected.sum(), actionsTimedOut.sum());
+        out.printf("Throughput %.1f actions/s, error rate %.3f%%%n",
+                actionsBroadcast.sum() / seconds, sent > 0 ? 100.0 * failed / sent : 0.0);
+        out.printf("Status polls %d, HTTP errors %d, transport errors %d%n",
+                statusPolls.sum(), httpErrors.sum(), transportErrors.sum());
+        out.printf("Action -> broadcast latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue()));
+    }
+
+    /**
+     * Write the full percentile distribution in microseconds, readable by the HdrHistogram plotter
+     */
+    synchronized void writeDistribution(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            total.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    synchronized Histogram getTotal() {
+        return total.copy();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
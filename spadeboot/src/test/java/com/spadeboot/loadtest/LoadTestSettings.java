@@ -0,0 +1,22 @@
+package com.spadeboot.loadtest;
+
+/**
+ * Shape of a load test run, read from system properties so runs can be scaled from the
+ * command line, e.g. {@code -Dloadtest=true -Dloadtest.tables=2000 -Dloadtest.duration-seconds=300}
+ */
+record LoadTestSettings(int tables, int playersPerTable, int durationSeconds, int bigBlind, int buyIn,
+                        long pollIntervalMs, long actionTimeoutMs, long thinkTimeMs, int setupThreads) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.tables", 50),
+                Integer.getInteger("loadtest.players-per-table", 4),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.big-blind", 10),
+                Integer.getInteger("loadtest.buy-in", 1000),
+                Long.getLong("loadtest.poll-interval-ms", 200),
+                Long.getLong("loadtest.action-timeout-ms", 5000),
+                Long.getLong("loadtest.think-time-ms", 0),
+                Integer.getInteger("loadtest.setup-threads", 32));
+    }
+}
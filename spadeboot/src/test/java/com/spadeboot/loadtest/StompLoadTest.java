@@ -0,0 +1,177 @@
+package com.spadeboot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays many tables at once with scripted bots that use the real REST and STOMP endpoints,
+ * against a server started on a random port with an in-memory database. Reports the action
+ * to broadcast latency percentiles, throughput and error rates, and writes the latency
+ * distribution to target/loadtest. Only runs with -Dloadtest=true, see {@link LoadTestSettings}
+ * for the knobs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.jwt.secret=load-test-secret-load-test-secret-load-test-secret",
+        "app.jwt.expirationMs=86400000",
+        "spotify.client-id=unused",
+        "spotify.client-secret=unused",
+        "spotify.redirect-uri=http://localhost/unused",
+        "spotify.redirect-view=http://localhost/unused"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class StompLoadTest {
+
+    private static final String PASSWORD = "loadtest123";
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void playManyTablesConcurrently() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadTestMetrics metrics = new LoadTestMetrics();
+        LoadTestApi api = new LoadTestApi("http://localhost:" + port, objectMapper, metrics);
+        String wsUrl = "ws://localhost:" + port + "/ws";
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.initialize();
+        stompClient.setTaskScheduler(heartbeatScheduler);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+        List<TableDriver> drivers = Collections.synchronizedList(new ArrayList<>());
+        List<BotClient> allBots = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            // Set up all tables in parallel, the way the web client would one by one
+            long setupStart = System.nanoTime();
+            ExecutorService setup = Executors.newFixedThreadPool(settings.setupThreads());
+            List<Future<TableDriver>> tables = new ArrayList<>();
+            for (int t = 0; t < settings.tables(); t++) {
+                int tableIndex = t;
+                tables.add(setup.submit(() -> setUpTable(tableIndex, settings, api, metrics, stompClient, wsUrl,
+                        scheduler, allBots)));
+            }
+            int failedTables = 0;
+            for (Future<TableDriver> table : tables) {
+                try {
+                    drivers.add(table.get());
+                } catch (Exception e) {
+                    failedTables++;
+                }
+            }
+            setup.shutdown();
+            System.out.printf("Set up %d tables with %d bots in %d ms, %d failed%n", drivers.size(), allBots.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - setupStart), failedTables);
+            assertFalse(drivers.isEmpty(), "No table could be set up");
+
+            // Play
+            List<ScheduledFuture<?>> ticks = new ArrayList<>();
+            for (TableDriver driver : drivers) {
+                ticks.add(scheduler.scheduleWithFixedDelay(driver::poll,
+                        ThreadLocalRandom.current().nextLong(settings.pollIntervalMs()),
+                        settings.pollIntervalMs(), TimeUnit.MILLISECONDS));
+            }
+            long playStart = System.nanoTime();
+            for (int second = 1; second <= settings.durationSeconds(); second++) {
+                Thread.sleep(1000);
+                metrics.reportInterval(System.out, second);
+            }
+            double playedSeconds = (System.nanoTime() - playStart) / 1e9;
+            ticks.forEach(tick -> tick.cancel(false));
+
+            long finishedTables = drivers.stream().filter(TableDriver::isGameOver).count();
+            System.out.printf("%d of %d tables still playing at the end%n", drivers.size() - finishedTables, drivers.size());
+            metrics.reportTotal(System.out, playedSeconds);
+            metrics.writeDistribution(Path.of("target", "loadtest", "action-broadcast-latency.hgrm"));
+
+            long sent = metrics.actionsSent.sum();
+            assertTrue(metrics.actionsBroadcast.sum() > 0, "No action was broadcast");
+            double errorRate = (double) (metrics.actionsRejected.sum() + metrics.actionsTimedOut.sum()) / sent;
+            assertTrue(errorRate <= MAX_ERROR_RATE, "Error rate " + errorRate + " above " + MAX_ERROR_RATE);
+        } finally {
+            scheduler.shutdownNow();
+            for (TableDriver driver : drivers) {
+                endGameQuietly(api, allBots, driver.tableId);
+            }
+            allBots.forEach(BotClient::disconnect);
+            stompClient.stop();
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    private TableDriver setUpTable(int tableIndex, LoadTestSettings settings, LoadTestApi api, LoadTestMetrics metrics,
+                                   WebSocketStompClient stompClient, String wsUrl, ScheduledExecutorService scheduler,
+                                   List<BotClient> allBots) throws Exception {
+        List<String> tokens = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (int p = 0; p < settings.playersPerTable(); p++) {
+            String username = "bot" + tableIndex + "_" + p;
+            api.register(username, PASSWORD);
+            tokens.add(api.login(username, PASSWORD));
+            usernames.add(username);
+        }
+
+        String ownerToken = tokens.get(0);
+        long tableId = api.createTable(ownerToken, "Load test " + tableIndex, settings.playersPerTable(),
+                settings.buyIn(), settings.buyIn());
+
+        List<BotClient> bots = new ArrayList<>();
+        for (int p = 0; p < tokens.size(); p++) {
+            api.joinTable(tokens.get(p), tableId, settings.buyIn());
+            bots.add(new BotClient(usernames.get(p), tokens.get(p), tableId, metrics));
+        }
+
+        TableDriver driver = new TableDriver(tableId, bots, api, settings, scheduler, tableIndex);
+        for (BotClient bot : bots) {
+            bot.connect(stompClient, wsUrl, driver);
+            allBots.add(bot);
+        }
+        api.startGame(ownerToken, tableId, settings.bigBlind());
+        return driver;
+    }
+
+    private void endGameQuietly(LoadTestApi api, List<BotClient> bots, long tableId) {
+        // The owner is the first bot of the table
+        bots.stream().filter(bot -> bot.tableId == tableId).findFirst().ifPresent(owner -> {
+            try {
+                api.endGame(owner.token, tableId);
+            } catch (Exception e) {
+                // Game already over
+            }
+        });
+    }
+}
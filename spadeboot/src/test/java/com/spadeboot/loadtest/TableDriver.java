@@ -0,0 +1,179 @@
+package com.spadeboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plays one table. The engine does not announce whose turn it is, so the driver reads the
+ * game state after every broadcast (and on a timer as a fallback) and lets the bot whose
+ * turn it is act. A bot that has acted waits until the engine has moved on, so an action is
+ * never sent twice for the same turn.
+ */
+class TableDriver {
+
+    final long tableId;
+    private final List<BotClient> bots;
+    private final LoadTestApi api;
+    private final LoadTestSettings settings;
+    private final ScheduledExecutorService scheduler;
+    private final SplittableRandom random;
+
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+    private final AtomicBoolean pollAgain = new AtomicBoolean(false);
+
+    // Last player that acted and the round and stage it acted in
+    private Long lastActor;
+    private String lastActorStage;
+    private volatile boolean gameOver;
+
+    TableDriver(long tableId, List<BotClient> bots, LoadTestApi api, LoadTestSettings settings,
+                ScheduledExecutorService scheduler, long seed) {
+        this.tableId = tableId;
+        this.bots = bots;
+        this.api = api;
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.random = new SplittableRandom(seed);
+    }
+
+    boolean isGameOver() {
+        return gameOver;
+    }
+
+    void onTableEvent(BotClient receiver, String type) {
+        // Every bot receives every broadcast, the first one to arrive triggers the poll
+        if ("GAME_ENDED".equals(type)) {
+            gameOver = true;
+        } else if (receiver == bots.get(0)) {
+            poll();
+        }
+    }
+
+    /**
+     * Read the game state and act if it is a bot's turn. At most one poll per table runs at a
+     * time, a poll requested meanwhile runs once the current one is done.
+     */
+    void poll() {
+        if (gameOver) {
+            return;
+        }
+        if (!polling.compareAndSet(false, true)) {
+            pollAgain.set(true);
+            return;
+        }
+
+        api.gameState(bots.get(0).token, tableId).whenComplete((state, error) -> {
+            try {
+                if (state != null) {
+                    act(state);
+                }
+            } finally {
+                polling.set(false);
+                if (pollAgain.getAndSet(false)) {
+                    poll();
+                }
+            }
+        });
+    }
+
+    private synchronized void act(JsonNode state) {
+        // Not active before the first hand means the session thread has not started yet
+        if (!state.path("gameActive").asBoolean(true) && state.path("roundNumber").asInt() > 0) {
+            gameOver = true;
+            return;
+        }
+        learnPlayerIds(state);
+
+        JsonNode turn = state.get("currentPlayerTurn");
+        if (turn == null || turn.isNull()) {
+            return;
+        }
+        long playerId = turn.asLong();
+        String stage = state.path("roundNumber").asInt() + ":" + state.path("currentStage").asText();
+
+        BotClient bot = findBot(playerId);
+        if (bot == null) {
+            return;
+        }
+        if (bot.hasPendingAction()) {
+            bot.expireAction(TimeUnit.MILLISECONDS.toNanos(settings.actionTimeoutMs()));
+            return;
+        }
+        if (Long.valueOf(playerId).equals(lastActor) && stage.equals(lastActorStage)) {
+            // The engine has not applied the last action yet
+            return;
+        }
+
+        JsonNode self = findPlayerState(state, playerId);
+        if (self == null || self.path("chips").asInt() <= 0) {
+            return;
+        }
+        lastActor = playerId;
+        lastActorStage = stage;
+
+        int toCall = state.path("currentBet").asInt() - self.path("currentBet").asInt();
+        int chips = self.path("chips").asInt();
+        Runnable send = decide(bot, toCall, chips);
+        if (settings.thinkTimeMs() > 0) {
+            scheduler.schedule(send, random.nextLong(settings.thinkTimeMs() + 1), TimeUnit.MILLISECONDS);
+        } else {
+            send.run();
+        }
+    }
+
+    /**
+     * Loose-passive script: mostly checks and calls, sometimes raises the minimum or folds
+     */
+    private Runnable decide(BotClient bot, int toCall, int chips) {
+        int bigBlind = settings.bigBlind();
+        double roll = random.nextDouble();
+        if (toCall <= 0) {
+            return roll < 0.15 && chips > bigBlind
+                    ? () -> bot.sendAction("RAISE", bigBlind)
+                    : () -> bot.sendAction("CHECK", null);
+        }
+        if (roll < 0.15) {
+            return () -> bot.sendAction("FOLD", null);
+        }
+        if (roll < 0.25 && chips > toCall + bigBlind) {
+            return () -> bot.sendAction("RAISE", bigBlind);
+        }
+        return () -> bot.sendAction("CALL", null);
+    }
+
+    private void learnPlayerIds(JsonNode state) {
+        for (BotClient bot : bots) {
+            if (bot.getPlayerId() != null) {
+                continue;
+            }
+            for (JsonNode player : state.path("players")) {
+                if (bot.username.equals(player.path("username").asText())) {
+                    bot.setPlayerId(player.path("playerId").asLong());
+                }
+            }
+        }
+    }
+
+    private BotClient findBot(long playerId) {
+        for (BotClient bot : bots) {
+            if (Long.valueOf(playerId).equals(bot.getPlayerId())) {
+                return bot;
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode findPlayerState(JsonNode state, long playerId) {
+        for (JsonNode player : state.path("players")) {
+            if (player.path("playerId").asLong() == playerId) {
+                return player;
+            }
+        }
+        return null;
+    }
+}
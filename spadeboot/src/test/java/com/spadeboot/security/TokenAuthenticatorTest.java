@@ -0,0 +1,173 @@
+package com.spadeboot.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenAuthenticatorTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    private JwtUtils jwtUtils;
+    private UserDetailsServiceImpl userDetailsService;
+    private TokenAuthenticator tokenAuthenticator;
+
+    private final UserDetailsImpl alice = new UserDetailsImpl(7L, "alice", "alice@example.com", "hash",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        jwtUtils.init();
+
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+
+        tokenAuthenticator = new TokenAuthenticator();
+        ReflectionTestUtils.setField(tokenAuthenticator, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(tokenAuthenticator, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(tokenAuthenticator, "maxCachedTokens", 100);
+    }
+
+    @Test
+    void authenticate_usesClaimsWithoutLoadingUser() {
+        UserDetailsImpl principal = tokenAuthenticator.authenticate(token());
+
+        assertEquals(7L, principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void authenticate_loadsUserForTokensWithoutClaims() {
+        // Issued before user ID and roles were added to the token
+        String legacyToken = Jwts.builder()
+                .subject("alice")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertSame(alice, tokenAuthenticator.authenticate(legacyToken));
+        assertSame(alice, tokenAuthenticator.authenticate(legacyToken));
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void authenticate_rejectsForeignAndExpiredTokens() {
+        SecretKey otherKey = Keys.hmacShaKeyFor("another-secret-another-secret-another-secret".getBytes(StandardCharsets.UTF_8));
+        String foreign = Jwts.builder().subject("alice").issuedAt(new Date()).signWith(otherKey).compact();
+        String expired = Jwts.builder().subject("alice")
+                .issuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertNull(tokenAuthenticator.authenticate(foreign));
+        assertNull(tokenAuthenticator.authenticate(expired));
+        assertNull(tokenAuthenticator.authenticate("not-a-token"));
+    }
+
+    @Test
+    void invalidateUser_distrustsRoleClaimsOfOlderTokens() {
+        String token = token();
+        tokenAuthenticator.authenticate(token);
+
+        UserDetailsImpl promoted = new UserDetailsImpl(7L, "alice", "alice@example.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(promoted);
+        tokenAuthenticator.invalidateUser(7L);
+
+        assertSame(promoted, tokenAuthenticator.authenticate(token));
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+
+    /**
+     * Filter chain microbenchmark, run with -Dbenchmark=true. Compares the old filter (key
+     * rebuilt and token parsed twice per request, user loaded, Ant pattern stream) with the
+     * claims path and the cached path.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkFilterChain() throws Exception {
+        String token = token();
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenAuthenticator", tokenAuthenticator);
+        List<String> publicPaths = List.of("/api/users/register", "/api/users/register/", "/api/users/login",
+                "/api/users/login/", "/api/spotify/login", "/api/spotify/callback", "/api/spotify/refresh_token",
+                "/api/spotify/lyrics", "/api/spotify/debug/**", "/ws/**", "/api/avatars/**", "/actuator/health",
+                "/actuator/prometheus", "/error");
+        AntPathMatcher pathMatcher = new AntPathMatcher();
+
+        Runnable legacy = () -> {
+            String path = "/api/tables/lobby";
+            if (publicPaths.stream().anyMatch(publicPath -> pathMatcher.match(publicPath, path))) {
+                return;
+            }
+            SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+            String username = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+            userDetailsService.loadUserByUsername(username);
+        };
+        Runnable filtered = () -> runFilter(filter, token);
+
+        System.out.printf("legacy filter: %d ns/op%n", measure(legacy));
+        // A cache of size zero never keeps a token, so every request verifies the signature
+        ReflectionTestUtils.setField(tokenAuthenticator, "maxCachedTokens", 0);
+        System.out.printf("claims path:   %d ns/op%n", measure(filtered));
+        ReflectionTestUtils.setField(tokenAuthenticator, "maxCachedTokens", 100);
+        System.out.printf("cached path:   %d ns/op%n", measure(filtered));
+    }
+
+    private String token() {
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(alice, null, alice.getAuthorities()));
+    }
+
+    private void runFilter(JwtAuthenticationFilter filter, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tables/lobby");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (IOException | ServletException e) {
+            throw new IllegalStateException(e);
+        }
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private long measure(Runnable operation) {
+        int warmup = 20_000;
+        int iterations = 100_000;
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
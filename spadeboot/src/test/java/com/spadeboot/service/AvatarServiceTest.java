@@ -0,0 +1,66 @@
+package com.spadeboot.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvatarServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void store_rendersSquareThumbnailsUnderContentHash() throws IOException {
+        AvatarService avatarService = new AvatarService(directory.toString());
+        byte[] upload = jpeg(1000, 700);
+
+        String hash = avatarService.store(upload);
+
+        assertEquals(hash, avatarService.store(upload));
+        for (int size : AvatarService.SIZES) {
+            BufferedImage thumbnail = ImageIO.read(avatarService.getFile(hash, size).toFile());
+            assertEquals(size, thumbnail.getWidth());
+            assertEquals(size, thumbnail.getHeight());
+        }
+        // Sizes in between are served from the next larger thumbnail
+        assertTrue(avatarService.getFile(hash, 100).toString().endsWith("-128.png"));
+    }
+
+    @Test
+    void store_rejectsNonImages() {
+        AvatarService avatarService = new AvatarService(directory.toString());
+
+        assertThrows(IllegalStateException.class, () -> avatarService.store(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void store_rejectsImagesOverThePixelBudgetBeforeDecoding() throws IOException {
+        AvatarService avatarService = new AvatarService(directory.toString());
+        // Under a KB on disk, each side well within what a limit per dimension would allow
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4096, 1025, BufferedImage.TYPE_BYTE_BINARY), "png", out);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> avatarService.store(out.toByteArray()));
+        assertEquals("Avatar image dimensions are too large", e.getMessage());
+    }
+
+    @Test
+    void getFile_rejectsMalformedHashes() {
+        AvatarService avatarService = new AvatarService(directory.toString());
+
+        assertNull(avatarService.getFile("../../etc/passwd", 64));
+    }
+
+    private byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,186 @@
+package com.spadeboot.service;
+
+import com.spadeboot.domain.game.PokerTable;
+import com.spadeboot.domain.ledger.LedgerEntryType;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.PlayerStatus;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.repository.PlayerRepository;
+import com.spadeboot.repository.TableRepository;
+import com.spadeboot.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of parallel joins and balance adjustments at the real services and checks
+ * that no balance is overdrawn, no player is seated twice, no table is overfilled and the
+ * ledger still balances. Every call runs in its own transaction, like a request would.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:balance-concurrency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TableService.class, LedgerService.class})
+class BalanceConcurrencyTest {
+
+    private static final int TABLES = 20;
+    private static final int SEATS_PER_TABLE = 10;
+    private static final int USERS = 200;
+    private static final int STARTING_BALANCE = 1000;
+    private static final int BUY_IN = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @MockitoBean
+    private LobbyService lobbyService;
+
+    @MockitoBean
+    private ChipStackService chipStackService;
+
+    @Test
+    void parallelJoins_neverOverdrawSeatTwiceOrOverfill() throws InterruptedException {
+        Player owner = createPlayer("owner");
+        List<Long> tableIds = new ArrayList<>();
+        for (int t = 0; t < TABLES; t++) {
+            tableIds.add(createTable("table" + t, owner));
+        }
+        List<Long> userIds = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            userIds.add(createPlayer("joiner" + u).getUserId());
+        }
+
+        // Each user tries every table at once; the balance would cover three buy-ins
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (Long userId : userIds) {
+            for (Long tableId : tableIds) {
+                executor.execute(() -> {
+                    try {
+                        tableService.joinTable(tableId, userId, BUY_IN);
+                        joined.incrementAndGet();
+                    } catch (IllegalStateException | DataAccessException e) {
+                        rejected.incrementAndGet();
+                    }
+                });
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Joins did not finish in time");
+        long elapsedNanos = System.nanoTime() - start;
+
+        int attempts = USERS * TABLES;
+        assertEquals(attempts, joined.get() + rejected.get());
+        System.out.printf("%d joins in %d ms (%.0f joins/s), %d seated, %d rejected%n",
+                attempts, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                attempts / (elapsedNanos / 1e9), joined.get(), rejected.get());
+
+        int seated = 0;
+        for (Long userId : userIds) {
+            Player player = playerRepository.findWithUserByUserId(userId).orElseThrow();
+            int balance = player.getUser().getBalance();
+            boolean atTable = player.getCurrentTableId() != null;
+            seated += atTable ? 1 : 0;
+
+            assertTrue(balance >= 0, "Balance of user " + userId + " was overdrawn");
+            assertEquals(STARTING_BALANCE - (atTable ? BUY_IN : 0), balance, "Chips of user " + userId + " were not conserved");
+            assertEquals(balance - STARTING_BALANCE, ledgerService.getBalanceAt(userId, LocalDateTime.now()));
+        }
+        assertEquals(joined.get(), seated, "A user was seated more than once");
+
+        int seats = 0;
+        for (Long tableId : tableIds) {
+            int players = tableRepository.findWithSeatsById(tableId).orElseThrow().getPlayers().size();
+            assertTrue(players <= SEATS_PER_TABLE, "Table " + tableId + " was overfilled");
+            seats += players;
+        }
+        assertEquals(seated, seats);
+        assertTrue(ledgerService.findUnbalancedTransfers().isEmpty());
+    }
+
+    @Test
+    void parallelDebits_neverOverdraw() throws InterruptedException {
+        Long userId = createPlayer("debited").getUserId();
+        int debit = 100;
+        int attempts = 1000;
+
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < attempts; i++) {
+            executor.execute(() -> {
+                try {
+                    ledgerService.recordAdjustment(LedgerEntryType.ADMIN_ADJUST, userId, -debit);
+                    succeeded.incrementAndGet();
+                } catch (IllegalStateException | DataAccessException e) {
+                    // Insufficient balance or lock timeout, both leave the balance untouched
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Debits did not finish in time");
+
+        int balance = userRepository.findById(userId).orElseThrow().getBalance();
+        assertTrue(succeeded.get() <= STARTING_BALANCE / debit);
+        assertEquals(STARTING_BALANCE - succeeded.get() * debit, balance);
+        assertTrue(balance >= 0);
+        assertEquals(balance - STARTING_BALANCE, ledgerService.getBalanceAt(userId, LocalDateTime.now()));
+    }
+
+    private Player createPlayer(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setBalance(STARTING_BALANCE);
+        user = userRepository.save(user);
+
+        Player player = new Player();
+        player.setUser(user);
+        player.setStatus(PlayerStatus.SITTING_OUT);
+        return playerRepository.save(player);
+    }
+
+    private Long createTable(String name, Player owner) {
+        PokerTable table = new PokerTable();
+        table.setName(name);
+        table.setMaxPlayers(SEATS_PER_TABLE);
+        table.setMinBuyIn(100);
+        table.setMaxBuyIn(500);
+        table.setOwner(owner);
+        return tableRepository.save(table).getId();
+    }
+}
@@ -0,0 +1,154 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.FriendPresenceDto;
+import com.spadeboot.api.dto.response.FriendshipDto;
+import com.spadeboot.domain.user.FriendshipStatus;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.repository.UserRepository;
+import com.spadeboot.service.suggestion.SuggestionService;
+import com.spadeboot.session.SessionManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.Set;
+
+import static com.spadeboot.service.PresenceService.PRESENCE_QUEUE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives friendships through the service and checks that the in-memory friend graph and the
+ * presence pushes follow. Every call commits, so the after-commit listeners run as they would
+ * after a request.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:friends;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FriendService.class, FriendGraph.class, PresenceService.class, SuggestionService.class})
+class FriendServiceTest {
+
+    @Autowired
+    private FriendService friendService;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @MockitoBean
+    private SessionManager sessionManager;
+
+    @Test
+    void testAcceptAutoAcceptAndRemoveKeepTheGraphInStep() {
+        Long alice = createUser("alice");
+        Long bob = createUser("bob");
+        Long carol = createUser("carol");
+
+        // A request alone does not make friends
+        actAs(alice);
+        FriendshipDto request = friendService.sendFriendRequest("bob");
+        assertEquals(FriendshipStatus.PENDING, request.getStatus());
+        assertFalse(friendGraph.areFriends(alice, bob));
+
+        actAs(bob);
+        friendService.acceptFriendRequest(request.getId());
+        assertTrue(friendGraph.areFriends(alice, bob));
+        assertTrue(friendGraph.areFriends(bob, alice));
+
+        // Asking someone who asked first accepts their request
+        actAs(carol);
+        friendService.sendFriendRequest("alice");
+        actAs(alice);
+        assertEquals(FriendshipStatus.ACCEPTED, friendService.sendFriendRequest("carol").getStatus());
+        assertEquals(Set.of(bob, carol), friendGraph.friendsOf(alice));
+        assertEquals(Set.of(alice), friendGraph.friendsOf(carol));
+
+        friendService.removeFriend("bob");
+        assertFalse(friendGraph.areFriends(alice, bob));
+        assertFalse(friendGraph.areFriends(bob, alice));
+        assertEquals(Set.of(), friendGraph.friendsOf(bob));
+        assertEquals(Set.of(carol), friendGraph.friendsOf(alice));
+        assertThrows(IllegalStateException.class, () -> friendService.removeFriend("bob"));
+    }
+
+    @Test
+    void testPresenceIsPushedToOnlineFriends() {
+        Long dave = createUser("dave");
+        Long erin = createUser("erin");
+        Long frank = createUser("frank");
+        presenceService.connected(dave, "dave", "dave-1");
+        presenceService.connected(dave, "dave", "dave-2");
+        presenceService.connected(erin, "erin", "erin-1");
+
+        // New friends see each other right away, an offline one is not pushed to
+        actAs(dave);
+        friendService.sendFriendRequest("erin");
+        friendService.sendFriendRequest("frank");
+        actAs(erin);
+        friendService.sendFriendRequest("dave");
+        actAs(frank);
+        friendService.sendFriendRequest("dave");
+        verify(messagingTemplate).convertAndSendToUser(eq("erin"), eq(PRESENCE_QUEUE), argThat(presence(dave, true, null)));
+        verify(messagingTemplate).convertAndSendToUser(eq("dave"), eq(PRESENCE_QUEUE), argThat(presence(erin, true, null)));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("frank"), anyString(), any());
+
+        clearInvocations(messagingTemplate);
+        presenceService.enteredTable(dave, 7L);
+        verify(messagingTemplate).convertAndSendToUser(eq("erin"), eq(PRESENCE_QUEUE), argThat(presence(dave, true, 7L)));
+        assertEquals(7L, presenceService.getOnlineFriends(erin).get(0).getTableId());
+
+        presenceService.leftTable(dave, 7L);
+        verify(messagingTemplate).convertAndSendToUser(eq("erin"), eq(PRESENCE_QUEUE), argThat(presence(dave, true, null)));
+
+        // Online until the last of the sessions closes
+        clearInvocations(messagingTemplate);
+        presenceService.disconnected(dave, "dave-1");
+        assertTrue(presenceService.isOnline(dave));
+        verifyNoInteractions(messagingTemplate);
+
+        presenceService.disconnected(dave, "dave-2");
+        assertFalse(presenceService.isOnline(dave));
+        verify(messagingTemplate).convertAndSendToUser(eq("erin"), eq(PRESENCE_QUEUE), argThat(presence(dave, false, null)));
+        assertTrue(presenceService.getOnlineFriends(erin).isEmpty());
+    }
+
+    private static ArgumentMatcher<FriendPresenceDto> presence(Long userId, boolean online, Long tableId) {
+        return dto -> dto != null && userId.equals(dto.getUserId()) && dto.isOnline() == online
+                && Objects.equals(tableId, dto.getTableId());
+    }
+
+    private void actAs(Long userId) {
+        when(userService.getCurrentUserId()).thenReturn(userId);
+    }
+
+    private Long createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setBalance(0);
+        return userRepository.save(user).getId();
+    }
+}
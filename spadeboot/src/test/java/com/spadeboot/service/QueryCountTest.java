@@ -0,0 +1,175 @@
+package com.spadeboot.service;
+
+import com.spadeboot.api.dto.response.TableDto;
+import com.spadeboot.domain.game.PokerTable;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.PlayerStatus;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.repository.PlayerRepository;
+import com.spadeboot.repository.TableRepository;
+import com.spadeboot.repository.projection.LobbyTableView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the fetch plan of each use case by counting the SQL statements it sends, so that
+ * an N+1 regression fails the build. The table always has several seated players, which is
+ * what an N+1 would multiply.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@Import(TableService.class)
+class QueryCountTest {
+
+    private static final int SEATED_PLAYERS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @MockitoBean
+    private LobbyService lobbyService;
+
+    @MockitoBean
+    private ChipStackService chipStackService;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    private Statistics statistics;
+    private PokerTable table;
+    private List<Player> seatedPlayers;
+    private Player newcomer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        seatedPlayers = new ArrayList<>();
+        for (int i = 0; i < SEATED_PLAYERS; i++) {
+            seatedPlayers.add(persistPlayer("seated" + i));
+        }
+        newcomer = persistPlayer("newcomer");
+
+        table = new PokerTable();
+        table.setName("Query count table");
+        table.setMaxPlayers(SEATED_PLAYERS + 2);
+        table.setMinBuyIn(100);
+        table.setMaxBuyIn(500);
+        table.setOwner(seatedPlayers.get(0));
+        for (Player player : seatedPlayers) {
+            table.addPlayer(player, 200);
+        }
+        entityManager.persist(table);
+        for (Player player : seatedPlayers) {
+            player.setCurrentTableId(table.getId());
+        }
+
+        // Every use case starts from an empty persistence context
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void lobbyListing_usesOneStatement() {
+        List<LobbyTableView> rows = tableRepository.findAllLobbyRows();
+
+        assertEquals(1, rows.size());
+        assertEquals(SEATED_PLAYERS, rows.get(0).getSeatedPlayers());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void tableDetail_usesOneStatement() {
+        TableDto dto = tableService.getTableById(table.getId());
+
+        assertEquals(SEATED_PLAYERS, dto.getCurrentPlayers());
+        assertEquals(seatedPlayers.get(0).getUserId(), dto.getOwnerId());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void gameStart_loadsSeatedUsersInOneStatement() {
+        PokerTable loaded = tableRepository.findWithSeatedUsersById(table.getId()).orElseThrow();
+
+        // Read the usernames the game session prints and publishes
+        for (Player player : loaded.getPlayers()) {
+            assertNotNull(player.getUser().getUsername());
+        }
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void joinTable_doesNotScaleWithSeatedPlayers() {
+        TableDto dto = tableService.joinTable(table.getId(), newcomer.getUserId(), 200);
+        entityManager.flush();
+
+        assertEquals(SEATED_PLAYERS + 1, dto.getCurrentPlayers());
+        // Table with seats, player with user, then player, user and seat writes
+        assertStatementsAtMost(5);
+    }
+
+    @Test
+    void leaveTable_doesNotScaleWithSeatedPlayers() {
+        Player leaving = seatedPlayers.get(SEATED_PLAYERS - 1);
+
+        TableDto dto = tableService.leaveTable(table.getId(), leaving.getUserId());
+        entityManager.flush();
+
+        assertEquals(SEATED_PLAYERS - 1, dto.getCurrentPlayers());
+        assertStatementsAtMost(5);
+    }
+
+    @Test
+    void profile_loadsPlayerAndUserInOneStatement() {
+        Player player = playerRepository.findWithUserByUserId(newcomer.getUserId()).orElseThrow();
+
+        assertEquals("newcomer", player.getUser().getUsername());
+        assertStatementsAtMost(1);
+    }
+
+    private Player persistPlayer(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        entityManager.persist(user);
+
+        Player player = new Player();
+        player.setUser(user);
+        player.setStatus(PlayerStatus.SITTING_OUT);
+        return entityManager.persist(player);
+    }
+
+    private void assertStatementsAtMost(long max) {
+        long count = statistics.getPrepareStatementCount();
+        assertTrue(count <= max, "Expected at most " + max + " SQL statements but " + count + " were executed");
+    }
+}
@@ -0,0 +1,98 @@
+package com.spadeboot.service;
+
+import com.spadeboot.domain.user.PlayerStatistics;
+import com.spadeboot.repository.PlayerStatisticsRepository;
+import com.spadeboot.session.HandCompletedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Flushes run in their own transactions, like on the scheduler
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statistics;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(StatisticsService.class)
+class StatisticsServiceTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private PlayerStatisticsRepository statisticsRepository;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testHandsAreMergedAndInsertedOnFirstFlush() {
+        statisticsService.onHandCompleted(hand(result(1L, 20, 50), result(2L, 50, 0)));
+        statisticsService.onHandCompleted(hand(result(1L, 10, 0)));
+
+        assertEquals(2, statisticsService.flushPendingStatistics());
+        PlayerStatistics first = statisticsRepository.findById(1L).orElseThrow();
+        assertEquals(2, first.getHandsPlayed());
+        assertEquals(1, first.getHandsWon());
+        assertEquals(50 - 20 - 10, first.getNetChips());
+        assertEquals(-50, statisticsRepository.findById(2L).orElseThrow().getNetChips());
+
+        // The row exists now, later hands are added to it
+        statisticsService.onHandCompleted(hand(result(1L, 10, 30)));
+        assertEquals(1, statisticsService.flushPendingStatistics());
+        assertEquals(0, statisticsService.flushPendingStatistics());
+        first = statisticsRepository.findById(1L).orElseThrow();
+        assertEquals(3, first.getHandsPlayed());
+        assertEquals(2, first.getHandsWon());
+        assertEquals(50 - 20 - 10 + 30 - 10, first.getNetChips());
+    }
+
+    @Test
+    void testFailedFlushIsMergedIntoTheNextOne() {
+        statisticsService.onHandCompleted(hand(result(3L, 20, 0)));
+        doThrow(new DataAccessResourceFailureException("Connection lost")).doCallRealMethod().when(jdbcTemplate)
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> statisticsService.flushPendingStatistics());
+        assertTrue(statisticsRepository.findById(3L).isEmpty());
+
+        // A hand completing meanwhile is merged with the batch that was put back
+        statisticsService.onHandCompleted(hand(result(3L, 10, 40)));
+        assertEquals(2, statisticsService.getUserStatistics(3L).getHandsPlayed());
+
+        assertEquals(1, statisticsService.flushPendingStatistics());
+        PlayerStatistics statistics = statisticsRepository.findById(3L).orElseThrow();
+        assertEquals(2, statistics.getHandsPlayed());
+        assertEquals(40 - 20 - 10, statistics.getNetChips());
+    }
+
+    private static HandCompletedEvent hand(HandCompletedEvent.PlayerResult... results) {
+        return new HandCompletedEvent(1L, 1, List.of(results));
+    }
+
+    private static HandCompletedEvent.PlayerResult result(Long userId, int contributed, int won) {
+        HandCompletedEvent.PlayerResult result = new HandCompletedEvent.PlayerResult();
+        result.setUserId(userId);
+        result.setAmountContributed(contributed);
+        result.setAmountWon(won);
+        result.setWonHand(won > 0);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.spadeboot.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void testMatchesSortedSetUnderRandomUpdates() {
+        // Given
+        Random random = new Random(42);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+        TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                tree.remove(value);
+                expected.remove(value);
+            } else {
+                tree.add(value);
+                expected.add(value);
+            }
+        }
+
+        // Then
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertEquals(sorted.size(), tree.size());
+        assertEquals(sorted, tree.range(0, sorted.size()));
+        for (int i = 0; i < sorted.size(); i += 37) {
+            assertEquals(sorted.get(i), tree.select(i));
+            assertEquals(i, tree.rank(sorted.get(i)));
+            assertTrue(tree.contains(sorted.get(i)));
+        }
+        assertEquals(sorted.subList(10, 25), tree.range(10, 15));
+    }
+
+    @Test
+    void testRangeBeyondSizeReturnsRemainingElements() {
+        // Given
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.add(3);
+        tree.add(1);
+        tree.add(2);
+
+        // When/Then
+        assertEquals(List.of(1, 2, 3), tree.range(0, 10));
+        assertEquals(List.of(3), tree.range(2, 10));
+        assertTrue(tree.range(5, 10).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(3));
+    }
+}
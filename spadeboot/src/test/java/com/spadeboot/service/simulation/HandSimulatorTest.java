@@ -0,0 +1,51 @@
+package com.spadeboot.service.simulation;
+
+import com.spadeboot.session.bot.BotStrategyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandSimulatorTest {
+
+    private static final SimulationSettings SETTINGS = new SimulationSettings(
+            20_000, 6, 1000, 20, List.of(BotStrategyType.RANDOM, BotStrategyType.TIGHT_AGGRESSIVE), 7);
+
+    @Test
+    void testResultsDoNotDependOnPoolSize() {
+        SimulationReport single = simulate(1);
+        SimulationReport parallel = simulate(4);
+
+        assertEquals(SETTINGS.hands(), single.hands());
+        assertEquals(single.hands(), parallel.hands());
+        assertEquals(single.averagePot(), parallel.averagePot());
+        assertEquals(single.endedByFolds(), parallel.endedByFolds());
+        assertEquals(single.winningHandTypes(), parallel.winningHandTypes());
+        assertEquals(single.netChipsByPosition(), parallel.netChipsByPosition());
+    }
+
+    @Test
+    void testEveryChipBetIsPaidOut() {
+        SimulationReport report = simulate(2);
+
+        long net = report.netChipsByPosition().stream().mapToLong(Long::longValue).sum();
+        assertEquals(0, report.chipsUnpaid());
+        assertEquals(0, net);
+        assertTrue(report.showdownRate() > 0);
+        assertTrue(report.endedByFolds().values().stream().mapToLong(Long::longValue).sum() > 0);
+    }
+
+    private static SimulationReport simulate(int workers) {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            long start = System.nanoTime();
+            SimulationStatistics statistics = pool.invoke(
+                    new SimulationTask(SETTINGS, 0, SimulationTask.chunks(SETTINGS)));
+            return SimulationReport.of(SETTINGS, workers, System.nanoTime() - start, statistics);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.spadeboot.service.suggestion;
+
+import com.spadeboot.domain.user.FriendshipChangedEvent;
+import com.spadeboot.service.FriendGraph;
+import com.spadeboot.session.HandCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionServiceTest {
+
+    private FriendGraph friendGraph;
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        friendGraph = new FriendGraph();
+        suggestionService = new SuggestionService();
+        ReflectionTestUtils.setField(suggestionService, "friendGraph", friendGraph);
+    }
+
+    @Test
+    void testRanksByMutualFriendsThenHandsTogether() {
+        // Given: 1 and 4 share friends 2 and 3, 1 and 5 share friend 2, 1 played with 6
+        befriend(1L, 2L);
+        befriend(1L, 3L);
+        befriend(4L, 2L);
+        befriend(4L, 3L);
+        befriend(5L, 2L);
+        playHand(1L, 6L);
+        playHand(1L, 6L);
+
+        // When
+        List<Suggestion> suggestions = suggestionService.getSuggestions(1L, 10);
+
+        // Then
+        assertEquals(List.of(4L, 5L, 6L), suggestions.stream().map(Suggestion::userId).toList());
+        assertEquals(2, suggestions.get(0).mutualFriends());
+        assertEquals(2, suggestions.get(2).handsTogether());
+    }
+
+    @Test
+    void testRefreshDropsNewFriendsAndAddsTheirFriends() {
+        // Given
+        befriend(1L, 2L);
+        befriend(2L, 3L);
+        befriend(3L, 4L);
+        assertEquals(List.of(3L), userIds(suggestionService.getSuggestions(1L, 10)));
+
+        // When
+        befriend(1L, 3L);
+        assertEquals(List.of(3L), userIds(suggestionService.getSuggestions(1L, 10)));
+        suggestionService.refreshDirtySuggestions();
+
+        // Then
+        assertEquals(List.of(4L), userIds(suggestionService.getSuggestions(1L, 10)));
+    }
+
+    @Test
+    void testKeepsOnlyTheMostFrequentCoPlayers() {
+        // Given: 1 played often with 2, then once each with many strangers
+        for (int i = 0; i < 5; i++) {
+            playHand(1L, 2L);
+        }
+        for (long stranger = 100; stranger < 100 + 10 * SuggestionService.MAX_CO_PLAYERS; stranger++) {
+            playHand(1L, stranger);
+        }
+
+        // When
+        Map<Long, Map<Long, Integer>> handsTogether = handsTogether();
+
+        // Then
+        assertTrue(handsTogether.get(1L).size() <= 2 * SuggestionService.MAX_CO_PLAYERS);
+        assertEquals(5, handsTogether.get(1L).get(2L));
+        assertEquals(List.of(2L), userIds(suggestionService.getSuggestions(1L, 1)));
+    }
+
+    @Test
+    void testIntersectionSize() {
+        assertEquals(2, SuggestionService.intersectionSize(new long[]{1, 3, 5, 7}, new long[]{2, 3, 7, 9}));
+        assertEquals(0, SuggestionService.intersectionSize(new long[]{}, new long[]{1}));
+    }
+
+    private void befriend(Long userId, Long friendId) {
+        // Graph first, the same order as after a commit
+        FriendshipChangedEvent event = new FriendshipChangedEvent(userId, friendId, true);
+        friendGraph.onFriendshipChanged(event);
+        suggestionService.onFriendshipChanged(event);
+    }
+
+    private void playHand(Long... userIds) {
+        List<HandCompletedEvent.PlayerResult> results = new ArrayList<>();
+        for (Long userId : userIds) {
+            HandCompletedEvent.PlayerResult result = new HandCompletedEvent.PlayerResult();
+            result.setUserId(userId);
+            results.add(result);
+        }
+        suggestionService.onHandCompleted(new HandCompletedEvent(1L, 1, results));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<Long, Integer>> handsTogether() {
+        return (Map<Long, Map<Long, Integer>>) ReflectionTestUtils.getField(suggestionService, "handsTogether");
+    }
+
+    private static List<Long> userIds(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::userId).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.spadeboot.session;
+
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.bot.BotFactory;
+import com.spadeboot.session.bot.BotPlayer;
+import com.spadeboot.session.bot.BotStrategyType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs pools of bots straight on the engine. A player dealt into two hands at once would
+ * have its stack written by both, so conserved chips are the check for clean reseating.
+ */
+class FastFoldPoolTest {
+
+    private static final int STACK = 1000;
+    private static final int BIG_BLIND = 20;
+
+    private final BotFactory botFactory = new BotFactory();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EngineMetrics metrics = new EngineMetrics(meterRegistry);
+
+    private final AtomicLong lastHandId = new AtomicLong();
+    private final AtomicInteger handsStarted = new AtomicInteger();
+    private final AtomicInteger handsEnded = new AtomicInteger();
+
+    private final FastFoldPool.HandRegistry registry = new FastFoldPool.HandRegistry() {
+        @Override
+        public Long nextHandId() {
+            return lastHandId.decrementAndGet();
+        }
+
+        @Override
+        public void handStarted(GameSession hand) {
+            handsStarted.incrementAndGet();
+        }
+
+        @Override
+        public void handEnded(GameSession hand) {
+            handsEnded.incrementAndGet();
+        }
+    };
+
+    @Test
+    void testFoldedPlayersAreReseatedWithoutCreatingChips() throws InterruptedException {
+        List<BotPlayer> bots = botFactory.createBots(60, STACK, BotStrategyType.RANDOM);
+        FastFoldPool pool = new FastFoldPool(1L, BIG_BLIND, 6, 50, registry, null, metrics);
+        pool.start();
+        bots.forEach(pool::join);
+
+        awaitTrue(() -> handsEnded.get() >= 300, 20);
+        pool.close();
+        awaitTrue(() -> pool.getHandsRunning() == 0, 10);
+
+        assertTrue(handsEnded.get() >= 300, "Only " + handsEnded.get() + " hands were played");
+        assertEquals(handsStarted.get(), handsEnded.get());
+        assertEquals(bots.size() * STACK, bots.stream().mapToInt(Player::getChips).sum());
+        assertTrue(meterRegistry.get("spade.fastfold.wait").timer().count() >= 2L * handsStarted.get());
+    }
+
+    @Test
+    void testShortHandedHandIsDealtAfterMaximumWait() throws InterruptedException {
+        FastFoldPool pool = new FastFoldPool(1L, BIG_BLIND, 6, 20, registry, null, metrics);
+        pool.start();
+        botFactory.createBots(3, STACK, BotStrategyType.TIGHT_AGGRESSIVE).forEach(pool::join);
+
+        awaitTrue(() -> handsStarted.get() > 0, 5);
+        pool.close();
+
+        assertTrue(handsStarted.get() > 0);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, long seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.spadeboot.session;
+
+import com.spadeboot.api.dto.GameStateDto;
+import com.spadeboot.api.dto.PlayerActionDto;
+import com.spadeboot.api.dto.PlayerStateDto;
+import com.spadeboot.domain.game.Game;
+import com.spadeboot.domain.game.StageType;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.exception.InvalidMoveException;
+import com.spadeboot.metrics.EngineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundSessionTest {
+
+    private static final int BIG_BLIND = 20;
+
+    @Test
+    void testRepeatedSubmitIsNeverTakenAsTheNextSeatsAction() throws InterruptedException {
+        List<Player> players = List.of(newPlayer(1), newPlayer(2), newPlayer(3));
+        Map<Integer, Player> seats = new HashMap<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            seats.put(seat, players.get(seat));
+        }
+        GameSession table = new GameSession(1L, players, BIG_BLIND, 0, null,
+                new EngineMetrics(new SimpleMeterRegistry()));
+        RoundSession round = new RoundSession(table, new Game(), players, seats, 1, 2, BIG_BLIND / 2, BIG_BLIND);
+        round.start();
+
+        try {
+            awaitTrue(() -> Long.valueOf(1).equals(round.getCurrentPlayerTurn()));
+            round.processPlayerAction(players.get(0), actionOf(PlayerActionDto.ActionType.CALL));
+            // A double click: rejected whether or not the round has handed the turn on yet
+            assertThrows(InvalidMoveException.class,
+                    () -> round.processPlayerAction(players.get(0), actionOf(PlayerActionDto.ActionType.FOLD)));
+
+            awaitTrue(() -> Long.valueOf(2).equals(round.getCurrentPlayerTurn()));
+            Thread.sleep(100);
+            assertEquals(2L, round.getCurrentPlayerTurn());
+            assertEquals(10 + 20 + 20, round.getPot());
+        } finally {
+            round.endRound();
+            round.join(5000);
+        }
+    }
+
+    @Test
+    void testHandResumedOnTheStandbyFinishesAsDealt() throws InterruptedException {
+        // The primary plays the hand to a bet on the flop, then fails
+        List<Object> primaryEvents = new CopyOnWriteArrayList<>();
+        List<Player> primaryPlayers = List.of(newPlayer(1), newPlayer(2), newPlayer(3));
+        GameSession primary = new GameSession(1L, primaryPlayers, BIG_BLIND, 0, primaryEvents::add,
+                new EngineMetrics(new SimpleMeterRegistry()));
+        primary.start();
+        GameStateDto beforeFailure;
+        try {
+            while (primary.getCurrentGameState().getCurrentStage() != StageType.FLOP) {
+                act(primary, primaryEvents, null);
+            }
+            act(primary, primaryEvents, 2 * BIG_BLIND);
+            beforeFailure = primary.getCurrentGameState();
+        } finally {
+            primary.abandon();
+            primary.join(5000);
+        }
+
+        // What the standby was streamed, through the wire format
+        byte[] checkpoint = eventsOf(primaryEvents, TableCheckpointEvent.class).get(0).getSnapshot();
+        HandInFlight dealt = eventsOf(primaryEvents, HandStartedEvent.class).get(0).getHand();
+        List<HandInFlight.Action> applied = eventsOf(primaryEvents, HandActionEvent.class).stream()
+                .map(HandActionEvent::getAction)
+                .toList();
+        assertEquals(4, applied.size());
+        HandInFlight hand = HandInFlight.read(ByteBuffer.wrap(dealt.withActions(applied).toBytes()));
+
+        // The standby loads the players again, their stacks in the database are not the hand's
+        List<Object> standbyEvents = new CopyOnWriteArrayList<>();
+        List<Player> standbyPlayers = List.of(newPlayer(1), newPlayer(2), newPlayer(3));
+        standbyPlayers.forEach(player -> player.setChips(500));
+        GameSession standby = new GameSession(1L, standbyPlayers, BIG_BLIND, 0, standbyEvents::add,
+                new EngineMetrics(new SimpleMeterRegistry()));
+        standby.restoreFrom(TableSnapshot.read(ByteBuffer.wrap(checkpoint)));
+        standby.resumeHand(hand);
+        standby.start();
+        try {
+            Long toAct = beforeFailure.getCurrentPlayerTurn();
+            awaitTrue(() -> toAct.equals(standby.getCurrentGameState().getCurrentPlayerTurn()));
+            GameStateDto resumed = standby.getCurrentGameState();
+            assertEquals(hand.roundNumber(), resumed.getRoundNumber());
+            assertEquals(StageType.FLOP, resumed.getCurrentStage());
+            assertEquals(beforeFailure.getPot(), resumed.getPot());
+            assertEquals(beforeFailure.getCommunityCards(), resumed.getCommunityCards());
+            for (int seat = 0; seat < 3; seat++) {
+                PlayerStateDto before = beforeFailure.getPlayers().get(seat);
+                PlayerStateDto after = resumed.getPlayers().get(seat);
+                assertEquals(before.getHoleCards(), after.getHoleCards());
+                assertEquals(before.getChips(), after.getChips());
+                assertEquals(before.getCurrentBet(), after.getCurrentBet());
+            }
+            // The next standby gets the hand with the actions it had seen
+            assertEquals(applied, eventsOf(standbyEvents, HandStartedEvent.class).get(0).getHand().actions());
+
+            standby.stopAfterHand();
+            while (eventsOf(standbyEvents, HandCompletedEvent.class).isEmpty()) {
+                act(standby, standbyEvents, null);
+            }
+        } finally {
+            standby.endGame();
+            standby.join(5000);
+        }
+
+        HandCompletedEvent completed = eventsOf(standbyEvents, HandCompletedEvent.class).get(0);
+        assertEquals(hand.roundNumber(), completed.getRoundNumber());
+        assertEquals(3, completed.getResults().size());
+        assertEquals(3000, standbyPlayers.stream().mapToInt(Player::getChips).sum());
+        assertEquals(3 * BIG_BLIND + 3 * (2 * BIG_BLIND), completed.getResults().stream()
+                .mapToInt(HandCompletedEvent.PlayerResult::getAmountContributed).sum());
+    }
+
+    /**
+     * Take the turn of the player to act, the raise if given or else a check or call, and wait
+     * until the round applied it
+     */
+    private static void act(GameSession table, List<Object> events, Integer raise) throws InterruptedException {
+        GameStateDto state = table.getCurrentGameState();
+        Long playerId = state.getCurrentPlayerTurn();
+        if (playerId == null) {
+            Thread.sleep(10);
+            return;
+        }
+        PlayerStateDto seat = state.getPlayers().stream()
+                .filter(player -> player.getPlayerId().equals(playerId))
+                .findFirst()
+                .orElseThrow();
+        PlayerActionDto action = actionOf(raise != null ? PlayerActionDto.ActionType.RAISE
+                : state.getCurrentBet() > seat.getCurrentBet() ? PlayerActionDto.ActionType.CALL
+                : PlayerActionDto.ActionType.CHECK);
+        action.setAmount(raise);
+
+        int applied = eventsOf(events, HandActionEvent.class).size();
+        table.processAction(table.findSeatedPlayer(playerId), action);
+        awaitTrue(() -> eventsOf(events, HandActionEvent.class).size() > applied);
+    }
+
+    private static <T> List<T> eventsOf(List<Object> events, Class<T> type) {
+        return events.stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    private static PlayerActionDto actionOf(PlayerActionDto.ActionType type) {
+        PlayerActionDto action = new PlayerActionDto();
+        action.setAction(type);
+        return action;
+    }
+
+    private static Player newPlayer(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("player" + id);
+
+        Player player = new Player();
+        player.setId(id);
+        player.setUser(user);
+        player.setChips(1000);
+        return player;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.spadeboot.session;
+
+import com.spadeboot.domain.user.FriendshipChangedEvent;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.exception.CapacityExceededException;
+import com.spadeboot.exception.GlobalExceptionHandler;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.service.FriendGraph;
+import com.spadeboot.service.PresenceService;
+import com.spadeboot.websocket.OutboundQueueInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Admission and load shedding of a node with room for one table and two seats
+ */
+class SessionManagerTest {
+
+    private static final long RETRY_AFTER_SECONDS = 15;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboundQueueInterceptor outboundQueue = mock(OutboundQueueInterceptor.class);
+    private SessionManager sessionManager;
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SessionManager();
+        ApplicationEventPublisher noEvents = event -> {
+        };
+        ReflectionTestUtils.setField(sessionManager, "applicationEventPublisher", noEvents);
+        ReflectionTestUtils.setField(sessionManager, "engineMetrics", new EngineMetrics(meterRegistry));
+        ReflectionTestUtils.setField(sessionManager, "outboundQueue", outboundQueue);
+        ReflectionTestUtils.setField(sessionManager, "maxTables", 1);
+        ReflectionTestUtils.setField(sessionManager, "maxSeats", 2);
+        ReflectionTestUtils.setField(sessionManager, "maxOutboundDepth", 4);
+        // Above any load the OS reports, only the outbound queues put the node under pressure here
+        ReflectionTestUtils.setField(sessionManager, "maxCpuLoad", 2.0);
+        ReflectionTestUtils.setField(sessionManager, "retryAfterSeconds", RETRY_AFTER_SECONDS);
+        ReflectionTestUtils.setField(sessionManager, "fastFoldHandSize", 6);
+        ReflectionTestUtils.setField(sessionManager, "fastFoldMaxWaitMillis", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionManager.removeFastFoldPool(1L);
+        sessionManager.removeFastFoldPool(3L);
+    }
+
+    @Test
+    void testFullNodeTurnsNewTablesAwayWithRetryAfter() {
+        sessionManager.createFastFoldPool(1L, 20);
+
+        CapacityExceededException e = assertThrows(CapacityExceededException.class,
+                () -> sessionManager.createGameSession(2L, List.of(newPlayer(1), newPlayer(2)), 20));
+        assertEquals(RETRY_AFTER_SECONDS, e.getRetryAfterSeconds());
+        assertNull(sessionManager.getGameSession(2L));
+        assertThrows(CapacityExceededException.class, () -> sessionManager.admitSeats(3));
+        assertEquals(1.0, rejected("tables"));
+        assertEquals(1.0, rejected("seats"));
+
+        ResponseEntity<?> response = new GlobalExceptionHandler().handleCapacityExceeded(e, mock(WebRequest.class));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(Long.toString(RETRY_AFTER_SECONDS), response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testPresenceUpdatesAreShedUnderPressure() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        FriendGraph friendGraph = new FriendGraph();
+        friendGraph.onFriendshipChanged(new FriendshipChangedEvent(1L, 2L, true));
+        PresenceService presenceService = new PresenceService();
+        ReflectionTestUtils.setField(presenceService, "friendGraph", friendGraph);
+        ReflectionTestUtils.setField(presenceService, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(presenceService, "sessionManager", sessionManager);
+        presenceService.connected(2L, "player2", "session-2");
+
+        // Keeping up, the friend is told
+        when(outboundQueue.maxTableDepth()).thenReturn(0);
+        presenceService.connected(1L, "player1", "session-1");
+        verify(messagingTemplate).convertAndSendToUser(eq("player2"), eq(PresenceService.PRESENCE_QUEUE), any());
+
+        // A table's frames back up: presence is still tracked, but nobody is pushed to
+        when(outboundQueue.maxTableDepth()).thenReturn(10);
+        resampleLoad();
+        clearInvocations(messagingTemplate);
+        presenceService.enteredTable(1L, 7L);
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(7L, presenceService.getOnlineFriends(2L).get(0).getTableId());
+        assertEquals(1.0, meterRegistry.get("spade.node.shed").tag("work", "presence_update").counter().count());
+
+        // Load turns new tables away too, with room for another one
+        assertThrows(CapacityExceededException.class, () -> sessionManager.createFastFoldPool(3L, 20));
+        assertEquals(1.0, rejected("outbound"));
+    }
+
+    // Load is sampled at most once a second
+    private void resampleLoad() {
+        ReflectionTestUtils.setField(sessionManager, "loadSampledAt", System.nanoTime() - TimeUnit.SECONDS.toNanos(2));
+    }
+
+    private double rejected(String pressure) {
+        return meterRegistry.get("spade.node.admission.rejected").tag("pressure", pressure).counter().count();
+    }
+
+    private static Player newPlayer(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("player" + id);
+
+        Player player = new Player();
+        player.setId(id);
+        player.setUser(user);
+        player.setChips(1000);
+        return player;
+    }
+}
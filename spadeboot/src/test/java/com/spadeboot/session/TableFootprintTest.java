@@ -0,0 +1,203 @@
+package com.spadeboot.session;
+
+import com.spadeboot.domain.game.Game;
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.domain.user.User;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.bot.BotFactory;
+import com.spadeboot.session.bot.BotStrategyType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Memory budgets of the engine, so nodes can be sized from numbers: retained heap per table,
+ * per seat and per hand in flight, measured as heap deltas after full collections, and
+ * allocation per action, measured on the thread playing the hands.
+ *
+ * Budgets are about twice the figures measured on JDK 17 with the default G1 heap, so a
+ * change that doubles any of them fails here. Starts hundreds of threads and forces full
+ * collections, so it only runs with -Dfootprint=true; budgets can be overridden with
+ * -Dfootprint.table, .seat, .hand and .action (bytes).
+ */
+@EnabledIfSystemProperty(named = "footprint", matches = "true")
+class TableFootprintTest {
+
+    private static final int TABLES = 300;
+    private static final int STACK = 1000;
+    private static final int BIG_BLIND = 20;
+
+    // Measured: 2.9 KB per 9-seat table, 140-165 bytes per seat
+    private static final long TABLE_BUDGET = Long.getLong("footprint.table", 6 * 1024);
+    private static final long SEAT_BUDGET = Long.getLong("footprint.seat", 384);
+    // Measured: 4.0-4.7 KB per 6-seat hand waiting for its first action
+    private static final long HAND_BUDGET = Long.getLong("footprint.hand", 10 * 1024);
+    // Measured: 2.8 KB per action of a 6-bot table
+    private static final long ACTION_BUDGET = Long.getLong("footprint.action", 6 * 1024);
+
+    private final EngineMetrics metrics = new EngineMetrics(new SimpleMeterRegistry());
+    private final AtomicLong lastId = new AtomicLong();
+
+    @Test
+    void testRetainedHeapPerTableAndSeat() {
+        // Players are loaded whether or not they play, only what the sessions add is counted
+        List<List<Player>> threeSeats = seatPlayers(3);
+        List<List<Player>> nineSeats = seatPlayers(9);
+
+        long baseline = usedHeapAfterGc();
+        List<GameSession> small = createTables(threeSeats);
+        long perSmallTable = (usedHeapAfterGc() - baseline) / TABLES;
+
+        baseline = usedHeapAfterGc();
+        List<GameSession> large = createTables(nineSeats);
+        long perLargeTable = (usedHeapAfterGc() - baseline) / TABLES;
+        long perSeat = (perLargeTable - perSmallTable) / 6;
+
+        // Still referenced, so none of the tables was collected before the last measurement
+        assertEquals(2 * TABLES, small.size() + large.size());
+        assertTrue(perLargeTable <= TABLE_BUDGET,
+                "A table retains " + perLargeTable + " bytes, the budget is " + TABLE_BUDGET);
+        assertTrue(perSeat <= SEAT_BUDGET, "A seat retains " + perSeat + " bytes, the budget is " + SEAT_BUDGET);
+    }
+
+    @Test
+    void testRetainedHeapPerHandInFlight() throws InterruptedException {
+        List<GameSession> tables = createTables(seatPlayers(6));
+
+        long idle = usedHeapAfterGc();
+        // Nobody acts, every hand waits for its first player
+        tables.forEach(Thread::start);
+        try {
+            awaitTrue(() -> tables.stream().allMatch(GameSession::hasActiveRound), 20);
+            assertTrue(tables.stream().allMatch(GameSession::hasActiveRound), "Not every table dealt a hand");
+            long perHand = (usedHeapAfterGc() - idle) / TABLES;
+
+            assertTrue(perHand <= HAND_BUDGET,
+                    "A hand in flight retains " + perHand + " bytes, the budget is " + HAND_BUDGET);
+        } finally {
+            for (GameSession table : tables) {
+                table.endGame();
+            }
+            for (GameSession table : tables) {
+                table.join(5000);
+            }
+        }
+    }
+
+    @Test
+    void testAllocationPerAction() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        AtomicLong actions = new AtomicLong();
+        List<Player> bots = new ArrayList<>(new BotFactory().createBots(6, STACK, BotStrategyType.TIGHT_AGGRESSIVE));
+        GameSession table = new GameSession(1L, bots, BIG_BLIND, 0, event -> {
+            if (event instanceof RoundActionEvent) {
+                actions.incrementAndGet();
+            }
+        }, metrics);
+
+        // Warmed up first, so the measurement sees compiled code and loaded classes
+        playHands(table, bots, 2000);
+        actions.set(0);
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        playHands(table, bots, 2000);
+        long perAction = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / actions.get();
+
+        assertTrue(perAction <= ACTION_BUDGET,
+                "An action allocates " + perAction + " bytes, the budget is " + ACTION_BUDGET);
+    }
+
+    /**
+     * Play hands on the calling thread rather than on a round thread of their own, so the
+     * allocation of every action is counted on this thread
+     */
+    private void playHands(GameSession table, List<Player> bots, int hands) {
+        Map<Integer, Player> seats = new HashMap<>();
+        for (int seat = 0; seat < bots.size(); seat++) {
+            seats.put(seat, bots.get(seat));
+        }
+
+        for (int hand = 0; hand < hands; hand++) {
+            bots.forEach(bot -> bot.setChips(STACK));
+            int dealer = hand % bots.size();
+            new RoundSession(table, new Game(), bots, seats, (dealer + 1) % bots.size(), (dealer + 2) % bots.size(),
+                    BIG_BLIND / 2, BIG_BLIND).run();
+        }
+    }
+
+    private List<GameSession> createTables(List<List<Player>> seatedPlayers) {
+        List<GameSession> tables = new ArrayList<>(seatedPlayers.size());
+        for (List<Player> players : seatedPlayers) {
+            tables.add(new GameSession(lastId.incrementAndGet(), players, BIG_BLIND, 0, null, metrics));
+        }
+        return tables;
+    }
+
+    private List<List<Player>> seatPlayers(int seats) {
+        List<List<Player>> tables = new ArrayList<>(TABLES);
+        for (int i = 0; i < TABLES; i++) {
+            List<Player> players = new ArrayList<>(seats);
+            for (int seat = 0; seat < seats; seat++) {
+                players.add(newPlayer());
+            }
+            tables.add(players);
+        }
+        return tables;
+    }
+
+    private Player newPlayer() {
+        long id = lastId.incrementAndGet();
+        User user = new User();
+        user.setId(id);
+        user.setUsername("player" + id);
+
+        Player player = new Player();
+        player.setId(id);
+        player.setUser(user);
+        player.setChips(STACK);
+        return player;
+    }
+
+    private static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        // Repeated until the heap stops shrinking, a single collection may leave garbage behind
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long now = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, long seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
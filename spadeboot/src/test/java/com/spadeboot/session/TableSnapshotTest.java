@@ -0,0 +1,31 @@
+package com.spadeboot.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableSnapshotTest {
+
+    @Test
+    void testSnapshotSurvivesTheBuffer() {
+        TableSnapshot snapshot = new TableSnapshot(7L, 20, 3000, 4, 112,
+                new long[]{11, 12, 13}, new int[]{980, 0, 2020}, new boolean[]{true, false, true});
+
+        ByteBuffer buffer = snapshot.toBuffer();
+        TableSnapshot read = TableSnapshot.read(buffer);
+
+        assertTrue(buffer.isDirect());
+        assertEquals(7L, read.tableId());
+        assertEquals(20, read.bigBlind());
+        assertEquals(3000L, read.handPauseMillis());
+        assertEquals(4, read.dealerPosition());
+        assertEquals(112, read.roundNumber());
+        assertArrayEquals(snapshot.playerIds(), read.playerIds());
+        assertArrayEquals(snapshot.chips(), read.chips());
+        assertArrayEquals(snapshot.connected(), read.connected());
+        // Reading leaves the buffer as it was, so it can be read again
+        assertEquals(buffer.capacity(), buffer.remaining());
+    }
+}
@@ -0,0 +1,116 @@
+package com.spadeboot.session.bot;
+
+import com.spadeboot.domain.user.Player;
+import com.spadeboot.metrics.EngineMetrics;
+import com.spadeboot.session.GameSession;
+import com.spadeboot.session.HandCompletedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays tables of bots only, straight on the engine without Spring or websockets. The long
+ * soak runs with -Dsoak=true, sized by soak.tables and soak.minutes.
+ */
+class BotSoakTest {
+
+    private static final int STACK = 1000;
+    private static final int BIG_BLIND = 20;
+
+    private final BotFactory botFactory = new BotFactory();
+    private final EngineMetrics metrics = new EngineMetrics(new SimpleMeterRegistry());
+
+    private final AtomicInteger handsCompleted = new AtomicInteger();
+    private final AtomicInteger inconsistentHands = new AtomicInteger();
+    private final AtomicLong seatsDealt = new AtomicLong();
+
+    @Test
+    void testBotTablePlaysHandsWithoutCreatingChips() throws InterruptedException {
+        List<Player> bots = new ArrayList<>(botFactory.createBots(3, STACK, BotStrategyType.RANDOM));
+        bots.addAll(botFactory.createBots(3, STACK, BotStrategyType.TIGHT_AGGRESSIVE));
+        GameSession session = startTable(1L, bots);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (handsCompleted.get() < 50 && session.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        session.endGame();
+        session.join(5000);
+
+        assertTrue(handsCompleted.get() > 0, "No hand was completed");
+        assertEquals(0, inconsistentHands.get());
+        assertTrue(totalChips(bots) <= bots.size() * STACK);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "soak", matches = "true")
+    void testSoak() throws InterruptedException {
+        int tables = Integer.getInteger("soak.tables", 100);
+        long minutes = Long.getLong("soak.minutes", 10);
+
+        List<GameSession> sessions = new ArrayList<>();
+        List<List<Player>> seats = new ArrayList<>();
+        for (int i = 0; i < tables; i++) {
+            BotStrategyType type = i % 2 == 0 ? BotStrategyType.RANDOM : BotStrategyType.TIGHT_AGGRESSIVE;
+            List<Player> bots = new ArrayList<>(botFactory.createBots(6, STACK, type));
+            seats.add(bots);
+            sessions.add(startTable((long) i + 1, bots));
+        }
+
+        long end = System.nanoTime() + TimeUnit.MINUTES.toNanos(minutes);
+        while (System.nanoTime() < end) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            System.out.printf("hands=%d seats dealt=%d live tables=%d%n", handsCompleted.get(), seatsDealt.get(),
+                    sessions.stream().filter(Thread::isAlive).count());
+        }
+        for (GameSession session : sessions) {
+            session.endGame();
+            session.join(5000);
+        }
+
+        assertTrue(handsCompleted.get() > 0);
+        assertEquals(0, inconsistentHands.get());
+        for (List<Player> bots : seats) {
+            assertTrue(totalChips(bots) <= bots.size() * STACK);
+        }
+    }
+
+    private GameSession startTable(Long tableId, List<Player> bots) {
+        GameSession session = new GameSession(tableId, bots, BIG_BLIND, 0, event -> {
+            if (event instanceof HandCompletedEvent hand) {
+                onHandCompleted(hand);
+            }
+        }, metrics);
+        session.start();
+        return session;
+    }
+
+    private void onHandCompleted(HandCompletedEvent event) {
+        int contributed = 0;
+        int won = 0;
+        boolean allBots = true;
+        for (HandCompletedEvent.PlayerResult result : event.getResults()) {
+            allBots &= result.isBot();
+            contributed += result.getAmountContributed();
+            won += result.getAmountWon();
+        }
+        // Runs on the game thread, which swallows failed assertions
+        if (won > contributed || !allBots) {
+            inconsistentHands.incrementAndGet();
+        }
+        seatsDealt.addAndGet(event.getResults().size());
+        handsCompleted.incrementAndGet();
+    }
+
+    private static int totalChips(List<Player> players) {
+        return players.stream().mapToInt(Player::getChips).sum();
+    }
+}